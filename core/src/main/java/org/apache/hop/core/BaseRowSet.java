@@ -38,6 +38,8 @@ abstract class BaseRowSet implements Comparable<IRowSet>, IRowSet {
   protected volatile String remoteHopServerName;
   private ReadWriteLock lock;
 
+  private volatile RowSetSignal rowSetSignal;
+
   public BaseRowSet() {
     // not done putting data into this IRowSet
     done = new AtomicBoolean(false);
@@ -132,6 +134,13 @@ abstract class BaseRowSet implements Comparable<IRowSet>, IRowSet {
   @Override
   public void setDone() {
     done.set(true);
+
+    // Wake up the reader so it sees we're done without waiting for a timeout
+    //
+    RowSetSignal signal = rowSetSignal;
+    if (signal != null) {
+      signal.signal();
+    }
   }
 
   /*
@@ -296,4 +305,14 @@ abstract class BaseRowSet implements Comparable<IRowSet>, IRowSet {
   public boolean isBlocking() {
     return false;
   }
+
+  @Override
+  public RowSetSignal getRowSetSignal() {
+    return rowSetSignal;
+  }
+
+  @Override
+  public void setRowSetSignal(RowSetSignal rowSetSignal) {
+    this.rowSetSignal = rowSetSignal;
+  }
 }
@@ -19,13 +19,21 @@ package org.apache.hop.core;
 
 import org.apache.hop.core.row.IRowMeta;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.concurrent.TimeUnit;
 
 /**
  * Contains a buffer of rows. Getting rows from the buffer or putting rows in the buffer is
  * synchronized to allow concurrent use of multiple Threads.
+ *
+ * <p>Waiting for rows or for room in the buffer is done with the locks and conditions of the
+ * underlying queue rather than with monitors. That way a transform running on a virtual thread
+ * releases its carrier thread while it waits.
  */
 public class BlockingRowSet extends BaseRowSet implements Comparable<IRowSet>, IRowSet {
   private BlockingQueue<Object[]> queArray;
@@ -70,13 +78,54 @@ public class BlockingRowSet extends BaseRowSet implements Comparable<IRowSet>, I
   public boolean putRowWait(IRowMeta rowMeta, Object[] rowData, long time, TimeUnit tu) {
     this.rowMeta = rowMeta;
     try {
-
+      if (time > 0 && ForkJoinTask.inForkJoinPool()) {
+        OfferBlocker blocker = new OfferBlocker(rowData, time, tu);
+        ForkJoinPool.managedBlock(blocker);
+        return blocker.added;
+      }
       return queArray.offer(rowData, time, tu);
     } catch (InterruptedException | NullPointerException e) {
       return false;
     }
   }
 
+  /**
+   * Waits for room for the first row only. The other rows are offered without waiting so that the
+   * producer gets control back as soon as the buffer is full.
+   */
+  @Override
+  public int putRows(IRowMeta rowMeta, List<Object[]> rows) {
+    if (rows.isEmpty() || !putRow(rowMeta, rows.get(0))) {
+      return 0;
+    }
+    int added = 1;
+    while (added < rows.size()) {
+      Object[] row = rows.get(added);
+      if (row == null || !queArray.offer(row)) {
+        break;
+      }
+      added++;
+    }
+    return added;
+  }
+
+  /** Drains the available rows from the queue with a single lock acquisition. */
+  @Override
+  public List<Object[]> getRows(int max) {
+    List<Object[]> rows = new ArrayList<>(Math.min(Math.max(max, 0), Const.ROWS_IN_ROWSET));
+    if (max <= 0) {
+      return rows;
+    }
+    Object[] row = getRow();
+    if (row != null) {
+      rows.add(row);
+      if (max > 1) {
+        queArray.drainTo(rows, max - 1);
+      }
+    }
+    return rows;
+  }
+
   // default getRow with wait time = 100ms
   //
   /*
@@ -109,6 +158,11 @@ public class BlockingRowSet extends BaseRowSet implements Comparable<IRowSet>, I
   public Object[] getRowWait(long timeout, TimeUnit tu) {
 
     try {
+      if (timeout > 0 && ForkJoinTask.inForkJoinPool()) {
+        PollBlocker blocker = new PollBlocker(timeout, tu);
+        ForkJoinPool.managedBlock(blocker);
+        return blocker.row;
+      }
       return queArray.poll(timeout, tu);
     } catch (InterruptedException e) {
       return null;
@@ -125,4 +179,66 @@ public class BlockingRowSet extends BaseRowSet implements Comparable<IRowSet>, I
     queArray.clear();
     done.set(false);
   }
+
+  /**
+   * Waits for room in the queue on behalf of a fork/join worker thread. Telling the pool that we're
+   * blocking allows it to start a spare worker, so that transforms scheduled on a pool can't
+   * deadlock waiting on each other.
+   */
+  private class OfferBlocker implements ForkJoinPool.ManagedBlocker {
+    private final Object[] rowData;
+    private final long time;
+    private final TimeUnit tu;
+    private boolean added;
+    private boolean waited;
+
+    OfferBlocker(Object[] rowData, long time, TimeUnit tu) {
+      this.rowData = rowData;
+      this.time = time;
+      this.tu = tu;
+    }
+
+    @Override
+    public boolean block() throws InterruptedException {
+      added = queArray.offer(rowData, time, tu);
+      waited = true;
+      return true;
+    }
+
+    @Override
+    public boolean isReleasable() {
+      if (!added && !waited) {
+        added = queArray.offer(rowData);
+      }
+      return added || waited;
+    }
+  }
+
+  /** Waits for a row on behalf of a fork/join worker thread, see {@link OfferBlocker}. */
+  private class PollBlocker implements ForkJoinPool.ManagedBlocker {
+    private final long timeout;
+    private final TimeUnit tu;
+    private Object[] row;
+    private boolean waited;
+
+    PollBlocker(long timeout, TimeUnit tu) {
+      this.timeout = timeout;
+      this.tu = tu;
+    }
+
+    @Override
+    public boolean block() throws InterruptedException {
+      row = queArray.poll(timeout, tu);
+      waited = true;
+      return true;
+    }
+
+    @Override
+    public boolean isReleasable() {
+      if (row == null && !waited) {
+        row = queArray.poll();
+      }
+      return row != null || waited;
+    }
+  }
 }
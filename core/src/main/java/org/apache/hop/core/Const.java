@@ -172,6 +172,45 @@ public class Const {
       description = "A comma separated list pointing to folders with JDBC drivers to add.")
   public static final String HOP_SHARED_JDBC_FOLDERS = "HOP_SHARED_JDBC_FOLDERS";
 
+  /** Set this variable to Y to lease the database connections from a pool shared by the process. */
+  @Variable(
+      value = "N",
+      description =
+          "Set this variable to 'Y' to lease database connections from a connection pool which is shared by all pipelines and workflows in the process instead of opening a new connection every time.")
+  public static final String HOP_SHARED_CONNECTION_POOL = "HOP_SHARED_CONNECTION_POOL";
+
+  /** The maximum number of open connections of a shared connection pool */
+  @Variable(
+      value = "20",
+      description =
+          "The maximum number of open connections per database connection in the shared connection pool.")
+  public static final String HOP_SHARED_CONNECTION_POOL_MAX_SIZE =
+      "HOP_SHARED_CONNECTION_POOL_MAX_SIZE";
+
+  /** The maximum time in milliseconds to wait for a connection of a shared connection pool */
+  @Variable(
+      value = "30000",
+      description =
+          "The maximum time in milliseconds to wait for a connection of the shared connection pool when all connections are in use.")
+  public static final String HOP_SHARED_CONNECTION_POOL_MAX_WAIT =
+      "HOP_SHARED_CONNECTION_POOL_MAX_WAIT";
+
+  /** The time in milliseconds after which an idle pooled connection is closed */
+  @Variable(
+      value = "300000",
+      description =
+          "The time in milliseconds after which an idle connection of the shared connection pool is closed.")
+  public static final String HOP_SHARED_CONNECTION_POOL_IDLE_TIMEOUT =
+      "HOP_SHARED_CONNECTION_POOL_IDLE_TIMEOUT";
+
+  /** The idle time in milliseconds after which a pooled connection is validated before use */
+  @Variable(
+      value = "30000",
+      description =
+          "The time in milliseconds a connection of the shared connection pool can be idle before it is validated again when it is leased.")
+  public static final String HOP_SHARED_CONNECTION_POOL_VALIDATION_INTERVAL =
+      "HOP_SHARED_CONNECTION_POOL_VALIDATION_INTERVAL";
+
   /** The operating system the hop platform runs on */
   @Variable(
       scope = VariableScope.SYSTEM,
@@ -19,6 +19,8 @@ package org.apache.hop.core;
 
 import org.apache.hop.core.row.IRowMeta;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 public interface IRowSet {
@@ -45,6 +47,32 @@ public interface IRowSet {
    */
   boolean putRowWait(IRowMeta rowMeta, Object[] rowData, long time, TimeUnit tu);
 
+  /**
+   * Offer a list of rows to this rowset. If the buffer is full, wait (block) for a small period of
+   * time for the first row, just like {@link #putRow(IRowMeta, Object[])}. The remaining rows are
+   * only added as long as there is room in the buffer.
+   *
+   * @param rowMeta The description of the row data
+   * @param rows the rows of data
+   * @return the number of rows, counted from the start of the list, that were added to the rowset.
+   */
+  default int putRows(IRowMeta rowMeta, List<Object[]> rows) {
+    int added = 0;
+    for (Object[] row : rows) {
+      boolean success;
+      if (added == 0) {
+        success = putRow(rowMeta, row);
+      } else {
+        success = putRowWait(rowMeta, row, 0, TimeUnit.MILLISECONDS);
+      }
+      if (!success) {
+        break;
+      }
+      added++;
+    }
+    return added;
+  }
+
   /**
    * Get a row from the input buffer, it blocks for a short period until a new row becomes
    * available. Otherwise, it returns null.
@@ -53,6 +81,30 @@ public interface IRowSet {
    */
   Object[] getRow();
 
+  /**
+   * Get a number of rows from the input buffer. It blocks for a short period until a first row
+   * becomes available, just like {@link #getRow()}. After that only the rows which are available
+   * immediately are added, up to the given maximum.
+   *
+   * @param max the maximum number of rows to return
+   * @return a list of rows, empty if no row is available.
+   */
+  default List<Object[]> getRows(int max) {
+    List<Object[]> rows = new ArrayList<>(Math.min(Math.max(max, 0), Const.ROWS_IN_ROWSET));
+    if (max <= 0) {
+      return rows;
+    }
+    Object[] row = getRow();
+    while (row != null) {
+      rows.add(row);
+      if (rows.size() >= max) {
+        break;
+      }
+      row = getRowWait(0, TimeUnit.MILLISECONDS);
+    }
+    return rows;
+  }
+
   /**
    * Get the first row in the list immediately.
    *
@@ -113,4 +165,21 @@ public interface IRowSet {
 
   /** Clear this rowset: remove all rows and remove the "done" flag. */
   void clear();
+
+  /**
+   * @return the signal to give to the reading transform when data arrives in this row set or null
+   *     if the reader isn't waiting for signals.
+   */
+  default RowSetSignal getRowSetSignal() {
+    return null;
+  }
+
+  /**
+   * Set the signal to give to the reading transform when data arrives in this row set.
+   *
+   * @param rowSetSignal the signal or null if the reader isn't waiting for signals
+   */
+  default void setRowSetSignal(RowSetSignal rowSetSignal) {
+    // Not supported by default, the reader falls back to its wait timeout
+  }
 }
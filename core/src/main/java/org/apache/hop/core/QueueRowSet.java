@@ -19,7 +19,9 @@ package org.apache.hop.core;
 
 import org.apache.hop.core.row.IRowMeta;
 
+import java.util.ArrayList;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -62,6 +64,23 @@ public class QueueRowSet extends BaseRowSet implements Comparable<IRowSet>, IRow
     return putRow(rowMeta, rowData);
   }
 
+  @Override
+  public int putRows(IRowMeta rowMeta, List<Object[]> rows) {
+    this.rowMeta = rowMeta;
+    buffer.addAll(rows);
+    return rows.size();
+  }
+
+  @Override
+  public List<Object[]> getRows(int max) {
+    int count = Math.min(Math.max(max, 0), buffer.size());
+    List<Object[]> rows = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      rows.add(buffer.pollFirst());
+    }
+    return rows;
+  }
+
   @Override
   public int size() {
     return buffer.size();
@@ -0,0 +1,62 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Wakes up the thread reading from one or more row sets as soon as one of them receives data or is
+ * marked as done. A single consumer thread waits on the signal, any number of producer threads can
+ * signal it.
+ *
+ * <p>Signalling is cheap when nobody is waiting: it's a single volatile read.
+ */
+public class RowSetSignal {
+
+  /** The consumer thread currently waiting for a signal, null if nobody is waiting. */
+  private volatile Thread waiter;
+
+  /** Wake up the waiting consumer, if there is one. */
+  public void signal() {
+    Thread thread = waiter;
+    if (thread != null) {
+      LockSupport.unpark(thread);
+    }
+  }
+
+  /**
+   * Wait until a producer signals, the timeout expires or the given condition is met. The
+   * condition is evaluated after the waiter is registered so no signal can get lost in between.
+   *
+   * @param timeout the maximum time to wait
+   * @param tu the unit of the timeout
+   * @param ready true if there's no need to wait, for example because a row set has data
+   */
+  public void await(long timeout, TimeUnit tu, BooleanSupplier ready) {
+    waiter = Thread.currentThread();
+    try {
+      if (!ready.getAsBoolean()) {
+        LockSupport.parkNanos(this, tu.toNanos(timeout));
+      }
+    } finally {
+      waiter = null;
+    }
+  }
+}
@@ -0,0 +1,268 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import org.apache.hop.core.row.IRowMeta;
+
+/**
+ * A lock-free row set for exactly one producer thread and exactly one consumer thread. Rows are
+ * kept in a ring buffer. The producer only ever moves the tail, the consumer only ever moves the
+ * head, so no locks are needed to hand over rows.
+ *
+ * <p>This row set is only safe to use when a single transform copy writes to it and a single
+ * transform copy reads from it. The pipeline takes care of that for 1:1 hops.
+ */
+public class SpscRowSet extends BaseRowSet implements Comparable<IRowSet>, IRowSet {
+
+  /** The number of busy spins before we start yielding the CPU while waiting. */
+  private static final int SPIN_TRIES = 100;
+
+  /** The number of yields before we start parking the thread while waiting. */
+  private static final int YIELD_TRIES = 100;
+
+  /** The maximum time we park the thread in between checks of the buffer. */
+  private static final long MAX_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+  private final Object[][] buffer;
+  private final int mask;
+  private final int capacity;
+
+  /** The position of the next row to read. Only written by the consumer. */
+  private final AtomicLong head;
+
+  /** The position of the next row to write. Only written by the producer. */
+  private final AtomicLong tail;
+
+  /** The last head value seen by the producer, saves reading the volatile head on every put */
+  private long cachedHead;
+
+  /** The last tail value seen by the consumer, saves reading the volatile tail on every get */
+  private long cachedTail;
+
+  private int timeoutPut;
+  private int timeoutGet;
+
+  /**
+   * Create a new lock-free single producer/single consumer row set.
+   *
+   * @param maxSize the maximum number of rows kept in this row set
+   */
+  public SpscRowSet(int maxSize) {
+    super();
+
+    capacity = Math.max(1, maxSize);
+    int bufferSize = Integer.highestOneBit(capacity);
+    if (bufferSize < capacity) {
+      bufferSize <<= 1;
+    }
+    buffer = new Object[bufferSize][];
+    mask = bufferSize - 1;
+
+    head = new AtomicLong(0L);
+    tail = new AtomicLong(0L);
+
+    timeoutGet =
+        Const.toInt(System.getProperty(Const.HOP_ROWSET_GET_TIMEOUT), Const.TIMEOUT_GET_MILLIS);
+    timeoutPut =
+        Const.toInt(System.getProperty(Const.HOP_ROWSET_PUT_TIMEOUT), Const.TIMEOUT_PUT_MILLIS);
+  }
+
+  @Override
+  public boolean putRow(IRowMeta rowMeta, Object[] rowData) {
+    return putRowWait(rowMeta, rowData, timeoutPut, TimeUnit.MILLISECONDS);
+  }
+
+  @Override
+  public boolean putRowWait(IRowMeta rowMeta, Object[] rowData, long time, TimeUnit tu) {
+    if (rowData == null) {
+      return false;
+    }
+    this.rowMeta = rowMeta;
+
+    long currentTail = tail.get();
+    if (currentTail - cachedHead >= capacity) {
+      cachedHead = head.get();
+      if (currentTail - cachedHead >= capacity) {
+        long deadline = System.nanoTime() + tu.toNanos(time);
+        int tries = 0;
+        while (currentTail - cachedHead >= capacity) {
+          if (!waitForOtherSide(tries++, deadline)) {
+            return false;
+          }
+          cachedHead = head.get();
+        }
+      }
+    }
+
+    buffer[(int) currentTail & mask] = rowData;
+
+    // Publish the row: the consumer sees the slot content once it sees the new tail.
+    //
+    tail.lazySet(currentTail + 1);
+    return true;
+  }
+
+  /** Waits for room for the first row, then publishes all rows that fit in one go. */
+  @Override
+  public int putRows(IRowMeta rowMeta, List<Object[]> rows) {
+    if (rows.isEmpty() || !putRow(rowMeta, rows.get(0))) {
+      return 0;
+    }
+    long currentTail = tail.get();
+    long free = capacity - (currentTail - cachedHead);
+    if (free < rows.size() - 1) {
+      cachedHead = head.get();
+      free = capacity - (currentTail - cachedHead);
+    }
+    int added = 1;
+    while (added < rows.size() && free > 0) {
+      Object[] row = rows.get(added);
+      if (row == null) {
+        break;
+      }
+      buffer[(int) currentTail++ & mask] = row;
+      free--;
+      added++;
+    }
+    tail.lazySet(currentTail);
+    return added;
+  }
+
+  @Override
+  public Object[] getRow() {
+    return getRowWait(timeoutGet, TimeUnit.MILLISECONDS);
+  }
+
+  @Override
+  public Object[] getRowImmediate() {
+    long currentHead = head.get();
+    if (currentHead >= cachedTail) {
+      cachedTail = tail.get();
+      if (currentHead >= cachedTail) {
+        return null;
+      }
+    }
+    return takeRow(currentHead);
+  }
+
+  @Override
+  public Object[] getRowWait(long timeout, TimeUnit tu) {
+    long currentHead = head.get();
+    if (currentHead >= cachedTail) {
+      cachedTail = tail.get();
+      if (currentHead >= cachedTail) {
+        long deadline = System.nanoTime() + tu.toNanos(timeout);
+        int tries = 0;
+        while (currentHead >= cachedTail) {
+          if (!waitForOtherSide(tries++, deadline)) {
+            return null;
+          }
+          cachedTail = tail.get();
+        }
+      }
+    }
+    return takeRow(currentHead);
+  }
+
+  /** Waits for the first row, then takes all available rows up to the maximum in one go. */
+  @Override
+  public List<Object[]> getRows(int max) {
+    List<Object[]> rows = new ArrayList<>(Math.min(Math.max(max, 0), capacity));
+    if (max <= 0) {
+      return rows;
+    }
+    Object[] row = getRow();
+    if (row == null) {
+      return rows;
+    }
+    rows.add(row);
+
+    long currentHead = head.get();
+    if (currentHead >= cachedTail) {
+      cachedTail = tail.get();
+    }
+    while (rows.size() < max && currentHead < cachedTail) {
+      int index = (int) currentHead++ & mask;
+      rows.add(buffer[index]);
+      buffer[index] = null; // prevent any hold-up to GC
+    }
+    head.lazySet(currentHead);
+    return rows;
+  }
+
+  private Object[] takeRow(long currentHead) {
+    int index = (int) currentHead & mask;
+    Object[] row = buffer[index];
+    buffer[index] = null; // prevent any hold-up to GC
+
+    // Hand the slot back to the producer
+    //
+    head.lazySet(currentHead + 1);
+    return row;
+  }
+
+  /**
+   * Back off while the other side catches up: first spin, then yield, then park for short periods.
+   *
+   * @param tries the number of times we already waited
+   * @param deadline the time (System.nanoTime()) after which we give up
+   * @return false if the deadline passed or the thread was interrupted
+   */
+  private static boolean waitForOtherSide(int tries, long deadline) {
+    if (tries < SPIN_TRIES) {
+      Thread.onSpinWait();
+      return true;
+    }
+    long remaining = deadline - System.nanoTime();
+    if (remaining <= 0 || Thread.currentThread().isInterrupted()) {
+      return false;
+    }
+    if (tries < SPIN_TRIES + YIELD_TRIES) {
+      Thread.yield();
+    } else {
+      LockSupport.parkNanos(Math.min(remaining, MAX_PARK_NANOS));
+    }
+    return true;
+  }
+
+  @Override
+  public int size() {
+    // Read the head first so that we never report a negative size
+    //
+    long currentHead = head.get();
+    long currentTail = tail.get();
+    return (int) Math.max(0L, currentTail - currentHead);
+  }
+
+  @Override
+  public void clear() {
+    for (int i = 0; i < buffer.length; i++) {
+      buffer[i] = null;
+    }
+    head.set(0L);
+    tail.set(0L);
+    cachedHead = 0L;
+    cachedTail = 0L;
+    done.set(false);
+  }
+}
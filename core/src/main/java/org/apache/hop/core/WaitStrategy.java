@@ -0,0 +1,43 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core;
+
+/** How a transform waits for rows to arrive on its input row sets. */
+public enum WaitStrategy {
+  /** Poll the input row sets with a timeout which grows up to the wait time */
+  Polling,
+  /** Spin, then yield, then park for a growing period up to the wait time */
+  Adaptive,
+  /** Park until a previous transform signals new rows, at most for the wait time */
+  Signal;
+
+  /**
+   * Look up a wait strategy by name.
+   *
+   * @param name the name of the strategy
+   * @return the strategy or Polling if the name is empty or unknown
+   */
+  public static WaitStrategy getStrategy(String name) {
+    for (WaitStrategy strategy : values()) {
+      if (strategy.name().equalsIgnoreCase(name)) {
+        return strategy;
+      }
+    }
+    return Polling;
+  }
+}
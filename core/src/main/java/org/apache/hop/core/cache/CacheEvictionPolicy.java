@@ -0,0 +1,71 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.hop.core.cache;
+
+import org.apache.hop.i18n.BaseMessages;
+import org.apache.hop.metadata.api.IEnumHasCodeAndDescription;
+
+/** The way a {@link LookupCache} picks the entries to remove once it's full. */
+public enum CacheEvictionPolicy implements IEnumHasCodeAndDescription {
+  /** Remove the entry which wasn't used for the longest time */
+  LRU(
+      "LRU",
+      BaseMessages.getString(CacheEvictionPolicy.class, "CacheEvictionPolicy.LRU.Description")),
+
+  /**
+   * Keep the entries which are used the most often. New entries go to a small LRU window first and
+   * only replace an older entry if they were used more often recently. This protects the cache
+   * against scans of keys which are only looked up once.
+   */
+  W_TINY_LFU(
+      "W-TinyLFU",
+      BaseMessages.getString(
+          CacheEvictionPolicy.class, "CacheEvictionPolicy.WTinyLFU.Description"));
+
+  private final String code;
+  private final String description;
+
+  CacheEvictionPolicy(String code, String description) {
+    this.code = code;
+    this.description = description;
+  }
+
+  @Override
+  public String getCode() {
+    return code;
+  }
+
+  @Override
+  public String getDescription() {
+    return description;
+  }
+
+  /**
+   * @param code the code to look for
+   * @return the policy with the given code or LRU if nothing matches
+   */
+  public static CacheEvictionPolicy lookupCode(String code) {
+    for (CacheEvictionPolicy policy : values()) {
+      if (policy.code.equalsIgnoreCase(code)) {
+        return policy;
+      }
+    }
+    return LRU;
+  }
+}
@@ -0,0 +1,499 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.hop.core.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongBiFunction;
+
+/**
+ * A cache of looked up values, bounded by a number of entries, an estimated memory size or both.
+ * Once the cache is full, entries are evicted according to a {@link CacheEvictionPolicy}:
+ *
+ * <ul>
+ *   <li>LRU: the least recently used entry goes.
+ *   <li>W-TinyLFU: new entries stay in a window of 1% of the cache. Entries leaving the window only
+ *       replace an entry of the main space if they were used more often recently, as estimated by a
+ *       {@link FrequencySketch}. The main space is split in a probation part and a protected part of
+ *       80% for entries which were used more than once.
+ * </ul>
+ *
+ * <p>The number of hits, misses and evictions are counted to see how much the cache helps. The
+ * cache is meant to be used by a single transform thread, only the counters and sizes can be read
+ * from another thread.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public class LookupCache<K, V> {
+
+  private static final int DETACHED = -1;
+  private static final int WINDOW = 0;
+  private static final int PROBATION = 1;
+  private static final int PROTECTED = 2;
+
+  /**
+   * A condition on the entries of the cache
+   *
+   * @param <E> the exception thrown when the condition can't be evaluated
+   */
+  @FunctionalInterface
+  public interface IMatcher<K, V, E extends Exception> {
+    boolean matches(K key, V value) throws E;
+  }
+
+  private static final class Node<K, V> {
+    private final K key;
+    private V value;
+    private long weight;
+    private int queue;
+    private Node<K, V> previous;
+    private Node<K, V> next;
+
+    private Node(K key, V value, long weight) {
+      this.key = key;
+      this.value = value;
+      this.weight = weight;
+    }
+  }
+
+  /** A doubly linked list of entries in order of use, the least recently used first */
+  private static final class AccessQueue<K, V> {
+    private Node<K, V> first;
+    private Node<K, V> last;
+    private long count;
+    private long weight;
+
+    private void add(Node<K, V> node) {
+      node.previous = last;
+      node.next = null;
+      if (last == null) {
+        first = node;
+      } else {
+        last.next = node;
+      }
+      last = node;
+      count++;
+      weight += node.weight;
+    }
+
+    private void remove(Node<K, V> node) {
+      if (node.previous == null) {
+        first = node.next;
+      } else {
+        node.previous.next = node.next;
+      }
+      if (node.next == null) {
+        last = node.previous;
+      } else {
+        node.next.previous = node.previous;
+      }
+      node.previous = null;
+      node.next = null;
+      count--;
+      weight -= node.weight;
+    }
+
+    private void moveToEnd(Node<K, V> node) {
+      if (node != last) {
+        remove(node);
+        add(node);
+      }
+    }
+
+    private void clear() {
+      first = null;
+      last = null;
+      count = 0;
+      weight = 0;
+    }
+  }
+
+  private final CacheEvictionPolicy policy;
+  private final long maxEntries;
+  private final long maxWeight;
+  private final ToLongBiFunction<K, V> weigher;
+  private final boolean bounded;
+
+  private final long windowMaxEntries;
+  private final long windowMaxWeight;
+  private final long mainMaxEntries;
+  private final long mainMaxWeight;
+  private final long protectedMaxEntries;
+  private final long protectedMaxWeight;
+
+  /** The entries in the order they were added */
+  private final Map<K, Node<K, V>> map;
+
+  private final AccessQueue<K, V> window;
+  private final AccessQueue<K, V> probation;
+  private final AccessQueue<K, V> protectedQueue;
+  private final FrequencySketch sketch;
+
+  private final LongAdder hits;
+  private final LongAdder misses;
+  private final LongAdder evictions;
+  private volatile long size;
+  private volatile long weight;
+
+  /**
+   * Create a new lookup cache
+   *
+   * @param policy the way to pick the entries to evict
+   * @param maxEntries the maximum number of entries, 0 or less for no limit
+   * @param maxWeight the maximum total weight of the entries, 0 or less for no limit
+   * @param weigher calculates the weight of an entry, typically the estimated memory size. Without
+   *     a weigher the entries don't weigh anything.
+   */
+  public LookupCache(
+      CacheEvictionPolicy policy,
+      long maxEntries,
+      long maxWeight,
+      ToLongBiFunction<K, V> weigher) {
+    this.policy = policy == null ? CacheEvictionPolicy.LRU : policy;
+    this.maxEntries = maxEntries > 0 ? maxEntries : Long.MAX_VALUE;
+    this.maxWeight = maxWeight > 0 && weigher != null ? maxWeight : Long.MAX_VALUE;
+    this.weigher = weigher;
+    this.bounded = this.maxEntries != Long.MAX_VALUE || this.maxWeight != Long.MAX_VALUE;
+
+    if (this.policy == CacheEvictionPolicy.W_TINY_LFU) {
+      windowMaxEntries = percentageOf(this.maxEntries, 1);
+      windowMaxWeight = percentageOf(this.maxWeight, 1);
+    } else {
+      // Everything lives in the window, which makes it a plain LRU list
+      windowMaxEntries = Long.MAX_VALUE;
+      windowMaxWeight = Long.MAX_VALUE;
+    }
+    mainMaxEntries = remainderOf(this.maxEntries, windowMaxEntries);
+    mainMaxWeight = remainderOf(this.maxWeight, windowMaxWeight);
+    protectedMaxEntries = percentageOf(mainMaxEntries, 80);
+    protectedMaxWeight = percentageOf(mainMaxWeight, 80);
+
+    map = new LinkedHashMap<>();
+    window = new AccessQueue<>();
+    probation = new AccessQueue<>();
+    protectedQueue = new AccessQueue<>();
+    if (bounded && this.policy == CacheEvictionPolicy.W_TINY_LFU) {
+      sketch = new FrequencySketch(this.maxEntries == Long.MAX_VALUE ? 1024 : this.maxEntries);
+    } else {
+      sketch = null;
+    }
+
+    hits = new LongAdder();
+    misses = new LongAdder();
+    evictions = new LongAdder();
+  }
+
+  /**
+   * Create a new lookup cache without a weight limit
+   *
+   * @param policy the way to pick the entries to evict
+   * @param maxEntries the maximum number of entries, 0 or less for no limit
+   */
+  public LookupCache(CacheEvictionPolicy policy, long maxEntries) {
+    this(policy, maxEntries, 0, null);
+  }
+
+  /**
+   * Look up the value of a key. This counts as a hit or a miss.
+   *
+   * @param key the key to look up
+   * @return the value or null if the key isn't in the cache
+   */
+  public V get(K key) {
+    if (sketch != null) {
+      sketch.increment(key.hashCode());
+    }
+    Node<K, V> node = map.get(key);
+    if (node == null) {
+      misses.increment();
+      return null;
+    }
+    hits.increment();
+    onAccess(node);
+    return node.value;
+  }
+
+  /**
+   * Look for the first entry, in the order the entries were added, which matches a condition. This
+   * counts as a hit or a miss.
+   *
+   * @param matcher the condition on the key and value
+   * @return the value of the first matching entry or null if there is none
+   * @throws E when the condition can't be evaluated
+   */
+  public <E extends Exception> V find(IMatcher<K, V, E> matcher) throws E {
+    for (Node<K, V> node : map.values()) {
+      if (matcher.matches(node.key, node.value)) {
+        hits.increment();
+        onAccess(node);
+        return node.value;
+      }
+    }
+    misses.increment();
+    return null;
+  }
+
+  /**
+   * See if a key is in the cache. Unlike {@link #get(Object)} this doesn't count as a use of the
+   * entry.
+   *
+   * @param key the key to look for
+   * @return true if the key is in the cache
+   */
+  public boolean containsKey(K key) {
+    return map.containsKey(key);
+  }
+
+  /**
+   * Add an entry to the cache or replace the value of an existing key. This can evict other
+   * entries.
+   *
+   * @param key the key
+   * @param value the value
+   */
+  public void put(K key, V value) {
+    long entryWeight = weigher == null ? 0 : weigher.applyAsLong(key, value);
+    Node<K, V> node = map.get(key);
+    if (node != null) {
+      AccessQueue<K, V> queue = queueOf(node);
+      queue.weight += entryWeight - node.weight;
+      node.value = value;
+      node.weight = entryWeight;
+      onAccess(node);
+    } else {
+      node = new Node<>(key, value, entryWeight);
+      node.queue = WINDOW;
+      map.put(key, node);
+      window.add(node);
+      if (sketch != null) {
+        sketch.increment(key.hashCode());
+        if (maxEntries == Long.MAX_VALUE) {
+          sketch.ensureCapacity(map.size());
+        }
+      }
+    }
+    evict();
+    updateSizes();
+  }
+
+  /** Remove all entries. The counters are kept. */
+  public void clear() {
+    map.clear();
+    window.clear();
+    probation.clear();
+    protectedQueue.clear();
+    updateSizes();
+  }
+
+  private void onAccess(Node<K, V> node) {
+    if (!bounded) {
+      return;
+    }
+    switch (node.queue) {
+      case WINDOW:
+        window.moveToEnd(node);
+        break;
+      case PROBATION:
+        // Used again: it's promoted to the protected space
+        probation.remove(node);
+        node.queue = PROTECTED;
+        protectedQueue.add(node);
+        demoteProtected();
+        break;
+      case PROTECTED:
+        protectedQueue.moveToEnd(node);
+        break;
+      default:
+        break;
+    }
+  }
+
+  private void evict() {
+    if (!bounded) {
+      return;
+    }
+    if (policy == CacheEvictionPolicy.W_TINY_LFU) {
+      while (window.first != null
+          && (window.count > windowMaxEntries || window.weight > windowMaxWeight)) {
+        Node<K, V> candidate = window.first;
+        window.remove(candidate);
+        candidate.queue = DETACHED;
+        admit(candidate);
+      }
+    }
+
+    // A single large entry can still be too much
+    //
+    while (map.size() > maxEntries || totalWeight() > maxWeight) {
+      Node<K, V> victim = probation.first;
+      if (victim == null) {
+        victim = protectedQueue.first;
+      }
+      if (victim == null) {
+        victim = window.first;
+      }
+      if (victim == null) {
+        break;
+      }
+      evict(victim);
+    }
+  }
+
+  /**
+   * An entry leaving the window enters the main space if there is room, or if it was used more
+   * often than the entries it would replace.
+   */
+  private void admit(Node<K, V> candidate) {
+    while (probation.count + protectedQueue.count + 1 > mainMaxEntries
+        || probation.weight + protectedQueue.weight + candidate.weight > mainMaxWeight) {
+      Node<K, V> victim = probation.first;
+      if (victim == null) {
+        victim = protectedQueue.first;
+      }
+      if (victim == null) {
+        break;
+      }
+      if (sketch.frequency(candidate.key.hashCode()) > sketch.frequency(victim.key.hashCode())) {
+        evict(victim);
+      } else {
+        evict(candidate);
+        return;
+      }
+    }
+    candidate.queue = PROBATION;
+    probation.add(candidate);
+  }
+
+  private void demoteProtected() {
+    while (protectedQueue.first != null
+        && (protectedQueue.count > protectedMaxEntries
+            || protectedQueue.weight > protectedMaxWeight)) {
+      Node<K, V> node = protectedQueue.first;
+      protectedQueue.remove(node);
+      node.queue = PROBATION;
+      probation.add(node);
+    }
+  }
+
+  private void evict(Node<K, V> node) {
+    AccessQueue<K, V> queue = queueOf(node);
+    if (queue != null) {
+      queue.remove(node);
+    }
+    node.queue = DETACHED;
+    map.remove(node.key);
+    evictions.increment();
+  }
+
+  private AccessQueue<K, V> queueOf(Node<K, V> node) {
+    switch (node.queue) {
+      case WINDOW:
+        return window;
+      case PROBATION:
+        return probation;
+      case PROTECTED:
+        return protectedQueue;
+      default:
+        return null;
+    }
+  }
+
+  private long totalWeight() {
+    return window.weight + probation.weight + protectedQueue.weight;
+  }
+
+  private void updateSizes() {
+    size = map.size();
+    weight = totalWeight();
+  }
+
+  private static long percentageOf(long limit, int percentage) {
+    if (limit == Long.MAX_VALUE) {
+      return Long.MAX_VALUE;
+    }
+    return Math.max(1, limit * percentage / 100);
+  }
+
+  private static long remainderOf(long limit, long part) {
+    if (limit == Long.MAX_VALUE) {
+      return Long.MAX_VALUE;
+    }
+    return Math.max(0, limit - part);
+  }
+
+  /**
+   * @return the number of entries in the cache
+   */
+  public long getSize() {
+    return size;
+  }
+
+  /**
+   * @return the total weight of the entries in the cache
+   */
+  public long getWeight() {
+    return weight;
+  }
+
+  /**
+   * @return the number of lookups which found a value
+   */
+  public long getHits() {
+    return hits.sum();
+  }
+
+  /**
+   * @return the number of lookups which didn't find a value
+   */
+  public long getMisses() {
+    return misses.sum();
+  }
+
+  /**
+   * @return the number of entries removed to make room for others
+   */
+  public long getEvictions() {
+    return evictions.sum();
+  }
+
+  /**
+   * Gets policy
+   *
+   * @return value of policy
+   */
+  public CacheEvictionPolicy getPolicy() {
+    return policy;
+  }
+
+  /**
+   * @return the maximum number of entries, Long.MAX_VALUE if there is no limit
+   */
+  public long getMaxEntries() {
+    return maxEntries;
+  }
+
+  /**
+   * @return the maximum total weight, Long.MAX_VALUE if there is no limit
+   */
+  public long getMaxWeight() {
+    return maxWeight;
+  }
+}
@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.hop.core.cache;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+/**
+ * A rough estimate of the heap memory taken by rows of data, good enough to put a bound on the
+ * memory of a cache. It assumes a 64-bit JVM with compressed object pointers.
+ */
+public class RowSizeEstimator {
+
+  private static final long OBJECT_HEADER = 16;
+  private static final long REFERENCE = 4;
+
+  private RowSizeEstimator() {}
+
+  /**
+   * @param row the row of data, can be null
+   * @return the estimated number of bytes taken by the row and its values
+   */
+  public static long estimateSize(Object[] row) {
+    if (row == null) {
+      return 0;
+    }
+    long size = align(OBJECT_HEADER + REFERENCE * row.length);
+    for (Object value : row) {
+      size += estimateSize(value);
+    }
+    return size;
+  }
+
+  /**
+   * @param value a value of a row, can be null
+   * @return the estimated number of bytes taken by the value
+   */
+  public static long estimateSize(Object value) {
+    if (value == null) {
+      return 0;
+    }
+    if (value instanceof String) {
+      // The String object plus the byte array, assuming 1 byte per character
+      return 24 + align(OBJECT_HEADER + ((String) value).length());
+    }
+    if (value instanceof byte[]) {
+      return align(OBJECT_HEADER + ((byte[]) value).length);
+    }
+    if (value instanceof Long || value instanceof Double || value instanceof Integer) {
+      return 16;
+    }
+    if (value instanceof Boolean) {
+      // The two instances are shared
+      return 0;
+    }
+    if (value instanceof Date) {
+      return 24;
+    }
+    if (value instanceof BigDecimal) {
+      BigDecimal bigDecimal = (BigDecimal) value;
+      return 40 + align(OBJECT_HEADER + bigDecimal.unscaledValue().bitLength() / 8 + 4);
+    }
+    if (value instanceof Object[]) {
+      return estimateSize((Object[]) value);
+    }
+    return 64;
+  }
+
+  private static long align(long size) {
+    return (size + 7) & ~7L;
+  }
+}
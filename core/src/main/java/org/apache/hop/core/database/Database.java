@@ -29,6 +29,8 @@ import org.apache.hop.core.IProgressMonitor;
 import org.apache.hop.core.Result;
 import org.apache.hop.core.RowMetaAndData;
 import org.apache.hop.core.database.map.DatabaseConnectionMap;
+import org.apache.hop.core.database.pool.ConnectionPool;
+import org.apache.hop.core.database.pool.ConnectionPoolManager;
 import org.apache.hop.core.encryption.Encr;
 import org.apache.hop.core.exception.HopDatabaseBatchException;
 import org.apache.hop.core.exception.HopDatabaseException;
@@ -47,7 +49,6 @@ import org.apache.hop.core.plugins.IPlugin;
 import org.apache.hop.core.plugins.PluginRegistry;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.core.row.IValueMeta;
-import org.apache.hop.core.row.RowDataUtil;
 import org.apache.hop.core.row.RowMeta;
 import org.apache.hop.core.row.value.ValueMetaBase;
 import org.apache.hop.core.row.value.ValueMetaBigNumber;
@@ -95,6 +96,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.TreeMap;
 
 /**
  * Database handles the process of connecting to, reading from, writing to and updating databases.
@@ -110,10 +112,17 @@ public class Database implements IVariables, ILoggingObject, AutoCloseable {
   private static final String DATA_SERVICES_PLUGIN_ID = "HopThin";
 
   private int rowlimit;
+  private int fetchSize;
   private int commitsize;
 
   private Connection connection;
 
+  /** Converts the rows of the last result set read with getRow() */
+  private ResultSetRowReader resultSetRowReader;
+
+  /** The shared pool the connection was leased from or null if it's not pooled */
+  private ConnectionPool connectionPool;
+
   private Statement selStmt;
   private PreparedStatement pstmt;
   private PreparedStatement prepStatementLookup;
@@ -251,6 +260,24 @@ public class Database implements IVariables, ILoggingObject, AutoCloseable {
     rowlimit = rows;
   }
 
+  /**
+   * @return the number of rows fetched from the database at once by queries, 0 for the default
+   */
+  public int getFetchSize() {
+    return fetchSize;
+  }
+
+  /**
+   * Set the number of rows to fetch from the database at once when reading the result of a query.
+   * This overrides the default fetch size, also for databases which otherwise keep the fetch size
+   * of the driver.
+   *
+   * @param fetchSize the fetch size or 0 for the default
+   */
+  public void setFetchSize(int fetchSize) {
+    this.fetchSize = fetchSize;
+  }
+
   /**
    * @return Returns the prepStatementInsert.
    */
@@ -340,8 +367,8 @@ public class Database implements IVariables, ILoggingObject, AutoCloseable {
    * Open the database connection. The algorithm is:
    *
    * <ol>
-   *   <li>If <code>databaseMeta.isUsingConnectionPool()</code>, then the connection's datasource is
-   *       looked up in the pool
+   *   <li>If the variable {@link Const#HOP_SHARED_CONNECTION_POOL} is set to Y, then the connection
+   *       is leased from the pool shared by the process, see {@link ConnectionPoolManager}
    *   <li>otherwise, the connection is established via {@linkplain DriverManager}
    * </ol>
    *
@@ -451,11 +478,8 @@ public class Database implements IVariables, ILoggingObject, AutoCloseable {
               url += ";instanceName=" + instance;
             }
           }
-          connection = DriverManager.getConnection(url, properties);
-        } else {
-          // Perhaps the username is in the URL or no username is required...
-          connection = DriverManager.getConnection(url, properties);
         }
+        // Otherwise perhaps the username is in the URL or no username is required...
       } else {
         if (!Utils.isEmpty(username)) {
           properties.put("user", username);
@@ -463,7 +487,11 @@ public class Database implements IVariables, ILoggingObject, AutoCloseable {
         if (!Utils.isEmpty(password)) {
           properties.put("password", password);
         }
+      }
 
+      if (isUsingSharedConnectionPool()) {
+        leaseSharedConnection(url, properties);
+      } else {
         connection = DriverManager.getConnection(url, properties);
       }
     } catch (Exception e) {
@@ -472,6 +500,51 @@ public class Database implements IVariables, ILoggingObject, AutoCloseable {
     }
   }
 
+  /**
+   * @return true if the connection is leased from the connection pool shared by the process
+   */
+  public boolean isUsingSharedConnectionPool() {
+    return "Y".equalsIgnoreCase(getVariable(Const.HOP_SHARED_CONNECTION_POOL));
+  }
+
+  /**
+   * Lease the connection from the shared pool of this database connection. There is a pool per
+   * connection name, resolved URL and connection properties, including the credentials.
+   *
+   * @param url the resolved URL
+   * @param properties the connection properties
+   * @throws HopDatabaseException in case no connection could be leased
+   */
+  private void leaseSharedConnection(String url, Properties properties)
+      throws HopDatabaseException {
+    Properties connectionProperties = new Properties();
+    connectionProperties.putAll(properties);
+    String key = databaseMeta.getName() + "|" + url + "|" + new TreeMap<>(connectionProperties);
+
+    ConnectionPool pool =
+        ConnectionPoolManager.getInstance()
+            .getPool(
+                key,
+                databaseMeta.getName(),
+                () -> {
+                  try {
+                    return DriverManager.getConnection(url, connectionProperties);
+                  } catch (SQLException e) {
+                    throw new HopDatabaseException("Error connecting to database", e);
+                  }
+                },
+                Const.toInt(getVariable(Const.HOP_SHARED_CONNECTION_POOL_MAX_SIZE), 20),
+                Const.toLong(getVariable(Const.HOP_SHARED_CONNECTION_POOL_MAX_WAIT), 30000L),
+                Const.toLong(getVariable(Const.HOP_SHARED_CONNECTION_POOL_IDLE_TIMEOUT), 300000L),
+                Const.toLong(
+                    getVariable(Const.HOP_SHARED_CONNECTION_POOL_VALIDATION_INTERVAL), 30000L));
+    connection = pool.lease();
+    connectionPool = pool;
+    if (log.isDetailed()) {
+      log.logDetailed("Leased a connection from the shared connection pool");
+    }
+  }
+
   /**
    * close() and disconnect() are the same.
    */
@@ -487,12 +560,27 @@ public class Database implements IVariables, ILoggingObject, AutoCloseable {
     }
     try {
       if (connection.isClosed()) {
+        if (connectionPool != null) {
+          // The pool still counts the connection as leased, it discards it when handed back
+          //
+          connectionPool.release(connection);
+          connectionPool = null;
+          connection = null;
+        }
         return; // Nothing to do...
       }
     } catch (SQLException ex) {
       // cannot do anything about this but log it
       log.logError("Error checking closing connection:" + Const.CR + ex.getMessage());
       log.logError(Const.getStackTracker(ex));
+      if (connectionPool != null) {
+        // The connection is broken: don't hand it to the next user of the pool
+        //
+        connectionPool.invalidate(connection);
+        connectionPool = null;
+        connection = null;
+        return;
+      }
     }
 
     if (pstmt != null) {
@@ -593,7 +681,14 @@ public class Database implements IVariables, ILoggingObject, AutoCloseable {
   public synchronized void closeConnectionOnly() throws HopDatabaseException {
     try {
       if (connection != null) {
-        connection.close();
+        if (connectionPool != null) {
+          // Hand the connection back to the shared pool instead of closing it
+          //
+          connectionPool.release(connection);
+          connectionPool = null;
+        } else {
+          connection.close();
+        }
         connection = null;
       }
 
@@ -1039,6 +1134,28 @@ public class Database implements IVariables, ILoggingObject, AutoCloseable {
     return getInsertStatement(null, tableName, fields);
   }
 
+  /**
+   * Start streaming rows into a table over the bulk load protocol of the database.
+   *
+   * @param schemaName the schema of the table
+   * @param tableName the table to load
+   * @param fields the columns to load and the layout of the rows
+   * @return the bulk loader or null if the columns can't be loaded with the bulk load protocol,
+   *     insert the rows instead
+   * @throws HopDatabaseException in case the database doesn't support bulk loading or the load
+   *     can't be started
+   * @see IDatabase#supportsBulkLoad()
+   */
+  public IBulkLoader createBulkLoader(String schemaName, String tableName, IRowMeta fields)
+      throws HopDatabaseException {
+    String schemaTable = databaseMeta.getQuotedSchemaTableCombination(this, schemaName, tableName);
+    String[] columns = new String[fields.size()];
+    for (int i = 0; i < fields.size(); i++) {
+      columns[i] = databaseMeta.quoteField(fields.getValueMeta(i).getName());
+    }
+    return databaseMeta.getIDatabase().createBulkLoader(connection, schemaTable, columns, fields);
+  }
+
   public String getInsertStatement(String schemaName, String tableName, IRowMeta fields) {
     StringBuilder ins = new StringBuilder(128);
 
@@ -1550,6 +1667,7 @@ public class Database implements IVariables, ILoggingObject, AutoCloseable {
 
           pstmt.setFetchDirection(fetchMode);
         }
+        applyFetchSize(pstmt);
 
         if (rowlimit > 0 && databaseMeta.supportsSetMaxRows()) {
           pstmt.setMaxRows(rowlimit);
@@ -1572,6 +1690,7 @@ public class Database implements IVariables, ILoggingObject, AutoCloseable {
           }
           selStmt.setFetchDirection(fetchMode);
         }
+        applyFetchSize(selStmt);
         if (rowlimit > 0 && databaseMeta.supportsSetMaxRows()) {
           selStmt.setMaxRows(rowlimit);
         }
@@ -1605,6 +1724,15 @@ public class Database implements IVariables, ILoggingObject, AutoCloseable {
             || (databaseMeta.isMySqlVariant() && databaseMeta.isStreamingResults()));
   }
 
+  /** Sets the fetch size of the statement if one was specified, except for MySQL streaming */
+  private void applyFetchSize(Statement statement) throws SQLException {
+    if (fetchSize > 0
+        && databaseMeta.isFetchSizeSupported()
+        && !(databaseMeta.isMySqlVariant() && databaseMeta.isStreamingResults())) {
+      statement.setFetchSize(fetchSize);
+    }
+  }
+
   public ResultSet openQuery(PreparedStatement ps, IRowMeta params, Object[] data)
       throws HopDatabaseException {
     ResultSet res;
@@ -1630,6 +1758,7 @@ public class Database implements IVariables, ILoggingObject, AutoCloseable {
 
         ps.setFetchDirection(ResultSet.FETCH_FORWARD);
       }
+      applyFetchSize(ps);
 
       if (rowlimit > 0 && databaseMeta.supportsSetMaxRows()) {
         ps.setMaxRows(rowlimit);
@@ -2446,20 +2575,16 @@ public class Database implements IVariables, ILoggingObject, AutoCloseable {
 
     try {
 
-      int nrcols = rowInfo.size();
-      Object[] data = RowDataUtil.allocateRowData(nrcols);
-
-      if (rs.next()) {
-        for (int i = 0; i < nrcols; i++) {
-          IValueMeta val = rowInfo.getValueMeta(i);
-
-          data[i] = databaseMeta.getValueFromResultSet(rs, val, i);
-        }
-      } else {
-        data = null;
+      if (!rs.next()) {
+        return null;
       }
 
-      return data;
+      // The column readers are chosen once for every layout of the rows read
+      //
+      if (resultSetRowReader == null || !resultSetRowReader.isReaderFor(rowInfo)) {
+        resultSetRowReader = new ResultSetRowReader(databaseMeta.getIDatabase(), rowInfo);
+      }
+      return resultSetRowReader.readRow(rs);
     } catch (Exception ex) {
       throw new HopDatabaseException("Couldn't get row from result set", ex);
     } finally {
@@ -0,0 +1,51 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.database;
+
+import org.apache.hop.core.exception.HopDatabaseException;
+
+/**
+ * Streams rows into a table over the bulk load protocol of a database, for example the COPY
+ * protocol of PostgreSQL, without intermediate files. A bulk loader is created with {@link
+ * Database#createBulkLoader(String, String, org.apache.hop.core.row.IRowMeta)} for databases which
+ * report {@link IDatabase#supportsBulkLoad()}.
+ *
+ * <p>The rows are loaded in the current transaction of the connection: commit after {@link
+ * #finish()} when auto-commit is disabled.
+ */
+public interface IBulkLoader {
+
+  /**
+   * Load a row
+   *
+   * @param row the values, as described by the row metadata the loader was created with
+   * @throws HopDatabaseException in case the row can't be converted or sent to the database
+   */
+  void addRow(Object[] row) throws HopDatabaseException;
+
+  /**
+   * Send the remaining rows and end the bulk load
+   *
+   * @return the number of rows loaded
+   * @throws HopDatabaseException in case the database rejected the rows
+   */
+  long finish() throws HopDatabaseException;
+
+  /** Abort the bulk load, nothing which was added is loaded */
+  void cancel();
+}
@@ -19,10 +19,12 @@ package org.apache.hop.core.database;
 
 import org.apache.hop.core.exception.HopDatabaseException;
 import org.apache.hop.core.exception.HopValueException;
+import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.core.row.IValueMeta;
 import org.apache.hop.core.variables.IVariables;
 import org.apache.hop.metadata.api.HopMetadataObject;
 
+import java.sql.Connection;
 import java.sql.DatabaseMetaData;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
@@ -950,6 +952,40 @@ public interface IDatabase extends Cloneable {
     return true;
   }
 
+  /**
+   * @return true if rows can be streamed into a table with {@link #createBulkLoader(Connection,
+   *     String, String[], IRowMeta)}
+   */
+  default boolean supportsBulkLoad() {
+    return false;
+  }
+
+  /**
+   * Start a bulk load of rows into a table over the native protocol of the database.
+   *
+   * @param connection the connection to load over
+   * @param schemaTable the quoted schema and table name
+   * @param columns the quoted names of the columns to load
+   * @param rowMeta the layout of the rows which are loaded, one value per column
+   * @return the bulk loader or null if the columns can't be loaded with the bulk load protocol,
+   *     insert the rows instead
+   * @throws HopDatabaseException in case the bulk load can't be started
+   */
+  default IBulkLoader createBulkLoader(
+      Connection connection, String schemaTable, String[] columns, IRowMeta rowMeta)
+      throws HopDatabaseException {
+    throw new HopDatabaseException(
+        "Bulk loading isn't supported for database type " + getPluginName());
+  }
+
+  /**
+   * @return the maximum number of parameters in a single statement or IN list, 0 if there is no
+   *     known limit
+   */
+  default int getMaxStatementParameters() {
+    return 0;
+  }
+
   /**
    * @return the unsupported message if database does not support standard table output transform
    */
@@ -0,0 +1,204 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.hop.core.database;
+
+import org.apache.hop.core.exception.HopDatabaseException;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.IValueMeta;
+import org.apache.hop.core.row.RowDataUtil;
+import org.apache.hop.core.row.value.ValueMetaBase;
+import org.apache.hop.core.row.value.ValueMetaTimestamp;
+
+import java.sql.Blob;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+
+/**
+ * Converts the rows of a result set to Hop rows with a reader per column which is chosen once per
+ * query. It gives the same values as {@link IValueMeta#getValueFromResultSet(IDatabase, ResultSet,
+ * int)} without switching on the data type and the database options for every value. For the
+ * numeric types wasNull() is only called when the value is zero.
+ *
+ * <p>Value types and databases which read values in their own way are left to their {@link
+ * IDatabase#getValueFromResultSet(ResultSet, IValueMeta, int)} implementation.
+ */
+public class ResultSetRowReader {
+
+  /** Reads the value of one column of the current row of a result set */
+  @FunctionalInterface
+  private interface IColumnReader {
+    Object read(ResultSet resultSet) throws SQLException, HopDatabaseException;
+  }
+
+  private final IRowMeta rowMeta;
+  private final IColumnReader[] readers;
+
+  /**
+   * @param iDatabase the database the result set comes from
+   * @param rowMeta the layout of the rows to read
+   */
+  public ResultSetRowReader(IDatabase iDatabase, IRowMeta rowMeta) {
+    this.rowMeta = rowMeta;
+    this.readers = new IColumnReader[rowMeta.size()];
+
+    boolean customDatabase = overrides(iDatabase.getClass(), BaseDatabaseMeta.class);
+    for (int i = 0; i < readers.length; i++) {
+      IValueMeta valueMeta = rowMeta.getValueMeta(i);
+      if (customDatabase) {
+        readers[i] = genericReader(iDatabase, valueMeta, i);
+      } else {
+        readers[i] = createReader(iDatabase, valueMeta, i);
+      }
+    }
+  }
+
+  /**
+   * Read the current row of the result set. The cursor isn't moved.
+   *
+   * @param resultSet the result set positioned on a row
+   * @return the row data
+   * @throws HopDatabaseException in case a value can't be read
+   */
+  public Object[] readRow(ResultSet resultSet) throws HopDatabaseException {
+    Object[] data = RowDataUtil.allocateRowData(readers.length);
+    int i = 0;
+    try {
+      for (; i < readers.length; i++) {
+        data[i] = readers[i].read(resultSet);
+      }
+      return data;
+    } catch (SQLException e) {
+      throw new HopDatabaseException(
+          "Unable to get value '"
+              + rowMeta.getValueMeta(i).toStringMeta()
+              + "' from database resultset, index "
+              + i,
+          e);
+    }
+  }
+
+  /**
+   * @return the layout of the rows this reader was created for
+   */
+  public IRowMeta getRowMeta() {
+    return rowMeta;
+  }
+
+  /**
+   * @param rowMeta the layout of the rows to read
+   * @return true if this reader was created for the given row layout and it wasn't changed since
+   */
+  public boolean isReaderFor(IRowMeta rowMeta) {
+    return this.rowMeta == rowMeta && readers.length == rowMeta.size();
+  }
+
+  private static IColumnReader createReader(IDatabase iDatabase, IValueMeta valueMeta, int index) {
+    int column = index + 1;
+
+    if (valueMeta.getClass() == ValueMetaTimestamp.class) {
+      return resultSet -> resultSet.getTimestamp(column);
+    }
+    if (!(valueMeta instanceof ValueMetaBase)
+        || overrides(valueMeta.getClass(), ValueMetaBase.class)) {
+      return genericReader(iDatabase, valueMeta, index);
+    }
+
+    switch (valueMeta.getType()) {
+      case IValueMeta.TYPE_BOOLEAN:
+        return resultSet -> {
+          boolean value = resultSet.getBoolean(column);
+          return !value && resultSet.wasNull() ? null : Boolean.valueOf(value);
+        };
+      case IValueMeta.TYPE_NUMBER:
+        return resultSet -> {
+          double value = resultSet.getDouble(column);
+          return value == 0.0 && resultSet.wasNull() ? null : Double.valueOf(value);
+        };
+      case IValueMeta.TYPE_INTEGER:
+        return resultSet -> {
+          long value = resultSet.getLong(column);
+          return value == 0L && resultSet.wasNull() ? null : Long.valueOf(value);
+        };
+      case IValueMeta.TYPE_BIGNUMBER:
+        return resultSet -> resultSet.getBigDecimal(column);
+      case IValueMeta.TYPE_STRING:
+        if (valueMeta.isStorageBinaryString()) {
+          return resultSet -> resultSet.getBytes(column);
+        }
+        return resultSet -> resultSet.getString(column);
+      case IValueMeta.TYPE_BINARY:
+        if (iDatabase.isSupportsGetBlob()) {
+          return resultSet -> {
+            Blob blob = resultSet.getBlob(column);
+            return blob == null ? null : blob.getBytes(1L, (int) blob.length());
+          };
+        }
+        return resultSet -> resultSet.getBytes(column);
+      case IValueMeta.TYPE_DATE:
+        if (valueMeta.getPrecision() != 1 && iDatabase.isSupportsTimeStampToDateConversion()) {
+          return resultSet -> resultSet.getTimestamp(column);
+        }
+        if (iDatabase.isNetezzaVariant()) {
+          // The IBM Netezza driver needs getTime() for time columns
+          //
+          return resultSet -> {
+            if (resultSet.getMetaData().getColumnType(column) == Types.TIME) {
+              return resultSet.getTime(column);
+            }
+            return resultSet.getDate(column);
+          };
+        }
+        return resultSet -> resultSet.getDate(column);
+      default:
+        // Same as the generic conversion: other types aren't read
+        //
+        return resultSet -> null;
+    }
+  }
+
+  private static IColumnReader genericReader(
+      IDatabase iDatabase, IValueMeta valueMeta, int index) {
+    return resultSet -> iDatabase.getValueFromResultSet(resultSet, valueMeta, index);
+  }
+
+  /**
+   * @return true if the class, or one of its parents below the base class, has its own
+   *     getValueFromResultSet() method
+   */
+  private static boolean overrides(Class<?> clazz, Class<?> baseClass) {
+    try {
+      Class<?> declaringClass;
+      if (baseClass == ValueMetaBase.class) {
+        declaringClass =
+            clazz
+                .getMethod("getValueFromResultSet", IDatabase.class, ResultSet.class, int.class)
+                .getDeclaringClass();
+      } else {
+        declaringClass =
+            clazz
+                .getMethod("getValueFromResultSet", ResultSet.class, IValueMeta.class, int.class)
+                .getDeclaringClass();
+      }
+      return declaringClass != baseClass;
+    } catch (NoSuchMethodException e) {
+      return true;
+    }
+  }
+}
@@ -0,0 +1,388 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.hop.core.database.pool;
+
+import org.apache.hop.core.exception.HopDatabaseException;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A pool of JDBC connections to one database with the same URL and credentials. Connections are
+ * leased and handed back when they're no longer used. At most the maximum number of connections is
+ * open at the same time, a lease waits for a connection to come back when they're all in use.
+ *
+ * <p>A connection which was idle for longer than the validation interval is checked with {@link
+ * Connection#isValid(int)} before it's leased again. Idle connections are closed after the idle
+ * timeout.
+ */
+public class ConnectionPool {
+
+  private static final int VALIDATION_TIMEOUT_SECONDS = 5;
+
+  private static class IdleConnection {
+    private final Connection connection;
+    private final long idleSince;
+
+    private IdleConnection(Connection connection, long idleSince) {
+      this.connection = connection;
+      this.idleSince = idleSince;
+    }
+  }
+
+  private final String name;
+  private final IConnectionFactory connectionFactory;
+  private final int maxSize;
+  private final long maxWaitMs;
+  private final long idleTimeoutMs;
+  private final long validationIntervalMs;
+
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition connectionReturned = lock.newCondition();
+
+  /** Most recently returned first: the oldest idle connections are the ones to time out */
+  private final Deque<IdleConnection> idleConnections = new ArrayDeque<>();
+
+  private int leased;
+  private int opening;
+  private boolean closed;
+
+  /** The transaction isolation of a new connection, restored when a connection is handed back */
+  private volatile int defaultTransactionIsolation = -1;
+
+  private long nrCreated;
+  private long nrClosed;
+  private long nrLeases;
+  private long nrWaits;
+  private long waitTimeMs;
+  private long nrTimeouts;
+  private long nrValidationFailures;
+
+  /**
+   * @param name the name of the pool, shown in the status
+   * @param connectionFactory opens new connections
+   * @param maxSize the maximum number of open connections
+   * @param maxWaitMs the maximum time to wait for a connection in milliseconds
+   * @param idleTimeoutMs the time after which an idle connection is closed in milliseconds
+   * @param validationIntervalMs the idle time after which a connection is validated before it's
+   *     leased in milliseconds
+   */
+  public ConnectionPool(
+      String name,
+      IConnectionFactory connectionFactory,
+      int maxSize,
+      long maxWaitMs,
+      long idleTimeoutMs,
+      long validationIntervalMs) {
+    this.name = name;
+    this.connectionFactory = connectionFactory;
+    this.maxSize = Math.max(1, maxSize);
+    this.maxWaitMs = maxWaitMs;
+    this.idleTimeoutMs = idleTimeoutMs;
+    this.validationIntervalMs = validationIntervalMs;
+  }
+
+  /**
+   * Lease a connection. An idle connection is reused if there is one, otherwise a new one is opened
+   * if the pool isn't full. If it is full this waits for a connection to be handed back.
+   *
+   * @return an open connection which has to be handed back with {@link #release(Connection)}
+   * @throws HopDatabaseException in case no connection became available in time or a new one
+   *     couldn't be opened
+   */
+  public Connection lease() throws HopDatabaseException {
+    long deadline = System.currentTimeMillis() + maxWaitMs;
+    boolean waited = false;
+    long waitStart = 0L;
+
+    while (true) {
+      IdleConnection idle = null;
+      lock.lock();
+      try {
+        if (closed) {
+          throw new HopDatabaseException("Connection pool '" + name + "' is closed");
+        }
+        if (!idleConnections.isEmpty()) {
+          idle = idleConnections.pollFirst();
+          leased++;
+        } else if (leased + opening < maxSize) {
+          opening++;
+        } else {
+          long remaining = deadline - System.currentTimeMillis();
+          if (remaining <= 0) {
+            nrTimeouts++;
+            throw new HopDatabaseException(
+                "Timeout waiting for a connection of pool '"
+                    + name
+                    + "', all "
+                    + maxSize
+                    + " connections are in use");
+          }
+          if (!waited) {
+            waited = true;
+            waitStart = System.currentTimeMillis();
+            nrWaits++;
+          }
+          connectionReturned.await(remaining, TimeUnit.MILLISECONDS);
+          continue;
+        }
+        if (waited) {
+          waitTimeMs += System.currentTimeMillis() - waitStart;
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new HopDatabaseException(
+            "Interrupted waiting for a connection of pool '" + name + "'", e);
+      } finally {
+        lock.unlock();
+      }
+
+      if (idle != null) {
+        if (isUsable(idle)) {
+          countLease();
+          return idle.connection;
+        }
+        // Try again with the next idle connection or a new one
+        discard(idle.connection);
+        continue;
+      }
+      return openConnection();
+    }
+  }
+
+  /**
+   * Hand back a leased connection. A connection which is closed or can't be reset is discarded.
+   *
+   * @param connection the leased connection
+   */
+  public void release(Connection connection) {
+    boolean reusable = reset(connection);
+    lock.lock();
+    try {
+      if (reusable && !closed) {
+        leased--;
+        idleConnections.addFirst(new IdleConnection(connection, System.currentTimeMillis()));
+        connectionReturned.signal();
+        return;
+      }
+    } finally {
+      lock.unlock();
+    }
+    discard(connection);
+  }
+
+  /**
+   * Hand back a leased connection which shouldn't be used again, for example after a connection
+   * error.
+   *
+   * @param connection the leased connection
+   */
+  public void invalidate(Connection connection) {
+    discard(connection);
+  }
+
+  /** Close the connections which were idle for longer than the idle timeout. */
+  public void evictIdleConnections() {
+    long now = System.currentTimeMillis();
+    Deque<Connection> expired = new ArrayDeque<>();
+    lock.lock();
+    try {
+      Iterator<IdleConnection> iterator = idleConnections.descendingIterator();
+      while (iterator.hasNext()) {
+        IdleConnection idle = iterator.next();
+        if (now - idle.idleSince < idleTimeoutMs) {
+          break;
+        }
+        iterator.remove();
+        expired.add(idle.connection);
+      }
+    } finally {
+      lock.unlock();
+    }
+    for (Connection connection : expired) {
+      closeQuietly(connection);
+    }
+  }
+
+  /**
+   * Close the idle connections and stop leasing. Leased connections are closed when they're handed
+   * back.
+   */
+  public void close() {
+    Deque<IdleConnection> toClose;
+    lock.lock();
+    try {
+      closed = true;
+      toClose = new ArrayDeque<>(idleConnections);
+      idleConnections.clear();
+      connectionReturned.signalAll();
+    } finally {
+      lock.unlock();
+    }
+    for (IdleConnection idle : toClose) {
+      closeQuietly(idle.connection);
+    }
+  }
+
+  /**
+   * @return a snapshot of the state and counters of the pool
+   */
+  public ConnectionPoolStatus getStatus() {
+    lock.lock();
+    try {
+      ConnectionPoolStatus status = new ConnectionPoolStatus(name);
+      status.setMaxSize(maxSize);
+      status.setLeased(leased);
+      status.setIdle(idleConnections.size());
+      status.setCreated(nrCreated);
+      status.setClosed(nrClosed);
+      status.setLeases(nrLeases);
+      status.setWaits(nrWaits);
+      status.setWaitTimeMs(waitTimeMs);
+      status.setTimeouts(nrTimeouts);
+      status.setValidationFailures(nrValidationFailures);
+      return status;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  private Connection openConnection() throws HopDatabaseException {
+    Connection connection;
+    try {
+      connection = connectionFactory.createConnection();
+    } catch (HopDatabaseException | RuntimeException e) {
+      lock.lock();
+      try {
+        opening--;
+        connectionReturned.signal();
+      } finally {
+        lock.unlock();
+      }
+      throw e;
+    }
+    if (defaultTransactionIsolation < 0) {
+      try {
+        defaultTransactionIsolation = connection.getTransactionIsolation();
+      } catch (SQLException | RuntimeException e) {
+        // Not supported by the driver, the isolation isn't reset then
+      }
+    }
+    lock.lock();
+    try {
+      opening--;
+      leased++;
+      nrCreated++;
+      nrLeases++;
+    } finally {
+      lock.unlock();
+    }
+    return connection;
+  }
+
+  private void countLease() {
+    lock.lock();
+    try {
+      nrLeases++;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private boolean isUsable(IdleConnection idle) {
+    if (System.currentTimeMillis() - idle.idleSince < validationIntervalMs) {
+      return true;
+    }
+    boolean valid;
+    try {
+      valid = idle.connection.isValid(VALIDATION_TIMEOUT_SECONDS);
+    } catch (SQLException | RuntimeException e) {
+      valid = false;
+    }
+    if (!valid) {
+      lock.lock();
+      try {
+        nrValidationFailures++;
+      } finally {
+        lock.unlock();
+      }
+    }
+    return valid;
+  }
+
+  /** Undo what a user of the connection may have changed, the next one expects a clean session */
+  private boolean reset(Connection connection) {
+    try {
+      if (connection.isClosed()) {
+        return false;
+      }
+      if (!connection.getAutoCommit()) {
+        connection.rollback();
+        connection.setAutoCommit(true);
+      }
+      if (connection.isReadOnly()) {
+        connection.setReadOnly(false);
+      }
+      if (defaultTransactionIsolation >= 0
+          && connection.getTransactionIsolation() != defaultTransactionIsolation) {
+        connection.setTransactionIsolation(defaultTransactionIsolation);
+      }
+      connection.clearWarnings();
+      return true;
+    } catch (SQLException | RuntimeException e) {
+      return false;
+    }
+  }
+
+  /** Remove a leased connection from the pool and close it */
+  private void discard(Connection connection) {
+    lock.lock();
+    try {
+      leased--;
+      connectionReturned.signal();
+    } finally {
+      lock.unlock();
+    }
+    closeQuietly(connection);
+  }
+
+  private void closeQuietly(Connection connection) {
+    try {
+      connection.close();
+    } catch (SQLException | RuntimeException e) {
+      // The connection is gone either way
+    }
+    lock.lock();
+    try {
+      nrClosed++;
+    } finally {
+      lock.unlock();
+    }
+  }
+}
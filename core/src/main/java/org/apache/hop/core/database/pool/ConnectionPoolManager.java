@@ -0,0 +1,141 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.database.pool;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the connection pools of the process, one per database connection with the same resolved
+ * URL and credentials. All transforms and actions of all pipelines and workflows share these
+ * pools, which avoids opening a new connection for every short lived pipeline on a server.
+ *
+ * <p>A background thread closes the connections which were idle for too long. The pools themselves
+ * stay, there is one per distinct connection.
+ */
+public class ConnectionPoolManager {
+
+  private static final long HOUSEKEEPING_INTERVAL_MS = 30000L;
+
+  private static final ConnectionPoolManager instance = new ConnectionPoolManager();
+
+  private final Map<String, ConnectionPool> pools;
+  private ScheduledExecutorService housekeeping;
+
+  public static ConnectionPoolManager getInstance() {
+    return instance;
+  }
+
+  private ConnectionPoolManager() {
+    pools = new ConcurrentHashMap<>();
+  }
+
+  /**
+   * Get the pool for the given key or create it.
+   *
+   * @param key identifies the pool: the connection name, resolved URL, credentials and options
+   * @param name the name of the pool, shown in the status
+   * @param connectionFactory opens new connections
+   * @param maxSize the maximum number of open connections
+   * @param maxWaitMs the maximum time to wait for a connection in milliseconds
+   * @param idleTimeoutMs the time after which an idle connection is closed in milliseconds
+   * @param validationIntervalMs the idle time after which a connection is validated before it's
+   *     leased in milliseconds
+   * @return the pool, the settings of an existing pool aren't changed
+   */
+  public ConnectionPool getPool(
+      String key,
+      String name,
+      IConnectionFactory connectionFactory,
+      int maxSize,
+      long maxWaitMs,
+      long idleTimeoutMs,
+      long validationIntervalMs) {
+    ConnectionPool pool =
+        pools.computeIfAbsent(
+            key,
+            k ->
+                new ConnectionPool(
+                    name,
+                    connectionFactory,
+                    maxSize,
+                    maxWaitMs,
+                    idleTimeoutMs,
+                    validationIntervalMs));
+    startHousekeeping();
+    return pool;
+  }
+
+  /**
+   * @return the status of every pool, sorted by name
+   */
+  public List<ConnectionPoolStatus> getPoolStatuses() {
+    List<ConnectionPoolStatus> statuses = new ArrayList<>();
+    for (ConnectionPool pool : pools.values()) {
+      statuses.add(pool.getStatus());
+    }
+    statuses.sort(Comparator.comparing(ConnectionPoolStatus::getName));
+    return statuses;
+  }
+
+  /** Close the idle connections which timed out. */
+  public void evictIdleConnections() {
+    for (ConnectionPool pool : pools.values()) {
+      pool.evictIdleConnections();
+    }
+  }
+
+  /**
+   * Close all pools. This is called when the Hop environment shuts down, at the end of the process
+   * or when a server is stopped. A pool which is used again afterwards is created anew.
+   */
+  public synchronized void closeAll() {
+    for (ConnectionPool pool : pools.values()) {
+      pool.close();
+    }
+    pools.clear();
+    if (housekeeping != null) {
+      housekeeping.shutdownNow();
+      housekeeping = null;
+    }
+  }
+
+  private synchronized void startHousekeeping() {
+    if (housekeeping != null) {
+      return;
+    }
+    housekeeping =
+        Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "Hop connection pool housekeeping");
+              thread.setDaemon(true);
+              return thread;
+            });
+    housekeeping.scheduleWithFixedDelay(
+        this::evictIdleConnections,
+        HOUSEKEEPING_INTERVAL_MS,
+        HOUSEKEEPING_INTERVAL_MS,
+        TimeUnit.MILLISECONDS);
+  }
+}
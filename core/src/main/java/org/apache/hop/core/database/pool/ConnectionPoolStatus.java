@@ -0,0 +1,191 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.hop.core.database.pool;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.apache.hop.core.Const;
+import org.apache.hop.core.xml.XmlHandler;
+import org.w3c.dom.Node;
+
+/** A snapshot of the state and counters of a {@link ConnectionPool}. */
+public class ConnectionPoolStatus {
+  public static final String XML_TAG = "connection_pool_status";
+
+  private String name;
+  private int maxSize;
+  private int leased;
+  private int idle;
+  private long created;
+  private long closed;
+  private long leases;
+  private long waits;
+  private long waitTimeMs;
+  private long timeouts;
+  private long validationFailures;
+
+  public ConnectionPoolStatus() {}
+
+  public ConnectionPoolStatus(String name) {
+    this.name = name;
+  }
+
+  public ConnectionPoolStatus(Node statusNode) {
+    name = XmlHandler.getTagValue(statusNode, "name");
+    maxSize = Const.toInt(XmlHandler.getTagValue(statusNode, "max_size"), 0);
+    leased = Const.toInt(XmlHandler.getTagValue(statusNode, "leased"), 0);
+    idle = Const.toInt(XmlHandler.getTagValue(statusNode, "idle"), 0);
+    created = Const.toLong(XmlHandler.getTagValue(statusNode, "created"), 0L);
+    closed = Const.toLong(XmlHandler.getTagValue(statusNode, "closed"), 0L);
+    leases = Const.toLong(XmlHandler.getTagValue(statusNode, "leases"), 0L);
+    waits = Const.toLong(XmlHandler.getTagValue(statusNode, "waits"), 0L);
+    waitTimeMs = Const.toLong(XmlHandler.getTagValue(statusNode, "wait_time_ms"), 0L);
+    timeouts = Const.toLong(XmlHandler.getTagValue(statusNode, "timeouts"), 0L);
+    validationFailures =
+        Const.toLong(XmlHandler.getTagValue(statusNode, "validation_failures"), 0L);
+  }
+
+  @JsonIgnore
+  public String getXml() {
+    StringBuilder xml = new StringBuilder();
+    xml.append("<" + XML_TAG + ">");
+    xml.append(XmlHandler.addTagValue("name", name, false));
+    xml.append(XmlHandler.addTagValue("max_size", maxSize, false));
+    xml.append(XmlHandler.addTagValue("leased", leased, false));
+    xml.append(XmlHandler.addTagValue("idle", idle, false));
+    xml.append(XmlHandler.addTagValue("created", created, false));
+    xml.append(XmlHandler.addTagValue("closed", closed, false));
+    xml.append(XmlHandler.addTagValue("leases", leases, false));
+    xml.append(XmlHandler.addTagValue("waits", waits, false));
+    xml.append(XmlHandler.addTagValue("wait_time_ms", waitTimeMs, false));
+    xml.append(XmlHandler.addTagValue("timeouts", timeouts, false));
+    xml.append(XmlHandler.addTagValue("validation_failures", validationFailures, false));
+    xml.append("</" + XML_TAG + ">");
+    return xml.toString();
+  }
+
+  /** @return the name of the pool */
+  public String getName() {
+    return name;
+  }
+
+  /** @param name the name of the pool */
+  public void setName(String name) {
+    this.name = name;
+  }
+
+  /** @return the maximum number of open connections */
+  public int getMaxSize() {
+    return maxSize;
+  }
+
+  /** @param maxSize the maximum number of open connections */
+  public void setMaxSize(int maxSize) {
+    this.maxSize = maxSize;
+  }
+
+  /** @return the number of connections in use */
+  public int getLeased() {
+    return leased;
+  }
+
+  /** @param leased the number of connections in use */
+  public void setLeased(int leased) {
+    this.leased = leased;
+  }
+
+  /** @return the number of open connections which aren't in use */
+  public int getIdle() {
+    return idle;
+  }
+
+  /** @param idle the number of open connections which aren't in use */
+  public void setIdle(int idle) {
+    this.idle = idle;
+  }
+
+  /** @return the number of connections opened */
+  public long getCreated() {
+    return created;
+  }
+
+  /** @param created the number of connections opened */
+  public void setCreated(long created) {
+    this.created = created;
+  }
+
+  /** @return the number of connections closed */
+  public long getClosed() {
+    return closed;
+  }
+
+  /** @param closed the number of connections closed */
+  public void setClosed(long closed) {
+    this.closed = closed;
+  }
+
+  /** @return the number of times a connection was leased */
+  public long getLeases() {
+    return leases;
+  }
+
+  /** @param leases the number of times a connection was leased */
+  public void setLeases(long leases) {
+    this.leases = leases;
+  }
+
+  /** @return the number of leases which had to wait for a connection */
+  public long getWaits() {
+    return waits;
+  }
+
+  /** @param waits the number of leases which had to wait for a connection */
+  public void setWaits(long waits) {
+    this.waits = waits;
+  }
+
+  /** @return the total time waited for a connection in milliseconds */
+  public long getWaitTimeMs() {
+    return waitTimeMs;
+  }
+
+  /** @param waitTimeMs the total time waited for a connection in milliseconds */
+  public void setWaitTimeMs(long waitTimeMs) {
+    this.waitTimeMs = waitTimeMs;
+  }
+
+  /** @return the number of leases which timed out */
+  public long getTimeouts() {
+    return timeouts;
+  }
+
+  /** @param timeouts the number of leases which timed out */
+  public void setTimeouts(long timeouts) {
+    this.timeouts = timeouts;
+  }
+
+  /** @return the number of idle connections which were found broken */
+  public long getValidationFailures() {
+    return validationFailures;
+  }
+
+  /** @param validationFailures the number of idle connections which were found broken */
+  public void setValidationFailures(long validationFailures) {
+    this.validationFailures = validationFailures;
+  }
+}
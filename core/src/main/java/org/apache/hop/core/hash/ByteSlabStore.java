@@ -0,0 +1,171 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.hash;
+
+import java.util.Arrays;
+
+/**
+ * Stores key/value pairs of bytes back to back in large byte array slabs. An entry is referenced
+ * by a single long address, which makes it cheap to keep millions of entries: there is no object
+ * header, no separate key and value arrays and consecutive entries are close together in memory.
+ *
+ * <p>An entry is stored as the variable length key size, the variable length value size, the key
+ * bytes and the value bytes. Entries never span two slabs. Entries can't be removed.
+ */
+public class ByteSlabStore {
+
+  private static final int SLAB_SIZE = 1024 * 1024;
+
+  private byte[][] slabs;
+  private int nrSlabs;
+  private int position;
+  private long bytesUsed;
+
+  public ByteSlabStore() {
+    slabs = new byte[16][];
+  }
+
+  /**
+   * Store a key and a value.
+   *
+   * @param key the key bytes
+   * @param value the value bytes
+   * @return the address of the entry, never negative
+   */
+  public long add(byte[] key, byte[] value) {
+    int size = varIntSize(key.length) + varIntSize(value.length) + key.length + value.length;
+    if (nrSlabs == 0 || position + size > slabs[nrSlabs - 1].length) {
+      addSlab(Math.max(SLAB_SIZE, size));
+    }
+    int slabIndex = nrSlabs - 1;
+    byte[] slab = slabs[slabIndex];
+    int offset = position;
+
+    int p = writeVarInt(slab, offset, key.length);
+    p = writeVarInt(slab, p, value.length);
+    System.arraycopy(key, 0, slab, p, key.length);
+    p += key.length;
+    System.arraycopy(value, 0, slab, p, value.length);
+    p += value.length;
+
+    position = p;
+    bytesUsed += size;
+    return ((long) slabIndex << 32) | offset;
+  }
+
+  /**
+   * See if the entry at the given address has the given key.
+   *
+   * @param address the address of the entry
+   * @param key the key to compare with
+   * @return true if the keys are the same
+   */
+  public boolean keyEquals(long address, byte[] key) {
+    byte[] slab = slabs[(int) (address >>> 32)];
+    int p = (int) address;
+    int keyLength = readVarInt(slab, p);
+    if (keyLength != key.length) {
+      return false;
+    }
+    p += varIntSize(keyLength);
+    p += varIntSize(readVarInt(slab, p));
+    return Arrays.equals(slab, p, p + keyLength, key, 0, keyLength);
+  }
+
+  /**
+   * @param address the address of the entry
+   * @return a copy of the key of the entry
+   */
+  public byte[] getKey(long address) {
+    byte[] slab = slabs[(int) (address >>> 32)];
+    int p = (int) address;
+    int keyLength = readVarInt(slab, p);
+    p += varIntSize(keyLength);
+    p += varIntSize(readVarInt(slab, p));
+    return Arrays.copyOfRange(slab, p, p + keyLength);
+  }
+
+  /**
+   * @param address the address of the entry
+   * @return a copy of the value of the entry
+   */
+  public byte[] getValue(long address) {
+    byte[] slab = slabs[(int) (address >>> 32)];
+    int p = (int) address;
+    int keyLength = readVarInt(slab, p);
+    p += varIntSize(keyLength);
+    int valueLength = readVarInt(slab, p);
+    p += varIntSize(valueLength) + keyLength;
+    return Arrays.copyOfRange(slab, p, p + valueLength);
+  }
+
+  /**
+   * @return the number of bytes used by the entries
+   */
+  public long getBytesUsed() {
+    return bytesUsed;
+  }
+
+  /**
+   * @return the number of bytes allocated for the slabs
+   */
+  public long getBytesAllocated() {
+    long allocated = 0;
+    for (int i = 0; i < nrSlabs; i++) {
+      allocated += slabs[i].length;
+    }
+    return allocated;
+  }
+
+  private void addSlab(int size) {
+    if (nrSlabs == slabs.length) {
+      slabs = Arrays.copyOf(slabs, nrSlabs * 2);
+    }
+    slabs[nrSlabs++] = new byte[size];
+    position = 0;
+  }
+
+  private static int varIntSize(int value) {
+    int size = 1;
+    while ((value >>>= 7) != 0) {
+      size++;
+    }
+    return size;
+  }
+
+  private static int writeVarInt(byte[] slab, int p, int value) {
+    while ((value & ~0x7F) != 0) {
+      slab[p++] = (byte) ((value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    slab[p++] = (byte) value;
+    return p;
+  }
+
+  private static int readVarInt(byte[] slab, int p) {
+    int value = 0;
+    int shift = 0;
+    byte b;
+    do {
+      b = slab[p++];
+      value |= (b & 0x7F) << shift;
+      shift += 7;
+    } while (b < 0);
+    return value;
+  }
+}
@@ -0,0 +1,149 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.hash;
+
+import java.util.Arrays;
+
+/**
+ * A hash index of serialized keys and values, like {@link ByteArrayHashIndex}, with a lot less
+ * memory overhead. The keys and values are kept in a {@link ByteSlabStore}, the index itself is an
+ * open addressing table of two primitive arrays: the addresses of the entries and their hash codes.
+ * That's about 16 bytes per entry on top of the serialized data, no objects per entry.
+ *
+ * <p>Keys are equal if their bytes are equal. The hash code is calculated over the bytes as well,
+ * so the keys don't need to be de-serialized.
+ */
+public class CompactByteArrayHashIndex {
+
+  private static final int STANDARD_INDEX_SIZE = 512;
+  private static final float STANDARD_LOAD_FACTOR = 0.75f;
+
+  private final ByteSlabStore store;
+
+  /** The address of every entry plus one, 0 for an empty slot */
+  private long[] addresses;
+
+  private int[] hashCodes;
+  private int size;
+  private int resizeThreshold;
+
+  /**
+   * Create a new compact hash index
+   *
+   * @param size the initial size of the hash index
+   */
+  public CompactByteArrayHashIndex(int size) {
+    int factor2Size = 1;
+    while (factor2Size < size) {
+      factor2Size <<= 1;
+    }
+    store = new ByteSlabStore();
+    addresses = new long[factor2Size];
+    hashCodes = new int[factor2Size];
+    resizeThreshold = (int) (factor2Size * STANDARD_LOAD_FACTOR);
+  }
+
+  /** Create a new compact hash index */
+  public CompactByteArrayHashIndex() {
+    this(STANDARD_INDEX_SIZE);
+  }
+
+  public int getSize() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * @param key the serialized key
+   * @return a copy of the serialized value or null if the key isn't in the index
+   */
+  public byte[] get(byte[] key) {
+    int hashCode = generateHashCode(key);
+    int mask = addresses.length - 1;
+    for (int slot = hashCode & mask; addresses[slot] != 0; slot = (slot + 1) & mask) {
+      if (hashCodes[slot] == hashCode && store.keyEquals(addresses[slot] - 1, key)) {
+        return store.getValue(addresses[slot] - 1);
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Add a key and value to the index. The value of an existing key is replaced.
+   *
+   * @param key the serialized key
+   * @param value the serialized value
+   */
+  public void put(byte[] key, byte[] value) {
+    int hashCode = generateHashCode(key);
+    int mask = addresses.length - 1;
+    int slot = hashCode & mask;
+    for (; addresses[slot] != 0; slot = (slot + 1) & mask) {
+      if (hashCodes[slot] == hashCode && store.keyEquals(addresses[slot] - 1, key)) {
+        // The old entry stays behind in the store, unreferenced
+        //
+        addresses[slot] = store.add(key, value) + 1;
+        return;
+      }
+    }
+    addresses[slot] = store.add(key, value) + 1;
+    hashCodes[slot] = hashCode;
+
+    if (++size >= resizeThreshold) {
+      resize();
+    }
+  }
+
+  /**
+   * @return the approximate number of bytes taken by the index and the stored entries
+   */
+  public long getMemoryUsage() {
+    return (long) addresses.length * (Long.BYTES + Integer.BYTES) + store.getBytesAllocated();
+  }
+
+  private void resize() {
+    long[] oldAddresses = addresses;
+    int[] oldHashCodes = hashCodes;
+    int newSize = oldAddresses.length * 2;
+    int mask = newSize - 1;
+
+    addresses = new long[newSize];
+    hashCodes = new int[newSize];
+    for (int i = 0; i < oldAddresses.length; i++) {
+      if (oldAddresses[i] != 0) {
+        int slot = oldHashCodes[i] & mask;
+        while (addresses[slot] != 0) {
+          slot = (slot + 1) & mask;
+        }
+        addresses[slot] = oldAddresses[i];
+        hashCodes[slot] = oldHashCodes[i];
+      }
+    }
+    resizeThreshold = (int) (newSize * STANDARD_LOAD_FACTOR);
+  }
+
+  public static int generateHashCode(byte[] key) {
+    // Spread the bits: the low bits select the slot
+    //
+    int h = Arrays.hashCode(key) * 0x9E3779B9;
+    return h ^ (h >>> 16);
+  }
+}
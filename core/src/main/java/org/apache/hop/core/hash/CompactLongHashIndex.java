@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.hash;
+
+/**
+ * A hash index with a single long key and a serialized value. The keys are kept in a primitive
+ * array next to the addresses of the values in a {@link ByteSlabStore}: a lookup doesn't box the
+ * key and only reads the bytes of the value which was found.
+ */
+public class CompactLongHashIndex {
+
+  private static final int STANDARD_INDEX_SIZE = 512;
+  private static final float STANDARD_LOAD_FACTOR = 0.75f;
+
+  private static final byte[] NO_KEY = new byte[0];
+
+  private final ByteSlabStore store;
+
+  private long[] keys;
+
+  /** The address of every value plus one, 0 for an empty slot */
+  private long[] addresses;
+
+  private int size;
+  private int resizeThreshold;
+
+  /**
+   * Create a new compact long hash index
+   *
+   * @param size the initial size of the hash index
+   */
+  public CompactLongHashIndex(int size) {
+    int factor2Size = 1;
+    while (factor2Size < size) {
+      factor2Size <<= 1;
+    }
+    store = new ByteSlabStore();
+    keys = new long[factor2Size];
+    addresses = new long[factor2Size];
+    resizeThreshold = (int) (factor2Size * STANDARD_LOAD_FACTOR);
+  }
+
+  /** Create a new compact long hash index */
+  public CompactLongHashIndex() {
+    this(STANDARD_INDEX_SIZE);
+  }
+
+  public int getSize() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * @param key the key
+   * @return a copy of the serialized value or null if the key isn't in the index
+   */
+  public byte[] get(long key) {
+    int mask = keys.length - 1;
+    for (int slot = generateHashCode(key) & mask;
+        addresses[slot] != 0;
+        slot = (slot + 1) & mask) {
+      if (keys[slot] == key) {
+        return store.getValue(addresses[slot] - 1);
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Add a key and value to the index. The value of an existing key is replaced.
+   *
+   * @param key the key
+   * @param value the serialized value
+   */
+  public void put(long key, byte[] value) {
+    int mask = keys.length - 1;
+    int slot = generateHashCode(key) & mask;
+    for (; addresses[slot] != 0; slot = (slot + 1) & mask) {
+      if (keys[slot] == key) {
+        addresses[slot] = store.add(NO_KEY, value) + 1;
+        return;
+      }
+    }
+    keys[slot] = key;
+    addresses[slot] = store.add(NO_KEY, value) + 1;
+
+    if (++size >= resizeThreshold) {
+      resize();
+    }
+  }
+
+  /**
+   * @return the approximate number of bytes taken by the index and the stored values
+   */
+  public long getMemoryUsage() {
+    return (long) keys.length * 2 * Long.BYTES + store.getBytesAllocated();
+  }
+
+  private void resize() {
+    long[] oldKeys = keys;
+    long[] oldAddresses = addresses;
+    int newSize = oldKeys.length * 2;
+    int mask = newSize - 1;
+
+    keys = new long[newSize];
+    addresses = new long[newSize];
+    for (int i = 0; i < oldKeys.length; i++) {
+      if (oldAddresses[i] != 0) {
+        int slot = generateHashCode(oldKeys[i]) & mask;
+        while (addresses[slot] != 0) {
+          slot = (slot + 1) & mask;
+        }
+        keys[slot] = oldKeys[i];
+        addresses[slot] = oldAddresses[i];
+      }
+    }
+    resizeThreshold = (int) (newSize * STANDARD_LOAD_FACTOR);
+  }
+
+  public static int generateHashCode(long key) {
+    long h = key * 0x9E3779B97F4A7C15L;
+    return (int) (h ^ (h >>> 32));
+  }
+}
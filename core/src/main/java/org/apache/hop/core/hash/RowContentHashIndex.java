@@ -0,0 +1,295 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.hash;
+
+import org.apache.hop.core.exception.HopValueException;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.IValueMeta;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.Date;
+
+/**
+ * Keeps a 64 bit hash of the content of every row of a table, by key. This is used to find out if
+ * an incoming row is new, changed or the same as the row in the table without looking it up.
+ *
+ * <p>The keys are serialized and kept in a {@link CompactByteArrayHashIndex}, the content is only
+ * kept as its hash. Two rows with a different content could in theory have the same hash, the
+ * chance of that is about 1 in 2^64 per compared row.
+ *
+ * <p>The values are encoded by their value, not by their storage or format: an Integer 5 and a
+ * Number 5.0 are different, a BigNumber 5.0 and 5.00 are the same. The row metadata given must
+ * describe rows with normal storage.
+ */
+public class RowContentHashIndex {
+
+  /** The state of a row compared with the index */
+  public enum RowState {
+    /** The key isn't in the index */
+    NEW,
+    /** The key is in the index with a different content */
+    CHANGED,
+    /** The key is in the index with the same content */
+    UNCHANGED
+  }
+
+  private static final byte[] REMOVED = new byte[0];
+
+  private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+  private static final long FNV_PRIME = 0x100000001b3L;
+
+  private static final byte TAG_NULL = 0;
+  private static final byte TAG_STRING = 1;
+  private static final byte TAG_INTEGER = 2;
+  private static final byte TAG_NUMBER = 3;
+  private static final byte TAG_BIGNUMBER = 4;
+  private static final byte TAG_DATE = 5;
+  private static final byte TAG_TIMESTAMP = 6;
+  private static final byte TAG_BOOLEAN = 7;
+  private static final byte TAG_BINARY = 8;
+  private static final byte TAG_OTHER = 9;
+
+  private final IRowMeta keyMeta;
+  private final IRowMeta contentMeta;
+  private final CompactByteArrayHashIndex index;
+
+  private final ByteArrayOutputStream buffer;
+  private final DataOutputStream out;
+
+  private int nrRemoved;
+
+  /**
+   * @param keyMeta the layout of the keys
+   * @param contentMeta the layout of the content which is compared
+   */
+  public RowContentHashIndex(IRowMeta keyMeta, IRowMeta contentMeta) {
+    this.keyMeta = keyMeta;
+    this.contentMeta = contentMeta;
+    this.index = new CompactByteArrayHashIndex();
+    this.buffer = new ByteArrayOutputStream(256);
+    this.out = new DataOutputStream(buffer);
+  }
+
+  /**
+   * Add a row to the index or replace the content hash of its key.
+   *
+   * @param key the key values
+   * @param content the content values
+   * @throws HopValueException in case a value can't be encoded
+   */
+  public void put(Object[] key, Object[] content) throws HopValueException {
+    byte[] keyBytes = encode(keyMeta, key);
+    byte[] existing = index.get(keyBytes);
+    if (existing != null && existing.length == 0) {
+      nrRemoved--;
+    }
+    index.put(keyBytes, toBytes(hash(contentMeta, content)));
+  }
+
+  /**
+   * Add a row as it was read from the table: the key values followed by the content values. The
+   * values are converted to the types of the index first. Rows with a null key value are skipped,
+   * they are never matched by an equality condition.
+   *
+   * @param tableRowMeta the layout of the table row
+   * @param tableRow the table row
+   * @return true if the row was added, false if it was skipped
+   * @throws HopValueException in case a value can't be converted or encoded
+   */
+  public boolean putTableRow(IRowMeta tableRowMeta, Object[] tableRow) throws HopValueException {
+    int nrKeys = keyMeta.size();
+    Object[] key = new Object[nrKeys];
+    for (int i = 0; i < nrKeys; i++) {
+      IValueMeta valueMeta = keyMeta.getValueMeta(i);
+      key[i] = valueMeta.convertData(tableRowMeta.getValueMeta(i), tableRow[i]);
+      if (valueMeta.isNull(key[i])) {
+        return false;
+      }
+    }
+    Object[] content = new Object[contentMeta.size()];
+    for (int i = 0; i < content.length; i++) {
+      content[i] =
+          contentMeta
+              .getValueMeta(i)
+              .convertData(tableRowMeta.getValueMeta(nrKeys + i), tableRow[nrKeys + i]);
+    }
+    put(key, content);
+    return true;
+  }
+
+  /**
+   * Forget the row with the given key, after it was deleted from the table.
+   *
+   * @param key the key values
+   * @throws HopValueException in case a value can't be encoded
+   */
+  public void remove(Object[] key) throws HopValueException {
+    byte[] keyBytes = encode(keyMeta, key);
+    byte[] existing = index.get(keyBytes);
+    if (existing != null && existing.length > 0) {
+      // The index can't remove entries, an empty hash marks the key as removed
+      //
+      index.put(keyBytes, REMOVED);
+      nrRemoved++;
+    }
+  }
+
+  /**
+   * Compare a row with the index.
+   *
+   * @param key the key values
+   * @param content the content values
+   * @return the state of the row
+   * @throws HopValueException in case a value can't be encoded
+   */
+  public RowState classify(Object[] key, Object[] content) throws HopValueException {
+    byte[] hash = index.get(encode(keyMeta, key));
+    if (hash == null || hash.length == 0) {
+      return RowState.NEW;
+    }
+    return fromBytes(hash) == hash(contentMeta, content) ? RowState.UNCHANGED : RowState.CHANGED;
+  }
+
+  /**
+   * @return the number of keys in the index
+   */
+  public int getSize() {
+    return index.getSize() - nrRemoved;
+  }
+
+  /**
+   * @return the approximate number of bytes taken by the index
+   */
+  public long getMemoryUsage() {
+    return index.getMemoryUsage();
+  }
+
+  private long hash(IRowMeta rowMeta, Object[] row) throws HopValueException {
+    byte[] bytes = encode(rowMeta, row);
+    long h = FNV_OFFSET_BASIS;
+    for (byte b : bytes) {
+      h ^= b & 0xff;
+      h *= FNV_PRIME;
+    }
+    // FNV-1a mixes the last bytes poorly, finish with the avalanche step of MurmurHash3
+    //
+    h ^= h >>> 33;
+    h *= 0xff51afd7ed558ccdL;
+    h ^= h >>> 33;
+    h *= 0xc4ceb9fe1a85ec53L;
+    h ^= h >>> 33;
+    return h;
+  }
+
+  private byte[] encode(IRowMeta rowMeta, Object[] row) throws HopValueException {
+    buffer.reset();
+    try {
+      for (int i = 0; i < rowMeta.size(); i++) {
+        encodeValue(rowMeta.getValueMeta(i), row[i]);
+      }
+      out.flush();
+    } catch (IOException e) {
+      // Can't happen when writing to memory
+      //
+      throw new HopValueException("Unable to encode row values", e);
+    }
+    return buffer.toByteArray();
+  }
+
+  private void encodeValue(IValueMeta valueMeta, Object value)
+      throws HopValueException, IOException {
+    if (valueMeta.isNull(value)) {
+      out.writeByte(TAG_NULL);
+      return;
+    }
+    switch (valueMeta.getType()) {
+      case IValueMeta.TYPE_STRING:
+        writeBytes(TAG_STRING, valueMeta.getString(value).getBytes(StandardCharsets.UTF_8));
+        break;
+      case IValueMeta.TYPE_INTEGER:
+        out.writeByte(TAG_INTEGER);
+        out.writeLong(valueMeta.getInteger(value));
+        break;
+      case IValueMeta.TYPE_NUMBER:
+        out.writeByte(TAG_NUMBER);
+        out.writeLong(Double.doubleToLongBits(valueMeta.getNumber(value)));
+        break;
+      case IValueMeta.TYPE_BIGNUMBER:
+        BigDecimal bigNumber = valueMeta.getBigNumber(value);
+        writeBytes(
+            TAG_BIGNUMBER,
+            bigNumber.stripTrailingZeros().toString().getBytes(StandardCharsets.US_ASCII));
+        break;
+      case IValueMeta.TYPE_DATE:
+        // A database returns a Timestamp for a Date field: only the milliseconds count
+        //
+        out.writeByte(TAG_DATE);
+        out.writeLong(valueMeta.getDate(value).getTime());
+        break;
+      case IValueMeta.TYPE_TIMESTAMP:
+        Date date = valueMeta.getDate(value);
+        long millis = date.getTime();
+        int nanos =
+            date instanceof Timestamp
+                ? ((Timestamp) date).getNanos()
+                : (int) Math.floorMod(millis, 1000L) * 1000000;
+        out.writeByte(TAG_TIMESTAMP);
+        out.writeLong(Math.floorDiv(millis, 1000L));
+        out.writeInt(nanos);
+        break;
+      case IValueMeta.TYPE_BOOLEAN:
+        out.writeByte(TAG_BOOLEAN);
+        out.writeBoolean(valueMeta.getBoolean(value));
+        break;
+      case IValueMeta.TYPE_BINARY:
+        writeBytes(TAG_BINARY, valueMeta.getBinary(value));
+        break;
+      default:
+        writeBytes(TAG_OTHER, valueMeta.getString(value).getBytes(StandardCharsets.UTF_8));
+        break;
+    }
+  }
+
+  private void writeBytes(byte tag, byte[] bytes) throws IOException {
+    out.writeByte(tag);
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  private static byte[] toBytes(long value) {
+    byte[] bytes = new byte[Long.BYTES];
+    for (int i = Long.BYTES - 1; i >= 0; i--) {
+      bytes[i] = (byte) value;
+      value >>>= 8;
+    }
+    return bytes;
+  }
+
+  private static long fromBytes(byte[] bytes) {
+    long value = 0;
+    for (byte b : bytes) {
+      value = (value << 8) | (b & 0xff);
+    }
+    return value;
+  }
+}
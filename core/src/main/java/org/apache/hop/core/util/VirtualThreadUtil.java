@@ -0,0 +1,82 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.util;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+/**
+ * Creates virtual threads when the Java runtime supports them (Java 21 or later) and platform
+ * threads otherwise. Hop is compiled for older Java versions so the virtual thread API is looked up
+ * at runtime.
+ */
+public class VirtualThreadUtil {
+
+  /** Thread.ofVirtual().unstarted(Runnable) or null if virtual threads are not available */
+  private static final MethodHandle unstartedVirtualThread = init();
+
+  private VirtualThreadUtil() {}
+
+  private static MethodHandle init() {
+    try {
+      MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+      Class<?> builderClass = Class.forName("java.lang.Thread$Builder$OfVirtual");
+      MethodHandle ofVirtual =
+          lookup.findStatic(Thread.class, "ofVirtual", MethodType.methodType(builderClass));
+      MethodHandle unstarted =
+          lookup.findVirtual(
+              builderClass, "unstarted", MethodType.methodType(Thread.class, Runnable.class));
+      MethodHandle handle = MethodHandles.foldArguments(unstarted, ofVirtual);
+
+      // On Java 19 and 20 virtual threads are a preview feature and this fails unless enabled
+      //
+      Thread probe = (Thread) handle.invoke((Runnable) () -> {});
+      if (probe == null) {
+        return null;
+      }
+      return handle;
+    } catch (Throwable e) {
+      return null;
+    }
+  }
+
+  /** @return true if the Java runtime can create virtual threads */
+  public static boolean isAvailable() {
+    return unstartedVirtualThread != null;
+  }
+
+  /**
+   * Create a new thread which is not yet started.
+   *
+   * @param runnable the code to run in the thread
+   * @param virtual true if a virtual thread is preferred
+   * @return a virtual thread if one was requested and the runtime supports it, a platform thread
+   *     otherwise
+   */
+  public static Thread newThread(Runnable runnable, boolean virtual) {
+    if (virtual && unstartedVirtualThread != null) {
+      try {
+        return (Thread) unstartedVirtualThread.invoke(runnable);
+      } catch (Throwable e) {
+        // Fall back to a platform thread below
+      }
+    }
+    return new Thread(runnable);
+  }
+}
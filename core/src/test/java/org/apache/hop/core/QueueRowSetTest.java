@@ -20,10 +20,13 @@ import org.apache.hop.core.row.RowMeta;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 public class QueueRowSetTest {
   Object[] row;
@@ -63,4 +66,16 @@ public class QueueRowSetTest {
     rowSet.clear();
     assertEquals(0, rowSet.size());
   }
+
+  @Test
+  public void testPutAndGetRows() throws Exception {
+    Object[] row2 = new Object[] {};
+    assertEquals(2, rowSet.putRows(new RowMeta(), Arrays.asList(row, row2)));
+    assertEquals(2, rowSet.size());
+    List<Object[]> rows = rowSet.getRows(5);
+    assertEquals(2, rows.size());
+    assertSame(row, rows.get(0));
+    assertSame(row2, rows.get(1));
+    assertTrue(rowSet.getRows(5).isEmpty());
+  }
 }
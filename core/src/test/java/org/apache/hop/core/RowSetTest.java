@@ -25,7 +25,11 @@ import org.apache.hop.junit.rules.RestoreHopEnvironment;
 import org.junit.ClassRule;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 /** Test class for the basic functionality of IRowSet. */
@@ -158,6 +162,37 @@ public class RowSetTest {
      **********************************************************************/
   }
 
+  /** Batch functionality test. */
+  @Test
+  public void testPutAndGetRows() {
+    IRowSet set = new BlockingRowSet(3);
+    IRowMeta rm = createRowMetaInterface();
+
+    List<Object[]> rows = new ArrayList<>();
+    for (long i = 0; i < 5; i++) {
+      rows.add(new Object[] {i});
+    }
+
+    // Only 3 rows fit in the row set
+    //
+    assertEquals(3, set.putRows(rm, rows));
+    assertEquals(3, set.size());
+
+    List<Object[]> result = set.getRows(2);
+    assertEquals(2, result.size());
+    assertSame(rows.get(0), result.get(0));
+    assertSame(rows.get(1), result.get(1));
+
+    assertEquals(2, set.putRows(rm, rows.subList(3, 5)));
+
+    result = set.getRows(10);
+    assertEquals(3, result.size());
+    assertSame(rows.get(2), result.get(0));
+    assertSame(rows.get(4), result.get(2));
+    assertEquals(0, set.size());
+    assertTrue(set.getRows(10).isEmpty());
+  }
+
   /** Names test. Just for completeness. */
   @Test
   public void testNames() {
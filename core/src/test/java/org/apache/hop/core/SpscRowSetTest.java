@@ -0,0 +1,150 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.apache.hop.core.row.RowMeta;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SpscRowSetTest {
+  Object[] row;
+  SpscRowSet rowSet;
+
+  @Before
+  public void setup() {
+    rowSet = new SpscRowSet(3);
+    row = new Object[] {};
+  }
+
+  @Test
+  public void testPutRow() throws Exception {
+    rowSet.putRow(new RowMeta(), row);
+    assertSame(row, rowSet.getRow());
+  }
+
+  @Test
+  public void testPutRowWait() throws Exception {
+    rowSet.putRowWait(new RowMeta(), row, 1, TimeUnit.SECONDS);
+    assertSame(row, rowSet.getRowWait(1, TimeUnit.SECONDS));
+  }
+
+  @Test
+  public void testGetRowImmediate() throws Exception {
+    assertNull(rowSet.getRowImmediate());
+    rowSet.putRow(new RowMeta(), row);
+    assertSame(row, rowSet.getRowImmediate());
+    assertNull(rowSet.getRowImmediate());
+  }
+
+  @Test
+  public void testCapacityIsRespected() throws Exception {
+    assertTrue(rowSet.putRowWait(new RowMeta(), row, 1, TimeUnit.MILLISECONDS));
+    assertTrue(rowSet.putRowWait(new RowMeta(), row, 1, TimeUnit.MILLISECONDS));
+    assertTrue(rowSet.putRowWait(new RowMeta(), row, 1, TimeUnit.MILLISECONDS));
+    assertFalse(rowSet.putRowWait(new RowMeta(), row, 1, TimeUnit.MILLISECONDS));
+    assertEquals(3, rowSet.size());
+
+    assertSame(row, rowSet.getRowImmediate());
+    assertTrue(rowSet.putRowWait(new RowMeta(), row, 1, TimeUnit.MILLISECONDS));
+  }
+
+  @Test
+  public void testPutAndGetRows() throws Exception {
+    Object[] row2 = new Object[] {};
+    Object[] row3 = new Object[] {};
+    Object[] row4 = new Object[] {};
+    assertEquals(3, rowSet.putRows(new RowMeta(), Arrays.asList(row, row2, row3, row4)));
+    assertEquals(3, rowSet.size());
+
+    List<Object[]> rows = rowSet.getRows(2);
+    assertEquals(2, rows.size());
+    assertSame(row, rows.get(0));
+    assertSame(row2, rows.get(1));
+
+    assertEquals(1, rowSet.putRows(new RowMeta(), Collections.singletonList(row4)));
+    rows = rowSet.getRows(5);
+    assertEquals(2, rows.size());
+    assertSame(row3, rows.get(0));
+    assertSame(row4, rows.get(1));
+    assertEquals(0, rowSet.size());
+  }
+
+  @Test
+  public void testSize() throws Exception {
+    assertEquals(0, rowSet.size());
+    rowSet.putRow(new RowMeta(), row);
+    assertEquals(1, rowSet.size());
+    rowSet.putRow(new RowMeta(), row);
+    assertEquals(2, rowSet.size());
+    rowSet.setDone();
+    rowSet.clear();
+    assertEquals(0, rowSet.size());
+    assertFalse(rowSet.isDone());
+  }
+
+  @Test
+  public void testOrderAcrossThreads() throws Exception {
+    final int nrRows = 100000;
+    final RowMeta rowMeta = new RowMeta();
+    final AtomicReference<String> error = new AtomicReference<>();
+
+    Thread producer =
+        new Thread(
+            () -> {
+              for (long i = 0; i < nrRows; i++) {
+                Object[] r = new Object[] {i};
+                while (!rowSet.putRow(rowMeta, r)) {
+                  // Retry until there is room, just like BaseTransform does
+                }
+              }
+              rowSet.setDone();
+            });
+    producer.start();
+
+    long expected = 0;
+    while (true) {
+      Object[] r = rowSet.getRow();
+      if (r == null) {
+        if (rowSet.isDone() && rowSet.size() == 0) {
+          break;
+        }
+        continue;
+      }
+      if ((Long) r[0] != expected) {
+        error.set("Expected row " + expected + " but got " + r[0]);
+        break;
+      }
+      expected++;
+    }
+    producer.join();
+
+    assertNull(error.get());
+    assertEquals(nrRows, expected);
+  }
+}
@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.hop.core.cache;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class LookupCacheTest {
+
+  @Test
+  public void testUnbounded() {
+    LookupCache<String, Integer> cache = new LookupCache<>(CacheEvictionPolicy.LRU, 0);
+    for (int i = 0; i < 1000; i++) {
+      cache.put("key" + i, i);
+    }
+    assertEquals(1000, cache.getSize());
+    assertEquals(Integer.valueOf(500), cache.get("key500"));
+    assertNull(cache.get("other"));
+    assertEquals(1, cache.getHits());
+    assertEquals(1, cache.getMisses());
+    assertEquals(0, cache.getEvictions());
+
+    // The entries are searched in the order they were added
+    List<String> visited = new ArrayList<>();
+    Integer found =
+        cache.find(
+            (key, value) -> {
+              visited.add(key);
+              return value >= 3;
+            });
+    assertEquals(Integer.valueOf(3), found);
+    assertEquals(Arrays.asList("key0", "key1", "key2", "key3"), visited);
+    assertEquals(2, cache.getHits());
+  }
+
+  @Test
+  public void testLruEvictsLeastRecentlyUsed() {
+    LookupCache<String, Integer> cache = new LookupCache<>(CacheEvictionPolicy.LRU, 3);
+    cache.put("a", 1);
+    cache.put("b", 2);
+    cache.put("c", 3);
+    cache.get("a");
+    cache.put("d", 4);
+
+    assertEquals(3, cache.getSize());
+    assertEquals(1, cache.getEvictions());
+    assertNull(cache.get("b"));
+    assertEquals(Integer.valueOf(1), cache.get("a"));
+    assertEquals(Integer.valueOf(3), cache.get("c"));
+    assertEquals(Integer.valueOf(4), cache.get("d"));
+  }
+
+  @Test
+  public void testReplaceValue() {
+    LookupCache<String, String> cache =
+        new LookupCache<>(CacheEvictionPolicy.W_TINY_LFU, 10, 1000, (k, v) -> v.length());
+    cache.put("a", "12345");
+    cache.put("a", "12");
+    assertEquals(1, cache.getSize());
+    assertEquals(2, cache.getWeight());
+    assertEquals("12", cache.get("a"));
+  }
+
+  @Test
+  public void testWeightLimit() {
+    for (CacheEvictionPolicy policy : CacheEvictionPolicy.values()) {
+      LookupCache<Integer, String> cache =
+          new LookupCache<>(policy, 0, 1000, (k, v) -> v.length());
+      for (int i = 0; i < 500; i++) {
+        cache.put(i, "0123456789");
+        assertTrue(policy + " weight " + cache.getWeight(), cache.getWeight() <= 1000);
+      }
+      assertEquals(policy.getCode(), 100, cache.getSize());
+      assertEquals(policy.getCode(), 400, cache.getEvictions());
+
+      // An entry larger than the whole cache doesn't stay
+      cache.put(1000, "x".repeat(2000));
+      assertTrue(cache.getWeight() <= 1000);
+      assertNull(cache.get(1000));
+    }
+  }
+
+  @Test
+  public void testTinyLfuKeepsFrequentKeysDuringScans() {
+    LookupCache<Integer, Integer> lru = new LookupCache<>(CacheEvictionPolicy.LRU, 100);
+    LookupCache<Integer, Integer> tinyLfu = new LookupCache<>(CacheEvictionPolicy.W_TINY_LFU, 100);
+
+    // 50 popular keys are looked up all the time, in between a scan of keys used only once
+    //
+    int scanKey = 1000;
+    for (int round = 0; round < 100; round++) {
+      for (int key = 0; key < 50; key++) {
+        lookup(lru, key);
+        lookup(tinyLfu, key);
+        for (int i = 0; i < 3; i++) {
+          lookup(lru, scanKey);
+          lookup(tinyLfu, scanKey);
+          scanKey++;
+        }
+      }
+    }
+    assertTrue(lru.getSize() <= 100);
+    assertTrue(tinyLfu.getSize() <= 100);
+    assertTrue(
+        "W-TinyLFU " + tinyLfu.getHits() + " hits, LRU " + lru.getHits(),
+        tinyLfu.getHits() > 4 * lru.getHits());
+  }
+
+  private static void lookup(LookupCache<Integer, Integer> cache, Integer key) {
+    if (cache.get(key) == null) {
+      cache.put(key, key);
+    }
+  }
+}
@@ -18,6 +18,7 @@
 package org.apache.hop.core.database;
 
 import org.apache.hop.core.HopClientEnvironment;
+import org.apache.hop.core.database.pool.ConnectionPool;
 import org.apache.hop.core.exception.HopDatabaseBatchException;
 import org.apache.hop.core.exception.HopDatabaseException;
 import org.apache.hop.core.logging.ILoggingObject;
@@ -508,6 +509,43 @@ public class DatabaseTest {
     verify(conn, times(1)).close();
   }
 
+  @Test
+  public void testDisconnectReleasesClosedPooledConnection() throws Exception {
+    ConnectionPool pool = mock(ConnectionPool.class);
+    when(conn.isClosed()).thenReturn(true);
+
+    Database db = new Database(log, variables, meta);
+    db.setConnection(conn);
+    setConnectionPool(db, pool);
+    db.disconnect();
+
+    verify(pool, times(1)).release(conn);
+    verify(pool, never()).invalidate(any());
+    assertNull(db.getConnection());
+  }
+
+  @Test
+  public void testDisconnectInvalidatesBrokenPooledConnection() throws Exception {
+    ConnectionPool pool = mock(ConnectionPool.class);
+    when(conn.isClosed()).thenThrow(SQL_EXCEPTION);
+
+    Database db = new Database(log, variables, meta);
+    db.setConnection(conn);
+    setConnectionPool(db, pool);
+    db.disconnect();
+
+    verify(pool, times(1)).invalidate(conn);
+    verify(pool, never()).release(any());
+    assertNull(db.getConnection());
+  }
+
+  private static void setConnectionPool(Database db, ConnectionPool pool)
+      throws NoSuchFieldException, IllegalAccessException {
+    Field fieldConnectionPool = Database.class.getDeclaredField("connectionPool");
+    fieldConnectionPool.setAccessible(true);
+    fieldConnectionPool.set(db, pool);
+  }
+
   @Test
   public void testDisconnectConnectionGroup() throws SQLException {
     Database db = new Database(log, variables, meta);
@@ -0,0 +1,160 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.hop.core.database;
+
+import org.apache.hop.core.exception.HopDatabaseException;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.IValueMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaBigNumber;
+import org.apache.hop.core.row.value.ValueMetaBoolean;
+import org.apache.hop.core.row.value.ValueMetaDate;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.row.value.ValueMetaNumber;
+import org.apache.hop.core.row.value.ValueMetaString;
+import org.apache.hop.core.row.value.ValueMetaTimestamp;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ResultSetRowReaderTest {
+
+  private IRowMeta rowMeta;
+  private ResultSet resultSet;
+
+  @Before
+  public void setUp() {
+    rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaInteger("id"));
+    rowMeta.addValueMeta(new ValueMetaString("name"));
+    rowMeta.addValueMeta(new ValueMetaNumber("amount"));
+    rowMeta.addValueMeta(new ValueMetaBigNumber("total"));
+    rowMeta.addValueMeta(new ValueMetaBoolean("flag"));
+    rowMeta.addValueMeta(new ValueMetaDate("day"));
+    rowMeta.addValueMeta(new ValueMetaTimestamp("moment"));
+    resultSet = mock(ResultSet.class);
+  }
+
+  @Test
+  public void testReadRow() throws Exception {
+    Timestamp timestamp = new Timestamp(1000L);
+    when(resultSet.getLong(1)).thenReturn(42L);
+    when(resultSet.getString(2)).thenReturn("Hop");
+    when(resultSet.getDouble(3)).thenReturn(1.5);
+    when(resultSet.getBigDecimal(4)).thenReturn(BigDecimal.TEN);
+    when(resultSet.getBoolean(5)).thenReturn(true);
+    when(resultSet.getTimestamp(6)).thenReturn(timestamp);
+    when(resultSet.getTimestamp(7)).thenReturn(timestamp);
+
+    ResultSetRowReader reader = new ResultSetRowReader(new ConcreteBaseDatabaseMeta(), rowMeta);
+    Object[] row = reader.readRow(resultSet);
+
+    assertEquals(42L, row[0]);
+    assertEquals("Hop", row[1]);
+    assertEquals(1.5, row[2]);
+    assertEquals(BigDecimal.TEN, row[3]);
+    assertEquals(Boolean.TRUE, row[4]);
+    assertEquals(timestamp, row[5]);
+    assertEquals(timestamp, row[6]);
+
+    // Non-zero numbers can't be null
+    verify(resultSet, never()).wasNull();
+  }
+
+  @Test
+  public void testSameValuesAsValueMeta() throws Exception {
+    when(resultSet.getLong(1)).thenReturn(0L);
+    when(resultSet.getDouble(3)).thenReturn(0.0);
+    when(resultSet.getBoolean(5)).thenReturn(false);
+    when(resultSet.wasNull()).thenReturn(true);
+
+    IDatabase iDatabase = new ConcreteBaseDatabaseMeta();
+    Object[] row = new ResultSetRowReader(iDatabase, rowMeta).readRow(resultSet);
+
+    for (int i = 0; i < rowMeta.size(); i++) {
+      assertEquals(
+          rowMeta.getValueMeta(i).getValueFromResultSet(iDatabase, resultSet, i), row[i]);
+    }
+    assertNull(row[0]);
+    assertNull(row[2]);
+    assertNull(row[4]);
+  }
+
+  @Test
+  public void testLazyConversionReadsBytes() throws Exception {
+    IRowMeta lazyRowMeta = new RowMeta();
+    ValueMetaString name = new ValueMetaString("name");
+    name.setStorageType(IValueMeta.STORAGE_TYPE_BINARY_STRING);
+    lazyRowMeta.addValueMeta(name);
+    when(resultSet.getBytes(1)).thenReturn(new byte[] {'H', 'o', 'p'});
+
+    Object[] row =
+        new ResultSetRowReader(new ConcreteBaseDatabaseMeta(), lazyRowMeta).readRow(resultSet);
+    assertArrayEquals(new byte[] {'H', 'o', 'p'}, (byte[]) row[0]);
+  }
+
+  @Test
+  public void testCustomDatabaseConversionIsUsed() throws Exception {
+    IDatabase iDatabase = mock(IDatabase.class);
+    when(iDatabase.getValueFromResultSet(any(ResultSet.class), any(IValueMeta.class), anyInt()))
+        .thenReturn("custom");
+
+    Object[] row = new ResultSetRowReader(iDatabase, rowMeta).readRow(resultSet);
+    for (int i = 0; i < rowMeta.size(); i++) {
+      assertEquals("custom", row[i]);
+    }
+  }
+
+  @Test
+  public void testErrorNamesColumn() throws Exception {
+    when(resultSet.getString(2)).thenThrow(new SQLException("broken"));
+    try {
+      new ResultSetRowReader(new ConcreteBaseDatabaseMeta(), rowMeta).readRow(resultSet);
+      fail("The error should be reported");
+    } catch (HopDatabaseException e) {
+      assertTrue(e.getMessage().contains("index 1"));
+    }
+  }
+
+  @Test
+  public void testIsReaderFor() {
+    ResultSetRowReader reader = new ResultSetRowReader(new ConcreteBaseDatabaseMeta(), rowMeta);
+    assertTrue(reader.isReaderFor(rowMeta));
+    assertFalse(reader.isReaderFor(rowMeta.clone()));
+    rowMeta.addValueMeta(new ValueMetaString("extra"));
+    assertFalse(reader.isReaderFor(rowMeta));
+  }
+}
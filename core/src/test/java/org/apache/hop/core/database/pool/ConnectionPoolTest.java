@@ -0,0 +1,223 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.hop.core.database.pool;
+
+import org.apache.hop.core.exception.HopDatabaseException;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ConnectionPoolTest {
+
+  private List<Connection> connections;
+  private IConnectionFactory factory;
+
+  @Before
+  public void setUp() throws Exception {
+    connections = new ArrayList<>();
+    factory =
+        () -> {
+          Connection connection = mock(Connection.class);
+          try {
+            when(connection.getAutoCommit()).thenReturn(true);
+            when(connection.isValid(anyInt())).thenReturn(true);
+            when(connection.getTransactionIsolation())
+                .thenReturn(Connection.TRANSACTION_READ_COMMITTED);
+          } catch (Exception e) {
+            throw new HopDatabaseException(e);
+          }
+          connections.add(connection);
+          return connection;
+        };
+  }
+
+  @Test
+  public void testConnectionIsReused() throws Exception {
+    ConnectionPool pool = new ConnectionPool("test", factory, 2, 1000L, 60000L, 60000L);
+
+    Connection first = pool.lease();
+    pool.release(first);
+    assertSame(first, pool.lease());
+    Connection second = pool.lease();
+    assertNotSame(first, second);
+
+    ConnectionPoolStatus status = pool.getStatus();
+    assertEquals(2, status.getCreated());
+    assertEquals(3, status.getLeases());
+    assertEquals(2, status.getLeased());
+    assertEquals(0, status.getIdle());
+  }
+
+  @Test
+  public void testTimeoutWhenPoolIsFull() throws Exception {
+    ConnectionPool pool = new ConnectionPool("test", factory, 1, 50L, 60000L, 60000L);
+    pool.lease();
+    try {
+      pool.lease();
+      fail("The pool is full");
+    } catch (HopDatabaseException e) {
+      // expected
+    }
+    ConnectionPoolStatus status = pool.getStatus();
+    assertEquals(1, status.getWaits());
+    assertEquals(1, status.getTimeouts());
+    assertEquals(1, status.getCreated());
+  }
+
+  @Test
+  public void testWaitingLeaseGetsReleasedConnection() throws Exception {
+    ConnectionPool pool = new ConnectionPool("test", factory, 1, 10000L, 60000L, 60000L);
+    Connection first = pool.lease();
+    Thread releaser =
+        new Thread(
+            () -> {
+              try {
+                Thread.sleep(50);
+              } catch (InterruptedException e) {
+                // release right away
+              }
+              pool.release(first);
+            });
+    releaser.start();
+    assertSame(first, pool.lease());
+    releaser.join();
+    assertEquals(1, pool.getStatus().getWaits());
+  }
+
+  @Test
+  public void testInvalidConnectionIsReplaced() throws Exception {
+    ConnectionPool pool = new ConnectionPool("test", factory, 2, 1000L, 60000L, 0L);
+    Connection first = pool.lease();
+    pool.release(first);
+    when(first.isValid(anyInt())).thenReturn(false);
+
+    Connection second = pool.lease();
+    assertNotSame(first, second);
+    verify(first).close();
+
+    ConnectionPoolStatus status = pool.getStatus();
+    assertEquals(1, status.getValidationFailures());
+    assertEquals(1, status.getLeased());
+    assertEquals(1, status.getClosed());
+  }
+
+  @Test
+  public void testReleaseResetsConnection() throws Exception {
+    ConnectionPool pool = new ConnectionPool("test", factory, 1, 1000L, 60000L, 60000L);
+    Connection connection = pool.lease();
+    when(connection.getAutoCommit()).thenReturn(false);
+    when(connection.isReadOnly()).thenReturn(true);
+
+    pool.release(connection);
+    verify(connection).rollback();
+    verify(connection).setAutoCommit(true);
+    verify(connection).setReadOnly(false);
+    verify(connection, never()).close();
+    assertEquals(1, pool.getStatus().getIdle());
+  }
+
+  @Test
+  public void testReleaseResetsTransactionIsolation() throws Exception {
+    ConnectionPool pool = new ConnectionPool("test", factory, 1, 1000L, 60000L, 60000L);
+    Connection connection = pool.lease();
+    when(connection.getTransactionIsolation()).thenReturn(Connection.TRANSACTION_SERIALIZABLE);
+
+    pool.release(connection);
+    verify(connection).setTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+    assertEquals(1, pool.getStatus().getIdle());
+  }
+
+  @Test
+  public void testInterruptedLeaseKeepsTheCause() throws Exception {
+    ConnectionPool pool = new ConnectionPool("test", factory, 1, 10000L, 60000L, 60000L);
+    pool.lease();
+    Thread.currentThread().interrupt();
+    try {
+      pool.lease();
+      fail("The lease was interrupted");
+    } catch (HopDatabaseException e) {
+      assertTrue(e.getCause() instanceof InterruptedException);
+    } finally {
+      Thread.interrupted();
+    }
+  }
+
+  @Test
+  public void testClosedConnectionIsDiscarded() throws Exception {
+    ConnectionPool pool = new ConnectionPool("test", factory, 1, 1000L, 60000L, 60000L);
+    Connection connection = pool.lease();
+    when(connection.isClosed()).thenReturn(true);
+
+    pool.release(connection);
+    ConnectionPoolStatus status = pool.getStatus();
+    assertEquals(0, status.getIdle());
+    assertEquals(0, status.getLeased());
+    assertNotSame(connection, pool.lease());
+  }
+
+  @Test
+  public void testIdleConnectionsAreEvicted() throws Exception {
+    ConnectionPool pool = new ConnectionPool("test", factory, 2, 1000L, 0L, 60000L);
+    Connection first = pool.lease();
+    Connection second = pool.lease();
+    pool.release(first);
+    pool.release(second);
+    assertEquals(2, pool.getStatus().getIdle());
+
+    pool.evictIdleConnections();
+    verify(first).close();
+    verify(second).close();
+    ConnectionPoolStatus status = pool.getStatus();
+    assertEquals(0, status.getIdle());
+    assertEquals(2, status.getClosed());
+  }
+
+  @Test
+  public void testClosedPool() throws Exception {
+    ConnectionPool pool = new ConnectionPool("test", factory, 2, 1000L, 60000L, 60000L);
+    Connection idle = pool.lease();
+    Connection leased = pool.lease();
+    pool.release(idle);
+
+    pool.close();
+    verify(idle).close();
+    pool.release(leased);
+    verify(leased).close();
+    try {
+      pool.lease();
+      fail("The pool is closed");
+    } catch (HopDatabaseException e) {
+      // expected
+    }
+  }
+}
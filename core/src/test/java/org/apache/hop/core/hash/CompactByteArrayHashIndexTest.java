@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hop.core.hash;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class CompactByteArrayHashIndexTest {
+
+  @Test
+  public void testGetAndPut() {
+    CompactByteArrayHashIndex obj = new CompactByteArrayHashIndex(1);
+    assertNull(obj.get(new byte[] {10}));
+
+    obj.put(new byte[] {10}, new byte[] {53, 12});
+    assertArrayEquals(new byte[] {53, 12}, obj.get(new byte[] {10}));
+    assertNull(obj.get(new byte[] {10, 0}));
+    assertNull(obj.get(new byte[0]));
+
+    // Replace the value of an existing key
+    //
+    obj.put(new byte[] {10}, new byte[] {1});
+    assertArrayEquals(new byte[] {1}, obj.get(new byte[] {10}));
+    assertEquals(1, obj.getSize());
+  }
+
+  @Test
+  public void testManyEntries() {
+    CompactByteArrayHashIndex obj = new CompactByteArrayHashIndex();
+    int nrEntries = 100000;
+    for (int i = 0; i < nrEntries; i++) {
+      obj.put(key(i), ("value-" + i).getBytes(StandardCharsets.UTF_8));
+    }
+    assertEquals(nrEntries, obj.getSize());
+    for (int i = 0; i < nrEntries; i++) {
+      assertArrayEquals(("value-" + i).getBytes(StandardCharsets.UTF_8), obj.get(key(i)));
+    }
+    assertNull(obj.get(key(nrEntries)));
+  }
+
+  @Test
+  public void testLargeValues() {
+    CompactByteArrayHashIndex obj = new CompactByteArrayHashIndex();
+    byte[] large = new byte[3 * 1024 * 1024];
+    large[large.length - 1] = 42;
+    obj.put(new byte[] {1}, new byte[] {1});
+    obj.put(new byte[] {2}, large);
+    obj.put(new byte[] {3}, new byte[] {3});
+
+    assertArrayEquals(new byte[] {1}, obj.get(new byte[] {1}));
+    assertArrayEquals(large, obj.get(new byte[] {2}));
+    assertArrayEquals(new byte[] {3}, obj.get(new byte[] {3}));
+  }
+
+  private static byte[] key(int i) {
+    return ("key-" + i).getBytes(StandardCharsets.UTF_8);
+  }
+}
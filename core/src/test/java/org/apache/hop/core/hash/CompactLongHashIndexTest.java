@@ -0,0 +1,62 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hop.core.hash;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class CompactLongHashIndexTest {
+
+  @Test
+  public void testGetAndPut() {
+    CompactLongHashIndex obj = new CompactLongHashIndex(1);
+    assertNull(obj.get(0L));
+
+    obj.put(0L, new byte[] {53, 12});
+    obj.put(-1L, new byte[] {});
+    obj.put(Long.MIN_VALUE, new byte[] {7});
+    assertArrayEquals(new byte[] {53, 12}, obj.get(0L));
+    assertArrayEquals(new byte[] {}, obj.get(-1L));
+    assertArrayEquals(new byte[] {7}, obj.get(Long.MIN_VALUE));
+    assertNull(obj.get(1L));
+
+    // Replace the value of an existing key
+    //
+    obj.put(0L, new byte[] {1});
+    assertArrayEquals(new byte[] {1}, obj.get(0L));
+    assertEquals(3, obj.getSize());
+  }
+
+  @Test
+  public void testManyEntries() {
+    CompactLongHashIndex obj = new CompactLongHashIndex();
+    int nrEntries = 100000;
+    for (int i = 0; i < nrEntries; i++) {
+      // Keys with a fixed stride shouldn't collide
+      //
+      obj.put(i * 1024L, new byte[] {(byte) i, (byte) (i >> 8)});
+    }
+    assertEquals(nrEntries, obj.getSize());
+    for (int i = 0; i < nrEntries; i++) {
+      assertArrayEquals(new byte[] {(byte) i, (byte) (i >> 8)}, obj.get(i * 1024L));
+    }
+    assertNull(obj.get(1L));
+  }
+}
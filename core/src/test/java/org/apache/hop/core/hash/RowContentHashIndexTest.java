@@ -0,0 +1,161 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.hash;
+
+import org.apache.hop.core.hash.RowContentHashIndex.RowState;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaBigNumber;
+import org.apache.hop.core.row.value.ValueMetaDate;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.row.value.ValueMetaString;
+import org.apache.hop.core.row.value.ValueMetaTimestamp;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.Date;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class RowContentHashIndexTest {
+
+  private RowContentHashIndex index;
+
+  @Before
+  public void setUp() {
+    IRowMeta keyMeta = new RowMeta();
+    keyMeta.addValueMeta(new ValueMetaInteger("id"));
+    IRowMeta contentMeta = new RowMeta();
+    contentMeta.addValueMeta(new ValueMetaString("name"));
+    contentMeta.addValueMeta(new ValueMetaBigNumber("amount"));
+    contentMeta.addValueMeta(new ValueMetaDate("changed"));
+    index = new RowContentHashIndex(keyMeta, contentMeta);
+  }
+
+  @Test
+  public void testClassify() throws Exception {
+    Date date = new Date(1600000000000L);
+    index.put(new Object[] {1L}, new Object[] {"one", new BigDecimal("1.50"), date});
+    index.put(new Object[] {2L}, new Object[] {null, null, null});
+    assertEquals(2, index.getSize());
+
+    assertEquals(
+        RowState.UNCHANGED,
+        index.classify(new Object[] {1L}, new Object[] {"one", new BigDecimal("1.5"), date}));
+    assertEquals(
+        RowState.CHANGED,
+        index.classify(new Object[] {1L}, new Object[] {"One", new BigDecimal("1.5"), date}));
+    assertEquals(
+        RowState.CHANGED,
+        index.classify(
+            new Object[] {1L}, new Object[] {"one", new BigDecimal("1.5"), new Date(0L)}));
+    assertEquals(RowState.UNCHANGED, index.classify(new Object[] {2L}, new Object[3]));
+    assertEquals(
+        RowState.CHANGED, index.classify(new Object[] {2L}, new Object[] {"two", null, null}));
+    assertEquals(RowState.NEW, index.classify(new Object[] {3L}, new Object[3]));
+    assertEquals(RowState.NEW, index.classify(new Object[] {null}, new Object[3]));
+  }
+
+  @Test
+  public void testPutReplacesAndRemove() throws Exception {
+    index.put(new Object[] {1L}, new Object[] {"one", null, null});
+    index.put(new Object[] {1L}, new Object[] {"uno", null, null});
+    assertEquals(1, index.getSize());
+    assertEquals(
+        RowState.UNCHANGED, index.classify(new Object[] {1L}, new Object[] {"uno", null, null}));
+
+    index.remove(new Object[] {1L});
+    index.remove(new Object[] {1L});
+    assertEquals(0, index.getSize());
+    assertEquals(RowState.NEW, index.classify(new Object[] {1L}, new Object[] {"uno", null, null}));
+
+    index.put(new Object[] {1L}, new Object[] {"uno", null, null});
+    assertEquals(1, index.getSize());
+  }
+
+  @Test
+  public void testPutTableRow() throws Exception {
+    IRowMeta tableRowMeta = new RowMeta();
+    tableRowMeta.addValueMeta(new ValueMetaString("id"));
+    tableRowMeta.addValueMeta(new ValueMetaString("name"));
+    tableRowMeta.addValueMeta(new ValueMetaInteger("amount"));
+    tableRowMeta.addValueMeta(new ValueMetaDate("changed"));
+
+    assertTrue(index.putTableRow(tableRowMeta, new Object[] {"1", "one", 15L, null}));
+    assertFalse(index.putTableRow(tableRowMeta, new Object[] {null, "none", null, null}));
+    assertEquals(1, index.getSize());
+
+    // The values are converted to the types of the index
+    assertEquals(
+        RowState.UNCHANGED,
+        index.classify(new Object[] {1L}, new Object[] {"one", new BigDecimal("15.0"), null}));
+  }
+
+  @Test
+  public void testTimestampNanos() throws Exception {
+    IRowMeta keyMeta = new RowMeta();
+    keyMeta.addValueMeta(new ValueMetaString("code"));
+    IRowMeta contentMeta = new RowMeta();
+    contentMeta.addValueMeta(new ValueMetaTimestamp("ts"));
+    RowContentHashIndex timestamps = new RowContentHashIndex(keyMeta, contentMeta);
+
+    Timestamp ts = new Timestamp(1600000000000L);
+    ts.setNanos(123456789);
+    timestamps.put(new Object[] {"a"}, new Object[] {ts});
+
+    Timestamp same = new Timestamp(ts.getTime());
+    same.setNanos(123456789);
+    Timestamp other = new Timestamp(ts.getTime());
+    other.setNanos(123456788);
+    assertEquals(RowState.UNCHANGED, timestamps.classify(new Object[] {"a"}, new Object[] {same}));
+    assertEquals(RowState.CHANGED, timestamps.classify(new Object[] {"a"}, new Object[] {other}));
+  }
+
+  @Test
+  public void testDateAndTimestampWithTheSameValue() throws Exception {
+    Timestamp timestamp = new Timestamp(1600000000123L);
+    index.put(new Object[] {1L}, new Object[] {"one", null, new Date(timestamp.getTime())});
+    index.put(new Object[] {2L}, new Object[] {"two", null, timestamp});
+
+    assertEquals(
+        RowState.UNCHANGED,
+        index.classify(new Object[] {1L}, new Object[] {"one", null, timestamp}));
+    assertEquals(
+        RowState.UNCHANGED,
+        index.classify(
+            new Object[] {2L}, new Object[] {"two", null, new Date(timestamp.getTime())}));
+  }
+
+  @Test
+  public void testManyKeys() throws Exception {
+    int nrRows = 50000;
+    for (long i = 0; i < nrRows; i++) {
+      index.put(new Object[] {i}, new Object[] {"name-" + i, BigDecimal.valueOf(i), null});
+    }
+    assertEquals(nrRows, index.getSize());
+    for (long i = 0; i < nrRows; i++) {
+      assertEquals(
+          RowState.UNCHANGED,
+          index.classify(new Object[] {i}, new Object[] {"name-" + i, BigDecimal.valueOf(i), null}));
+    }
+  }
+}
@@ -40,4 +40,9 @@ public interface IBeamPipelineEngineRunConfiguration extends IPipelineEngineRunC
   String getStreamingHopTransformsBufferSize();
 
   String getFatJar();
+
+  /**
+   * @return true if the rows are encoded with the compact row coder instead of the default one
+   */
+  boolean isUsingCompactRowCoder();
 }
@@ -31,6 +31,7 @@ import org.apache.hop.core.QueueRowSet;
 import org.apache.hop.core.Result;
 import org.apache.hop.core.ResultFile;
 import org.apache.hop.core.RowMetaAndData;
+import org.apache.hop.core.SpscRowSet;
 import org.apache.hop.core.database.Database;
 import org.apache.hop.core.exception.HopException;
 import org.apache.hop.core.exception.HopFileException;
@@ -59,6 +60,7 @@ import org.apache.hop.core.row.RowBuffer;
 import org.apache.hop.core.row.value.ValueMetaString;
 import org.apache.hop.core.util.EnvUtil;
 import org.apache.hop.core.util.Utils;
+import org.apache.hop.core.util.VirtualThreadUtil;
 import org.apache.hop.core.variables.IVariables;
 import org.apache.hop.core.variables.Variables;
 import org.apache.hop.core.vfs.HopVfs;
@@ -79,6 +81,7 @@ import org.apache.hop.pipeline.engine.IPipelineEngine;
 import org.apache.hop.pipeline.engines.EmptyPipelineRunConfiguration;
 import org.apache.hop.pipeline.performance.PerformanceSnapShot;
 import org.apache.hop.pipeline.transform.BaseTransform;
+import org.apache.hop.pipeline.transform.FusedRunThread;
 import org.apache.hop.pipeline.transform.ITransform;
 import org.apache.hop.pipeline.transform.ITransformData;
 import org.apache.hop.pipeline.transform.ITransformFinishedListener;
@@ -98,8 +101,10 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.Timer;
 import java.util.TimerTask;
 import java.util.UUID;
@@ -143,6 +148,11 @@ public abstract class Pipeline
   public static final String METRIC_NAME_BUFFER_OUT = "buffer_out";
   public static final String METRIC_NAME_FLUSH_BUFFER = "flush_buffer";
   public static final String METRIC_NAME_INIT = "init";
+  public static final String METRIC_NAME_CACHE_HITS = "cache_hits";
+  public static final String METRIC_NAME_CACHE_MISSES = "cache_misses";
+  public static final String METRIC_NAME_CACHE_EVICTIONS = "cache_evictions";
+  public static final String METRIC_NAME_CACHE_SIZE = "cache_size";
+  public static final String METRIC_NAME_CACHE_MEMORY = "cache_memory";
 
   /** The package name, used for internationalization of messages. */
   private static final Class<?> PKG = Pipeline.class; // For Translator
@@ -361,6 +371,18 @@ public abstract class Pipeline
 
   protected int rowSetSize;
 
+  /** Use lock-free row sets on hops with a single producer and a single consumer copy */
+  protected boolean lockFreeRowSetsEnabled;
+
+  /** Run the transform copies on virtual threads if the Java runtime supports them */
+  protected boolean virtualThreadsEnabled;
+
+  /** Run linear chains of fusable single copy transforms in a single thread */
+  protected boolean transformFusionEnabled;
+
+  /** The names of the transforms running in the same thread as their previous transform */
+  private Set<String> fusedTransforms = new HashSet<>();
+
   /** Whether the feedback is shown. */
   protected boolean feedbackShown;
 
@@ -604,6 +626,8 @@ public abstract class Pipeline
 
     List<TransformMeta> hopTransforms = pipelineMeta.getPipelineHopTransforms(false);
 
+    fusedTransforms = findFusedTransforms(hopTransforms);
+
     if (log.isDetailed()) {
       log.logDetailed(
           BaseMessages.getString(
@@ -704,8 +728,17 @@ public abstract class Pipeline
                 Boolean batchingRowSet =
                     ValueMetaString.convertStringToBoolean(
                         System.getProperty(Const.HOP_BATCHING_ROWSET));
-                if (batchingRowSet != null && batchingRowSet.booleanValue()) {
+                if (dispatchType == TYPE_DISP_1_1
+                    && fusedTransforms.contains(nextTransform.getName())) {
+                  // Both transforms run in the same thread: no locking or waiting needed
+                  //
+                  rowSet = new QueueRowSet();
+                } else if (batchingRowSet != null && batchingRowSet.booleanValue()) {
                   rowSet = new BlockingBatchingRowSet(rowSetSize);
+                } else if (lockFreeRowSetsEnabled && dispatchType == TYPE_DISP_1_1) {
+                  // Exactly one producer and one consumer thread: no locking needed
+                  //
+                  rowSet = new SpscRowSet(rowSetSize);
                 } else {
                   rowSet = new BlockingRowSet(rowSetSize);
                 }
@@ -996,7 +1029,7 @@ public abstract class Pipeline
 
       // Put it in a separate thread!
       //
-      threads[i] = new Thread(initThreads[i]);
+      threads[i] = VirtualThreadUtil.newThread(initThreads[i], virtualThreadsEnabled);
       threads[i].setName(
           "init of " + sid.transformName + "." + sid.copy + " (" + threads[i].getName() + ")");
 
@@ -1254,13 +1287,22 @@ public abstract class Pipeline
 
     switch (pipelineMeta.getPipelineType()) {
       case Normal:
+        if (virtualThreadsEnabled && !VirtualThreadUtil.isAvailable()) {
+          log.logBasic(BaseMessages.getString(PKG, "Pipeline.Log.VirtualThreadsNotAvailable"));
+        }
+
+        // The transforms fused with their previous transform run in the thread of the chain
+        //
+        Map<String, TransformMetaDataCombi> fusedCombis = new HashMap<>();
+        for (TransformMetaDataCombi combi : transforms) {
+          if (fusedTransforms.contains(combi.transformName)) {
+            fusedCombis.put(combi.transformName, combi);
+          }
+        }
 
         // Now start all the threads...
         //
         for (final TransformMetaDataCombi combi : transforms) {
-          RunThread runThread = new RunThread(combi);
-          Thread thread = new Thread(runThread);
-          thread.setName(getName() + " - " + combi.transformName);
           ExtensionPointHandler.callExtensionPoint(
               log, this, HopExtensionPoint.TransformBeforeStart.id, combi);
           // Call an extension point at the end of the transform
@@ -1276,7 +1318,24 @@ public abstract class Pipeline
                 }
               });
 
-          thread.start();
+          if (fusedTransforms.contains(combi.transformName)) {
+            continue;
+          }
+          List<TransformMetaDataCombi> chain = new ArrayList<>();
+          chain.add(combi);
+          List<TransformMeta> nextTransforms = pipelineMeta.findNextTransforms(combi.transformMeta);
+          while (nextTransforms.size() == 1
+              && fusedCombis.containsKey(nextTransforms.get(0).getName())) {
+            TransformMetaDataCombi next = fusedCombis.get(nextTransforms.get(0).getName());
+            chain.add(next);
+            nextTransforms = pipelineMeta.findNextTransforms(next.transformMeta);
+          }
+
+          if (chain.size() == 1) {
+            startRunThread(new RunThread(combi));
+          } else {
+            startFusedRunThread(new FusedRunThread(chain));
+          }
         }
         break;
 
@@ -1366,6 +1425,80 @@ public abstract class Pipeline
     }
   }
 
+  /**
+   * Start running a transform copy. By default every copy gets its own thread.
+   *
+   * @param runThread the code running the transform copy
+   * @throws HopException in case the transform copy can't be started
+   */
+  protected void startRunThread(RunThread runThread) throws HopException {
+    Thread thread = VirtualThreadUtil.newThread(runThread, virtualThreadsEnabled);
+    thread.setName(getName() + " - " + runThread.getTransform().getTransformName());
+    thread.start();
+  }
+
+  /**
+   * Start running a chain of fused transform copies in a single thread.
+   *
+   * @param fusedRunThread the code running the transform copies
+   * @throws HopException in case the transform copies can't be started
+   */
+  protected void startFusedRunThread(FusedRunThread fusedRunThread) throws HopException {
+    StringBuilder names = new StringBuilder();
+    for (ITransform transform : fusedRunThread.getTransforms()) {
+      if (names.length() > 0) {
+        names.append(" + ");
+      }
+      names.append(transform.getTransformName());
+    }
+    if (log.isDetailed()) {
+      log.logDetailed("Running fused transforms " + names + " in a single thread");
+    }
+    Thread thread = VirtualThreadUtil.newThread(fusedRunThread, virtualThreadsEnabled);
+    thread.setName(getName() + " - " + names);
+    thread.start();
+  }
+
+  /**
+   * Find the transforms which can run in the same thread as their previous transform. Both
+   * transforms need to support fusion, run in a single copy and be connected by the only hop
+   * leaving the previous and entering the next transform.
+   *
+   * @param hopTransforms the transforms used in the pipeline
+   * @return the names of the transforms to fuse with their previous transform
+   */
+  private Set<String> findFusedTransforms(List<TransformMeta> hopTransforms) {
+    Set<String> fused = new HashSet<>();
+    if (!transformFusionEnabled
+        || pipelineMeta.getPipelineType() != PipelineMeta.PipelineType.Normal) {
+      return fused;
+    }
+    for (TransformMeta transformMeta : hopTransforms) {
+      if (!isFusable(transformMeta)) {
+        continue;
+      }
+      List<TransformMeta> previousTransforms = pipelineMeta.findPreviousTransforms(transformMeta);
+      if (previousTransforms.size() != 1
+          || pipelineMeta.findPreviousTransforms(transformMeta, false).size() != 1) {
+        continue; // Info streams are read in a different way
+      }
+      TransformMeta previousTransform = previousTransforms.get(0);
+      if (isFusable(previousTransform)
+          && pipelineMeta.findNextTransforms(previousTransform).size() == 1) {
+        fused.add(transformMeta.getName());
+      }
+    }
+    return fused;
+  }
+
+  private boolean isFusable(TransformMeta transformMeta) {
+    return transformMeta.getTransform().supportsFusion()
+        && transformMeta.getCopies(this) == 1
+        && !transformMeta.isPartitioned()
+        && !transformMeta.isMapping()
+        && !transformMeta.isDoingErrorHandling();
+  }
+
   /** Adds a transform performance snapshot. */
   protected void addTransformPerformanceSnapShot() {
 
@@ -1992,6 +2125,12 @@ public abstract class Pipeline
       throw new HopException(
           "Unable to find thread with name " + transformName + " and copy number " + copynr);
     }
+    if (fusedTransforms.contains(transformName)) {
+      throw new HopException(
+          "Unable to produce rows for transform "
+              + transformName
+              + " since it runs fused with the previous transform");
+    }
 
     // We are going to add an extra IRowSet to this iTransform.
     IRowSet rowSet;
@@ -3277,6 +3416,41 @@ public abstract class Pipeline
           "The number of times a buffer flush occurred on a ",
           "100",
           true);
+  public static final IEngineMetric METRIC_CACHE_HITS =
+      new EngineMetric(
+          METRIC_NAME_CACHE_HITS,
+          "Cache hits",
+          "The number of lookups found in the cache",
+          "110",
+          true);
+  public static final IEngineMetric METRIC_CACHE_MISSES =
+      new EngineMetric(
+          METRIC_NAME_CACHE_MISSES,
+          "Cache misses",
+          "The number of lookups not found in the cache",
+          "120",
+          true);
+  public static final IEngineMetric METRIC_CACHE_EVICTIONS =
+      new EngineMetric(
+          METRIC_NAME_CACHE_EVICTIONS,
+          "Cache evictions",
+          "The number of entries removed from the cache to make room for others",
+          "130",
+          true);
+  public static final IEngineMetric METRIC_CACHE_SIZE =
+      new EngineMetric(
+          METRIC_NAME_CACHE_SIZE,
+          "Cache size",
+          "The number of entries in the cache",
+          "140",
+          true);
+  public static final IEngineMetric METRIC_CACHE_MEMORY =
+      new EngineMetric(
+          METRIC_NAME_CACHE_MEMORY,
+          "Cache memory",
+          "The estimated memory taken by the cache, in bytes",
+          "150",
+          true);
 
   @Override
   public EngineMetrics getEngineMetrics() {
@@ -3306,19 +3480,29 @@ public abstract class Pipeline
 
             metrics.addComponent(combi.transform);
 
+            // Take a single snapshot of the counters so the metrics of a component agree with
+            // each other and with the speed we report.
+            //
+            TransformStatus transformStatus = new TransformStatus(combi.transform);
+
             metrics.setComponentMetric(
-                combi.transform, METRIC_INPUT, combi.transform.getLinesInput());
+                combi.transform, METRIC_INPUT, transformStatus.getLinesInput());
             metrics.setComponentMetric(
-                combi.transform, METRIC_OUTPUT, combi.transform.getLinesOutput());
+                combi.transform, METRIC_OUTPUT, transformStatus.getLinesOutput());
             metrics.setComponentMetric(
-                combi.transform, METRIC_READ, combi.transform.getLinesRead());
+                combi.transform, METRIC_READ, transformStatus.getLinesRead());
             metrics.setComponentMetric(
-                combi.transform, METRIC_WRITTEN, combi.transform.getLinesWritten());
+                combi.transform, METRIC_WRITTEN, transformStatus.getLinesWritten());
             metrics.setComponentMetric(
-                combi.transform, METRIC_UPDATED, combi.transform.getLinesUpdated());
+                combi.transform, METRIC_UPDATED, transformStatus.getLinesUpdated());
             metrics.setComponentMetric(
-                combi.transform, METRIC_REJECTED, combi.transform.getLinesRejected());
-            metrics.setComponentMetric(combi.transform, METRIC_ERROR, combi.transform.getErrors());
+                combi.transform, METRIC_REJECTED, transformStatus.getLinesRejected());
+            metrics.setComponentMetric(combi.transform, METRIC_ERROR, transformStatus.getErrors());
+            for (Map.Entry<IEngineMetric, Long> customMetric :
+                transform.getCustomMetrics().entrySet()) {
+              metrics.setComponentMetric(
+                  combi.transform, customMetric.getKey(), customMetric.getValue());
+            }
 
             long inputBufferSize = 0;
             for (IRowSet rowSet : transform.getInputRowSets()) {
@@ -3331,7 +3515,6 @@ public abstract class Pipeline
             }
             metrics.setComponentMetric(combi.transform, METRIC_BUFFER_OUT, outputBufferSize);
 
-            TransformStatus transformStatus = new TransformStatus(combi.transform);
             metrics.setComponentSpeed(combi.transform, transformStatus.getSpeed());
             metrics.setComponentStatus(
                 combi.transform, combi.transform.getStatus().getDescription());
@@ -3505,6 +3688,54 @@ public abstract class Pipeline
     this.rowSetSize = rowSetSize;
   }
 
+  /**
+   * Gets lockFreeRowSetsEnabled
+   *
+   * @return true if lock-free row sets are used for hops with a single producer and consumer copy
+   */
+  public boolean isLockFreeRowSetsEnabled() {
+    return lockFreeRowSetsEnabled;
+  }
+
+  /**
+   * @param lockFreeRowSetsEnabled The lockFreeRowSetsEnabled to set
+   */
+  public void setLockFreeRowSetsEnabled(boolean lockFreeRowSetsEnabled) {
+    this.lockFreeRowSetsEnabled = lockFreeRowSetsEnabled;
+  }
+
+  /**
+   * Gets virtualThreadsEnabled
+   *
+   * @return true if the transform copies are run on virtual threads when the runtime supports them
+   */
+  public boolean isVirtualThreadsEnabled() {
+    return virtualThreadsEnabled;
+  }
+
+  /**
+   * @param virtualThreadsEnabled The virtualThreadsEnabled to set
+   */
+  public void setVirtualThreadsEnabled(boolean virtualThreadsEnabled) {
+    this.virtualThreadsEnabled = virtualThreadsEnabled;
+  }
+
+  /**
+   * Gets transformFusionEnabled
+   *
+   * @return true if linear chains of fusable single copy transforms run in a single thread
+   */
+  public boolean isTransformFusionEnabled() {
+    return transformFusionEnabled;
+  }
+
+  /**
+   * @param transformFusionEnabled The transformFusionEnabled to set
+   */
+  public void setTransformFusionEnabled(boolean transformFusionEnabled) {
+    this.transformFusionEnabled = transformFusionEnabled;
+  }
+
   /**
    * Gets feedbackShown
    *
@@ -0,0 +1,250 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.engines.cooperative;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import org.apache.hop.core.Const;
+import org.apache.hop.core.IRowSet;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.logging.ILoggingObject;
+import org.apache.hop.core.parameters.INamedParameters;
+import org.apache.hop.core.variables.IVariables;
+import org.apache.hop.metadata.api.IHopMetadataProvider;
+import org.apache.hop.pipeline.Pipeline;
+import org.apache.hop.pipeline.PipelineMeta;
+import org.apache.hop.pipeline.config.IPipelineEngineRunConfiguration;
+import org.apache.hop.pipeline.config.PipelineRunConfiguration;
+import org.apache.hop.pipeline.engine.EngineMetric;
+import org.apache.hop.pipeline.engine.EngineMetrics;
+import org.apache.hop.pipeline.engine.IEngineComponent;
+import org.apache.hop.pipeline.engine.IEngineMetric;
+import org.apache.hop.pipeline.engine.IPipelineEngine;
+import org.apache.hop.pipeline.engine.PipelineEngineCapabilities;
+import org.apache.hop.pipeline.engine.PipelineEnginePlugin;
+import org.apache.hop.pipeline.engines.local.LocalPipelineEngineCapabilities;
+import org.apache.hop.pipeline.transform.RunThread;
+
+/**
+ * Runs the transforms of a pipeline on a fixed size pool of worker threads which is shared by all
+ * the pipelines using this engine. Instead of a thread per transform copy the transforms get time
+ * slices on the pool, see {@link CooperativeTransformTask}.
+ */
+@PipelineEnginePlugin(
+    id = "Cooperative",
+    name = "Hop cooperative pipeline engine",
+    description =
+        "Executes your pipeline locally with the transforms taking turns on a fixed pool of worker threads")
+public class CooperativePipelineEngine extends Pipeline implements IPipelineEngine<PipelineMeta> {
+
+  /** The default number of processRow() calls in a time slice */
+  public static final int DEFAULT_TIME_SLICE = 100;
+
+  public static final String METRIC_NAME_SLICES = "slices";
+  public static final String METRIC_NAME_DEFERRALS = "deferrals";
+
+  public static final IEngineMetric METRIC_SLICES =
+      new EngineMetric(
+          METRIC_NAME_SLICES,
+          "Slices",
+          "The number of time slices in which the transform processed rows on the worker pool",
+          "110",
+          true);
+  public static final IEngineMetric METRIC_DEFERRALS =
+      new EngineMetric(
+          METRIC_NAME_DEFERRALS,
+          "Deferrals",
+          "The number of times the transform had to wait for input rows or room in its output",
+          "120",
+          true);
+
+  private PipelineEngineCapabilities engineCapabilities = new LocalPipelineEngineCapabilities();
+
+  private int parallelism;
+  private int timeSlice;
+  private ForkJoinPool pool;
+  private List<CooperativeTransformTask> tasks;
+  private volatile Map<IEngineComponent, CooperativeTransformTask> componentTasks;
+
+  public CooperativePipelineEngine() {
+    super();
+    setDefaultRunConfiguration();
+  }
+
+  public CooperativePipelineEngine(PipelineMeta pipelineMeta) {
+    super(pipelineMeta);
+    setDefaultRunConfiguration();
+  }
+
+  public CooperativePipelineEngine(
+      PipelineMeta pipelineMeta, IVariables variables, ILoggingObject parent) {
+    super(pipelineMeta, variables, parent);
+    setDefaultRunConfiguration();
+  }
+
+  public <Parent extends IVariables & INamedParameters> CooperativePipelineEngine(
+      Parent parent, String name, String filename, IHopMetadataProvider metadataProvider)
+      throws HopException {
+    super(parent, name, filename, metadataProvider);
+    setDefaultRunConfiguration();
+  }
+
+  @Override
+  public IPipelineEngineRunConfiguration createDefaultPipelineEngineRunConfiguration() {
+    return new CooperativePipelineRunConfiguration();
+  }
+
+  private void setDefaultRunConfiguration() {
+    setPipelineRunConfiguration(
+        new PipelineRunConfiguration(
+            "cooperative",
+            "",
+            "",
+            new ArrayList<>(),
+            createDefaultPipelineEngineRunConfiguration(),
+            null,
+            false));
+  }
+
+  @Override
+  public PipelineEngineCapabilities getEngineCapabilities() {
+    return engineCapabilities;
+  }
+
+  @Override
+  public void prepareExecution() throws HopException {
+    if (!(pipelineRunConfiguration.getEngineRunConfiguration()
+        instanceof CooperativePipelineRunConfiguration)) {
+      throw new HopException(
+          "A cooperative pipeline execution expects a cooperative pipeline configuration, not an instance of class "
+              + pipelineRunConfiguration.getEngineRunConfiguration().getClass().getName());
+    }
+
+    CooperativePipelineRunConfiguration config =
+        (CooperativePipelineRunConfiguration) pipelineRunConfiguration.getEngineRunConfiguration();
+
+    setRowSetSize(Const.toInt(resolve(config.getRowSetSize()), Const.ROWS_IN_ROWSET));
+    setSafeModeEnabled(config.isSafeModeEnabled());
+    setGatheringMetrics(config.isGatheringMetrics());
+    parallelism = Const.toInt(resolve(config.getParallelism()), 0);
+    timeSlice = Const.toInt(resolve(config.getTimeSlice()), DEFAULT_TIME_SLICE);
+
+    super.prepareExecution();
+  }
+
+  @Override
+  public void startThreads() throws HopException {
+    pool = CooperativeScheduler.getPool(parallelism);
+    tasks = new ArrayList<>();
+
+    // This creates a task for every transform copy, see startRunThread()
+    //
+    super.startThreads();
+
+    connectNeighbours();
+
+    Map<IEngineComponent, CooperativeTransformTask> map = new IdentityHashMap<>();
+    for (CooperativeTransformTask task : tasks) {
+      map.put(task.getTransform(), task);
+    }
+    componentTasks = map;
+
+    if (log.isDetailed()) {
+      log.logDetailed(
+          "Scheduling "
+              + tasks.size()
+              + " transform copies on a pool of "
+              + pool.getParallelism()
+              + " worker threads");
+    }
+    for (CooperativeTransformTask task : tasks) {
+      pool.execute(task);
+    }
+  }
+
+  /** Instead of starting a thread we create a task to run on the worker pool. */
+  @Override
+  protected void startRunThread(RunThread runThread) throws HopException {
+    tasks.add(new CooperativeTransformTask(runThread, pool, getRowSetSize(), timeSlice));
+  }
+
+  /**
+   * Let the tasks of transforms sharing a row set know about each other. When one of them makes
+   * progress the other one might be able to continue as well.
+   */
+  private void connectNeighbours() {
+    Map<IRowSet, CooperativeTransformTask> writers = new IdentityHashMap<>();
+    for (CooperativeTransformTask task : tasks) {
+      for (IRowSet rowSet : task.getTransform().getOutputRowSets()) {
+        writers.put(rowSet, task);
+      }
+    }
+    for (CooperativeTransformTask reader : tasks) {
+      for (IRowSet rowSet : reader.getTransform().getInputRowSets()) {
+        CooperativeTransformTask writer = writers.get(rowSet);
+        if (writer != null) {
+          writer.addNeighbour(reader);
+          reader.addNeighbour(writer);
+        }
+      }
+    }
+  }
+
+  @Override
+  public String getStatusDescription() {
+    return super.getStatus();
+  }
+
+  @Override
+  public synchronized EngineMetrics getEngineMetrics(String componentName, int copyNr) {
+    EngineMetrics metrics = super.getEngineMetrics(componentName, copyNr);
+
+    Map<IEngineComponent, CooperativeTransformTask> map = componentTasks;
+    if (map != null) {
+      for (IEngineComponent component : metrics.getComponents()) {
+        CooperativeTransformTask task = map.get(component);
+        if (task != null) {
+          metrics.setComponentMetric(component, METRIC_SLICES, task.getSlices());
+          metrics.setComponentMetric(component, METRIC_DEFERRALS, task.getDeferrals());
+        }
+      }
+    }
+    return metrics;
+  }
+
+  /**
+   * Gets parallelism
+   *
+   * @return the number of worker threads requested, 0 for one per available processor
+   */
+  public int getParallelism() {
+    return parallelism;
+  }
+
+  /**
+   * Gets timeSlice
+   *
+   * @return value of timeSlice
+   */
+  public int getTimeSlice() {
+    return timeSlice;
+  }
+}
@@ -0,0 +1,189 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.engines.cooperative;
+
+import org.apache.hop.core.Const;
+import org.apache.hop.core.gui.plugin.GuiElementType;
+import org.apache.hop.core.gui.plugin.GuiPlugin;
+import org.apache.hop.core.gui.plugin.GuiWidgetElement;
+import org.apache.hop.metadata.api.HopMetadataProperty;
+import org.apache.hop.pipeline.config.IPipelineEngineRunConfiguration;
+import org.apache.hop.pipeline.config.PipelineRunConfiguration;
+import org.apache.hop.pipeline.engines.EmptyPipelineRunConfiguration;
+
+@GuiPlugin(description = "Cooperative pipeline run configuration widgets")
+public class CooperativePipelineRunConfiguration extends EmptyPipelineRunConfiguration
+    implements IPipelineEngineRunConfiguration {
+
+  @GuiWidgetElement(
+      id = "rowSetSize",
+      order = "010",
+      parentId = PipelineRunConfiguration.GUI_PLUGIN_ELEMENT_PARENT_ID,
+      type = GuiElementType.TEXT,
+      label =
+          "i18n:org.apache.hop.ui.pipeline.config:PipelineRunConfigurationDialog.RowSetSize.Label")
+  @HopMetadataProperty(key = "rowset_size")
+  protected String rowSetSize;
+
+  /** The number of worker threads, empty means one per available processor. */
+  @GuiWidgetElement(
+      id = "parallelism",
+      order = "020",
+      parentId = PipelineRunConfiguration.GUI_PLUGIN_ELEMENT_PARENT_ID,
+      type = GuiElementType.TEXT,
+      label =
+          "i18n:org.apache.hop.ui.pipeline.config:PipelineRunConfigurationDialog.Parallelism.Label",
+      toolTip =
+          "i18n:org.apache.hop.ui.pipeline.config:PipelineRunConfigurationDialog.Parallelism.ToolTip")
+  @HopMetadataProperty(key = "parallelism")
+  protected String parallelism;
+
+  /** The number of times a transform processes a row before it gives its worker to another one. */
+  @GuiWidgetElement(
+      id = "timeSlice",
+      order = "030",
+      parentId = PipelineRunConfiguration.GUI_PLUGIN_ELEMENT_PARENT_ID,
+      type = GuiElementType.TEXT,
+      label =
+          "i18n:org.apache.hop.ui.pipeline.config:PipelineRunConfigurationDialog.TimeSlice.Label",
+      toolTip =
+          "i18n:org.apache.hop.ui.pipeline.config:PipelineRunConfigurationDialog.TimeSlice.ToolTip")
+  @HopMetadataProperty(key = "time_slice")
+  protected String timeSlice;
+
+  @GuiWidgetElement(
+      id = "safeModeEnabled",
+      order = "040",
+      parentId = PipelineRunConfiguration.GUI_PLUGIN_ELEMENT_PARENT_ID,
+      type = GuiElementType.CHECKBOX,
+      label =
+          "i18n:org.apache.hop.ui.pipeline.config:PipelineRunConfigurationDialog.SafeModeEnabled.Label")
+  @HopMetadataProperty(key = "safe_mode")
+  protected boolean safeModeEnabled;
+
+  @GuiWidgetElement(
+      id = "gatheringMetrics",
+      order = "050",
+      parentId = PipelineRunConfiguration.GUI_PLUGIN_ELEMENT_PARENT_ID,
+      type = GuiElementType.CHECKBOX,
+      label =
+          "i18n:org.apache.hop.ui.pipeline.config:PipelineRunConfigurationDialog.GatheringMetrics.Label")
+  @HopMetadataProperty(key = "gather_metrics")
+  protected boolean gatheringMetrics;
+
+  public CooperativePipelineRunConfiguration() {
+    super();
+    this.rowSetSize = Integer.toString(Const.ROWS_IN_ROWSET);
+    this.parallelism = "";
+    this.timeSlice = Integer.toString(CooperativePipelineEngine.DEFAULT_TIME_SLICE);
+  }
+
+  public CooperativePipelineRunConfiguration(CooperativePipelineRunConfiguration config) {
+    super(config);
+    this.rowSetSize = config.rowSetSize;
+    this.parallelism = config.parallelism;
+    this.timeSlice = config.timeSlice;
+    this.safeModeEnabled = config.safeModeEnabled;
+    this.gatheringMetrics = config.gatheringMetrics;
+  }
+
+  @Override
+  public CooperativePipelineRunConfiguration clone() {
+    return new CooperativePipelineRunConfiguration(this);
+  }
+
+  /**
+   * Gets rowSetSize
+   *
+   * @return value of rowSetSize
+   */
+  public String getRowSetSize() {
+    return rowSetSize;
+  }
+
+  /**
+   * @param rowSetSize The rowSetSize to set
+   */
+  public void setRowSetSize(String rowSetSize) {
+    this.rowSetSize = rowSetSize;
+  }
+
+  /**
+   * Gets parallelism
+   *
+   * @return value of parallelism
+   */
+  public String getParallelism() {
+    return parallelism;
+  }
+
+  /**
+   * @param parallelism The parallelism to set
+   */
+  public void setParallelism(String parallelism) {
+    this.parallelism = parallelism;
+  }
+
+  /**
+   * Gets timeSlice
+   *
+   * @return value of timeSlice
+   */
+  public String getTimeSlice() {
+    return timeSlice;
+  }
+
+  /**
+   * @param timeSlice The timeSlice to set
+   */
+  public void setTimeSlice(String timeSlice) {
+    this.timeSlice = timeSlice;
+  }
+
+  /**
+   * Gets safeModeEnabled
+   *
+   * @return value of safeModeEnabled
+   */
+  public boolean isSafeModeEnabled() {
+    return safeModeEnabled;
+  }
+
+  /**
+   * @param safeModeEnabled The safeModeEnabled to set
+   */
+  public void setSafeModeEnabled(boolean safeModeEnabled) {
+    this.safeModeEnabled = safeModeEnabled;
+  }
+
+  /**
+   * Gets gatheringMetrics
+   *
+   * @return value of gatheringMetrics
+   */
+  public boolean isGatheringMetrics() {
+    return gatheringMetrics;
+  }
+
+  /**
+   * @param gatheringMetrics The gatheringMetrics to set
+   */
+  public void setGatheringMetrics(boolean gatheringMetrics) {
+    this.gatheringMetrics = gatheringMetrics;
+  }
+}
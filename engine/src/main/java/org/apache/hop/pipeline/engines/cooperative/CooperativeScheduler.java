@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.engines.cooperative;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The worker pools shared by all pipelines running on the cooperative engine in this JVM. There is
+ * one work-stealing pool per level of parallelism, so 50 pipelines running at the same time share
+ * the same handful of worker threads instead of starting a thread per transform copy each.
+ */
+public final class CooperativeScheduler {
+
+  private static final Map<Integer, ForkJoinPool> pools = new ConcurrentHashMap<>();
+
+  /** Re-submits transforms which had to wait for input rows or for room in their output */
+  private static final ScheduledExecutorService delayExecutor =
+      Executors.newSingleThreadScheduledExecutor(
+          r -> {
+            Thread thread = new Thread(r, "Hop cooperative scheduler timer");
+            thread.setDaemon(true);
+            return thread;
+          });
+
+  private CooperativeScheduler() {}
+
+  /**
+   * Get the shared worker pool for the given parallelism.
+   *
+   * @param parallelism the number of worker threads, 0 or less for one per available processor
+   * @return the pool
+   */
+  public static ForkJoinPool getPool(int parallelism) {
+    int size = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+    return pools.computeIfAbsent(size, CooperativeScheduler::createPool);
+  }
+
+  private static ForkJoinPool createPool(int parallelism) {
+    return new ForkJoinPool(
+        parallelism,
+        pool -> {
+          ForkJoinWorkerThread thread =
+              ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+          thread.setDaemon(true);
+          thread.setName("Hop cooperative worker (" + parallelism + ") " + thread.getPoolIndex());
+          return thread;
+        },
+        null,
+        true);
+  }
+
+  /**
+   * Run a task on a pool after a delay.
+   *
+   * @param pool the pool to run the task on
+   * @param task the task
+   * @param delayNanos the delay in nanoseconds
+   */
+  static void schedule(ForkJoinPool pool, Runnable task, long delayNanos) {
+    delayExecutor.schedule(() -> pool.execute(task), delayNanos, TimeUnit.NANOSECONDS);
+  }
+}
@@ -0,0 +1,228 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.engines.cooperative;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.hop.core.IRowSet;
+import org.apache.hop.pipeline.transform.ITransform;
+import org.apache.hop.pipeline.transform.RunThread;
+
+/**
+ * Runs a single transform copy in time slices on a shared worker pool. A time slice calls
+ * processRow() a limited number of times, sized so that the transform doesn't have to wait for
+ * input rows or for room in its output buffers. Transforms with full input buffers and empty output
+ * buffers get longer time slices. A transform which can't make progress is put aside until one of
+ * its neighbours makes progress or a short delay expires.
+ *
+ * <p>A task is never queued or running more than once at the same time.
+ */
+class CooperativeTransformTask implements Runnable {
+
+  private static final long MIN_DELAY_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+  private static final long MAX_DELAY_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+  private final RunThread runThread;
+  private final ITransform transform;
+  private final ForkJoinPool pool;
+  private final int rowSetSize;
+  private final int timeSlice;
+
+  /** The tasks of the transforms which write to or read from our row sets */
+  private final List<CooperativeTransformTask> neighbours;
+
+  /** True while the task is waiting to be woken up, neither queued nor running */
+  private final AtomicBoolean deferred;
+
+  private final AtomicLong slices;
+  private final AtomicLong deferrals;
+
+  private boolean started;
+  private volatile boolean finished;
+  private long delayNanos;
+
+  CooperativeTransformTask(RunThread runThread, ForkJoinPool pool, int rowSetSize, int timeSlice) {
+    this.runThread = runThread;
+    this.transform = runThread.getTransform();
+    this.pool = pool;
+    this.rowSetSize = Math.max(1, rowSetSize);
+    this.timeSlice = Math.max(1, timeSlice);
+    this.neighbours = new ArrayList<>();
+    this.deferred = new AtomicBoolean(false);
+    this.slices = new AtomicLong();
+    this.deferrals = new AtomicLong();
+    this.delayNanos = MIN_DELAY_NANOS;
+  }
+
+  @Override
+  public void run() {
+    if (finished) {
+      return;
+    }
+    boolean done = false;
+    int calls = 0;
+    try {
+      if (!started) {
+        started = true;
+        runThread.startRunning();
+      }
+
+      int maxCalls = getTimeSliceCalls();
+      while (calls < maxCalls) {
+        if (transform.isStopped() || !transform.processRow() || transform.isStopped()) {
+          done = true;
+          break;
+        }
+        calls++;
+      }
+    } catch (Throwable t) {
+      runThread.handleError(t);
+      done = true;
+    }
+
+    if (done) {
+      finished = true;
+      runThread.stopRunning();
+      wakeNeighbours();
+      return;
+    }
+
+    if (calls > 0) {
+      slices.incrementAndGet();
+      delayNanos = MIN_DELAY_NANOS;
+      wakeNeighbours();
+      pool.execute(this);
+    } else {
+      deferrals.incrementAndGet();
+      deferred.set(true);
+
+      // A neighbour might have made progress while we were looking
+      //
+      if (getTimeSliceCalls() > 0) {
+        wakeUp();
+        return;
+      }
+      CooperativeScheduler.schedule(pool, this::wakeUp, delayNanos);
+      delayNanos = Math.min(delayNanos * 2, MAX_DELAY_NANOS);
+    }
+  }
+
+  /**
+   * Work out how many times we can call processRow() without having to wait for input rows or for
+   * room in the output buffers, assuming a transform reads and writes about one row per call.
+   *
+   * @return the number of calls for this time slice, 0 if the transform can't make progress now
+   */
+  int getTimeSliceCalls() {
+    if (transform.isStopped()) {
+      return 1;
+    }
+
+    // How many rows are waiting to be read?
+    //
+    List<IRowSet> inputRowSets = transform.getInputRowSets();
+    long available = inputRowSets.isEmpty() ? Long.MAX_VALUE : 0L;
+    double inputFill = 0.0;
+    for (IRowSet rowSet : inputRowSets) {
+      int size = rowSet.size();
+      if (size == 0 && rowSet.isDone()) {
+        // Let the transform find out that this input is finished
+        available = Math.max(available, 1L);
+      }
+      available += size;
+      inputFill = Math.max(inputFill, Math.min(1.0, (double) size / rowSetSize));
+    }
+
+    // How much room is there to write rows?
+    //
+    long room = Long.MAX_VALUE;
+    double outputFill = 0.0;
+    for (IRowSet rowSet : transform.getOutputRowSets()) {
+      int size = rowSet.size();
+      room = Math.min(room, (long) rowSetSize - size);
+      outputFill = Math.max(outputFill, Math.min(1.0, (double) size / rowSetSize));
+    }
+
+    // Full input buffers and empty output buffers make for a longer time slice: up to twice the
+    // configured slice. Empty inputs and full outputs make for half of it.
+    //
+    double weight = (1.0 + inputFill) * (2.0 - outputFill) / 2.0;
+    long slice = Math.max(1L, Math.round(timeSlice * weight));
+
+    return (int) Math.max(0L, Math.min(slice, Math.min(available, room)));
+  }
+
+  /** Submit the task again if it was waiting for a neighbour or a delay. */
+  void wakeUp() {
+    if (deferred.compareAndSet(true, false)) {
+      pool.execute(this);
+    }
+  }
+
+  private void wakeNeighbours() {
+    for (CooperativeTransformTask neighbour : neighbours) {
+      neighbour.wakeUp();
+    }
+  }
+
+  /**
+   * @param neighbour a task reading from or writing to the row sets of this transform
+   */
+  void addNeighbour(CooperativeTransformTask neighbour) {
+    if (neighbour != this && !neighbours.contains(neighbour)) {
+      neighbours.add(neighbour);
+    }
+  }
+
+  /**
+   * Gets runThread
+   *
+   * @return value of runThread
+   */
+  RunThread getRunThread() {
+    return runThread;
+  }
+
+  /**
+   * Gets transform
+   *
+   * @return value of transform
+   */
+  ITransform getTransform() {
+    return transform;
+  }
+
+  /** @return the number of time slices in which the transform made progress */
+  long getSlices() {
+    return slices.get();
+  }
+
+  /** @return the number of times the transform had to wait for input rows or output room */
+  long getDeferrals() {
+    return deferrals.get();
+  }
+
+  /** @return true if the transform finished running */
+  boolean isFinished() {
+    return finished;
+  }
+}
@@ -131,6 +131,9 @@ public class LocalPipelineEngine extends Pipeline implements IPipelineEngine<Pip
     setSafeModeEnabled(config.isSafeModeEnabled());
     setSortingTransformsTopologically(config.isSortingTransformsTopologically());
     setGatheringMetrics(config.isGatheringMetrics());
+    setLockFreeRowSetsEnabled(config.isLockFreeRowSetsEnabled());
+    setVirtualThreadsEnabled(config.isVirtualThreadsEnabled());
+    setTransformFusionEnabled(config.isTransformFusionEnabled());
     setFeedbackShown(config.isFeedbackShown());
     setFeedbackSize(Const.toInt(resolve(config.getFeedbackSize()), Const.ROWS_UPDATE));
 
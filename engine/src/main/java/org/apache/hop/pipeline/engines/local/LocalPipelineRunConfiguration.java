@@ -18,6 +18,7 @@
 package org.apache.hop.pipeline.engines.local;
 
 import org.apache.hop.core.Const;
+import org.apache.hop.core.WaitStrategy;
 import org.apache.hop.core.gui.plugin.GuiElementType;
 import org.apache.hop.core.gui.plugin.GuiPlugin;
 import org.apache.hop.core.gui.plugin.GuiWidgetElement;
@@ -109,6 +110,20 @@ public class LocalPipelineRunConfiguration extends EmptyPipelineRunConfiguration
   @HopMetadataProperty(key = "wait_time")
   protected String waitTime;
 
+  /** How a transform waits for rows to arrive on its input. */
+  @GuiWidgetElement(
+      id = "waitStrategy",
+      order = "075",
+      parentId = PipelineRunConfiguration.GUI_PLUGIN_ELEMENT_PARENT_ID,
+      type = GuiElementType.COMBO,
+      label =
+          "i18n:org.apache.hop.ui.pipeline.config:PipelineRunConfigurationDialog.WaitStrategy.Label",
+      toolTip =
+          "i18n:org.apache.hop.ui.pipeline.config:PipelineRunConfigurationDialog.WaitStrategy.ToolTip",
+      comboValuesMethod = "getWaitStrategies")
+  @HopMetadataProperty(key = "wait_strategy")
+  protected String waitStrategy;
+
   /** The feedback size. */
   @GuiWidgetElement(
       id = "sampleTypeInGui",
@@ -144,6 +159,42 @@ public class LocalPipelineRunConfiguration extends EmptyPipelineRunConfiguration
   @HopMetadataProperty(key = "transactional")
   protected boolean transactional;
 
+  @GuiWidgetElement(
+      id = "lockFreeRowSetsEnabled",
+      order = "110",
+      parentId = PipelineRunConfiguration.GUI_PLUGIN_ELEMENT_PARENT_ID,
+      type = GuiElementType.CHECKBOX,
+      label =
+          "i18n:org.apache.hop.ui.pipeline.config:PipelineRunConfigurationDialog.LockFreeRowSetsEnabled.Label",
+      toolTip =
+          "i18n:org.apache.hop.ui.pipeline.config:PipelineRunConfigurationDialog.LockFreeRowSetsEnabled.ToolTip")
+  @HopMetadataProperty(key = "lock_free_rowsets")
+  protected boolean lockFreeRowSetsEnabled;
+
+  @GuiWidgetElement(
+      id = "virtualThreadsEnabled",
+      order = "120",
+      parentId = PipelineRunConfiguration.GUI_PLUGIN_ELEMENT_PARENT_ID,
+      type = GuiElementType.CHECKBOX,
+      label =
+          "i18n:org.apache.hop.ui.pipeline.config:PipelineRunConfigurationDialog.VirtualThreadsEnabled.Label",
+      toolTip =
+          "i18n:org.apache.hop.ui.pipeline.config:PipelineRunConfigurationDialog.VirtualThreadsEnabled.ToolTip")
+  @HopMetadataProperty(key = "virtual_threads")
+  protected boolean virtualThreadsEnabled;
+
+  @GuiWidgetElement(
+      id = "transformFusionEnabled",
+      order = "130",
+      parentId = PipelineRunConfiguration.GUI_PLUGIN_ELEMENT_PARENT_ID,
+      type = GuiElementType.CHECKBOX,
+      label =
+          "i18n:org.apache.hop.ui.pipeline.config:PipelineRunConfigurationDialog.TransformFusionEnabled.Label",
+      toolTip =
+          "i18n:org.apache.hop.ui.pipeline.config:PipelineRunConfigurationDialog.TransformFusionEnabled.ToolTip")
+  @HopMetadataProperty(key = "transform_fusion")
+  protected boolean transformFusionEnabled;
+
   public enum SampleType {
     None,
     First,
@@ -157,6 +208,7 @@ public class LocalPipelineRunConfiguration extends EmptyPipelineRunConfiguration
     this.feedbackShown = false;
     this.feedbackSize = Integer.toString(Const.ROWS_UPDATE);
     this.waitTime = EnvUtil.getSystemProperty(Const.HOP_DEFAULT_BUFFER_POLLING_WAITTIME, "20");
+    this.waitStrategy = WaitStrategy.Polling.name();
     this.sampleTypeInGui = SampleType.Last.name();
     this.sampleSize = "100";
     this.transactional = false;
@@ -168,12 +220,16 @@ public class LocalPipelineRunConfiguration extends EmptyPipelineRunConfiguration
     this.feedbackShown = config.feedbackShown;
     this.feedbackSize = config.feedbackSize;
     this.waitTime = config.waitTime;
+    this.waitStrategy = config.waitStrategy;
     this.safeModeEnabled = config.safeModeEnabled;
     this.gatheringMetrics = config.gatheringMetrics;
     this.sortingTransformsTopologically = config.sortingTransformsTopologically;
     this.sampleTypeInGui = config.sampleTypeInGui;
     this.sampleSize = config.sampleSize;
     this.transactional = config.transactional;
+    this.lockFreeRowSetsEnabled = config.lockFreeRowSetsEnabled;
+    this.virtualThreadsEnabled = config.virtualThreadsEnabled;
+    this.transformFusionEnabled = config.transformFusionEnabled;
   }
 
   @Override
@@ -188,6 +244,15 @@ public class LocalPipelineRunConfiguration extends EmptyPipelineRunConfiguration
     }
     return list;
   }
+
+  public List<String> getWaitStrategies(ILogChannel log, IHopMetadataProvider metadataProvider) {
+    List<String> list = new ArrayList<>();
+    for (WaitStrategy strategy : WaitStrategy.values()) {
+      list.add(strategy.name());
+    }
+    return list;
+  }
+
   /**
    * Gets rowSetSize
    *
@@ -300,6 +365,22 @@ public class LocalPipelineRunConfiguration extends EmptyPipelineRunConfiguration
     this.waitTime = waitTime;
   }
 
+  /**
+   * Gets waitStrategy
+   *
+   * @return value of waitStrategy
+   */
+  public String getWaitStrategy() {
+    return waitStrategy;
+  }
+
+  /**
+   * @param waitStrategy The waitStrategy to set
+   */
+  public void setWaitStrategy(String waitStrategy) {
+    this.waitStrategy = waitStrategy;
+  }
+
   /**
    * Gets sampleTypeInGui
    *
@@ -347,4 +428,52 @@ public class LocalPipelineRunConfiguration extends EmptyPipelineRunConfiguration
   public void setTransactional(boolean transactional) {
     this.transactional = transactional;
   }
+
+  /**
+   * Gets lockFreeRowSetsEnabled
+   *
+   * @return value of lockFreeRowSetsEnabled
+   */
+  public boolean isLockFreeRowSetsEnabled() {
+    return lockFreeRowSetsEnabled;
+  }
+
+  /**
+   * @param lockFreeRowSetsEnabled The lockFreeRowSetsEnabled to set
+   */
+  public void setLockFreeRowSetsEnabled(boolean lockFreeRowSetsEnabled) {
+    this.lockFreeRowSetsEnabled = lockFreeRowSetsEnabled;
+  }
+
+  /**
+   * Gets virtualThreadsEnabled
+   *
+   * @return value of virtualThreadsEnabled
+   */
+  public boolean isVirtualThreadsEnabled() {
+    return virtualThreadsEnabled;
+  }
+
+  /**
+   * @param virtualThreadsEnabled The virtualThreadsEnabled to set
+   */
+  public void setVirtualThreadsEnabled(boolean virtualThreadsEnabled) {
+    this.virtualThreadsEnabled = virtualThreadsEnabled;
+  }
+
+  /**
+   * Gets transformFusionEnabled
+   *
+   * @return value of transformFusionEnabled
+   */
+  public boolean isTransformFusionEnabled() {
+    return transformFusionEnabled;
+  }
+
+  /**
+   * @param transformFusionEnabled The transformFusionEnabled to set
+   */
+  public void setTransformFusionEnabled(boolean transformFusionEnabled) {
+    this.transformFusionEnabled = transformFusionEnabled;
+  }
 }
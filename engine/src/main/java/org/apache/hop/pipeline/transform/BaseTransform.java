@@ -25,7 +25,11 @@ import org.apache.hop.core.BlockingRowSet;
 import org.apache.hop.core.Const;
 import org.apache.hop.core.IExtensionData;
 import org.apache.hop.core.IRowSet;
+import org.apache.hop.core.QueueRowSet;
 import org.apache.hop.core.ResultFile;
+import org.apache.hop.core.RowSetSignal;
+import org.apache.hop.core.WaitStrategy;
+import org.apache.hop.core.cache.LookupCache;
 import org.apache.hop.core.exception.HopException;
 import org.apache.hop.core.exception.HopRowException;
 import org.apache.hop.core.exception.HopTransformException;
@@ -52,6 +56,7 @@ import org.apache.hop.pipeline.PipelineMeta;
 import org.apache.hop.pipeline.config.IPipelineEngineRunConfiguration;
 import org.apache.hop.pipeline.engine.EngineComponent.ComponentExecutionStatus;
 import org.apache.hop.pipeline.engine.IEngineComponent;
+import org.apache.hop.pipeline.engine.IEngineMetric;
 import org.apache.hop.pipeline.engine.IPipelineEngine;
 import org.apache.hop.pipeline.engines.local.LocalPipelineRunConfiguration;
 
@@ -65,11 +70,13 @@ import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Hashtable;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
@@ -152,34 +159,38 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
 
   private final IPipelineEngine<PipelineMeta> pipeline;
 
-  private final Object statusCountersLock = new Object();
-
   protected Date initStartDate;
   protected Date executionStartDate;
   protected Date firstRowReadDate;
   protected Date lastRowWrittenDate;
   protected Date executionEndDate;
 
+  // The line counters are updated for every row by the transform thread and read by monitoring
+  // threads (status, metrics, performance snapshots). They're kept in LongAdders so that reading
+  // them never blocks the row path. The row handling in this class updates them directly: the
+  // incrementLinesXxx() methods also have to sum up the new value they return.
+  //
+
   /** Number of lines read from previous transform(s) */
-  private long linesRead;
+  private final LongAdder linesRead = new LongAdder();
 
   /** Number of lines written to next transform(s) */
-  private long linesWritten;
+  private final LongAdder linesWritten = new LongAdder();
 
   /** Number of lines read from file or database */
-  private long linesInput;
+  private final LongAdder linesInput = new LongAdder();
 
   /** Number of lines written to file or database */
-  private long linesOutput;
+  private final LongAdder linesOutput = new LongAdder();
 
   /** Number of updates in a database table or file */
-  private long linesUpdated;
+  private final LongAdder linesUpdated = new LongAdder();
 
   /** Number of lines skipped */
-  private long linesSkipped;
+  private final LongAdder linesSkipped = new LongAdder();
 
   /** Number of lines rejected to an error handling transform */
-  private long linesRejected;
+  private final LongAdder linesRejected = new LongAdder();
 
   private boolean distributed;
 
@@ -274,6 +285,9 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
 
   private IRowMeta inputRowMeta;
 
+  /** The input row set the last row was read from */
+  private IRowSet lastReadRowSet;
+
   /** transform partitioning information of the NEXT transform */
   private TransformPartitioningMeta nextTransformPartitioningMeta;
 
@@ -289,6 +303,9 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
 
   private static final int NR_OF_ROWS_IN_BLOCK = 500;
 
+  /** The number of rows a transform reads and writes in one go with getRows() and putRows() */
+  protected static final int ROW_BATCH_SIZE = NR_OF_ROWS_IN_BLOCK;
+
   private int blockPointer;
 
   private List<ITransformFinishedListener> transformFinishedListeners;
@@ -387,16 +404,6 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
 
     init = false;
 
-    synchronized (statusCountersLock) {
-      linesRead = 0L;
-      linesWritten = 0L;
-      linesUpdated = 0L;
-      linesSkipped = 0L;
-      linesRejected = 0L;
-      linesInput = 0L;
-      linesOutput = 0L;
-    }
-
     inputRowSets = new ArrayList<>();
     outputRowSets = new ArrayList<>();
     nextTransforms = null;
@@ -643,9 +650,7 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
    */
   @Override
   public long getLinesRead() {
-    synchronized (statusCountersLock) {
-      return linesRead;
-    }
+    return linesRead.sum();
   }
 
   /**
@@ -655,9 +660,8 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
    * @return Returns the new value
    */
   public long incrementLinesRead() {
-    synchronized (statusCountersLock) {
-      return ++linesRead;
-    }
+    linesRead.increment();
+    return linesRead.sum();
   }
 
   /**
@@ -666,9 +670,8 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
    * @return Returns the new value
    */
   public long decrementLinesRead() {
-    synchronized (statusCountersLock) {
-      return --linesRead;
-    }
+    linesRead.decrement();
+    return linesRead.sum();
   }
 
   /**
@@ -676,9 +679,7 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
    * @see {@link #getLinesRead()}, {@link #incrementLinesRead()}, {@link #decrementLinesRead()}
    */
   public void setLinesRead(long newLinesReadValue) {
-    synchronized (statusCountersLock) {
-      linesRead = newLinesReadValue;
-    }
+    setCounter(linesRead, newLinesReadValue);
   }
 
   /**
@@ -687,9 +688,7 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
    */
   @Override
   public long getLinesInput() {
-    synchronized (statusCountersLock) {
-      return linesInput;
-    }
+    return linesInput.sum();
   }
 
   /**
@@ -699,9 +698,8 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
    * @return the new incremented value
    */
   public long incrementLinesInput() {
-    synchronized (statusCountersLock) {
-      return ++linesInput;
-    }
+    linesInput.increment();
+    return linesInput.sum();
   }
 
   /**
@@ -710,9 +708,7 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
    * @see {@link #getLinesInput()} or {@link #incrementLinesInput()}
    */
   public void setLinesInput(long newLinesInputValue) {
-    synchronized (statusCountersLock) {
-      linesInput = newLinesInputValue;
-    }
+    setCounter(linesInput, newLinesInputValue);
   }
 
   /**
@@ -721,9 +717,7 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
    */
   @Override
   public long getLinesOutput() {
-    synchronized (statusCountersLock) {
-      return linesOutput;
-    }
+    return linesOutput.sum();
   }
 
   /**
@@ -733,9 +727,8 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
    * @see {@link #getLinesOutput()}, {@link #setLinesOutput(long)}
    */
   public long incrementLinesOutput() {
-    synchronized (statusCountersLock) {
-      return ++linesOutput;
-    }
+    linesOutput.increment();
+    return linesOutput.sum();
   }
 
   /**
@@ -744,9 +737,7 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
    * @see {@link #getLinesOutput()} or {@link #incrementLinesOutput()}
    */
   public void setLinesOutput(long newLinesOutputValue) {
-    synchronized (statusCountersLock) {
-      linesOutput = newLinesOutputValue;
-    }
+    setCounter(linesOutput, newLinesOutputValue);
   }
 
   /**
@@ -757,9 +748,7 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
    */
   @Override
   public long getLinesWritten() {
-    synchronized (statusCountersLock) {
-      return linesWritten;
-    }
+    return linesWritten.sum();
   }
 
   /**
@@ -769,9 +758,8 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
    * @return Returns the new value
    */
   public long incrementLinesWritten() {
-    synchronized (statusCountersLock) {
-      return ++linesWritten;
-    }
+    linesWritten.increment();
+    return linesWritten.sum();
   }
 
   /**
@@ -781,9 +769,8 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
    * @return Returns the new value
    */
   public long decrementLinesWritten() {
-    synchronized (statusCountersLock) {
-      return --linesWritten;
-    }
+    linesWritten.decrement();
+    return linesWritten.sum();
   }
 
   /**
@@ -794,9 +781,7 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
    *     #decrementLinesWritten()}
    */
   public void setLinesWritten(long newLinesWrittenValue) {
-    synchronized (statusCountersLock) {
-      linesWritten = newLinesWrittenValue;
-    }
+    setCounter(linesWritten, newLinesWrittenValue);
   }
 
   /**
@@ -805,9 +790,7 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
    */
   @Override
   public long getLinesUpdated() {
-    synchronized (statusCountersLock) {
-      return linesUpdated;
-    }
+    return linesUpdated.sum();
   }
 
   /**
@@ -817,9 +800,8 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
    * @see {@link #getLinesUpdated()}, {@link #setLinesUpdated(long)}
    */
   public long incrementLinesUpdated() {
-    synchronized (statusCountersLock) {
-      return ++linesUpdated;
-    }
+    linesUpdated.increment();
+    return linesUpdated.sum();
   }
 
   /**
@@ -828,9 +810,7 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
    * @see {@link #getLinesUpdated()}, {@link #incrementLinesUpdated()}
    */
   public void setLinesUpdated(long newLinesUpdatedValue) {
-    synchronized (statusCountersLock) {
-      linesUpdated = newLinesUpdatedValue;
-    }
+    setCounter(linesUpdated, newLinesUpdatedValue);
   }
 
   /**
@@ -841,9 +821,7 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
    */
   @Override
   public long getLinesRejected() {
-    synchronized (statusCountersLock) {
-      return linesRejected;
-    }
+    return linesRejected.sum();
   }
 
   /**
@@ -853,9 +831,8 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
    * @return the new incremented value
    */
   public long incrementLinesRejected() {
-    synchronized (statusCountersLock) {
-      return ++linesRejected;
-    }
+    linesRejected.increment();
+    return linesRejected.sum();
   }
 
   /**
@@ -864,9 +841,7 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
    */
   @Override
   public void setLinesRejected(long newLinesRejectedValue) {
-    synchronized (statusCountersLock) {
-      linesRejected = newLinesRejectedValue;
-    }
+    setCounter(linesRejected, newLinesRejectedValue);
   }
 
   /**
@@ -874,9 +849,7 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
    * @see {@link #setLinesSkipped(long)}, {@link #incrementLinesSkipped()}
    */
   public long getLinesSkipped() {
-    synchronized (statusCountersLock) {
-      return linesSkipped;
-    }
+    return linesSkipped.sum();
   }
 
   /**
@@ -886,9 +859,8 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
    * @see {@link #getLinesSkipped()}, {@link #setLinesSkipped(long)}
    */
   public long incrementLinesSkipped() {
-    synchronized (statusCountersLock) {
-      return ++linesSkipped;
-    }
+    linesSkipped.increment();
+    return linesSkipped.sum();
   }
 
   /**
@@ -896,9 +868,19 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
    * @see {@link #getLinesSkipped()}, {@link #incrementLinesSkipped()}
    */
   public void setLinesSkipped(long newLinesSkippedValue) {
-    synchronized (statusCountersLock) {
-      linesSkipped = newLinesSkippedValue;
-    }
+    setCounter(linesSkipped, newLinesSkippedValue);
+  }
+
+  /**
+   * Set a line counter to a new value. Readers see either the old or the new value. An increment by
+   * another thread at the same time can get lost: the counters are meant to be set by the transform
+   * thread itself, or before or after it runs.
+   *
+   * @param counter the line counter
+   * @param value the new value
+   */
+  private static void setCounter(LongAdder counter, long value) {
+    counter.add(value - counter.sum());
   }
 
   @Override
@@ -990,6 +972,40 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
    */
   @Override
   public void putRow(IRowMeta rowMeta, Object[] row) throws HopTransformException {
+    verifyOutputFieldNamesAndTypes(rowMeta);
+    getRowHandler().putRow(rowMeta, row);
+
+    // This transform is not reading data, only writing
+    //
+    if (firstRowReadDate == null) {
+      firstRowReadDate = new Date();
+    }
+  }
+
+  /**
+   * putRows is the batch version of putRow: the rows are handed over to the output rowset(s) in
+   * bulk where possible, lowering the synchronization overhead per row.
+   *
+   * @param rowMeta The description of the rows
+   * @param rows The rows to put to the destination rowset(s).
+   * @throws HopTransformException
+   */
+  @Override
+  public void putRows(IRowMeta rowMeta, List<Object[]> rows) throws HopTransformException {
+    if (rows.isEmpty()) {
+      return;
+    }
+    verifyOutputFieldNamesAndTypes(rowMeta);
+    getRowHandler().putRows(rowMeta, rows);
+
+    // This transform is not reading data, only writing
+    //
+    if (firstRowReadDate == null) {
+      firstRowReadDate = new Date();
+    }
+  }
+
+  private void verifyOutputFieldNamesAndTypes(IRowMeta rowMeta) throws HopTransformException {
     if (rowMeta != null) {
       if (!allowEmptyFieldNamesAndTypes) {
         // check row meta for empty field name (BACKLOG-18004)
@@ -1007,13 +1023,6 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
         }
       }
     }
-    getRowHandler().putRow(rowMeta, row);
-
-    // This transform is not reading data, only writing
-    //
-    if (firstRowReadDate == null) {
-      firstRowReadDate = new Date();
-    }
   }
 
   private void handlePutRow(IRowMeta rowMeta, Object[] row) throws HopTransformException {
@@ -1082,31 +1091,115 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
         // No more output rowsets!
         // Still update the nr of lines written.
         //
-        incrementLinesWritten();
+        linesWritten.increment();
 
         return; // we're done here!
       }
 
-      // Repartitioning happens when the current transform is not partitioned, but the next one is.
-      // That means we need to look up the partitioning information in the next transform..
-      // If there are multiple transforms, we need to look at the first (they should be all the
-      // same)
+      putRowToOutputRowSets(rowMeta, row);
+    } finally {
+      outputRowSetsLock.readLock().unlock();
+    }
+  }
+
+  /** The caller needs to hold the read lock on the output row sets. */
+  private void putRowToOutputRowSets(IRowMeta rowMeta, Object[] row)
+      throws HopTransformException {
+    // Repartitioning happens when the current transform is not partitioned, but the next one is.
+    // That means we need to look up the partitioning information in the next transform..
+    // If there are multiple transforms, we need to look at the first (they should be all the
+    // same)
+    //
+    switch (repartitioning) {
+      case TransformPartitioningMeta.PARTITIONING_METHOD_NONE:
+        noPartitioning(rowMeta, row);
+        break;
+
+      case TransformPartitioningMeta.PARTITIONING_METHOD_SPECIAL:
+        specialPartitioning(rowMeta, row);
+        break;
+      case TransformPartitioningMeta.PARTITIONING_METHOD_MIRROR:
+        mirrorPartitioning(rowMeta, row);
+        break;
+      default:
+        throw new HopTransformException(
+            "Internal error: invalid repartitioning type: " + repartitioning);
+    }
+  }
+
+  private void handlePutRows(IRowMeta rowMeta, List<Object[]> rows) throws HopTransformException {
+    // Pausing, stopping and the startup wait are handled in the row by row code path.
+    //
+    if (!checkPipelineRunning || paused.get() || stopped.get()) {
+      for (Object[] row : rows) {
+        handlePutRow(rowMeta, row);
+      }
+      return;
+    }
+
+    // call all row listeners...
+    //
+    for (IRowListener listener : rowListeners) {
+      for (Object[] row : rows) {
+        listener.rowWrittenEvent(rowMeta, row);
+      }
+    }
+
+    // Keep adding to terminator_rows buffer...
+    //
+    if (terminator && terminatorRows != null) {
+      try {
+        for (Object[] row : rows) {
+          terminatorRows.add(rowMeta.cloneRow(row));
+        }
+      } catch (HopValueException e) {
+        throw new HopTransformException(
+            "Unable to clone row while adding rows to the terminator rows.", e);
+      }
+    }
+
+    outputRowSetsLock.readLock().lock();
+    try {
+      if (outputRowSets.isEmpty()) {
+        // No more output rowsets!
+        // Still update the nr of lines written.
+        //
+        linesWritten.add(rows.size());
+
+        return; // we're done here!
+      }
+
+      // Only copying rows to all output rowsets (or to the single output rowset) is done in bulk.
+      // Partitioning and distribution over several target copies is decided row by row.
       //
-      switch (repartitioning) {
-        case TransformPartitioningMeta.PARTITIONING_METHOD_NONE:
-          noPartitioning(rowMeta, row);
-          break;
+      boolean bulk =
+          repartitioning == TransformPartitioningMeta.PARTITIONING_METHOD_NONE
+              && (!distributed || (rowDistribution == null && outputRowSets.size() == 1));
+      if (!bulk) {
+        for (Object[] row : rows) {
+          putRowToOutputRowSets(rowMeta, row);
+        }
+        return;
+      }
 
-        case TransformPartitioningMeta.PARTITIONING_METHOD_SPECIAL:
-          specialPartitioning(rowMeta, row);
-          break;
-        case TransformPartitioningMeta.PARTITIONING_METHOD_MIRROR:
-          mirrorPartitioning(rowMeta, row);
-          break;
-        default:
+      // Copy the rows to the other output rowsets...
+      //
+      for (int i = 1; i < outputRowSets.size(); i++) { // start at 1
+        List<Object[]> copies = new ArrayList<>(rows.size());
+        try {
+          for (Object[] row : rows) {
+            copies.add(rowMeta.cloneRow(row));
+          }
+        } catch (HopValueException e) {
           throw new HopTransformException(
-              "Internal error: invalid repartitioning type: " + repartitioning);
+              "Unable to clone row while copying rows to multiple target transforms", e);
+        }
+        putRowsToRowSet(outputRowSets.get(i), rowMeta, copies);
       }
+
+      // set the rows in the first output rowset
+      //
+      putRowsToRowSet(outputRowSets.get(0), rowMeta, rows);
     } finally {
       outputRowSetsLock.readLock().unlock();
     }
@@ -1162,7 +1255,7 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
 
         // Wait
         putRowToRowSet(selectedRowSet, rowMeta, row);
-        incrementLinesWritten();
+        linesWritten.increment();
 
         if (log.isRowLevel()) {
           try {
@@ -1187,7 +1280,7 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
         // Plugin defined row distribution!
         //
         rowDistribution.distributeRow(rowMeta, row, this);
-        incrementLinesWritten();
+        linesWritten.increment();
       } else {
         // ROUND ROBIN DISTRIBUTION:
         // --------------------------
@@ -1210,7 +1303,7 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
         // Loop until we find room in the target rowset
         //
         putRowToRowSet(rs, rowMeta, row);
-        incrementLinesWritten();
+        linesWritten.increment();
 
         // Now determine the next output rowset!
         // Only if we have more then one output...
@@ -1247,7 +1340,7 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
           // Loop until we find room in the target rowset
           //
           putRowToRowSet(rs, rowMeta, rowMeta.cloneRow(row));
-          incrementLinesWritten();
+          linesWritten.increment();
         } catch (HopValueException e) {
           throw new HopTransformException(
               "Unable to clone row while copying rows to multiple target transforms", e);
@@ -1258,7 +1351,7 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
       //
       IRowSet rs = outputRowSets.get(0);
       putRowToRowSet(rs, rowMeta, row);
-      incrementLinesWritten();
+      linesWritten.increment();
     }
   }
 
@@ -1278,6 +1371,43 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
         return;
       }
     }
+    signalRowSet(rs);
+  }
+
+  private void putRowsToRowSet(IRowSet rs, IRowMeta rowMeta, List<Object[]> rows) {
+    IRowMeta toBeSent;
+    IRowMeta metaFromRs = rs.getRowMeta();
+    if (metaFromRs == null) {
+      // IRowSet is not initialised so far
+      toBeSent = rowMeta.clone();
+    } else {
+      // use the existing
+      toBeSent = metaFromRs;
+    }
+
+    int offset = 0;
+    while (offset < rows.size()) {
+      int added = rs.putRows(toBeSent, offset == 0 ? rows : rows.subList(offset, rows.size()));
+      if (added > 0) {
+        offset += added;
+        linesWritten.add(added);
+        signalRowSet(rs);
+      } else if (isStopped() && !safeStopped.get()) {
+        return;
+      }
+    }
+  }
+
+  /**
+   * Wake up the transform reading from the given row set if it's waiting for a signal.
+   *
+   * @param rowSet the row set we just put rows into
+   */
+  private static void signalRowSet(IRowSet rowSet) {
+    RowSetSignal signal = rowSet.getRowSetSignal();
+    if (signal != null) {
+      signal.signal();
+    }
   }
 
   /**
@@ -1340,7 +1470,8 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
         break;
       }
     }
-    incrementLinesWritten();
+    signalRowSet(rowSet);
+    linesWritten.increment();
   }
 
   /**
@@ -1414,7 +1545,8 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
           break;
         }
       }
-      incrementLinesRejected();
+      signalRowSet(errorRowSet);
+      linesRejected.increment();
     }
 
     verifyRejectionRates();
@@ -1528,6 +1660,74 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
     return row;
   }
 
+  /**
+   * getRows is the batch version of getRow: it waits for the next row and then also returns the
+   * rows which are immediately available on the same input, up to the given maximum.
+   *
+   * @param max The maximum number of rows to return
+   * @return a list of at least one row or null if there are no more rows to be expected
+   * @throws HopException
+   */
+  @Override
+  public List<Object[]> getRows(int max) throws HopException {
+    List<Object[]> rows = getRowHandler().getRows(max);
+
+    if (firstRowReadDate == null) {
+      firstRowReadDate = new Date();
+    }
+
+    return rows;
+  }
+
+  private List<Object[]> handleGetRows(int max) throws HopException {
+    // The first row is obtained the regular way, waiting for it if needed.
+    //
+    Object[] row = getRow();
+    if (row == null) {
+      return null;
+    }
+    List<Object[]> rows;
+
+    // The rows of one input row set all have the same layout as the first row.
+    // Whatever is waiting on the row set the first row came from can be taken in one go.
+    //
+    inputRowSetsLock.readLock().lock();
+    try {
+      IRowSet inputRowSet = lastReadRowSet;
+      if (max > 1 && inputRowSet != null && !stopped.get()) {
+        if (inputRowSet.size() > 0) {
+          rows = inputRowSet.getRows(max - 1);
+          rows.add(0, row);
+        } else {
+          rows = new ArrayList<>(1);
+          rows.add(row);
+        }
+      } else {
+        rows = new ArrayList<>(1);
+        rows.add(row);
+      }
+    } finally {
+      inputRowSetsLock.readLock().unlock();
+    }
+
+    // The other rows get the same treatment as a row read with getRow()
+    //
+    for (int i = 1; i < rows.size(); i++) {
+      linesRead.increment();
+      blockPointer++;
+
+      if (pipeline.isSafeModeEnabled()) {
+        pipelineMeta.checkRowMixingStatically(this, transformMeta, null);
+      }
+      for (IRowListener listener : rowListeners) {
+        listener.rowReadEvent(inputRowMeta, rows.get(i));
+      }
+      verifyRejectionRates();
+    }
+
+    return rows;
+  }
+
   private Object[] handleGetRow() throws HopException {
 
     // Are we pausing the transform? If so, stall forever...
@@ -1578,7 +1778,7 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
         }
         if (row != null) {
           obtainInputRowMeta(row, inputRowSet);
-          incrementLinesRead();
+          linesRead.increment();
         }
       } else {
         // What's the current input stream?
@@ -1589,7 +1789,17 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
       // The buffer to grow beyond "a few" entries.
       // We'll only do that if the previous transform has not ended...
 
-      if (!inputRowSet.isDone() && inputRowSet.size() <= lowerBufferBoundary && !isStopped()) {
+      if (waitingTime == null) {
+        waitingTime = buildWaitingTime();
+      }
+
+      // A single threaded row set, used in fused chains, has no locks to relieve.
+      //
+      if (waitingTime.isThrottling()
+          && !(inputRowSet instanceof QueueRowSet)
+          && !inputRowSet.isDone()
+          && inputRowSet.size() <= lowerBufferBoundary
+          && !isStopped()) {
         try {
           Thread.sleep(0, 1);
         } catch (InterruptedException e) {
@@ -1609,19 +1819,6 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
       // rowset, then switch to another etc.
       // We can use timeouts to switch from one to another...
       //
-      if (waitingTime == null) {
-        Integer waitTime =
-            Const.toInt(EnvUtil.getSystemProperty(Const.HOP_DEFAULT_BUFFER_POLLING_WAITTIME), 20);
-        ;
-        if (pipeline.getPipelineRunConfiguration().getEngineRunConfiguration()
-            instanceof LocalPipelineRunConfiguration) {
-          LocalPipelineRunConfiguration runconfig =
-              (LocalPipelineRunConfiguration)
-                  pipeline.getPipelineRunConfiguration().getEngineRunConfiguration();
-          waitTime = Const.toInt(runconfig.getWaitTime(), waitTime);
-        }
-        waitingTime = DynamicWaitTimes.build(inputRowSets, this::getCurrentInputRowSetNr, waitTime);
-      }
       while (row == null && !isStopped()) {
         // Get a row from the input in row set ...
         // Timeout immediately if nothing is there to read.
@@ -1631,7 +1828,7 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
         boolean timeout = false;
         if (row != null) {
           obtainInputRowMeta(row, inputRowSet);
-          incrementLinesRead();
+          linesRead.increment();
           blockPointer++;
           waitingTime.reset();
         } else {
@@ -1666,7 +1863,7 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
               }
             } else {
               obtainInputRowMeta(row, inputRowSet);
-              incrementLinesRead();
+              linesRead.increment();
             }
           } else {
             timeout = true;
@@ -1719,6 +1916,28 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
     return row;
   }
 
+  /**
+   * Decide how this transform waits for rows on its input row sets. The wait time and strategy come
+   * from the local run configuration, if there is one.
+   *
+   * @return the waiting status to use for the current input row sets
+   */
+  private DynamicWaitTimes.SingleStreamStatus buildWaitingTime() {
+    int waitTime =
+        Const.toInt(EnvUtil.getSystemProperty(Const.HOP_DEFAULT_BUFFER_POLLING_WAITTIME), 20);
+    WaitStrategy waitStrategy = WaitStrategy.Polling;
+    if (pipeline.getPipelineRunConfiguration().getEngineRunConfiguration()
+        instanceof LocalPipelineRunConfiguration) {
+      LocalPipelineRunConfiguration runconfig =
+          (LocalPipelineRunConfiguration)
+              pipeline.getPipelineRunConfiguration().getEngineRunConfiguration();
+      waitTime = Const.toInt(runconfig.getWaitTime(), waitTime);
+      waitStrategy = WaitStrategy.getStrategy(runconfig.getWaitStrategy());
+    }
+    return DynamicWaitTimes.build(
+        inputRowSets, this::getCurrentInputRowSetNr, waitTime, waitStrategy);
+  }
+
   /**
    * The first non-null row we get we'll lock in the row metadata.
    * For scenarios with multiple inputs, we move the metadata around (e.g. Merge Rows).
@@ -1730,6 +1949,7 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
     if (row==null) {
       return;
     }
+    lastReadRowSet = inputRowSet;
 
     // Set the row metadata on the first occurrence.
     // If prevTransforms.length > 1, inputRowMeta can be changed as well.
@@ -1983,19 +2203,8 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
       //
       rowData = rowSet.getRow();
       if (rowData == null) {
-        Integer waitTime = 20;
-        if (pipeline.getPipelineRunConfiguration().getEngineRunConfiguration()
-            instanceof LocalPipelineRunConfiguration) {
-          LocalPipelineRunConfiguration runconfig =
-              (LocalPipelineRunConfiguration)
-                  pipeline.getPipelineRunConfiguration().getEngineRunConfiguration();
-          waitTime = Integer.parseInt(runconfig.getWaitTime());
-        }
-        if (waitTime == null) waitTime = 20;
-
         if (waitingTime == null) {
-          waitingTime =
-              DynamicWaitTimes.build(inputRowSets, this::getCurrentInputRowSetNr, waitTime);
+          waitingTime = buildWaitingTime();
         }
         // Must release the read lock before acquisition of the write lock to prevent deadlocks.
         //
@@ -2027,7 +2236,7 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
         }
       }
     }
-    incrementLinesRead();
+    linesRead.increment();
 
     // call all rowlisteners...
     //
@@ -2940,36 +3149,34 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
 
   /** Log summary. */
   public void logSummary() {
-    synchronized (statusCountersLock) {
-      long li = getLinesInput();
-      long lo = getLinesOutput();
-      long lr = getLinesRead();
-      long lw = getLinesWritten();
-      long lu = getLinesUpdated();
-      long lj = getLinesRejected();
-      if (li > 0 || lo > 0 || lr > 0 || lw > 0 || lu > 0 || lj > 0 || errors > 0) {
-        logBasic(
-            BaseMessages.getString(
-                PKG,
-                "BaseTransform.Log.SummaryInfo",
-                String.valueOf(li),
-                String.valueOf(lo),
-                String.valueOf(lr),
-                String.valueOf(lw),
-                String.valueOf(lw),
-                String.valueOf(errors + lj)));
-      } else {
-        logDetailed(
-            BaseMessages.getString(
-                PKG,
-                "BaseTransform.Log.SummaryInfo",
-                String.valueOf(li),
-                String.valueOf(lo),
-                String.valueOf(lr),
-                String.valueOf(lw),
-                String.valueOf(lw),
-                String.valueOf(errors + lj)));
-      }
+    long li = getLinesInput();
+    long lo = getLinesOutput();
+    long lr = getLinesRead();
+    long lw = getLinesWritten();
+    long lu = getLinesUpdated();
+    long lj = getLinesRejected();
+    if (li > 0 || lo > 0 || lr > 0 || lw > 0 || lu > 0 || lj > 0 || errors > 0) {
+      logBasic(
+          BaseMessages.getString(
+              PKG,
+              "BaseTransform.Log.SummaryInfo",
+              String.valueOf(li),
+              String.valueOf(lo),
+              String.valueOf(lr),
+              String.valueOf(lw),
+              String.valueOf(lw),
+              String.valueOf(errors + lj)));
+    } else {
+      logDetailed(
+          BaseMessages.getString(
+              PKG,
+              "BaseTransform.Log.SummaryInfo",
+              String.valueOf(li),
+              String.valueOf(lo),
+              String.valueOf(lr),
+              String.valueOf(lw),
+              String.valueOf(lw),
+              String.valueOf(errors + lj)));
     }
   }
 
@@ -3782,6 +3989,25 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
     }
   }
 
+  /**
+   * Report the statistics of a lookup cache as metrics of this transform.
+   *
+   * @param cache the cache, can be null
+   * @return the cache metrics or an empty map if there is no cache
+   */
+  protected static Map<IEngineMetric, Long> getCacheMetrics(LookupCache<?, ?> cache) {
+    if (cache == null) {
+      return Collections.emptyMap();
+    }
+    Map<IEngineMetric, Long> metrics = new LinkedHashMap<>();
+    metrics.put(Pipeline.METRIC_CACHE_HITS, cache.getHits());
+    metrics.put(Pipeline.METRIC_CACHE_MISSES, cache.getMisses());
+    metrics.put(Pipeline.METRIC_CACHE_EVICTIONS, cache.getEvictions());
+    metrics.put(Pipeline.METRIC_CACHE_SIZE, cache.getSize());
+    metrics.put(Pipeline.METRIC_CACHE_MEMORY, cache.getWeight());
+    return metrics;
+  }
+
   @Override
   public boolean isForcingSeparateLogging() {
     return log != null && log.isForcingSeparateLogging();
@@ -3840,6 +4066,16 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
       handlePutRow(rowMeta, row);
     }
 
+    @Override
+    public List<Object[]> getRows(int max) throws HopException {
+      return handleGetRows(max);
+    }
+
+    @Override
+    public void putRows(IRowMeta rowMeta, List<Object[]> rows) throws HopTransformException {
+      handlePutRows(rowMeta, rows);
+    }
+
     @Override
     public void putError(
         IRowMeta rowMeta,
@@ -18,16 +18,33 @@
 package org.apache.hop.pipeline.transform;
 
 import org.apache.hop.core.IRowSet;
+import org.apache.hop.core.RowSetSignal;
+import org.apache.hop.core.WaitStrategy;
 import org.apache.hop.core.util.Assert;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
 import java.util.function.Supplier;
 
 final class DynamicWaitTimes {
 
 
   static SingleStreamStatus build(List<IRowSet> rowSets, Supplier<Integer> supplier, Integer waitTime) {
+    return build(rowSets, supplier, waitTime, WaitStrategy.Polling);
+  }
+
+  static SingleStreamStatus build(
+      List<IRowSet> rowSets, Supplier<Integer> supplier, Integer waitTime, WaitStrategy strategy) {
+    switch (strategy) {
+      case Adaptive:
+        return new AdaptiveStreamStatus(new ArrayList<>(rowSets), waitTime);
+      case Signal:
+        return new SignalStreamStatus(new ArrayList<>(rowSets), waitTime);
+      default:
+        break;
+    }
     if (rowSets.size() == 1) {
       return new SingleStreamStatus(waitTime);
     }
@@ -70,10 +87,118 @@ final class DynamicWaitTimes {
       return active;
     }
 
+    /**
+     * @return true if the reading transform should briefly back off when its input buffer runs low
+     *     to reduce the stress on the locking of the row sets.
+     */
+    public boolean isThrottling() {
+      return true;
+    }
+
     /** only for test */
     protected void doReset(int index) {}
   }
 
+  /**
+   * Polls all input streams without waiting. Only when none of them had a row do we back off: first
+   * spinning, then yielding and finally parking the thread for a growing period up to the wait
+   * time.
+   */
+  private static class AdaptiveStreamStatus extends SingleStreamStatus {
+    private static final int SPIN_TRIES = 100;
+    private static final int YIELD_TRIES = 100;
+    private static final long MIN_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(1);
+
+    protected final List<IRowSet> streamList;
+    protected final long maxWaitNanos;
+    private int misses;
+    private int tries;
+
+    AdaptiveStreamStatus(List<IRowSet> rowSets, Integer waitTime) {
+      super(waitTime);
+      this.streamList = rowSets;
+      this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, waitTime));
+    }
+
+    @Override
+    public long get() {
+      return 0;
+    }
+
+    @Override
+    public void reset() {
+      misses = 0;
+      tries = 0;
+    }
+
+    @Override
+    public void adjust(boolean timeout, IRowSet nextIfExist) {
+      if (!timeout) {
+        return;
+      }
+      // Only wait once every input stream came up empty
+      //
+      if (++misses < streamList.size()) {
+        return;
+      }
+      misses = 0;
+      idle(tries++);
+    }
+
+    protected void idle(int tries) {
+      if (tries < SPIN_TRIES) {
+        Thread.onSpinWait();
+      } else if (tries < SPIN_TRIES + YIELD_TRIES) {
+        Thread.yield();
+      } else {
+        int shift = Math.min(tries - SPIN_TRIES - YIELD_TRIES, 30);
+        LockSupport.parkNanos(Math.min(maxWaitNanos, MIN_PARK_NANOS << shift));
+      }
+    }
+
+    @Override
+    public void remove(IRowSet rowSet) {
+      streamList.remove(rowSet);
+      misses = 0;
+    }
+
+    @Override
+    public boolean isThrottling() {
+      return false;
+    }
+  }
+
+  /**
+   * Polls all input streams without waiting. Once none of them had a row the thread is parked
+   * until one of the previous transforms signals that it handed over rows or is done, or until the
+   * wait time expires.
+   */
+  private static class SignalStreamStatus extends AdaptiveStreamStatus {
+    private final RowSetSignal signal;
+
+    SignalStreamStatus(List<IRowSet> rowSets, Integer waitTime) {
+      super(rowSets, waitTime);
+      this.signal = new RowSetSignal();
+      for (IRowSet rowSet : rowSets) {
+        rowSet.setRowSetSignal(signal);
+      }
+    }
+
+    @Override
+    protected void idle(int tries) {
+      signal.await(maxWaitNanos, TimeUnit.NANOSECONDS, this::hasInput);
+    }
+
+    private boolean hasInput() {
+      for (IRowSet rowSet : streamList) {
+        if (rowSet.size() > 0 || rowSet.isDone()) {
+          return true;
+        }
+      }
+      return false;
+    }
+  }
+
   private static class MultiStreamStatus extends SingleStreamStatus {
     private final List<IRowSet> streamList;
     private final List<SingleStreamStatus> statusList;
@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transform;
+
+import org.apache.hop.core.IRowSet;
+
+import java.util.List;
+
+/**
+ * Runs a linear chain of fused transform copies in a single thread. The first transform of the
+ * chain is driven like in {@link RunThread}. After every call of its processRow() method the rows
+ * it produced are pushed down the chain by calling processRow() of the next transforms directly.
+ * The transforms in the chain exchange rows through single threaded row sets, without locking or
+ * waiting.
+ *
+ * @see ITransformMeta#supportsFusion()
+ */
+public class FusedRunThread implements Runnable {
+
+  private final RunThread[] runThreads;
+  private final ITransform[] transforms;
+
+  /** The row set between a transform and the previous one in the chain, null for the first */
+  private final IRowSet[] inputRowSets;
+
+  private final boolean[] finished;
+  private int nrFinished;
+
+  /**
+   * @param combis the transform copies of the chain, in the order in which rows flow through them
+   */
+  public FusedRunThread(List<TransformMetaDataCombi> combis) {
+    int size = combis.size();
+    runThreads = new RunThread[size];
+    transforms = new ITransform[size];
+    inputRowSets = new IRowSet[size];
+    finished = new boolean[size];
+
+    for (int i = 0; i < size; i++) {
+      runThreads[i] = new RunThread(combis.get(i));
+      transforms[i] = combis.get(i).transform;
+      if (i > 0) {
+        // The transforms later in the chain have exactly one input: the previous transform
+        //
+        inputRowSets[i] = transforms[i].getInputRowSets().get(0);
+      }
+    }
+  }
+
+  @Override
+  public void run() {
+    for (RunThread runThread : runThreads) {
+      runThread.startRunning();
+    }
+
+    while (nrFinished < transforms.length) {
+      if (!finished[0]) {
+        processRow(0);
+      }
+      for (int i = 1; i < transforms.length; i++) {
+        while (!finished[i] && hasInput(i)) {
+          processRow(i);
+        }
+        if (finished[i] && inputRowSets[i].size() > 0) {
+          // A transform which stopped early leaves the previous ones running: nobody is reading
+          // these rows anymore.
+          //
+          inputRowSets[i].getRows(inputRowSets[i].size());
+        }
+      }
+    }
+  }
+
+  private void processRow(int index) {
+    ITransform transform = transforms[index];
+    boolean done;
+    try {
+      done = !transform.processRow() || transform.isStopped();
+    } catch (Throwable t) {
+      runThreads[index].handleError(t);
+      done = true;
+    }
+    if (done) {
+      finished[index] = true;
+      nrFinished++;
+      if (index + 1 < transforms.length) {
+        // Make sure the next transform finds out it's done, even after an error
+        //
+        inputRowSets[index + 1].setDone();
+      }
+      runThreads[index].stopRunning();
+    }
+  }
+
+  /** Can the transform at the given index call processRow() without waiting? */
+  private boolean hasInput(int index) {
+    IRowSet rowSet = inputRowSets[index];
+    return rowSet.size() > 0 || rowSet.isDone() || transforms[index].isStopped();
+  }
+
+  /**
+   * Gets the transforms in the chain
+   *
+   * @return the transforms, in the order in which rows flow through them
+   */
+  public ITransform[] getTransforms() {
+    return transforms;
+  }
+}
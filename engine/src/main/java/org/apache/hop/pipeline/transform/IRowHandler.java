@@ -23,6 +23,9 @@ import org.apache.hop.core.exception.HopTransformException;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.i18n.BaseMessages;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Defines methods used for handling row data within transforms.
  *
@@ -38,6 +41,34 @@ public interface IRowHandler {
 
   void putRow(IRowMeta rowMeta, Object[] row) throws HopTransformException;
 
+  /**
+   * Get a number of rows, up to the given maximum. By default, this returns the next single row.
+   *
+   * @param max The maximum number of rows to return
+   * @return a list of at least one row or null if there are no more rows to be expected
+   */
+  default List<Object[]> getRows(int max) throws HopException {
+    Object[] row = getRow();
+    if (row == null) {
+      return null;
+    }
+    List<Object[]> rows = new ArrayList<>(1);
+    rows.add(row);
+    return rows;
+  }
+
+  /**
+   * Put a list of rows. By default, this puts the rows one by one.
+   *
+   * @param rowMeta The description of the rows
+   * @param rows The rows to put
+   */
+  default void putRows(IRowMeta rowMeta, List<Object[]> rows) throws HopTransformException {
+    for (Object[] row : rows) {
+      putRow(rowMeta, row);
+    }
+  }
+
   void putError(
       IRowMeta rowMeta,
       Object[] row,
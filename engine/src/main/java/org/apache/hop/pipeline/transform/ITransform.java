@@ -30,8 +30,10 @@ import org.apache.hop.metadata.api.IHopMetadataProvider;
 import org.apache.hop.pipeline.PipelineMeta;
 import org.apache.hop.pipeline.engine.EngineComponent.ComponentExecutionStatus;
 import org.apache.hop.pipeline.engine.IEngineComponent;
+import org.apache.hop.pipeline.engine.IEngineMetric;
 import org.apache.hop.pipeline.engine.IPipelineEngine;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
@@ -187,6 +189,36 @@ public interface ITransform
   /** @return a row from the source transform(s). */
   Object[] getRow() throws HopException;
 
+  /**
+   * Put a list of rows on the destination rowsets. By default, this simply puts the rows one by
+   * one.
+   *
+   * @param rowMeta The description of the rows
+   * @param rows The rows to send to the destination transforms
+   */
+  default void putRows(IRowMeta rowMeta, List<Object[]> rows) throws HopException {
+    for (Object[] row : rows) {
+      putRow(rowMeta, row);
+    }
+  }
+
+  /**
+   * Get a number of rows from the source transform(s). It waits for at least one row, just like
+   * {@link #getRow()}. By default, only a single row is returned.
+   *
+   * @param max The maximum number of rows to return
+   * @return a list of at least one row or null if there are no more rows to be expected
+   */
+  default List<Object[]> getRows(int max) throws HopException {
+    Object[] row = getRow();
+    if (row == null) {
+      return null;
+    }
+    List<Object[]> rows = new ArrayList<>(1);
+    rows.add(row);
+    return rows;
+  }
+
   /** Signal output done to destination transforms */
   void setOutputDone();
 
@@ -346,6 +378,16 @@ public interface ITransform
     return Collections.emptyList();
   }
 
+  /**
+   * Metrics which only make sense for this transform, like the statistics of a lookup cache. They
+   * are reported next to the row counters in the engine metrics.
+   *
+   * @return the transform specific metrics, empty by default
+   */
+  default Map<IEngineMetric, Long> getCustomMetrics() {
+    return Collections.emptyMap();
+  }
+
   default void addRowSetToInputRowSets(IRowSet rowSet) {
     getInputRowSets().add(rowSet);
   }
@@ -485,6 +485,20 @@ public interface ITransformMeta {
     return false;
   }
 
+  /**
+   * True if the transform can be fused with the transforms before and after it in a chain of
+   * single copy transforms. The local engine then runs the whole chain in one thread, calling
+   * processRow() of the next transform as soon as rows are available. Only return true if the
+   * transform waits for at most one row per processRow() call, writes a few rows for every row read
+   * and never waits for anything else than its input. Reading a batch with getRows() is fine: only
+   * the first row is waited for, the others are the rows already waiting in the input row set.
+   *
+   * @return True if the transform can be fused with its neighbours, false otherwise
+   */
+  default boolean supportsFusion() {
+    return false;
+  }
+
   /**
    * ￼ * This returns the expected name for the dialog that edits a action. The expected name is in
    * the org.apache.hop.ui ￼ * tree and has a class name that is the name of the action with
@@ -43,13 +43,7 @@ public class RunThread implements Runnable {
   @Override
   public void run() {
     try {
-      transform.setRunning(true);
-      transform.setExecutionStartDate(new Date());
-      transform.getLogChannel().snap(Metrics.METRIC_TRANSFORM_EXECUTION_START);
-
-      if (log.isDetailed()) {
-        log.logDetailed(BaseMessages.getString("System.Log.StartingToRun"));
-      }
+      startRunning();
 
       // Wait
       while (transform.processRow()) {
@@ -58,89 +52,123 @@ public class RunThread implements Runnable {
         }
       }
     } catch (Throwable t) {
-      try {
-        // check for OOME
-        if (t instanceof OutOfMemoryError) {
-          // Handle this different with as less overhead as possible to get an error message in the
-          // log.
-          // Otherwise it crashes likely with another OOME in Me$$ages.getString() and does not log
-          // nor call the setErrors() and stopAll() below.
-          log.logError("UnexpectedError: ", t);
-        } else {
-          t.printStackTrace();
-          log.logError(BaseMessages.getString("System.Log.UnexpectedError"), t);
-        }
+      handleError(t);
+    } finally {
+      stopRunning();
+    }
+  }
 
-        String logChannelId = log.getLogChannelId();
-        ILoggingObject loggingObject = LoggingRegistry.getInstance().getLoggingObject(logChannelId);
-        String parentLogChannelId = loggingObject.getParent().getLogChannelId();
-        List<String> logChannelChildren =
-            LoggingRegistry.getInstance().getLogChannelChildren(parentLogChannelId);
-        int childIndex = Const.indexOfString(log.getLogChannelId(), logChannelChildren);
-        if (log.isDebug()) {
-          log.logDebug(
-              "child index = "
-                  + childIndex
-                  + ", logging object : "
-                  + loggingObject.toString()
-                  + " parent="
-                  + parentLogChannelId);
-        }
-        HopLogStore.getAppender().getBuffer("2bcc6b3f-c660-4a8b-8b17-89e8cbd5b29b", false);
-      } catch (OutOfMemoryError e) {
-        e.printStackTrace();
-      } finally {
-        transform.setErrors(1);
-        transform.stopAll();
+  /** Flag the transform as running and note the start of the execution. */
+  public void startRunning() {
+    transform.setRunning(true);
+    transform.setExecutionStartDate(new Date());
+    transform.getLogChannel().snap(Metrics.METRIC_TRANSFORM_EXECUTION_START);
+
+    if (log.isDetailed()) {
+      log.logDetailed(BaseMessages.getString("System.Log.StartingToRun"));
+    }
+  }
+
+  /**
+   * Log an unexpected error thrown while running the transform and stop the pipeline.
+   *
+   * @param t the error
+   */
+  public void handleError(Throwable t) {
+    try {
+      // check for OOME
+      if (t instanceof OutOfMemoryError) {
+        // Handle this different with as less overhead as possible to get an error message in the
+        // log.
+        // Otherwise it crashes likely with another OOME in Me$$ages.getString() and does not log
+        // nor call the setErrors() and stopAll() below.
+        log.logError("UnexpectedError: ", t);
+      } else {
+        t.printStackTrace();
+        log.logError(BaseMessages.getString("System.Log.UnexpectedError"), t);
       }
-    } finally {
-      transform.dispose();
-      transform.setExecutionEndDate(new Date());
-      // If the transform was stopped it never flagged the last row
-      if (transform.getLastRowWrittenDate() == null) {
-        transform.setLastRowWrittenDate(transform.getExecutionEndDate());
+
+      String logChannelId = log.getLogChannelId();
+      ILoggingObject loggingObject = LoggingRegistry.getInstance().getLoggingObject(logChannelId);
+      String parentLogChannelId = loggingObject.getParent().getLogChannelId();
+      List<String> logChannelChildren =
+          LoggingRegistry.getInstance().getLogChannelChildren(parentLogChannelId);
+      int childIndex = Const.indexOfString(log.getLogChannelId(), logChannelChildren);
+      if (log.isDebug()) {
+        log.logDebug(
+            "child index = "
+                + childIndex
+                + ", logging object : "
+                + loggingObject.toString()
+                + " parent="
+                + parentLogChannelId);
       }
-      transform.getLogChannel().snap(Metrics.METRIC_TRANSFORM_EXECUTION_STOP);
-      try {
-        long li = transform.getLinesInput();
-        long lo = transform.getLinesOutput();
-        long lr = transform.getLinesRead();
-        long lw = transform.getLinesWritten();
-        long lu = transform.getLinesUpdated();
-        long lj = transform.getLinesRejected();
-        long e = transform.getErrors();
-        if (li > 0 || lo > 0 || lr > 0 || lw > 0 || lu > 0 || lj > 0 || e > 0) {
-          log.logBasic(
-              BaseMessages.getString(
-                  PKG,
-                  "BaseTransform.Log.SummaryInfo",
-                  String.valueOf(li),
-                  String.valueOf(lo),
-                  String.valueOf(lr),
-                  String.valueOf(lw),
-                  String.valueOf(lu),
-                  String.valueOf(e + lj)));
-        } else {
-          log.logDetailed(
-              BaseMessages.getString(
-                  PKG,
-                  "BaseTransform.Log.SummaryInfo",
-                  String.valueOf(li),
-                  String.valueOf(lo),
-                  String.valueOf(lr),
-                  String.valueOf(lw),
-                  String.valueOf(lu),
-                  String.valueOf(e + lj)));
-        }
-      } catch (Throwable t) {
-        //
-        // it's likely an OOME, so we don't want to introduce overhead by using
-        // BaseMessages.getString(), see above
-        //
-        log.logError("UnexpectedError: " + Const.getStackTracker(t));
-      } finally {
-        transform.markStop();
+      HopLogStore.getAppender().getBuffer("2bcc6b3f-c660-4a8b-8b17-89e8cbd5b29b", false);
+    } catch (OutOfMemoryError e) {
+      e.printStackTrace();
+    } finally {
+      transform.setErrors(1);
+      transform.stopAll();
+    }
+  }
+
+  /** Dispose of the transform, log its summary and mark it as stopped. */
+  public void stopRunning() {
+    transform.dispose();
+    transform.setExecutionEndDate(new Date());
+    // If the transform was stopped it never flagged the last row
+    if (transform.getLastRowWrittenDate() == null) {
+      transform.setLastRowWrittenDate(transform.getExecutionEndDate());
+    }
+    transform.getLogChannel().snap(Metrics.METRIC_TRANSFORM_EXECUTION_STOP);
+    try {
+      long li = transform.getLinesInput();
+      long lo = transform.getLinesOutput();
+      long lr = transform.getLinesRead();
+      long lw = transform.getLinesWritten();
+      long lu = transform.getLinesUpdated();
+      long lj = transform.getLinesRejected();
+      long e = transform.getErrors();
+      if (li > 0 || lo > 0 || lr > 0 || lw > 0 || lu > 0 || lj > 0 || e > 0) {
+        log.logBasic(
+            BaseMessages.getString(
+                PKG,
+                "BaseTransform.Log.SummaryInfo",
+                String.valueOf(li),
+                String.valueOf(lo),
+                String.valueOf(lr),
+                String.valueOf(lw),
+                String.valueOf(lu),
+                String.valueOf(e + lj)));
+      } else {
+        log.logDetailed(
+            BaseMessages.getString(
+                PKG,
+                "BaseTransform.Log.SummaryInfo",
+                String.valueOf(li),
+                String.valueOf(lo),
+                String.valueOf(lr),
+                String.valueOf(lw),
+                String.valueOf(lu),
+                String.valueOf(e + lj)));
       }
+    } catch (Throwable t) {
+      //
+      // it's likely an OOME, so we don't want to introduce overhead by using
+      // BaseMessages.getString(), see above
+      //
+      log.logError("UnexpectedError: " + Const.getStackTracker(t));
+    } finally {
+      transform.markStop();
     }
   }
+
+  /**
+   * Gets transform
+   *
+   * @return value of transform
+   */
+  public ITransform getTransform() {
+    return transform;
+  }
 }
@@ -125,4 +125,9 @@ public class DummyMeta extends BaseTransformMeta<Dummy, DummyData> {
       remarks.add(cr);
     }
   }
+
+  @Override
+  public boolean supportsFusion() {
+    return true;
+  }
 }
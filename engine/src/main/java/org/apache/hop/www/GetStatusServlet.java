@@ -20,6 +20,8 @@ package org.apache.hop.www;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.hop.core.Const;
 import org.apache.hop.core.annotations.HopServerServlet;
+import org.apache.hop.core.database.pool.ConnectionPoolManager;
+import org.apache.hop.core.database.pool.ConnectionPoolStatus;
 import org.apache.hop.core.exception.HopException;
 import org.apache.hop.core.json.HopJson;
 import org.apache.hop.core.xml.XmlHandler;
@@ -28,6 +30,7 @@ import org.apache.hop.pipeline.PipelineMeta;
 import org.apache.hop.pipeline.engine.IPipelineEngine;
 import org.apache.hop.workflow.WorkflowMeta;
 import org.apache.hop.workflow.engine.IWorkflowEngine;
+import org.owasp.encoder.Encode;
 
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
@@ -635,6 +638,59 @@ public class GetStatusServlet extends BaseHttpServlet implements IHopServerPlugi
         out.println("</pre>");
       }
 
+      // The shared database connection pools, if any
+      //
+      List<ConnectionPoolStatus> poolStatuses =
+          ConnectionPoolManager.getInstance().getPoolStatuses();
+      if (!poolStatuses.isEmpty()) {
+        out.println("<div class=\"row\" style=\"padding: 0px 0px 30px 0px;\">");
+        htmlClass = useLightTheme ? "h3" : "div";
+        out.println(
+            "<div><"
+                + htmlClass
+                + " class=\"workspaceHeading\">"
+                + BaseMessages.getString(PKG, "GetStatusServlet.ConnectionPools.Title")
+                + "</"
+                + htmlClass
+                + "></div>");
+        out.println("<table border=\"" + tableBorder + "\">");
+        out.print("<tr style=\"font-size: 12;\">");
+        for (String header :
+            new String[] {
+              "Name", "Leased", "Idle", "MaxSize", "Created", "Leases", "Waits", "Timeouts",
+              "ValidationFailures"
+            }) {
+          out.print(
+              "<th style=\"padding: 2px 10px 2px 10px\" class=\"cellTableHeader\">"
+                  + BaseMessages.getString(PKG, "GetStatusServlet.ConnectionPools." + header)
+                  + "</th>");
+        }
+        out.print("</tr>");
+        for (ConnectionPoolStatus poolStatus : poolStatuses) {
+          out.print("<tr style=\"font-size: 12;\">");
+          for (Object value :
+              new Object[] {
+                Encode.forHtml(poolStatus.getName()),
+                poolStatus.getLeased(),
+                poolStatus.getIdle(),
+                poolStatus.getMaxSize(),
+                poolStatus.getCreated(),
+                poolStatus.getLeases(),
+                poolStatus.getWaits(),
+                poolStatus.getTimeouts(),
+                poolStatus.getValidationFailures()
+              }) {
+            out.print(
+                "<td style=\"padding: 2px 10px 2px 10px\" class=\"cellTableCell cellTableEvenRowCell\">"
+                    + value
+                    + "</td>");
+          }
+          out.print("</tr>");
+        }
+        out.print("</table>");
+        out.println("</div>");
+      }
+
       out.println("<div class=\"row\" style=\"padding: 0px 0px 30px 0px;\">");
       htmlClass = useLightTheme ? "h3" : "div";
       out.println(
@@ -1198,6 +1254,8 @@ public class GetStatusServlet extends BaseHttpServlet implements IHopServerPlugi
     serverStatus.setOsArchitecture(osArch);
     serverStatus.setMemoryFree(freeMemory);
     serverStatus.setMemoryTotal(totalMemory);
+    serverStatus.setConnectionPoolStatusList(
+        ConnectionPoolManager.getInstance().getPoolStatuses());
   }
 
   public String toString() {
@@ -19,6 +19,7 @@ package org.apache.hop.www;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import org.apache.hop.core.Const;
+import org.apache.hop.core.database.pool.ConnectionPoolStatus;
 import org.apache.hop.core.exception.HopException;
 import org.apache.hop.core.util.Utils;
 import org.apache.hop.core.xml.XmlHandler;
@@ -36,6 +37,7 @@ public class HopServerStatus {
 
   private List<HopServerPipelineStatus> pipelineStatusList;
   private List<HopServerWorkflowStatus> workflowStatusList;
+  private List<ConnectionPoolStatus> connectionPoolStatusList;
 
   private long memoryFree;
   private long memoryTotal;
@@ -58,6 +60,7 @@ public class HopServerStatus {
   public HopServerStatus() {
     pipelineStatusList = new ArrayList<>();
     workflowStatusList = new ArrayList<>();
+    connectionPoolStatusList = new ArrayList<>();
   }
 
   public HopServerStatus(String statusDescription) {
@@ -77,6 +80,7 @@ public class HopServerStatus {
     this.statusDescription = statusDescription;
     this.pipelineStatusList = pipelineStatusList;
     this.workflowStatusList = jobStatusList;
+    this.connectionPoolStatusList = new ArrayList<>();
   }
 
   @JsonIgnore
@@ -115,6 +119,12 @@ public class HopServerStatus {
     }
     xml.append("  </job_status_list>").append(Const.CR);
 
+    xml.append("  <connection_pool_status_list>").append(Const.CR);
+    for (ConnectionPoolStatus poolStatus : connectionPoolStatusList) {
+      xml.append("    ").append(poolStatus.getXml()).append(Const.CR);
+    }
+    xml.append("  </connection_pool_status_list>").append(Const.CR);
+
     xml.append("</" + XML_TAG + ">").append(Const.CR);
 
     return xml.toString();
@@ -157,6 +167,14 @@ public class HopServerStatus {
           XmlHandler.getSubNodeByNr(listWorkflowsNode, HopServerWorkflowStatus.XML_TAG, i);
       workflowStatusList.add(new HopServerWorkflowStatus(jobStatusNode));
     }
+
+    Node listPoolsNode = XmlHandler.getSubNode(statusNode, "connection_pool_status_list");
+    int nrPools = XmlHandler.countNodes(listPoolsNode, ConnectionPoolStatus.XML_TAG);
+    for (int i = 0; i < nrPools; i++) {
+      Node poolStatusNode =
+          XmlHandler.getSubNodeByNr(listPoolsNode, ConnectionPoolStatus.XML_TAG, i);
+      connectionPoolStatusList.add(new ConnectionPoolStatus(poolStatusNode));
+    }
   }
 
   public static HopServerStatus fromXml(String xml) throws HopException {
@@ -226,6 +244,16 @@ public class HopServerStatus {
     this.workflowStatusList = workflowStatusList;
   }
 
+  /** @return the status of the shared database connection pools */
+  public List<ConnectionPoolStatus> getConnectionPoolStatusList() {
+    return connectionPoolStatusList;
+  }
+
+  /** @param connectionPoolStatusList the status of the shared database connection pools */
+  public void setConnectionPoolStatusList(List<ConnectionPoolStatus> connectionPoolStatusList) {
+    this.connectionPoolStatusList = connectionPoolStatusList;
+  }
+
   /** @return the memoryFree */
   public double getMemoryFree() {
     return memoryFree;
@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.engines.cooperative;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import org.apache.hop.core.HopEnvironment;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.plugins.PluginRegistry;
+import org.apache.hop.core.plugins.TransformPluginType;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.pipeline.PipelineHopMeta;
+import org.apache.hop.pipeline.PipelineMeta;
+import org.apache.hop.pipeline.RowProducer;
+import org.apache.hop.pipeline.engine.EngineMetrics;
+import org.apache.hop.pipeline.engine.IEngineComponent;
+import org.apache.hop.pipeline.transform.ITransform;
+import org.apache.hop.pipeline.transform.ITransformMeta;
+import org.apache.hop.pipeline.transform.TransformMeta;
+import org.apache.hop.pipeline.transforms.dummy.DummyMeta;
+import org.apache.hop.pipeline.transforms.injector.InjectorMeta;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class CooperativePipelineEngineTest {
+
+  @BeforeClass
+  public static void beforeClass() throws HopException {
+    HopEnvironment.init();
+  }
+
+  /** More transforms than worker threads and tiny buffers must not stall the pipeline */
+  @Test(timeout = 60000)
+  public void testRunOnSingleWorker() throws Exception {
+    int nrRows = 10000;
+
+    PipelineMeta pipelineMeta = new PipelineMeta();
+    TransformMeta injector = createTransform("injector", new InjectorMeta());
+    pipelineMeta.addTransform(injector);
+    TransformMeta previous = injector;
+    for (int i = 1; i <= 4; i++) {
+      TransformMeta dummy = createTransform("dummy" + i, new DummyMeta());
+      pipelineMeta.addTransform(dummy);
+      pipelineMeta.addPipelineHop(new PipelineHopMeta(previous, dummy));
+      previous = dummy;
+    }
+
+    CooperativePipelineEngine pipeline = new CooperativePipelineEngine(pipelineMeta);
+    CooperativePipelineRunConfiguration config =
+        (CooperativePipelineRunConfiguration)
+            pipeline.getPipelineRunConfiguration().getEngineRunConfiguration();
+    config.setParallelism("1");
+    config.setRowSetSize("10");
+    config.setTimeSlice("7");
+
+    pipeline.prepareExecution();
+    RowProducer producer = pipeline.addRowProducer("injector", 0);
+    pipeline.startThreads();
+
+    IRowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaInteger("id"));
+    for (long i = 0; i < nrRows; i++) {
+      producer.putRow(rowMeta, new Object[] {i});
+    }
+    producer.finished();
+    pipeline.waitUntilFinished();
+
+    assertEquals(0, pipeline.getErrors());
+    ITransform last = pipeline.getTransform("dummy4", 0);
+    assertEquals(nrRows, last.getLinesRead());
+    assertEquals(nrRows, last.getLinesWritten());
+
+    EngineMetrics metrics = pipeline.getEngineMetrics();
+    IEngineComponent component = pipeline.findComponent("dummy4", 0);
+    Long slices = metrics.getComponentMetric(component, CooperativePipelineEngine.METRIC_SLICES);
+    assertNotNull(slices);
+    assertTrue(slices > 0);
+    assertNotNull(
+        metrics.getComponentMetric(component, CooperativePipelineEngine.METRIC_DEFERRALS));
+  }
+
+  private TransformMeta createTransform(String name, ITransformMeta meta) {
+    String pluginId = PluginRegistry.getInstance().getPluginId(TransformPluginType.class, meta);
+    return new TransformMeta(pluginId, name, meta);
+  }
+}
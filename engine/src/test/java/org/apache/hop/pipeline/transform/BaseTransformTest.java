@@ -48,14 +48,17 @@ import org.mockito.stubbing.Answer;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
 import static org.mockito.Mockito.anyObject;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doReturn;
@@ -159,6 +162,51 @@ public class BaseTransformTest {
     }
   }
 
+  @Test
+  public void testLineCountersWhileReadConcurrently() throws InterruptedException {
+    final BaseTransform baseTransform =
+        new BaseTransform(
+            mockHelper.transformMeta,
+            mockHelper.iTransformMeta,
+            mockHelper.iTransformData,
+            0,
+            mockHelper.pipelineMeta,
+            mockHelper.pipeline);
+
+    final int nrRows = 100000;
+    final AtomicBoolean done = new AtomicBoolean(false);
+    final AtomicBoolean decreasing = new AtomicBoolean(false);
+    Thread reader =
+        new Thread(
+            () -> {
+              long previous = 0;
+              while (!done.get()) {
+                long current = baseTransform.getLinesRead();
+                if (current < previous) {
+                  decreasing.set(true);
+                }
+                previous = current;
+              }
+            });
+    reader.start();
+    try {
+      for (int i = 0; i < nrRows; i++) {
+        baseTransform.incrementLinesRead();
+        baseTransform.incrementLinesWritten();
+      }
+    } finally {
+      done.set(true);
+      reader.join();
+    }
+
+    assertFalse(decreasing.get());
+    assertEquals(nrRows, baseTransform.getLinesRead());
+    assertEquals(nrRows, baseTransform.getLinesWritten());
+
+    baseTransform.setLinesRead(5);
+    assertEquals(4, baseTransform.decrementLinesRead());
+  }
+
   @Test
   public void resultFilesMapIsSafeForConcurrentModification() throws Exception {
     final BaseTransform<ITransformMeta, ITransformData> transform =
@@ -453,4 +501,51 @@ public class BaseTransformTest {
     verify(mockHelper.pipelineMeta, times(1))
         .checkRowMixingStatically(any(IVariables.class), any(TransformMeta.class), anyObject());
   }
+
+  @Test
+  public void testGetRowsSafeModeTwoInputs() throws HopException {
+    Pipeline pipelineMock = spy(new LocalPipelineEngine());
+    when(pipelineMock.isSafeModeEnabled()).thenReturn(true);
+    BaseTransform baseTransformSpy =
+        spy(
+            new BaseTransform(
+                mockHelper.transformMeta,
+                mockHelper.iTransformMeta,
+                mockHelper.iTransformData,
+                0,
+                mockHelper.pipelineMeta,
+                pipelineMock));
+    doNothing().when(baseTransformSpy).waitUntilPipelineIsStarted();
+
+    RowMeta rowMetaA = new RowMeta();
+    rowMetaA.addValueMeta(new ValueMetaInteger("a"));
+    RowMeta rowMetaB = new RowMeta();
+    rowMetaB.addValueMeta(new ValueMetaString("b"));
+
+    // The first row of input A is only found on the second try, after which the transform moves
+    // on to input B
+    //
+    BlockingRowSet rowSetA = spy(new BlockingRowSet(10));
+    for (long i = 1; i <= 3; i++) {
+      rowSetA.putRow(rowMetaA, new Object[] {i});
+    }
+    rowSetA.setDone();
+    doReturn(null).doCallRealMethod().when(rowSetA).getRowWait(anyLong(), any(TimeUnit.class));
+    BlockingRowSet rowSetB = new BlockingRowSet(10);
+    rowSetB.putRow(rowMetaB, new Object[] {"b1"});
+    rowSetB.putRow(rowMetaB, new Object[] {"b2"});
+
+    baseTransformSpy.setInputRowSets(Arrays.asList(rowSetA, rowSetB));
+
+    List<Object[]> rows = baseTransformSpy.getRows(10);
+
+    assertEquals(3, rows.size());
+    for (int i = 0; i < rows.size(); i++) {
+      assertEquals((long) i + 1, rows.get(i)[0]);
+    }
+    assertEquals(2, rowSetB.size());
+    assertEquals(3, baseTransformSpy.getLinesRead());
+    verify(mockHelper.pipelineMeta, times(3))
+        .checkRowMixingStatically(any(IVariables.class), any(TransformMeta.class), anyObject());
+  }
 }
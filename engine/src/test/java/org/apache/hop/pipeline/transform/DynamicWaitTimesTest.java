@@ -20,11 +20,14 @@ package org.apache.hop.pipeline.transform;
 import junit.framework.TestCase;
 import org.apache.hop.core.BlockingRowSet;
 import org.apache.hop.core.IRowSet;
+import org.apache.hop.core.WaitStrategy;
+import org.apache.hop.core.row.RowMeta;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 public class DynamicWaitTimesTest extends TestCase {
@@ -91,6 +94,59 @@ public class DynamicWaitTimesTest extends TestCase {
     testAPeriod(rowSetList, 10);
   }
 
+  public void testAdaptiveStreamStatus() {
+    List<IRowSet> rowSetList = Arrays.asList(new BlockingRowSet(1), new BlockingRowSet(2));
+    status = DynamicWaitTimes.build(rowSetList, () -> 0, 20, WaitStrategy.Adaptive);
+    assertEquals(0, status.get());
+    assertFalse(status.isThrottling());
+
+    // Backing off all the way to parking must never take longer than the wait time per round
+    //
+    long start = System.nanoTime();
+    for (int i = 0; i < 250; i++) {
+      status.adjust(true, rowSetList.get(i % 2));
+    }
+    assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(10));
+
+    status.reset();
+    status.remove(rowSetList.get(1));
+    assertEquals(0, status.get());
+  }
+
+  public void testSignalStreamStatus() throws Exception {
+    IRowSet rowSet = new BlockingRowSet(3);
+    status =
+        DynamicWaitTimes.build(Collections.singletonList(rowSet), () -> 0, 60000, WaitStrategy.Signal);
+    assertNotNull(rowSet.getRowSetSignal());
+    assertEquals(0, status.get());
+
+    // A producer putting a row and marking the row set done wakes us up long before the wait time
+    //
+    Thread producer =
+        new Thread(
+            () -> {
+              try {
+                Thread.sleep(50);
+              } catch (InterruptedException e) {
+                // Ignore
+              }
+              rowSet.putRow(new RowMeta(), new Object[] {});
+              rowSet.setDone();
+            });
+    long start = System.nanoTime();
+    producer.start();
+    status.adjust(true, rowSet);
+    producer.join();
+    assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(30));
+    assertEquals(1, rowSet.size());
+
+    // With data available we don't wait at all
+    //
+    start = System.nanoTime();
+    status.adjust(true, rowSet);
+    assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(30));
+  }
+
   private void testAPeriod(List<IRowSet> rowSetList, int times) {
     for (int j = 0; j < rowSetList.size() * times; j++) {
       activeStreamIndex.set(0);
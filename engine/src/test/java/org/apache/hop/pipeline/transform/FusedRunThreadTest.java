@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transform;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.apache.hop.core.HopEnvironment;
+import org.apache.hop.core.IRowSet;
+import org.apache.hop.core.QueueRowSet;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.plugins.PluginRegistry;
+import org.apache.hop.core.plugins.TransformPluginType;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.pipeline.PipelineHopMeta;
+import org.apache.hop.pipeline.PipelineMeta;
+import org.apache.hop.pipeline.RowProducer;
+import org.apache.hop.pipeline.engines.local.LocalPipelineEngine;
+import org.apache.hop.pipeline.engines.local.LocalPipelineRunConfiguration;
+import org.apache.hop.pipeline.transforms.dummy.DummyMeta;
+import org.apache.hop.pipeline.transforms.injector.InjectorMeta;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class FusedRunThreadTest {
+
+  @BeforeClass
+  public static void beforeClass() throws HopException {
+    HopEnvironment.init();
+  }
+
+  @Test(timeout = 60000)
+  public void testFusedChain() throws Exception {
+    int nrRows = 10000;
+
+    // injector -> dummy1 -> dummy2 -> dummy3 : the dummies run in a single thread
+    //
+    PipelineMeta pipelineMeta = new PipelineMeta();
+    TransformMeta previous = createTransform("injector", new InjectorMeta());
+    pipelineMeta.addTransform(previous);
+    for (int i = 1; i <= 3; i++) {
+      TransformMeta dummy = createTransform("dummy" + i, new DummyMeta());
+      pipelineMeta.addTransform(dummy);
+      pipelineMeta.addPipelineHop(new PipelineHopMeta(previous, dummy));
+      previous = dummy;
+    }
+
+    LocalPipelineEngine pipeline = new LocalPipelineEngine(pipelineMeta);
+    LocalPipelineRunConfiguration config =
+        (LocalPipelineRunConfiguration)
+            pipeline.getPipelineRunConfiguration().getEngineRunConfiguration();
+    config.setTransformFusionEnabled(true);
+    config.setRowSetSize("10");
+
+    pipeline.prepareExecution();
+
+    assertFalse(pipeline.findRowSet("injector", 0, "dummy1", 0) instanceof QueueRowSet);
+    IRowSet fusedRowSet = pipeline.findRowSet("dummy1", 0, "dummy2", 0);
+    assertTrue(fusedRowSet instanceof QueueRowSet);
+    assertTrue(pipeline.findRowSet("dummy2", 0, "dummy3", 0) instanceof QueueRowSet);
+
+    RowProducer producer = pipeline.addRowProducer("injector", 0);
+    try {
+      pipeline.addRowProducer("dummy2", 0);
+      throw new AssertionError("A fused transform should not accept a row producer");
+    } catch (HopException e) {
+      // expected
+    }
+
+    pipeline.startThreads();
+
+    IRowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaInteger("id"));
+    for (long i = 0; i < nrRows; i++) {
+      producer.putRow(rowMeta, new Object[] {i});
+    }
+    producer.finished();
+    pipeline.waitUntilFinished();
+
+    assertEquals(0, pipeline.getErrors());
+    for (int i = 1; i <= 3; i++) {
+      ITransform transform = pipeline.getTransform("dummy" + i, 0);
+      assertEquals(nrRows, transform.getLinesRead());
+      assertEquals(nrRows, transform.getLinesWritten());
+    }
+    assertEquals(0, fusedRowSet.size());
+  }
+
+  @Test(timeout = 60000)
+  public void testFusionDisabled() throws Exception {
+    PipelineMeta pipelineMeta = new PipelineMeta();
+    TransformMeta dummy1 = createTransform("dummy1", new DummyMeta());
+    TransformMeta dummy2 = createTransform("dummy2", new DummyMeta());
+    pipelineMeta.addTransform(dummy1);
+    pipelineMeta.addTransform(dummy2);
+    pipelineMeta.addPipelineHop(new PipelineHopMeta(dummy1, dummy2));
+
+    LocalPipelineEngine pipeline = new LocalPipelineEngine(pipelineMeta);
+    pipeline.prepareExecution();
+
+    assertFalse(pipeline.findRowSet("dummy1", 0, "dummy2", 0) instanceof QueueRowSet);
+  }
+
+  private TransformMeta createTransform(String name, ITransformMeta meta) {
+    String pluginId = PluginRegistry.getInstance().getPluginId(TransformPluginType.class, meta);
+    return new TransformMeta(pluginId, name, meta);
+  }
+}
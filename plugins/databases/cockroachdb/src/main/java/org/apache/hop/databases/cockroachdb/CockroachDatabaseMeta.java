@@ -27,4 +27,15 @@ import org.apache.hop.databases.postgresql.PostgreSqlDatabaseMeta;
  */
 @DatabaseMetaPlugin(type = "COCKROACHDB", typeDescription = "CockroachDB", documentationUrl = "/database/databases/postgresql.html")
 @GuiPlugin(id = "GUI-CockroachDatabaseMeta")
-public class CockroachDatabaseMeta extends PostgreSqlDatabaseMeta implements IDatabase {}
+public class CockroachDatabaseMeta extends PostgreSqlDatabaseMeta implements IDatabase {
+
+  /**
+   * CockroachDB doesn't support the binary COPY format.
+   *
+   * @return false
+   */
+  @Override
+  public boolean supportsBulkLoad() {
+    return false;
+  }
+}
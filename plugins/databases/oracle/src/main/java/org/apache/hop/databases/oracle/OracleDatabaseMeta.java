@@ -708,6 +708,12 @@ public class OracleDatabaseMeta extends BaseDatabaseMeta implements IDatabase {
     return 2000;
   }
 
+  /** An IN list can't have more than 1000 items */
+  @Override
+  public int getMaxStatementParameters() {
+    return 1000;
+  }
+
   /**
    * Oracle does not support a construct like 'drop table if exists', which is apparently legal
    * syntax in many other RDBMSs. So we need to implement the same behavior and avoid throwing
@@ -0,0 +1,377 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.databases.postgresql;
+
+import org.apache.hop.core.exception.HopDatabaseException;
+import org.apache.hop.core.exception.HopValueException;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.IValueMeta;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * Encodes rows in the binary format of the PostgreSQL COPY protocol. The values are written
+ * straight from their {@link IValueMeta} into a reusable byte buffer, there is no text formatting
+ * or escaping. The binary format needs the exact type of every target column, so the encoder is
+ * created with the type names as reported by the JDBC driver (int4, varchar, timestamptz, ...).
+ *
+ * <p>The encoder doesn't depend on the JDBC driver: the caller sends the buffer with the COPY API of
+ * the driver and resets it.
+ */
+public class PostgreSqlBinaryCopyEncoder {
+
+  private static final byte[] SIGNATURE = {
+    'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xFF, '\r', '\n', 0
+  };
+
+  /** 2000-01-01, the epoch of PostgreSQL dates and timestamps */
+  private static final long POSTGRES_EPOCH_SECONDS = 946684800L;
+
+  private static final long POSTGRES_EPOCH_DAYS = 10957L;
+
+  private static final int NUMERIC_NEGATIVE = 0x4000;
+
+  @FunctionalInterface
+  private interface IFieldEncoder {
+    void encode(PostgreSqlBinaryCopyEncoder encoder, IValueMeta valueMeta, Object value)
+        throws HopValueException;
+  }
+
+  private final IRowMeta rowMeta;
+  private final IFieldEncoder[] encoders;
+
+  private byte[] buffer;
+  private int length;
+
+  /**
+   * @param rowMeta the layout of the rows
+   * @param columnTypes the type names of the target columns, one per value
+   * @throws HopDatabaseException in case a column type can't be written in binary format
+   */
+  public PostgreSqlBinaryCopyEncoder(IRowMeta rowMeta, String[] columnTypes)
+      throws HopDatabaseException {
+    if (rowMeta.size() != columnTypes.length) {
+      throw new HopDatabaseException(
+          "Expected "
+              + rowMeta.size()
+              + " column types for the binary COPY format, got "
+              + columnTypes.length);
+    }
+    this.rowMeta = rowMeta;
+    this.encoders = new IFieldEncoder[columnTypes.length];
+    for (int i = 0; i < columnTypes.length; i++) {
+      encoders[i] = getEncoder(columnTypes[i]);
+      if (encoders[i] == null) {
+        throw new HopDatabaseException(
+            "Column '"
+                + rowMeta.getValueMeta(i).getName()
+                + "' of type '"
+                + columnTypes[i]
+                + "' can't be loaded in the binary COPY format");
+      }
+    }
+    this.buffer = new byte[64 * 1024];
+  }
+
+  /**
+   * @param columnType the type name of a column
+   * @return true if values can be written for a column of this type
+   */
+  public static boolean isSupportedType(String columnType) {
+    return getEncoder(columnType) != null;
+  }
+
+  private static IFieldEncoder getEncoder(String columnType) {
+    if (columnType == null) {
+      return null;
+    }
+    switch (columnType.toLowerCase(Locale.ROOT)) {
+      case "int2":
+      case "smallserial":
+        return (e, v, o) -> e.writeInt2(v, v.getInteger(o));
+      case "int4":
+      case "serial":
+        return (e, v, o) -> e.writeInt4(v, v.getInteger(o));
+      case "int8":
+      case "bigserial":
+        return (e, v, o) -> {
+          e.writeInt(8);
+          e.writeLong(v.getInteger(o));
+        };
+      case "float4":
+        return (e, v, o) -> {
+          e.writeInt(4);
+          e.writeInt(Float.floatToIntBits(v.getNumber(o).floatValue()));
+        };
+      case "float8":
+        return (e, v, o) -> {
+          e.writeInt(8);
+          e.writeLong(Double.doubleToLongBits(v.getNumber(o)));
+        };
+      case "numeric":
+        return (e, v, o) -> e.writeNumeric(v.getBigNumber(o));
+      case "text":
+      case "varchar":
+      case "bpchar":
+      case "name":
+      case "json":
+        return (e, v, o) -> e.writeBytes(v.getString(o).getBytes(StandardCharsets.UTF_8));
+      case "jsonb":
+        return (e, v, o) -> {
+          byte[] bytes = v.getString(o).getBytes(StandardCharsets.UTF_8);
+          e.writeInt(bytes.length + 1);
+          e.writeByte(1); // the version of the jsonb format
+          e.writeRaw(bytes);
+        };
+      case "bool":
+        return (e, v, o) -> {
+          e.writeInt(1);
+          e.writeByte(Boolean.TRUE.equals(v.getBoolean(o)) ? 1 : 0);
+        };
+      case "date":
+        return (e, v, o) -> e.writeDate(v.getDate(o));
+      case "timestamp":
+        return (e, v, o) -> e.writeTimestamp(v.getDate(o));
+      case "timestamptz":
+        return (e, v, o) -> e.writeTimestampTz(v.getDate(o));
+      case "bytea":
+        return (e, v, o) -> e.writeBytes(v.getBinary(o));
+      case "uuid":
+        return (e, v, o) -> {
+          UUID uuid = UUID.fromString(v.getString(o));
+          e.writeInt(16);
+          e.writeLong(uuid.getMostSignificantBits());
+          e.writeLong(uuid.getLeastSignificantBits());
+        };
+      default:
+        return null;
+    }
+  }
+
+  /** Write the header, once before the first row */
+  public void writeHeader() {
+    writeRaw(SIGNATURE);
+    writeInt(0); // flags
+    writeInt(0); // header extension length
+  }
+
+  /**
+   * Write a row
+   *
+   * @param row the values
+   * @throws HopValueException in case a value can't be converted to the type of its column
+   */
+  public void writeRow(Object[] row) throws HopValueException {
+    writeShort(encoders.length);
+    for (int i = 0; i < encoders.length; i++) {
+      IValueMeta valueMeta = rowMeta.getValueMeta(i);
+      Object value = row[i];
+      if (valueMeta.isNull(value)) {
+        writeInt(-1);
+      } else {
+        encoders[i].encode(this, valueMeta, value);
+      }
+    }
+  }
+
+  /** Write the trailer, once after the last row */
+  public void writeTrailer() {
+    writeShort(-1);
+  }
+
+  /**
+   * @return the buffer with the encoded data from position 0 up to {@link #getLength()}
+   */
+  public byte[] getBuffer() {
+    return buffer;
+  }
+
+  /**
+   * @return the number of bytes written since the last reset
+   */
+  public int getLength() {
+    return length;
+  }
+
+  /** Empty the buffer, once its content was sent */
+  public void reset() {
+    length = 0;
+  }
+
+  private void writeInt2(IValueMeta valueMeta, long value) throws HopValueException {
+    if (value < Short.MIN_VALUE || value > Short.MAX_VALUE) {
+      throw new HopValueException(
+          "Value " + value + " of field '" + valueMeta.getName() + "' is out of range for int2");
+    }
+    writeInt(2);
+    writeShort((int) value);
+  }
+
+  private void writeInt4(IValueMeta valueMeta, long value) throws HopValueException {
+    if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+      throw new HopValueException(
+          "Value " + value + " of field '" + valueMeta.getName() + "' is out of range for int4");
+    }
+    writeInt(4);
+    writeInt((int) value);
+  }
+
+  /** Days since 2000-01-01, the date in the local time zone like the JDBC driver does */
+  private void writeDate(Date date) {
+    long epochDay =
+        date instanceof java.sql.Date
+            ? ((java.sql.Date) date).toLocalDate().toEpochDay()
+            : date.toInstant().atZone(ZoneId.systemDefault()).toLocalDate().toEpochDay();
+    writeInt(4);
+    writeInt((int) (epochDay - POSTGRES_EPOCH_DAYS));
+  }
+
+  /** Microseconds since 2000-01-01 00:00, the local date and time */
+  private void writeTimestamp(Date date) {
+    LocalDateTime dateTime =
+        date instanceof Timestamp
+            ? ((Timestamp) date).toLocalDateTime()
+            : LocalDateTime.ofInstant(date.toInstant(), ZoneId.systemDefault());
+    writeInt(8);
+    writeLong(
+        (dateTime.toEpochSecond(ZoneOffset.UTC) - POSTGRES_EPOCH_SECONDS) * 1000000L
+            + dateTime.getNano() / 1000);
+  }
+
+  /** Microseconds since 2000-01-01 00:00 UTC */
+  private void writeTimestampTz(Date date) {
+    Instant instant = date.toInstant();
+    writeInt(8);
+    writeLong(
+        (instant.getEpochSecond() - POSTGRES_EPOCH_SECONDS) * 1000000L + instant.getNano() / 1000);
+  }
+
+  /**
+   * A numeric is written as base 10000 digits aligned on the decimal point: the number of digits,
+   * the weight of the first digit, the sign, the display scale and the digits.
+   */
+  private void writeNumeric(BigDecimal value) {
+    int sign = value.signum() < 0 ? NUMERIC_NEGATIVE : 0;
+    int displayScale = Math.max(value.scale(), 0);
+
+    String plain = value.abs().toPlainString();
+    int point = plain.indexOf('.');
+    String integerPart = point < 0 ? plain : plain.substring(0, point);
+    String fractionPart = point < 0 ? "" : plain.substring(point + 1);
+
+    int start = 0;
+    while (start < integerPart.length() && integerPart.charAt(start) == '0') {
+      start++;
+    }
+    integerPart = integerPart.substring(start);
+
+    // Pad to groups of 4 decimal digits: zeros in front of the integer part, after the fraction
+    //
+    StringBuilder digitString = new StringBuilder();
+    for (int i = 0; i < (4 - integerPart.length() % 4) % 4; i++) {
+      digitString.append('0');
+    }
+    digitString.append(integerPart);
+    int integerGroups = digitString.length() / 4;
+    digitString.append(fractionPart);
+    while (digitString.length() % 4 != 0) {
+      digitString.append('0');
+    }
+
+    short[] digits = new short[digitString.length() / 4];
+    for (int i = 0; i < digits.length; i++) {
+      digits[i] = Short.parseShort(digitString.substring(i * 4, i * 4 + 4));
+    }
+
+    int weight = integerGroups - 1;
+    int first = 0;
+    while (first < digits.length && digits[first] == 0) {
+      first++;
+      weight--;
+    }
+    int last = digits.length;
+    while (last > first && digits[last - 1] == 0) {
+      last--;
+    }
+    int nrDigits = last - first;
+    if (nrDigits == 0) {
+      weight = 0;
+      sign = 0;
+    }
+
+    writeInt(8 + 2 * nrDigits);
+    writeShort(nrDigits);
+    writeShort(weight);
+    writeShort(sign);
+    writeShort(displayScale);
+    for (int i = first; i < last; i++) {
+      writeShort(digits[i]);
+    }
+  }
+
+  private void writeBytes(byte[] bytes) {
+    writeInt(bytes.length);
+    writeRaw(bytes);
+  }
+
+  private void ensureCapacity(int extra) {
+    if (length + extra > buffer.length) {
+      buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + extra));
+    }
+  }
+
+  private void writeRaw(byte[] bytes) {
+    ensureCapacity(bytes.length);
+    System.arraycopy(bytes, 0, buffer, length, bytes.length);
+    length += bytes.length;
+  }
+
+  private void writeByte(int value) {
+    ensureCapacity(1);
+    buffer[length++] = (byte) value;
+  }
+
+  private void writeShort(int value) {
+    ensureCapacity(2);
+    buffer[length++] = (byte) (value >>> 8);
+    buffer[length++] = (byte) value;
+  }
+
+  private void writeInt(int value) {
+    ensureCapacity(4);
+    buffer[length++] = (byte) (value >>> 24);
+    buffer[length++] = (byte) (value >>> 16);
+    buffer[length++] = (byte) (value >>> 8);
+    buffer[length++] = (byte) value;
+  }
+
+  private void writeLong(long value) {
+    writeInt((int) (value >>> 32));
+    writeInt((int) value);
+  }
+}
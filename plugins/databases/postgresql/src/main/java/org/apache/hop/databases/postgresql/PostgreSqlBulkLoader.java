@@ -0,0 +1,160 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.databases.postgresql;
+
+import org.apache.hop.core.database.IBulkLoader;
+import org.apache.hop.core.exception.HopDatabaseException;
+import org.apache.hop.core.exception.HopValueException;
+import org.apache.hop.core.row.IRowMeta;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+import org.postgresql.core.BaseConnection;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Loads rows with <code>COPY ... FROM STDIN</code> in the binary format. The rows are encoded in a
+ * buffer which is sent to the server every time it holds about 64KB.
+ */
+public class PostgreSqlBulkLoader implements IBulkLoader {
+
+  private static final int FLUSH_SIZE = 64 * 1024;
+
+  private final PostgreSqlBinaryCopyEncoder encoder;
+  private final CopyIn copyIn;
+
+  private long rowCount;
+
+  private PostgreSqlBulkLoader(
+      Connection connection,
+      String schemaTable,
+      String columnList,
+      IRowMeta rowMeta,
+      String[] columnTypes)
+      throws HopDatabaseException {
+    this.encoder = new PostgreSqlBinaryCopyEncoder(rowMeta, columnTypes);
+    try {
+      CopyManager copyManager = new CopyManager(connection.unwrap(BaseConnection.class));
+      this.copyIn =
+          copyManager.copyIn(
+              "COPY " + schemaTable + " (" + columnList + ") FROM STDIN (FORMAT BINARY)");
+    } catch (SQLException e) {
+      throw new HopDatabaseException("Unable to start COPY into table " + schemaTable, e);
+    }
+    encoder.writeHeader();
+  }
+
+  /**
+   * Start a COPY into a table.
+   *
+   * @param connection the connection to load over
+   * @param schemaTable the quoted schema and table name
+   * @param columns the quoted names of the columns to load
+   * @param rowMeta the layout of the rows which are loaded, one value per column
+   * @return the bulk loader or null if a column has a type which can't be written in the binary
+   *     format
+   * @throws HopDatabaseException in case the COPY can't be started
+   */
+  public static PostgreSqlBulkLoader create(
+      Connection connection, String schemaTable, String[] columns, IRowMeta rowMeta)
+      throws HopDatabaseException {
+    String[] columnTypes = getColumnTypes(connection, schemaTable, columns);
+    for (String columnType : columnTypes) {
+      if (!PostgreSqlBinaryCopyEncoder.isSupportedType(columnType)) {
+        return null;
+      }
+    }
+    return new PostgreSqlBulkLoader(
+        connection, schemaTable, String.join(", ", columns), rowMeta, columnTypes);
+  }
+
+  /**
+   * The binary format needs the exact types of the target columns, ask the server for them.
+   *
+   * @param connection the connection to the database
+   * @param schemaTable the quoted schema and table name
+   * @param columns the quoted names of the columns
+   * @return the type names of the columns
+   * @throws HopDatabaseException in case the types can't be retrieved
+   */
+  public static String[] getColumnTypes(
+      Connection connection, String schemaTable, String[] columns) throws HopDatabaseException {
+    String sql = "SELECT " + String.join(", ", columns) + " FROM " + schemaTable + " WHERE 1 = 0";
+    try (Statement statement = connection.createStatement();
+        ResultSet resultSet = statement.executeQuery(sql)) {
+      ResultSetMetaData metaData = resultSet.getMetaData();
+      String[] types = new String[metaData.getColumnCount()];
+      for (int i = 0; i < types.length; i++) {
+        types[i] = metaData.getColumnTypeName(i + 1);
+      }
+      return types;
+    } catch (SQLException e) {
+      throw new HopDatabaseException(
+          "Unable to get the column types of table " + schemaTable, e);
+    }
+  }
+
+  @Override
+  public void addRow(Object[] row) throws HopDatabaseException {
+    try {
+      encoder.writeRow(row);
+    } catch (HopValueException e) {
+      throw new HopDatabaseException("Unable to encode row for COPY", e);
+    }
+    rowCount++;
+    if (encoder.getLength() >= FLUSH_SIZE) {
+      send();
+    }
+  }
+
+  @Override
+  public long finish() throws HopDatabaseException {
+    encoder.writeTrailer();
+    send();
+    try {
+      copyIn.endCopy();
+    } catch (SQLException e) {
+      throw new HopDatabaseException("Error loading rows with COPY", e);
+    }
+    return rowCount;
+  }
+
+  @Override
+  public void cancel() {
+    try {
+      if (copyIn.isActive()) {
+        copyIn.cancelCopy();
+      }
+    } catch (SQLException e) {
+      // The copy is aborted, the error of the transform is reported
+    }
+  }
+
+  private void send() throws HopDatabaseException {
+    try {
+      copyIn.writeToCopy(encoder.getBuffer(), 0, encoder.getLength());
+    } catch (SQLException e) {
+      throw new HopDatabaseException("Error sending rows with COPY", e);
+    }
+    encoder.reset();
+  }
+}
@@ -21,10 +21,15 @@ import org.apache.hop.core.Const;
 import org.apache.hop.core.database.BaseDatabaseMeta;
 import org.apache.hop.core.database.DatabaseMeta;
 import org.apache.hop.core.database.DatabaseMetaPlugin;
+import org.apache.hop.core.database.IBulkLoader;
 import org.apache.hop.core.database.IDatabase;
+import org.apache.hop.core.exception.HopDatabaseException;
 import org.apache.hop.core.gui.plugin.GuiPlugin;
+import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.core.row.IValueMeta;
 
+import java.sql.Connection;
+
 /**
  * Contains PostgreSQL specific information through static final members
  */
@@ -1101,6 +1106,23 @@ public class PostgreSqlDatabaseMeta extends BaseDatabaseMeta implements IDatabas
     return true;
   }
 
+  /**
+   * Rows are loaded with COPY in the binary format.
+   *
+   * @return true
+   */
+  @Override
+  public boolean supportsBulkLoad() {
+    return true;
+  }
+
+  @Override
+  public IBulkLoader createBulkLoader(
+      Connection connection, String schemaTable, String[] columns, IRowMeta rowMeta)
+      throws HopDatabaseException {
+    return PostgreSqlBulkLoader.create(connection, schemaTable, columns, rowMeta);
+  }
+
   @Override
   public int getMaxVARCHARLength() {
     return GB_LIMIT;
@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.databases.postgresql;
+
+import org.apache.hop.core.exception.HopDatabaseException;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaBigNumber;
+import org.apache.hop.core.row.value.ValueMetaDate;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.row.value.ValueMetaString;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Date;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PostgreSqlBinaryCopyEncoderTest {
+
+  @Test
+  public void testHeaderAndTrailer() throws Exception {
+    PostgreSqlBinaryCopyEncoder encoder =
+        new PostgreSqlBinaryCopyEncoder(new RowMeta(), new String[0]);
+    encoder.writeHeader();
+    encoder.writeTrailer();
+
+    ByteBuffer buffer = wrap(encoder);
+    byte[] signature = new byte[11];
+    buffer.get(signature);
+    assertArrayEquals("PGCOPY\n\377\r\n\0".getBytes(StandardCharsets.ISO_8859_1), signature);
+    assertEquals(0, buffer.getInt());
+    assertEquals(0, buffer.getInt());
+    assertEquals(-1, buffer.getShort());
+    assertFalse(buffer.hasRemaining());
+
+    encoder.reset();
+    assertEquals(0, encoder.getLength());
+  }
+
+  @Test
+  public void testRow() throws Exception {
+    IRowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaInteger("id"));
+    rowMeta.addValueMeta(new ValueMetaInteger("amount"));
+    rowMeta.addValueMeta(new ValueMetaString("name"));
+    rowMeta.addValueMeta(new ValueMetaString("comment"));
+    rowMeta.addValueMeta(new ValueMetaDate("day"));
+
+    PostgreSqlBinaryCopyEncoder encoder =
+        new PostgreSqlBinaryCopyEncoder(
+            rowMeta, new String[] {"int4", "int8", "varchar", "text", "date"});
+    Date day = Date.from(LocalDate.of(2000, 1, 3).atStartOfDay(ZoneId.systemDefault()).toInstant());
+    encoder.writeRow(new Object[] {12L, 1L << 40, "héllo", null, day});
+
+    ByteBuffer buffer = wrap(encoder);
+    assertEquals(5, buffer.getShort());
+    assertEquals(4, buffer.getInt());
+    assertEquals(12, buffer.getInt());
+    assertEquals(8, buffer.getInt());
+    assertEquals(1L << 40, buffer.getLong());
+    byte[] name = "héllo".getBytes(StandardCharsets.UTF_8);
+    assertEquals(name.length, buffer.getInt());
+    byte[] nameBytes = new byte[name.length];
+    buffer.get(nameBytes);
+    assertArrayEquals(name, nameBytes);
+    assertEquals(-1, buffer.getInt());
+    assertEquals(4, buffer.getInt());
+    assertEquals(2, buffer.getInt());
+    assertFalse(buffer.hasRemaining());
+  }
+
+  @Test
+  public void testNumeric() throws Exception {
+    assertArrayEquals(new short[] {3, 1, 0, 3, 1, 2345, 6780}, numeric("12345.678"));
+    assertArrayEquals(new short[] {2, -1, 0x4000, 7, 1, 2340}, numeric("-0.0001234"));
+    assertArrayEquals(new short[] {1, -2, 0, 5, 1000}, numeric("0.00001"));
+    assertArrayEquals(new short[] {1, 1, 0, 0, 1}, numeric("10000"));
+    assertArrayEquals(new short[] {0, 0, 0, 2}, numeric("0.00"));
+  }
+
+  @Test
+  public void testSupportedTypes() {
+    assertTrue(PostgreSqlBinaryCopyEncoder.isSupportedType("int4"));
+    assertTrue(PostgreSqlBinaryCopyEncoder.isSupportedType("TIMESTAMPTZ"));
+    assertTrue(PostgreSqlBinaryCopyEncoder.isSupportedType("serial"));
+    assertFalse(PostgreSqlBinaryCopyEncoder.isSupportedType("geometry"));
+    assertFalse(PostgreSqlBinaryCopyEncoder.isSupportedType(null));
+  }
+
+  @Test(expected = HopDatabaseException.class)
+  public void testUnsupportedType() throws Exception {
+    IRowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaString("shape"));
+    new PostgreSqlBinaryCopyEncoder(rowMeta, new String[] {"geometry"});
+  }
+
+  private short[] numeric(String value) throws Exception {
+    IRowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaBigNumber("value"));
+    PostgreSqlBinaryCopyEncoder encoder =
+        new PostgreSqlBinaryCopyEncoder(rowMeta, new String[] {"numeric"});
+    encoder.writeRow(new Object[] {new BigDecimal(value)});
+
+    ByteBuffer buffer = wrap(encoder);
+    assertEquals(1, buffer.getShort());
+    int length = buffer.getInt();
+    short[] shorts = new short[length / 2];
+    for (int i = 0; i < shorts.length; i++) {
+      shorts[i] = buffer.getShort();
+    }
+    assertFalse(buffer.hasRemaining());
+    return shorts;
+  }
+
+  private static ByteBuffer wrap(PostgreSqlBinaryCopyEncoder encoder) {
+    return ByteBuffer.wrap(Arrays.copyOf(encoder.getBuffer(), encoder.getLength()));
+  }
+}
@@ -76,4 +76,14 @@ public class RedshiftDatabaseMeta extends PostgreSqlDatabaseMeta {
   public boolean isSupportsSetMaxRows() {
     return false;
   }
+
+  /**
+   * Redshift doesn't support COPY FROM STDIN, it loads from S3.
+   *
+   * @return false
+   */
+  @Override
+  public boolean supportsBulkLoad() {
+    return false;
+  }
 }
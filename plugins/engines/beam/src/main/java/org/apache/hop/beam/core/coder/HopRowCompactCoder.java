@@ -0,0 +1,448 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.beam.core.coder;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.beam.sdk.coders.CoderException;
+import org.apache.beam.sdk.coders.CustomCoder;
+import org.apache.beam.sdk.util.VarInt;
+import org.apache.hop.beam.core.HopRow;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.IValueMeta;
+import org.apache.hop.core.row.value.ValueMetaAvroRecord;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.InetAddress;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.Date;
+
+/**
+ * A compact binary coder for Hop rows. Compared to {@link HopRowCoder} there is no Java
+ * serialization stream per row, integers and dates are variable length and the nulls are kept in a
+ * bitmap.
+ *
+ * <p>Every value has a 2 bit state in front of the values: null, a value of the type in the row
+ * layout the coder was created with, or a value followed by its type. Only values of the expected
+ * type are written without a type, so the coder also handles rows which don't match the layout,
+ * for example binary strings of lazy conversion. Without a row layout every value has its type.
+ *
+ * <p>A row is encoded in a byte array first and written to the stream in one go, after its size.
+ * The streams Beam hands to a coder are often synchronized per byte written or read.
+ *
+ * <p>The encodings:
+ *
+ * <ul>
+ *   <li>String: the length as varint and the UTF-8 bytes
+ *   <li>Integer: zig-zag varint
+ *   <li>Number: 8 bytes
+ *   <li>Date: the milliseconds since the epoch as zig-zag varint
+ *   <li>Timestamp: the milliseconds since the epoch as zig-zag varint and the nanoseconds as varint
+ *   <li>Boolean: 1 byte
+ *   <li>BigNumber: the scale as zig-zag varint and the unscaled value as length and bytes
+ *   <li>Binary: the length as varint and the bytes
+ *   <li>Internet address: the host name if known and the address
+ *   <li>Avro record: the length as varint, the schema as JSON and the binary record
+ * </ul>
+ */
+public class HopRowCompactCoder extends CustomCoder<HopRow> {
+
+  private static final int STATE_NULL = 0;
+  private static final int STATE_EXPECTED_TYPE = 1;
+  private static final int STATE_TAGGED = 2;
+
+  /** The types of the values in the row layout or null if the layout isn't known */
+  private final int[] valueTypes;
+
+  /** Create a coder for rows of any layout: every value is written with its type */
+  public HopRowCompactCoder() {
+    this.valueTypes = null;
+  }
+
+  /**
+   * Create a coder for rows with the given layout: values of the type in the layout are written
+   * without their type.
+   *
+   * @param rowMeta the layout of the rows
+   */
+  public HopRowCompactCoder(IRowMeta rowMeta) {
+    this.valueTypes = new int[rowMeta.size()];
+    for (int i = 0; i < valueTypes.length; i++) {
+      valueTypes[i] = rowMeta.getValueMeta(i).getType();
+    }
+  }
+
+  @Override
+  public void encode(HopRow hopRow, OutputStream outStream) throws IOException {
+    RowWriter writer = new RowWriter();
+    Object[] row = hopRow.getRow();
+
+    // Length plus one, zero for a null row
+    //
+    if (row == null) {
+      writer.writeVarLong(0);
+    } else {
+      int length = hopRow.length();
+      writer.writeVarLong(length + 1L);
+
+      // The states of all values go first, four to a byte
+      //
+      int[] types = new int[length];
+      byte[] states = new byte[(length + 3) / 4];
+      for (int i = 0; i < length; i++) {
+        Object object = row[i];
+        int state;
+        if (object == null) {
+          state = STATE_NULL;
+        } else {
+          types[i] = getObjectType(object);
+          state = isExpectedType(i, types[i]) ? STATE_EXPECTED_TYPE : STATE_TAGGED;
+        }
+        states[i >> 2] |= (byte) (state << ((i & 3) << 1));
+      }
+      writer.write(states, states.length);
+
+      // The values
+      //
+      for (int i = 0; i < length; i++) {
+        Object object = row[i];
+        if (object == null) {
+          continue;
+        }
+        if (!isExpectedType(i, types[i])) {
+          writer.writeByte(types[i]);
+        }
+        write(writer, types[i], object);
+      }
+    }
+
+    VarInt.encode(writer.size, outStream);
+    outStream.write(writer.bytes, 0, writer.size);
+  }
+
+  @Override
+  public HopRow decode(InputStream inStream) throws IOException {
+    byte[] bytes = new byte[VarInt.decodeInt(inStream)];
+    new DataInputStream(inStream).readFully(bytes);
+    RowReader reader = new RowReader(bytes);
+
+    int length = (int) reader.readVarLong() - 1;
+    if (length < 0) {
+      return new HopRow();
+    }
+    int statesPosition = reader.position;
+    reader.checkAvailable((length + 3) / 4);
+    reader.position += (length + 3) / 4;
+
+    Object[] row = new Object[length];
+    for (int i = 0; i < length; i++) {
+      int state = (bytes[statesPosition + (i >> 2)] >> ((i & 3) << 1)) & 3;
+      switch (state) {
+        case STATE_NULL:
+          break;
+        case STATE_EXPECTED_TYPE:
+          row[i] = read(reader, valueTypes[i]);
+          break;
+        case STATE_TAGGED:
+          row[i] = read(reader, reader.readByte());
+          break;
+        default:
+          throw new CoderException("Invalid state " + state + " of value " + i);
+      }
+    }
+    return new HopRow(row, length);
+  }
+
+  @Override
+  public void verifyDeterministic() {
+    // The same row is always encoded the same way
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    if (this == other) {
+      return true;
+    }
+    if (other == null || other.getClass() != getClass()) {
+      return false;
+    }
+    return Arrays.equals(valueTypes, ((HopRowCompactCoder) other).valueTypes);
+  }
+
+  @Override
+  public int hashCode() {
+    return Arrays.hashCode(valueTypes);
+  }
+
+  private boolean isExpectedType(int index, int objectType) {
+    return valueTypes != null && index < valueTypes.length && valueTypes[index] == objectType;
+  }
+
+  private static void write(RowWriter writer, int objectType, Object object) throws IOException {
+    switch (objectType) {
+      case IValueMeta.TYPE_STRING:
+        writer.writeBytes(((String) object).getBytes(StandardCharsets.UTF_8));
+        break;
+      case IValueMeta.TYPE_INTEGER:
+        writer.writeZigZag((Long) object);
+        break;
+      case IValueMeta.TYPE_TIMESTAMP:
+        writer.writeZigZag(((Timestamp) object).getTime());
+        writer.writeVarLong(((Timestamp) object).getNanos());
+        break;
+      case IValueMeta.TYPE_DATE:
+        writer.writeZigZag(((Date) object).getTime());
+        break;
+      case IValueMeta.TYPE_BOOLEAN:
+        writer.writeByte(((Boolean) object) ? 1 : 0);
+        break;
+      case IValueMeta.TYPE_NUMBER:
+        writer.writeLong(Double.doubleToLongBits((Double) object));
+        break;
+      case IValueMeta.TYPE_BIGNUMBER:
+        BigDecimal bigDecimal = (BigDecimal) object;
+        writer.writeZigZag(bigDecimal.scale());
+        writer.writeBytes(bigDecimal.unscaledValue().toByteArray());
+        break;
+      case IValueMeta.TYPE_BINARY:
+        writer.writeBytes((byte[]) object);
+        break;
+      case IValueMeta.TYPE_INET:
+        // The host name before the slash is empty if it was never looked up. Asking for it would
+        // do a reverse lookup.
+        //
+        InetAddress inetAddress = (InetAddress) object;
+        String description = inetAddress.toString();
+        String hostname = description.substring(0, description.lastIndexOf('/'));
+        writer.writeBytes(hostname.getBytes(StandardCharsets.UTF_8));
+        writer.writeBytes(inetAddress.getAddress());
+        break;
+      case IValueMeta.TYPE_AVRO:
+        GenericRecord genericRecord = (GenericRecord) object;
+        try {
+          ByteArrayOutputStream avroBytes = new ByteArrayOutputStream();
+          DataOutputStream out = new DataOutputStream(avroBytes);
+          out.writeUTF(genericRecord.getSchema().toString(false));
+          ValueMetaAvroRecord valueMeta =
+              new ValueMetaAvroRecord("write", genericRecord.getSchema());
+          valueMeta.writeData(out, genericRecord);
+          out.flush();
+          writer.writeBytes(avroBytes.toByteArray());
+        } catch (Exception e) {
+          throw new IOException("Error serializing Avro generic schema and record", e);
+        }
+        break;
+      default:
+        throw new IOException("Data type not supported yet: " + objectType + " - " + object);
+    }
+  }
+
+  private static Object read(RowReader reader, int objectType) throws IOException {
+    switch (objectType) {
+      case IValueMeta.TYPE_STRING:
+        int stringLength = (int) reader.readVarLong();
+        reader.checkAvailable(stringLength);
+        String string =
+            new String(reader.bytes, reader.position, stringLength, StandardCharsets.UTF_8);
+        reader.position += stringLength;
+        return string;
+      case IValueMeta.TYPE_INTEGER:
+        return reader.readZigZag();
+      case IValueMeta.TYPE_TIMESTAMP:
+        Timestamp timestamp = new Timestamp(reader.readZigZag());
+        timestamp.setNanos((int) reader.readVarLong());
+        return timestamp;
+      case IValueMeta.TYPE_DATE:
+        return new Date(reader.readZigZag());
+      case IValueMeta.TYPE_BOOLEAN:
+        return reader.readByte() != 0;
+      case IValueMeta.TYPE_NUMBER:
+        return Double.longBitsToDouble(reader.readLong());
+      case IValueMeta.TYPE_BIGNUMBER:
+        int scale = (int) reader.readZigZag();
+        return new BigDecimal(new BigInteger(reader.readBytes()), scale);
+      case IValueMeta.TYPE_BINARY:
+        return reader.readBytes();
+      case IValueMeta.TYPE_INET:
+        String hostname = new String(reader.readBytes(), StandardCharsets.UTF_8);
+        byte[] address = reader.readBytes();
+        return hostname.isEmpty()
+            ? InetAddress.getByAddress(address)
+            : InetAddress.getByAddress(hostname, address);
+      case IValueMeta.TYPE_AVRO:
+        try {
+          DataInputStream in = new DataInputStream(new ByteArrayInputStream(reader.readBytes()));
+          Schema schema = new Schema.Parser().parse(in.readUTF());
+          ValueMetaAvroRecord valueMeta = new ValueMetaAvroRecord("read", schema);
+          return valueMeta.readData(in);
+        } catch (Exception e) {
+          throw new IOException("Error de-serializing Avro schema and generic record", e);
+        }
+      default:
+        throw new IOException("Data type not supported yet: " + objectType);
+    }
+  }
+
+  private static int getObjectType(Object object) throws CoderException {
+    if (object instanceof String) {
+      return IValueMeta.TYPE_STRING;
+    }
+    if (object instanceof Long) {
+      return IValueMeta.TYPE_INTEGER;
+    }
+    if (object instanceof Timestamp) {
+      return IValueMeta.TYPE_TIMESTAMP;
+    }
+    if (object instanceof Date) {
+      return IValueMeta.TYPE_DATE;
+    }
+    if (object instanceof Boolean) {
+      return IValueMeta.TYPE_BOOLEAN;
+    }
+    if (object instanceof Double) {
+      return IValueMeta.TYPE_NUMBER;
+    }
+    if (object instanceof BigDecimal) {
+      return IValueMeta.TYPE_BIGNUMBER;
+    }
+    if (object instanceof byte[]) {
+      return IValueMeta.TYPE_BINARY;
+    }
+    if (object instanceof InetAddress) {
+      return IValueMeta.TYPE_INET;
+    }
+    if (object instanceof GenericRecord) {
+      return IValueMeta.TYPE_AVRO;
+    }
+    throw new CoderException(
+        "Data type for object class " + object.getClass().getName() + " isn't supported yet");
+  }
+
+  /** Collects the bytes of one row */
+  private static final class RowWriter {
+    private byte[] bytes = new byte[128];
+    private int size;
+
+    private void ensureCapacity(int extra) {
+      if (size + extra > bytes.length) {
+        bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + extra));
+      }
+    }
+
+    private void writeByte(int value) {
+      ensureCapacity(1);
+      bytes[size++] = (byte) value;
+    }
+
+    private void write(byte[] data, int length) {
+      ensureCapacity(length);
+      System.arraycopy(data, 0, bytes, size, length);
+      size += length;
+    }
+
+    private void writeBytes(byte[] data) {
+      writeVarLong(data.length);
+      write(data, data.length);
+    }
+
+    private void writeVarLong(long value) {
+      ensureCapacity(10);
+      while ((value & ~0x7FL) != 0) {
+        bytes[size++] = (byte) ((value & 0x7F) | 0x80);
+        value >>>= 7;
+      }
+      bytes[size++] = (byte) value;
+    }
+
+    private void writeZigZag(long value) {
+      writeVarLong((value << 1) ^ (value >> 63));
+    }
+
+    private void writeLong(long value) {
+      ensureCapacity(8);
+      for (int shift = 56; shift >= 0; shift -= 8) {
+        bytes[size++] = (byte) (value >>> shift);
+      }
+    }
+  }
+
+  /** Reads the values of one row from its bytes */
+  private static final class RowReader {
+    private final byte[] bytes;
+    private int position;
+
+    private RowReader(byte[] bytes) {
+      this.bytes = bytes;
+    }
+
+    private int readByte() throws CoderException {
+      checkAvailable(1);
+      return bytes[position++] & 0xFF;
+    }
+
+    private byte[] readBytes() throws CoderException {
+      int length = (int) readVarLong();
+      checkAvailable(length);
+      byte[] data = Arrays.copyOfRange(bytes, position, position + length);
+      position += length;
+      return data;
+    }
+
+    private long readVarLong() throws CoderException {
+      long value = 0;
+      for (int shift = 0; shift < 64; shift += 7) {
+        int b = readByte();
+        value |= (long) (b & 0x7F) << shift;
+        if ((b & 0x80) == 0) {
+          return value;
+        }
+      }
+      throw new CoderException("Invalid varint in row");
+    }
+
+    private long readZigZag() throws CoderException {
+      long value = readVarLong();
+      return (value >>> 1) ^ -(value & 1);
+    }
+
+    private long readLong() throws CoderException {
+      checkAvailable(8);
+      long value = 0;
+      for (int i = 0; i < 8; i++) {
+        value = (value << 8) | (bytes[position++] & 0xFF);
+      }
+      return value;
+    }
+
+    private void checkAvailable(int length) throws CoderException {
+      if (length < 0 || position + length > bytes.length) {
+        throw new CoderException("Unexpected end of row");
+      }
+    }
+  }
+}
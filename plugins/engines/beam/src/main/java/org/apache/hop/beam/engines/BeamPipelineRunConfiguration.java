@@ -68,6 +68,17 @@ public abstract class BeamPipelineRunConfiguration extends EmptyPipelineRunConfi
   @HopMetadataProperty
   protected String fatJar;
 
+  @GuiWidgetElement(
+      order = "90080-general-options",
+      parentId = PipelineRunConfiguration.GUI_PLUGIN_ELEMENT_PARENT_ID,
+      type = GuiElementType.CHECKBOX,
+      label = "Use compact row coder",
+      toolTip =
+          "Encode the rows between the transforms with a compact binary format using the known row"
+              + " layout")
+  @HopMetadataProperty
+  protected boolean usingCompactRowCoder;
+
   public BeamPipelineRunConfiguration() {
     userAgent = "Hop";
     streamingHopTransformsFlushInterval = "-1";
@@ -85,6 +96,7 @@ public abstract class BeamPipelineRunConfiguration extends EmptyPipelineRunConfi
     this.streamingHopTransformsFlushInterval = config.streamingHopTransformsFlushInterval;
     this.streamingHopTransformsBufferSize = config.streamingHopTransformsBufferSize;
     this.fatJar = config.fatJar;
+    this.usingCompactRowCoder = config.usingCompactRowCoder;
   }
 
   /**
@@ -161,4 +173,19 @@ public abstract class BeamPipelineRunConfiguration extends EmptyPipelineRunConfi
   public void setFatJar(String fatJar) {
     this.fatJar = fatJar;
   }
+
+  /**
+   * Gets usingCompactRowCoder
+   *
+   * @return value of usingCompactRowCoder
+   */
+  @Override
+  public boolean isUsingCompactRowCoder() {
+    return usingCompactRowCoder;
+  }
+
+  /** @param usingCompactRowCoder The usingCompactRowCoder to set */
+  public void setUsingCompactRowCoder(boolean usingCompactRowCoder) {
+    this.usingCompactRowCoder = usingCompactRowCoder;
+  }
 }
@@ -30,6 +30,7 @@ import org.apache.beam.sdk.values.PCollectionList;
 import org.apache.commons.lang.StringUtils;
 import org.apache.hop.beam.core.HopRow;
 import org.apache.hop.beam.core.coder.HopRowCoder;
+import org.apache.hop.beam.core.coder.HopRowCompactCoder;
 import org.apache.hop.beam.core.util.HopBeamUtil;
 import org.apache.hop.beam.engines.HopPipelineExecutionOptions;
 import org.apache.hop.beam.engines.IBeamPipelineEngineRunConfiguration;
@@ -282,7 +283,11 @@ public class HopPipelineMetaToBeamPipelineConverter {
 
       Pipeline pipeline = Pipeline.create(pipelineOptions);
 
-      pipeline.getCoderRegistry().registerCoderForClass(HopRow.class, new HopRowCoder());
+      if (pipelineRunConfiguration.isUsingCompactRowCoder()) {
+        pipeline.getCoderRegistry().registerCoderForClass(HopRow.class, new HopRowCompactCoder());
+      } else {
+        pipeline.getCoderRegistry().registerCoderForClass(HopRow.class, new HopRowCoder());
+      }
 
       log.logBasic("Created Apache Beam pipeline with name '" + pipelineOptions.getJobName() + "'");
 
@@ -34,6 +34,7 @@ import org.apache.beam.sdk.values.PCollectionTuple;
 import org.apache.beam.sdk.values.PCollectionView;
 import org.apache.beam.sdk.values.TupleTag;
 import org.apache.hop.beam.core.HopRow;
+import org.apache.hop.beam.core.coder.HopRowCompactCoder;
 import org.apache.hop.beam.core.fn.StringToHopRowFn;
 import org.apache.hop.beam.core.shared.VariableValue;
 import org.apache.hop.beam.core.transform.TransformBatchTransform;
@@ -246,6 +247,15 @@ public class BeamGenericTransformHandler extends BeamBaseTransformHandler
     PCollection<HopRow> mainPCollection =
         tuple.get(new TupleTag<>(HopBeamUtil.createMainOutputTupleId(transformMeta.getName())));
 
+    // Encode the output rows with their known layout if so configured
+    //
+    HopRowCompactCoder compactRowCoder = null;
+    if (runConfiguration.isUsingCompactRowCoder()) {
+      compactRowCoder =
+          new HopRowCompactCoder(pipelineMeta.getTransformFields(variables, transformMeta));
+      mainPCollection.setCoder(compactRowCoder);
+    }
+
     // Save this in the map
     //
     transformCollectionMap.put(transformMeta.getName(), mainPCollection);
@@ -255,6 +265,9 @@ public class BeamGenericTransformHandler extends BeamBaseTransformHandler
     for (String targetTransform : targetTransforms) {
       String tupleId = HopBeamUtil.createTargetTupleId(transformMeta.getName(), targetTransform);
       PCollection<HopRow> targetPCollection = tuple.get(new TupleTag<>(tupleId));
+      if (compactRowCoder != null) {
+        targetPCollection.setCoder(compactRowCoder);
+      }
 
       // Store this in the map as well
       //
@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.beam.core.coder;
+
+import org.apache.beam.sdk.coders.Coder;
+import org.apache.hop.beam.core.HopRow;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaBoolean;
+import org.apache.hop.core.row.value.ValueMetaDate;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.row.value.ValueMetaNumber;
+import org.apache.hop.core.row.value.ValueMetaString;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the encoding and decoding of rows with {@link HopRowCoder} and {@link
+ * HopRowCompactCoder}. This isn't run as part of the build, run the main method from the test
+ * classpath.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HopRowCoderBenchmark {
+
+  @Param({"legacy", "compact"})
+  public String coderType;
+
+  private Coder<HopRow> coder;
+  private HopRow hopRow;
+  private byte[] encoded;
+  private ByteArrayOutputStream outputStream;
+
+  @Setup
+  public void setUp() throws IOException {
+    IRowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaInteger("id"));
+    rowMeta.addValueMeta(new ValueMetaString("name"));
+    rowMeta.addValueMeta(new ValueMetaString("city"));
+    rowMeta.addValueMeta(new ValueMetaNumber("amount"));
+    rowMeta.addValueMeta(new ValueMetaDate("updated"));
+    rowMeta.addValueMeta(new ValueMetaBoolean("active"));
+    rowMeta.addValueMeta(new ValueMetaInteger("quantity"));
+    rowMeta.addValueMeta(new ValueMetaString("comment"));
+
+    hopRow =
+        new HopRow(
+            new Object[] {
+              123456L,
+              "Apache Hop",
+              "Brussels",
+              1234.5678,
+              new Date(1672531200000L),
+              Boolean.TRUE,
+              42L,
+              null
+            });
+
+    if ("compact".equals(coderType)) {
+      coder = new HopRowCompactCoder(rowMeta);
+    } else {
+      coder = new HopRowCoder();
+    }
+
+    outputStream = new ByteArrayOutputStream(1024);
+    coder.encode(hopRow, outputStream);
+    encoded = outputStream.toByteArray();
+  }
+
+  @Benchmark
+  public byte[] encode() throws IOException {
+    outputStream.reset();
+    coder.encode(hopRow, outputStream);
+    return outputStream.toByteArray();
+  }
+
+  @Benchmark
+  public HopRow decode() throws IOException {
+    return coder.decode(new ByteArrayInputStream(encoded));
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(
+            new OptionsBuilder().include(HopRowCoderBenchmark.class.getSimpleName()).build())
+        .run();
+  }
+}
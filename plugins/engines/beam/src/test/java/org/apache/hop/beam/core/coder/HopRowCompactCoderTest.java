@@ -0,0 +1,215 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.beam.core.coder;
+
+import junit.framework.TestCase;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.util.Utf8;
+import org.apache.beam.sdk.coders.Coder;
+import org.apache.hop.beam.core.HopRow;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaBigNumber;
+import org.apache.hop.core.row.value.ValueMetaBinary;
+import org.apache.hop.core.row.value.ValueMetaBoolean;
+import org.apache.hop.core.row.value.ValueMetaDate;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.row.value.ValueMetaInternetAddress;
+import org.apache.hop.core.row.value.ValueMetaNumber;
+import org.apache.hop.core.row.value.ValueMetaString;
+import org.apache.hop.core.row.value.ValueMetaTimestamp;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.InetAddress;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.Date;
+
+public class HopRowCompactCoderTest extends TestCase {
+
+  private IRowMeta rowMeta;
+  private Object[] row;
+
+  @Override
+  protected void setUp() throws Exception {
+    rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaString("string"));
+    rowMeta.addValueMeta(new ValueMetaInteger("integer"));
+    rowMeta.addValueMeta(new ValueMetaNumber("number"));
+    rowMeta.addValueMeta(new ValueMetaDate("date"));
+    rowMeta.addValueMeta(new ValueMetaTimestamp("timestamp"));
+    rowMeta.addValueMeta(new ValueMetaBoolean("boolean"));
+    rowMeta.addValueMeta(new ValueMetaBigNumber("bignumber"));
+    rowMeta.addValueMeta(new ValueMetaInternetAddress("inet"));
+    rowMeta.addValueMeta(new ValueMetaString("empty"));
+
+    Timestamp timestamp = new Timestamp(810311L);
+    timestamp.setNanos(123456789);
+
+    row =
+        new Object[] {
+          "Apache Hop \u00e9\u00e8",
+          -1234567890123L,
+          1.234,
+          new Date(876876868L),
+          timestamp,
+          Boolean.TRUE,
+          new BigDecimal("-12345678901234567890.0123456789"),
+          InetAddress.getByAddress("hop.apache.org", new byte[] {10, 0, 0, 1}),
+          null
+        };
+  }
+
+  @Test
+  public void testEncodeDecodeWithRowMeta() throws IOException {
+    HopRowCompactCoder coder = new HopRowCompactCoder(rowMeta);
+    HopRow hopRow = new HopRow(row);
+
+    HopRow decoded = coder.decode(new ByteArrayInputStream(encode(coder, hopRow)));
+
+    assertEquals(hopRow, decoded);
+    assertEquals(row.length, decoded.length());
+  }
+
+  @Test
+  public void testEncodeDecodeWithoutRowMeta() throws IOException {
+    HopRowCompactCoder coder = new HopRowCompactCoder();
+    HopRow hopRow = new HopRow(row);
+
+    HopRow decoded = coder.decode(new ByteArrayInputStream(encode(coder, hopRow)));
+
+    assertEquals(hopRow, decoded);
+  }
+
+  @Test
+  public void testEncodeDecodeOtherTypes() throws IOException {
+    // Binary strings of lazy conversion and a longer row than the layout: written with their type
+    //
+    HopRowCompactCoder coder = new HopRowCompactCoder(rowMeta);
+    Object[] otherRow =
+        new Object[] {
+          "AAA".getBytes(StandardCharsets.UTF_8), "BBB", 1L, 2L, null, null, null, null, null, 3L
+        };
+
+    HopRow decoded =
+        coder.decode(new ByteArrayInputStream(encode(coder, new HopRow(otherRow))));
+
+    assertEquals(otherRow.length, decoded.length());
+    assertEquals("AAA", new String((byte[]) decoded.getRow()[0], StandardCharsets.UTF_8));
+    assertEquals("BBB", decoded.getRow()[1]);
+    assertEquals(1L, decoded.getRow()[2]);
+    assertEquals(2L, decoded.getRow()[3]);
+    assertNull(decoded.getRow()[4]);
+    assertEquals(3L, decoded.getRow()[9]);
+  }
+
+  @Test
+  public void testEncodeDecodeBinary() throws IOException {
+    IRowMeta binaryRowMeta = new RowMeta();
+    binaryRowMeta.addValueMeta(new ValueMetaBinary("binary"));
+    HopRowCompactCoder coder = new HopRowCompactCoder(binaryRowMeta);
+    byte[] data = new byte[] {0, 1, 2, -1, -128, 127};
+
+    HopRow decoded =
+        coder.decode(new ByteArrayInputStream(encode(coder, new HopRow(new Object[] {data}))));
+
+    assertTrue(Arrays.equals(data, (byte[]) decoded.getRow()[0]));
+  }
+
+  @Test
+  public void testEncodeDecodeAvro() throws IOException {
+    Schema schema =
+        new Schema.Parser()
+            .parse(
+                "{\"type\": \"record\", \"name\": \"values\", \"namespace\": \"hop.apache.org\","
+                    + " \"fields\": [{\"name\": \"id\", \"type\": \"long\"},"
+                    + " {\"name\": \"str\", \"type\": [\"string\", \"null\"]}]}");
+    GenericRecord genericRecord = new GenericData.Record(schema);
+    genericRecord.put("id", 1234567L);
+    genericRecord.put("str", new Utf8("Apache Hop"));
+
+    HopRowCompactCoder coder = new HopRowCompactCoder();
+    Object[] avroRow = new Object[] {123L, genericRecord, "after"};
+
+    HopRow decoded =
+        coder.decode(new ByteArrayInputStream(encode(coder, new HopRow(avroRow))));
+
+    GenericRecord verify = (GenericRecord) decoded.getRow()[1];
+    assertEquals(schema, verify.getSchema());
+    assertEquals(1234567L, verify.get("id"));
+    assertEquals(new Utf8("Apache Hop"), verify.get("str"));
+    assertEquals("after", decoded.getRow()[2]);
+  }
+
+  @Test
+  public void testEncodeDecodeNullRow() throws IOException {
+    HopRowCompactCoder coder = new HopRowCompactCoder(rowMeta);
+
+    HopRow decoded = coder.decode(new ByteArrayInputStream(encode(coder, new HopRow())));
+
+    assertNull(decoded.getRow());
+  }
+
+  @Test
+  public void testConsecutiveRows() throws IOException {
+    // Decoding a row shouldn't read beyond its own bytes
+    //
+    HopRowCompactCoder coder = new HopRowCompactCoder(rowMeta);
+    HopRow first = new HopRow(row);
+    HopRow second = new HopRow(new Object[] {"B", 2L, null, null, null, false, null, null, "C"});
+
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    coder.encode(first, outputStream);
+    coder.encode(second, outputStream);
+    ByteArrayInputStream inputStream = new ByteArrayInputStream(outputStream.toByteArray());
+
+    assertEquals(first, coder.decode(inputStream));
+    assertEquals(second, coder.decode(inputStream));
+    assertEquals(0, inputStream.available());
+  }
+
+  @Test
+  public void testSmallerThanHopRowCoder() throws IOException {
+    HopRow hopRow = new HopRow(row);
+
+    int compactSize = encode(new HopRowCompactCoder(rowMeta), hopRow).length;
+    int legacySize = encode(new HopRowCoder(), hopRow).length;
+
+    assertTrue(compactSize < legacySize);
+  }
+
+  @Test
+  public void testEquals() {
+    assertEquals(new HopRowCompactCoder(rowMeta), new HopRowCompactCoder(rowMeta.clone()));
+    assertEquals(new HopRowCompactCoder(), new HopRowCompactCoder());
+    assertFalse(new HopRowCompactCoder(rowMeta).equals(new HopRowCompactCoder()));
+  }
+
+  private static byte[] encode(Coder<HopRow> coder, HopRow hopRow) throws IOException {
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    coder.encode(hopRow, outputStream);
+    return outputStream.toByteArray();
+  }
+}
@@ -30,8 +30,10 @@ import com.google.common.annotations.VisibleForTesting;
 import org.apache.commons.vfs2.FileObject;
 import org.apache.commons.vfs2.FileSystemException;
 import org.apache.commons.vfs2.FileType;
+import org.apache.commons.vfs2.RandomAccessContent;
 import org.apache.commons.vfs2.provider.AbstractFileName;
 import org.apache.commons.vfs2.provider.AbstractFileObject;
+import org.apache.commons.vfs2.util.RandomAccessMode;
 import org.apache.hop.core.logging.LogChannel;
 
 import java.io.ByteArrayInputStream;
@@ -71,6 +73,13 @@ public abstract class S3CommonFileObject extends AbstractFileObject {
     return new S3CommonFileInputStream(streamS3Object.getObjectContent(), streamS3Object);
   }
 
+  /** Reads the object with ranged GETs, only the parts which are read are downloaded */
+  @Override
+  protected RandomAccessContent doGetRandomAccessContent(RandomAccessMode mode) {
+    return new S3CommonRandomAccessContent(
+        fileSystem.getS3Client(), bucketName, key, doGetContentSize());
+  }
+
   @Override
   protected FileType doGetType() throws Exception {
     return getType();
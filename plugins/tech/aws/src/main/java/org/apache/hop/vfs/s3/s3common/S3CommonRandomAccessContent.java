@@ -0,0 +1,138 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.vfs.s3.s3common;
+
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.GetObjectRequest;
+import com.amazonaws.services.s3.model.S3Object;
+import org.apache.commons.vfs2.FileSystemException;
+import org.apache.commons.vfs2.provider.AbstractRandomAccessStreamContent;
+import org.apache.commons.vfs2.util.RandomAccessMode;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+
+/**
+ * Reads an S3 object at any position. The object is read with a ranged GET from the current
+ * position onwards, a new one after every seek, so only the bytes which are read are downloaded.
+ */
+public class S3CommonRandomAccessContent extends AbstractRandomAccessStreamContent {
+
+  private final AmazonS3 s3Client;
+  private final String bucketName;
+  private final String key;
+  private final long length;
+
+  private long filePointer;
+  private S3Object s3Object;
+  private DataInputStream dataInputStream;
+
+  public S3CommonRandomAccessContent(
+      AmazonS3 s3Client, String bucketName, String key, long length) {
+    super(RandomAccessMode.READ);
+    this.s3Client = s3Client;
+    this.bucketName = bucketName;
+    this.key = key;
+    this.length = length;
+  }
+
+  @Override
+  public long getFilePointer() {
+    return filePointer;
+  }
+
+  @Override
+  public void seek(long pos) throws IOException {
+    if (pos == filePointer) {
+      return;
+    }
+    if (pos < 0) {
+      throw new FileSystemException("vfs.provider/random-access-invalid-position.error", pos);
+    }
+    closeObject();
+    filePointer = pos;
+  }
+
+  @Override
+  public long length() {
+    return length;
+  }
+
+  @Override
+  protected DataInputStream getDataInputStream() throws IOException {
+    if (dataInputStream != null) {
+      return dataInputStream;
+    }
+    if (filePointer >= length) {
+      // A range starting after the last byte is rejected by S3
+      //
+      dataInputStream = new DataInputStream(new ByteArrayInputStream(new byte[0]));
+      return dataInputStream;
+    }
+    s3Object = s3Client.getObject(new GetObjectRequest(bucketName, key).withRange(filePointer));
+    dataInputStream =
+        new DataInputStream(
+            new FilterInputStream(s3Object.getObjectContent()) {
+              @Override
+              public int read() throws IOException {
+                int read = super.read();
+                if (read >= 0) {
+                  filePointer++;
+                }
+                return read;
+              }
+
+              @Override
+              public int read(byte[] bytes, int offset, int count) throws IOException {
+                int read = super.read(bytes, offset, count);
+                if (read > 0) {
+                  filePointer += read;
+                }
+                return read;
+              }
+
+              @Override
+              public long skip(long n) throws IOException {
+                long skipped = super.skip(n);
+                filePointer += skipped;
+                return skipped;
+              }
+            });
+    return dataInputStream;
+  }
+
+  @Override
+  public void close() throws IOException {
+    closeObject();
+  }
+
+  private void closeObject() throws IOException {
+    if (s3Object != null) {
+      // Closing the content of an object which wasn't read to the end would download the rest
+      //
+      if (filePointer < length) {
+        s3Object.getObjectContent().abort();
+      }
+      s3Object.close();
+      s3Object = null;
+    }
+    dataInputStream = null;
+  }
+}
@@ -0,0 +1,109 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.vfs.s3.s3common;
+
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.GetObjectRequest;
+import com.amazonaws.services.s3.model.S3Object;
+import com.amazonaws.services.s3.model.S3ObjectInputStream;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class S3CommonRandomAccessContentTest {
+
+  private static final int LENGTH = 100;
+
+  private AmazonS3 s3Client;
+
+  @Before
+  public void setUp() {
+    byte[] data = new byte[LENGTH];
+    for (int i = 0; i < LENGTH; i++) {
+      data[i] = (byte) i;
+    }
+    s3Client = mock(AmazonS3.class);
+    when(s3Client.getObject(any(GetObjectRequest.class)))
+        .thenAnswer(
+            invocation -> {
+              GetObjectRequest request = (GetObjectRequest) invocation.getArguments()[0];
+              int start = (int) request.getRange()[0];
+              S3Object s3Object = new S3Object();
+              s3Object.setObjectContent(
+                  new S3ObjectInputStream(
+                      new ByteArrayInputStream(data, start, LENGTH - start),
+                      mock(HttpRequestBase.class)));
+              return s3Object;
+            });
+  }
+
+  @Test
+  public void testSeekReadsARange() throws Exception {
+    S3CommonRandomAccessContent content =
+        new S3CommonRandomAccessContent(s3Client, "bucket", "data.parquet", LENGTH);
+    assertEquals(LENGTH, content.length());
+
+    // The footer of a Parquet file is at the end
+    //
+    content.seek(90);
+    byte[] bytes = new byte[10];
+    content.readFully(bytes);
+    assertArrayEquals(new byte[] {90, 91, 92, 93, 94, 95, 96, 97, 98, 99}, bytes);
+    assertEquals(LENGTH, content.getFilePointer());
+
+    content.seek(10);
+    bytes = new byte[5];
+    content.readFully(bytes);
+    assertArrayEquals(new byte[] {10, 11, 12, 13, 14}, bytes);
+    assertEquals(15, content.getFilePointer());
+
+    // Reading on doesn't need a new request
+    //
+    assertEquals(15, content.readByte());
+    content.close();
+
+    ArgumentCaptor<GetObjectRequest> requests = ArgumentCaptor.forClass(GetObjectRequest.class);
+    verify(s3Client, times(2)).getObject(requests.capture());
+    List<GetObjectRequest> values = requests.getAllValues();
+    assertEquals("bucket", values.get(0).getBucketName());
+    assertEquals("data.parquet", values.get(0).getKey());
+    assertEquals(90L, values.get(0).getRange()[0]);
+    assertEquals(10L, values.get(1).getRange()[0]);
+  }
+
+  @Test(expected = EOFException.class)
+  public void testReadAtTheEnd() throws Exception {
+    S3CommonRandomAccessContent content =
+        new S3CommonRandomAccessContent(s3Client, "bucket", "data.parquet", LENGTH);
+    content.seek(LENGTH);
+    content.readByte();
+  }
+}
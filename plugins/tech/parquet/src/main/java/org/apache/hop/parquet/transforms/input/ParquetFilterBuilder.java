@@ -0,0 +1,343 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.parquet.transforms.input;
+
+import org.apache.hop.core.Condition;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.row.IValueMeta;
+import org.apache.hop.core.util.Utils;
+import org.apache.parquet.filter2.predicate.FilterApi;
+import org.apache.parquet.filter2.predicate.FilterPredicate;
+import org.apache.parquet.filter2.predicate.Operators;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType;
+import org.apache.parquet.schema.Type;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Translates a filter condition on the fields read from a Parquet file into a Parquet {@link
+ * FilterPredicate}. Parquet uses the predicate to skip row groups based on their statistics and
+ * dictionaries, to skip pages based on the column indexes and to drop records while reading.
+ *
+ * <p>The predicate never drops a row which the condition keeps, but it can keep rows which the
+ * condition drops: the parts of the condition which can't be translated exactly are left out. That
+ * is why the condition is still evaluated on the rows which are read.
+ */
+public class ParquetFilterBuilder {
+
+  /**
+   * The predicates for a condition and for its negation. A null predicate doesn't filter anything.
+   */
+  private static final class Translation {
+    private static final Translation NONE = new Translation(null, null);
+
+    private final FilterPredicate positive;
+    private final FilterPredicate negative;
+
+    private Translation(FilterPredicate positive, FilterPredicate negative) {
+      this.positive = positive;
+      this.negative = negative;
+    }
+  }
+
+  private final MessageType schema;
+  private final Map<String, ParquetField> fields;
+  private final Map<String, IValueMeta> valueMetas;
+
+  /**
+   * @param schema the schema of the file to read
+   * @param fields the fields read from the file
+   * @throws HopException in case the value metadata of a field can't be created
+   */
+  public ParquetFilterBuilder(MessageType schema, List<ParquetField> fields) throws HopException {
+    this.schema = schema;
+    this.fields = new HashMap<>();
+    this.valueMetas = new HashMap<>();
+    for (ParquetField field : fields) {
+      this.fields.put(field.getTargetField(), field);
+      this.valueMetas.put(field.getTargetField(), field.createValueMeta());
+    }
+  }
+
+  /**
+   * @param condition the filter condition
+   * @return the predicate to read the file with or null if no part of the condition can be used
+   */
+  public FilterPredicate build(Condition condition) {
+    if (condition == null || condition.isEmpty()) {
+      return null;
+    }
+    return translate(condition).positive;
+  }
+
+  private Translation translate(Condition condition) {
+    Translation translation;
+    if (condition.isAtomic()) {
+      translation =
+          new Translation(translateAtomic(condition, false), translateAtomic(condition, true));
+    } else {
+      // The children are evaluated from left to right, see Condition.evaluate()
+      //
+      List<Condition> children = condition.getChildren();
+      translation = translate(children.get(0));
+      for (int i = 1; i < children.size(); i++) {
+        Condition child = children.get(i);
+        Translation next = translate(child);
+        switch (child.getOperator()) {
+          case AND:
+            translation =
+                new Translation(
+                    and(translation.positive, next.positive),
+                    or(translation.negative, next.negative));
+            break;
+          case OR:
+            translation =
+                new Translation(
+                    or(translation.positive, next.positive),
+                    and(translation.negative, next.negative));
+            break;
+          case AND_NOT:
+            translation =
+                new Translation(
+                    and(translation.positive, next.negative),
+                    or(translation.negative, next.positive));
+            break;
+          case OR_NOT:
+            translation =
+                new Translation(
+                    or(translation.positive, next.negative),
+                    and(translation.negative, next.positive));
+            break;
+          case XOR:
+            translation = Translation.NONE;
+            break;
+          default:
+            break;
+        }
+      }
+    }
+    if (condition.isNegated()) {
+      return new Translation(translation.negative, translation.positive);
+    }
+    return translation;
+  }
+
+  /**
+   * @param condition the atomic condition
+   * @param negate true to translate the negation of the function
+   * @return the predicate or null if it can't be translated
+   */
+  private FilterPredicate translateAtomic(Condition condition, boolean negate) {
+    if (!Utils.isEmpty(condition.getRightValueName())) {
+      // Comparing two fields can't be pushed down
+      //
+      return null;
+    }
+    ParquetField field = fields.get(condition.getLeftValueName());
+    if (field == null) {
+      return null;
+    }
+    String column = field.getSourceField();
+    if (column == null || column.contains(".") || !schema.containsField(column)) {
+      return null;
+    }
+    Type type = schema.getType(column);
+    if (!type.isPrimitive() || type.isRepetition(Type.Repetition.REPEATED)) {
+      return null;
+    }
+    PrimitiveType.PrimitiveTypeName primitiveType =
+        type.asPrimitiveType().getPrimitiveTypeName();
+    IValueMeta valueMeta = valueMetas.get(condition.getLeftValueName());
+
+    Condition.Function function = condition.getFunction();
+    boolean nullCheck =
+        function == Condition.Function.NULL || function == Condition.Function.NOT_NULL;
+    boolean isNull = (function == Condition.Function.NULL) != negate;
+    Object value = null;
+    if (!nullCheck) {
+      value = getConstant(condition, valueMeta);
+      if (value == null) {
+        return null;
+      }
+    }
+
+    switch (valueMeta.getType()) {
+      case IValueMeta.TYPE_INTEGER:
+      case IValueMeta.TYPE_DATE:
+        long longValue = 0L;
+        if (value instanceof Date) {
+          longValue = ((Date) value).getTime();
+        } else if (value != null) {
+          longValue = (Long) value;
+        }
+        if (primitiveType == PrimitiveType.PrimitiveTypeName.INT64) {
+          Operators.LongColumn longColumn = FilterApi.longColumn(column);
+          return nullCheck
+              ? nullPredicate(longColumn, isNull)
+              : comparePredicate(longColumn, longValue, function, negate);
+        }
+        if (primitiveType == PrimitiveType.PrimitiveTypeName.INT32
+            && longValue >= Integer.MIN_VALUE
+            && longValue <= Integer.MAX_VALUE) {
+          Operators.IntColumn intColumn = FilterApi.intColumn(column);
+          return nullCheck
+              ? nullPredicate(intColumn, isNull)
+              : comparePredicate(intColumn, (int) longValue, function, negate);
+        }
+        return null;
+      case IValueMeta.TYPE_NUMBER:
+        if (primitiveType == PrimitiveType.PrimitiveTypeName.DOUBLE) {
+          Operators.DoubleColumn doubleColumn = FilterApi.doubleColumn(column);
+          return nullCheck
+              ? nullPredicate(doubleColumn, isNull)
+              : comparePredicate(doubleColumn, (Double) value, function, negate);
+        }
+        return null;
+      case IValueMeta.TYPE_BOOLEAN:
+        if (primitiveType == PrimitiveType.PrimitiveTypeName.BOOLEAN) {
+          Operators.BooleanColumn booleanColumn = FilterApi.booleanColumn(column);
+          return nullCheck
+              ? nullPredicate(booleanColumn, isNull)
+              : equalityPredicate(booleanColumn, (Boolean) value, function, negate);
+        }
+        return null;
+      case IValueMeta.TYPE_STRING:
+        // An empty string is null in Hop, so only (in)equality of plain string comparisons is
+        // the same in Parquet
+        //
+        if (primitiveType == PrimitiveType.PrimitiveTypeName.BINARY
+            && !nullCheck
+            && valueMeta.isCollatorDisabled()
+            && !valueMeta.isCaseInsensitive()
+            && !valueMeta.isIgnoreWhitespace()) {
+          Operators.BinaryColumn binaryColumn = FilterApi.binaryColumn(column);
+          return equalityPredicate(
+              binaryColumn, Binary.fromString((String) value), function, negate);
+        }
+        return null;
+      default:
+        return null;
+    }
+  }
+
+  /**
+   * @return the constant to compare with converted to the data type of the field or null if there
+   *     is no usable constant
+   */
+  private static Object getConstant(Condition condition, IValueMeta valueMeta) {
+    Condition.CValue rightValue = condition.getRightValue();
+    if (rightValue == null) {
+      return null;
+    }
+    try {
+      IValueMeta rightMeta = rightValue.createValueMeta();
+      Object rightData = rightValue.createValueData();
+      if (rightMeta.isNull(rightData)) {
+        return null;
+      }
+      if (valueMeta.isInteger() && rightMeta.isNumber()) {
+        // Hop compares these as numbers
+        //
+        return null;
+      }
+      Object value = valueMeta.convertData(rightMeta, rightData);
+      return valueMeta.isNull(value) ? null : value;
+    } catch (Exception e) {
+      return null;
+    }
+  }
+
+  private static <
+          T extends Comparable<T>, C extends Operators.Column<T> & Operators.SupportsLtGt>
+      FilterPredicate comparePredicate(
+          C column, T value, Condition.Function function, boolean negate) {
+    // Parquet drops nulls for all comparisons except "not equal", Hop keeps them for the negated
+    // comparisons
+    //
+    switch (function) {
+      case SMALLER:
+        return negate
+            ? or(FilterApi.gtEq(column, value), isNull(column))
+            : FilterApi.lt(column, value);
+      case SMALLER_EQUAL:
+        return negate
+            ? or(FilterApi.gt(column, value), isNull(column))
+            : FilterApi.ltEq(column, value);
+      case LARGER:
+        return negate
+            ? or(FilterApi.ltEq(column, value), isNull(column))
+            : FilterApi.gt(column, value);
+      case LARGER_EQUAL:
+        return negate
+            ? or(FilterApi.lt(column, value), isNull(column))
+            : FilterApi.gtEq(column, value);
+      default:
+        return equalityPredicate(column, value, function, negate);
+    }
+  }
+
+  private static <
+          T extends Comparable<T>, C extends Operators.Column<T> & Operators.SupportsEqNotEq>
+      FilterPredicate equalityPredicate(
+          C column, T value, Condition.Function function, boolean negate) {
+    switch (function) {
+      case EQUAL:
+        return negate ? FilterApi.notEq(column, value) : FilterApi.eq(column, value);
+      case NOT_EQUAL:
+        return negate ? FilterApi.eq(column, value) : FilterApi.notEq(column, value);
+      default:
+        return null;
+    }
+  }
+
+  private static <
+          T extends Comparable<T>, C extends Operators.Column<T> & Operators.SupportsEqNotEq>
+      FilterPredicate nullPredicate(C column, boolean isNull) {
+    return isNull ? isNull(column) : FilterApi.notEq(column, null);
+  }
+
+  private static <
+          T extends Comparable<T>, C extends Operators.Column<T> & Operators.SupportsEqNotEq>
+      FilterPredicate isNull(C column) {
+    return FilterApi.eq(column, null);
+  }
+
+  /** A null predicate doesn't filter: the other one is enough */
+  private static FilterPredicate and(FilterPredicate left, FilterPredicate right) {
+    if (left == null) {
+      return right;
+    }
+    if (right == null) {
+      return left;
+    }
+    return FilterApi.and(left, right);
+  }
+
+  /** A null predicate doesn't filter: neither does the combination */
+  private static FilterPredicate or(FilterPredicate left, FilterPredicate right) {
+    if (left == null || right == null) {
+      return null;
+    }
+    return FilterApi.or(left, right);
+  }
+}
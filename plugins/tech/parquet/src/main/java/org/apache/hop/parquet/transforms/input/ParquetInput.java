@@ -17,23 +17,29 @@
 
 package org.apache.hop.parquet.transforms.input;
 
-import org.apache.commons.io.IOUtils;
 import org.apache.commons.vfs2.FileObject;
+import org.apache.hop.core.Condition;
 import org.apache.hop.core.RowMetaAndData;
 import org.apache.hop.core.exception.HopException;
 import org.apache.hop.core.row.RowDataUtil;
 import org.apache.hop.core.vfs.HopVfs;
+import org.apache.hop.i18n.BaseMessages;
 import org.apache.hop.pipeline.Pipeline;
 import org.apache.hop.pipeline.PipelineMeta;
 import org.apache.hop.pipeline.transform.BaseTransform;
 import org.apache.hop.pipeline.transform.TransformMeta;
+import org.apache.parquet.filter2.compat.FilterCompat;
+import org.apache.parquet.filter2.predicate.FilterPredicate;
+import org.apache.parquet.hadoop.ParquetFileReader;
 import org.apache.parquet.hadoop.ParquetReader;
+import org.apache.parquet.schema.MessageType;
 
-import java.io.ByteArrayOutputStream;
-import java.io.InputStream;
+import java.util.List;
 
 public class ParquetInput extends BaseTransform<ParquetInputMeta, ParquetInputData>
 {
+  private static final Class<?> PKG = ParquetInputMeta.class; // For Translator
+
   public ParquetInput(
       TransformMeta transformMeta,
       ParquetInputMeta meta,
@@ -44,6 +50,42 @@ public class ParquetInput extends BaseTransform<ParquetInputMeta, ParquetInputDa
     super(transformMeta, meta, data, copyNr, pipelineMeta, pipeline);
   }
 
+  @Override
+  public boolean init() {
+    if (!super.init()) {
+      return false;
+    }
+    data.transformNumber = getCopyNr();
+    data.totalNumberOfTransforms = getTransformMeta().getCopies(this);
+    data.parallel = meta.isRunningInParallel() && data.totalNumberOfTransforms > 1;
+
+    if (data.parallel) {
+      // Every copy reads its own part of every file, so every copy needs all the file names
+      //
+      List<TransformMeta> previousTransforms =
+          getPipelineMeta().findPreviousTransforms(getTransformMeta());
+      for (TransformMeta previousTransform : previousTransforms) {
+        if (previousTransform.isDistributes()) {
+          logError(
+              BaseMessages.getString(
+                  PKG, "ParquetInput.Error.ParallelRowsDistributed", previousTransform.getName()));
+          return false;
+        }
+        // With the same number of copies every copy only gets the rows of one previous copy
+        //
+        if (previousTransform.getCopies(this) == data.totalNumberOfTransforms) {
+          logError(
+              BaseMessages.getString(
+                  PKG,
+                  "ParquetInput.Error.ParallelSameNumberOfCopies",
+                  previousTransform.getName()));
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
   @Override
   public boolean processRow() throws HopException {
 
@@ -64,6 +106,11 @@ public class ParquetInput extends BaseTransform<ParquetInputMeta, ParquetInputDa
         throw new HopException(
             "Unable to find filename field " + meta.getFilenameField() + " in the input");
       }
+
+      Condition condition = meta.getFilterCondition();
+      if (condition != null && !condition.isEmpty()) {
+        data.filterCondition = condition.clone();
+      }
     }
 
     // Skip null values for file names
@@ -75,27 +122,43 @@ public class ParquetInput extends BaseTransform<ParquetInputMeta, ParquetInputDa
     String filename = getInputRowMeta().getString(row, data.filenameFieldIndex);
     FileObject fileObject = HopVfs.getFileObject(filename);
 
-    try {
-      long size = fileObject.getContent().getSize();
-      InputStream inputStream = HopVfs.getInputStream(fileObject);
-
-      // Reads the whole file into memory...
-      //
-      ByteArrayOutputStream outputStream = new ByteArrayOutputStream((int) size);
-      IOUtils.copy(inputStream, outputStream);
-      ParquetStream inputFile = new ParquetStream(outputStream.toByteArray(), filename);
-
+    // Only the footer and the column chunks are read, not the whole file
+    //
+    try (ParquetInputFile inputFile = new ParquetInputFile(fileObject)) {
       ParquetReadSupport readSupport = new ParquetReadSupport(meta.getFields());
-      ParquetReader<RowMetaAndData> reader =
-          new ParquetReaderBuilder<>(readSupport, inputFile).build();
+      ParquetReaderBuilder<RowMetaAndData> builder =
+          new ParquetReaderBuilder<>(readSupport, inputFile);
+      if (data.parallel) {
+        long[] range = getFileRange(filename, inputFile.getLength());
+        if (log.isDetailed()) {
+          logDetailed(
+              BaseMessages.getString(
+                  PKG,
+                  "ParquetInput.Log.ParallelFileRange",
+                  filename,
+                  Long.toString(range[0]),
+                  Long.toString(range[1])));
+        }
+        builder.withFileRange(range[0], range[1]);
+      }
+      FilterPredicate predicate = getFilterPredicate(inputFile);
+      if (predicate != null) {
+        builder.withFilter(FilterCompat.get(predicate));
+      }
+      try (ParquetReader<RowMetaAndData> reader = builder.build()) {
 
-      RowMetaAndData r = reader.read();
-      while (r != null && !isStopped()) {
-        // Add r to the input rows...
-        //
-        Object[] outputRow = RowDataUtil.addRowData(row, getInputRowMeta().size(), r.getData());
-        putRow(data.outputRowMeta, outputRow);
-        r = reader.read();
+        RowMetaAndData r = reader.read();
+        while (r != null && !isStopped()) {
+          // Add r to the input rows...
+          //
+          Object[] outputRow =
+              RowDataUtil.addRowData(row, getInputRowMeta().size(), r.getData());
+          if (data.filterCondition == null
+              || data.filterCondition.evaluate(data.outputRowMeta, outputRow)) {
+            putRow(data.outputRowMeta, outputRow);
+          }
+          r = reader.read();
+        }
       }
     } catch (Exception e) {
       throw new HopException("Error read file " + filename, e);
@@ -103,4 +166,47 @@ public class ParquetInput extends BaseTransform<ParquetInputMeta, ParquetInputDa
 
     return true;
   }
+
+  /**
+   * In parallel every file is split in as many byte ranges as there are transform copies. Parquet
+   * reads the row groups with their midpoint in the range, so every row group is read by exactly
+   * one copy. A file with fewer row groups than there are copies leaves some copies without work:
+   * the range of the first copy is rotated based on the file name so that small files are spread
+   * over the copies as well. The file name is used rather than the order of the input rows since
+   * the rows of several previous transform copies arrive in no particular order.
+   *
+   * @param filename the name of the file
+   * @param length the length of the file in bytes
+   * @return the start (inclusive) and end (exclusive) position of the range to read
+   */
+  long[] getFileRange(String filename, long length) {
+    int copies = data.totalNumberOfTransforms;
+    int slice = Math.floorMod(data.transformNumber - filename.hashCode(), copies);
+    long start = length / copies * slice;
+    long end = slice == copies - 1 ? length : start + length / copies;
+    return new long[] {start, end};
+  }
+
+  /**
+   * The filter condition is translated for every file: the same field can have a different physical
+   * type in another file.
+   *
+   * @param inputFile the file to read
+   * @return the predicate to push down into the reader or null if there is none
+   */
+  private FilterPredicate getFilterPredicate(ParquetInputFile inputFile) throws Exception {
+    if (data.filterCondition == null) {
+      return null;
+    }
+    MessageType schema;
+    try (ParquetFileReader fileReader = ParquetFileReader.open(inputFile)) {
+      schema = fileReader.getFooter().getFileMetaData().getSchema();
+    }
+    FilterPredicate predicate =
+        new ParquetFilterBuilder(schema, meta.getFields()).build(data.filterCondition);
+    if (log.isDetailed()) {
+      logDetailed("Filter pushed down into the Parquet reader: " + predicate);
+    }
+    return predicate;
+  }
 }
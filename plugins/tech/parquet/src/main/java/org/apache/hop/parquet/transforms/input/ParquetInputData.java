@@ -17,6 +17,7 @@
 
 package org.apache.hop.parquet.transforms.input;
 
+import org.apache.hop.core.Condition;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.pipeline.transform.BaseTransformData;
 import org.apache.hop.pipeline.transform.ITransformData;
@@ -24,7 +25,16 @@ import org.apache.hop.pipeline.transform.ITransformData;
 public class ParquetInputData extends BaseTransformData implements ITransformData {  
   public IRowMeta outputRowMeta;
   public int filenameFieldIndex;
-  
+
+  /** The filter condition or null if all rows are passed on */
+  public Condition filterCondition;
+
+  /** True if the row groups of every file are split between the transform copies */
+  public boolean parallel;
+
+  public int transformNumber;
+  public int totalNumberOfTransforms;
+
   public ParquetInputData() {
     super();
   }
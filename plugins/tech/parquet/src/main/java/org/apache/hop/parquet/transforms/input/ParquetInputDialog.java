@@ -17,8 +17,8 @@
 
 package org.apache.hop.parquet.transforms.input;
 
-import org.apache.commons.io.IOUtils;
 import org.apache.commons.vfs2.FileObject;
+import org.apache.hop.core.Condition;
 import org.apache.hop.core.Const;
 import org.apache.hop.core.RowMetaAndData;
 import org.apache.hop.core.logging.LogChannel;
@@ -26,6 +26,7 @@ import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.core.row.IValueMeta;
 import org.apache.hop.core.row.RowMeta;
 import org.apache.hop.core.row.value.ValueMetaFactory;
+import org.apache.hop.core.util.Utils;
 import org.apache.hop.core.variables.IVariables;
 import org.apache.hop.core.vfs.HopVfs;
 import org.apache.hop.i18n.BaseMessages;
@@ -36,6 +37,7 @@ import org.apache.hop.ui.core.PropsUi;
 import org.apache.hop.ui.core.dialog.BaseDialog;
 import org.apache.hop.ui.core.gui.WindowProperty;
 import org.apache.hop.ui.core.widget.ColumnInfo;
+import org.apache.hop.ui.core.widget.ConditionEditor;
 import org.apache.hop.ui.core.widget.TableView;
 import org.apache.hop.ui.pipeline.transform.BaseTransformDialog;
 import org.apache.parquet.column.ColumnDescriptor;
@@ -54,8 +56,6 @@ import org.eclipse.swt.widgets.Shell;
 import org.eclipse.swt.widgets.TableItem;
 import org.eclipse.swt.widgets.Text;
 
-import java.io.ByteArrayOutputStream;
-import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -66,7 +66,17 @@ public class ParquetInputDialog extends BaseTransformDialog implements ITransfor
   protected ParquetInputMeta input;
 
   private Combo wFilenameField;
+  private Button wRunningInParallel;
   private TableView wFields;
+  private ConditionEditor wFilterCondition;
+
+  private Condition filterCondition;
+  private Condition backupFilterCondition;
+
+  /** The fields available in the filter condition: the input fields and the fields read */
+  private final IRowMeta conditionFields = new RowMeta();
+
+  private IRowMeta prevFields;
 
   private String returnValue;
 
@@ -78,6 +88,11 @@ public class ParquetInputDialog extends BaseTransformDialog implements ITransfor
       String transformName) {
     super(parent, variables, (BaseTransformMeta) in, pipelineMeta, transformName);
     input = (ParquetInputMeta) in;
+    if (input.getFilterCondition() == null) {
+      input.setFilterCondition(new Condition());
+    }
+    filterCondition = input.getFilterCondition();
+    backupFilterCondition = filterCondition.clone();
   }
 
   @Override
@@ -96,6 +111,13 @@ public class ParquetInputDialog extends BaseTransformDialog implements ITransfor
     shell.setLayout(formLayout);
     shell.setText(BaseMessages.getString(PKG, "ParquetInput.Name"));
 
+    try {
+      prevFields = pipelineMeta.getPrevTransformFields(variables, transformName);
+    } catch (Exception e) {
+      prevFields = new RowMeta();
+      LogChannel.UI.logError("Error getting source fields", e);
+    }
+
     int middle = props.getMiddlePct();
     int margin = props.getMargin();
 
@@ -147,6 +169,26 @@ public class ParquetInputDialog extends BaseTransformDialog implements ITransfor
     wFilenameField.setLayoutData(fdFilenameField);
     lastControl = wFilenameField;
 
+    Label wlRunningInParallel = new Label(shell, SWT.RIGHT);
+    wlRunningInParallel.setText(
+        BaseMessages.getString(PKG, "ParquetInputDialog.RunningInParallel.Label"));
+    wlRunningInParallel.setToolTipText(
+        BaseMessages.getString(PKG, "ParquetInputDialog.RunningInParallel.Tooltip"));
+    PropsUi.setLook(wlRunningInParallel);
+    FormData fdlRunningInParallel = new FormData();
+    fdlRunningInParallel.left = new FormAttachment(0, 0);
+    fdlRunningInParallel.right = new FormAttachment(middle, -margin);
+    fdlRunningInParallel.top = new FormAttachment(lastControl, margin);
+    wlRunningInParallel.setLayoutData(fdlRunningInParallel);
+    wRunningInParallel = new Button(shell, SWT.CHECK);
+    PropsUi.setLook(wRunningInParallel);
+    FormData fdRunningInParallel = new FormData();
+    fdRunningInParallel.left = new FormAttachment(middle, 0);
+    fdRunningInParallel.top = new FormAttachment(wlRunningInParallel, 0, SWT.CENTER);
+    fdRunningInParallel.right = new FormAttachment(100, 0);
+    wRunningInParallel.setLayoutData(fdRunningInParallel);
+    lastControl = wlRunningInParallel;
+
     Label wlFields = new Label(shell, SWT.LEFT);
     wlFields.setText(BaseMessages.getString(PKG, "ParquetInputDialog.Fields.Label"));
     PropsUi.setLook(wlFields);
@@ -189,15 +231,41 @@ public class ParquetInputDialog extends BaseTransformDialog implements ITransfor
         };
     wFields =
         new TableView(
-            variables, shell, SWT.BORDER, columns, input.getFields().size(), false, null, props);
+            variables,
+            shell,
+            SWT.BORDER,
+            columns,
+            input.getFields().size(),
+            false,
+            e -> refreshConditionFields(),
+            props);
     PropsUi.setLook(wFields);
     FormData fdFields = new FormData();
     fdFields.left = new FormAttachment(0, 0);
     fdFields.top = new FormAttachment(wlFields, margin);
     fdFields.right = new FormAttachment(100, 0);
-    fdFields.bottom = new FormAttachment(wOk, -2 * margin);
+    fdFields.bottom = new FormAttachment(60, 0);
     wFields.setLayoutData(fdFields);
 
+    Label wlFilterCondition = new Label(shell, SWT.LEFT);
+    wlFilterCondition.setText(
+        BaseMessages.getString(PKG, "ParquetInputDialog.FilterCondition.Label"));
+    PropsUi.setLook(wlFilterCondition);
+    FormData fdlFilterCondition = new FormData();
+    fdlFilterCondition.left = new FormAttachment(0, 0);
+    fdlFilterCondition.right = new FormAttachment(100, 0);
+    fdlFilterCondition.top = new FormAttachment(wFields, margin);
+    wlFilterCondition.setLayoutData(fdlFilterCondition);
+    wFilterCondition =
+        new ConditionEditor(shell, SWT.BORDER, filterCondition, conditionFields);
+    PropsUi.setLook(wFilterCondition);
+    FormData fdFilterCondition = new FormData();
+    fdFilterCondition.left = new FormAttachment(0, 0);
+    fdFilterCondition.top = new FormAttachment(wlFilterCondition, margin);
+    fdFilterCondition.right = new FormAttachment(100, 0);
+    fdFilterCondition.bottom = new FormAttachment(wOk, -2 * margin);
+    wFilterCondition.setLayoutData(fdFilterCondition);
+
     getData();
 
     BaseDialog.defaultShellHandling(shell, c -> ok(), c -> cancel());
@@ -217,23 +285,16 @@ public class ParquetInputDialog extends BaseTransformDialog implements ITransfor
       if (filename != null) {
         FileObject fileObject = HopVfs.getFileObject(variables.resolve(filename));
 
-        long size = fileObject.getContent().getSize();
-        InputStream inputStream = HopVfs.getInputStream(fileObject);
-
-        // Reads the whole file into memory...
-        //
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream((int) size);
-        IOUtils.copy(inputStream, outputStream);
-        ParquetStream inputFile = new ParquetStream(outputStream.toByteArray(), filename);
         // Empty list of fields to retrieve: we still grab the schema
         //
         ParquetReadSupport readSupport = new ParquetReadSupport(new ArrayList<>());
-        ParquetReader<RowMetaAndData> reader =
-            new ParquetReaderBuilder<>(readSupport, inputFile).build();
-
-        // Read one empty row...
-        //
-        reader.read();
+        try (ParquetInputFile inputFile = new ParquetInputFile(fileObject);
+            ParquetReader<RowMetaAndData> reader =
+                new ParquetReaderBuilder<>(readSupport, inputFile).build()) {
+          // Read one empty row...
+          //
+          reader.read();
+        }
 
         // Now we have the schema...
         //
@@ -277,22 +338,39 @@ public class ParquetInputDialog extends BaseTransformDialog implements ITransfor
 
         BaseTransformDialog.getFieldsFromPrevious(
             rowMeta, wFields, 1, new int[] {1, 2}, new int[] {3}, -1, -1, null);
+        refreshConditionFields();
       }
     } catch (Exception e) {
       LogChannel.UI.logError("Error getting parquet file fields", e);
     }
   }
 
-  private void getData() {
-    try {
-      wFilenameField.setItems(
-          pipelineMeta.getPrevTransformFields(variables, transformName).getFieldNames());
-    } catch (Exception e) {
-      LogChannel.UI.logError("Error getting source fields", e);
+  /** The filter condition can use the input fields and the fields read from the file */
+  private void refreshConditionFields() {
+    conditionFields.clear();
+    conditionFields.addRowMeta(prevFields);
+    for (TableItem item : wFields.getNonEmptyItems()) {
+      String targetField = item.getText(2);
+      if (Utils.isEmpty(targetField)) {
+        continue;
+      }
+      int type = ValueMetaFactory.getIdForValueMeta(item.getText(3));
+      try {
+        conditionFields.addValueMeta(
+            ValueMetaFactory.createValueMeta(
+                targetField, type == IValueMeta.TYPE_NONE ? IValueMeta.TYPE_STRING : type));
+      } catch (Exception e) {
+        LogChannel.UI.logError("Error creating field " + targetField, e);
+      }
     }
+  }
+
+  private void getData() {
+    wFilenameField.setItems(prevFields.getFieldNames());
 
     wTransformName.setText(Const.NVL(transformName, ""));
     wFilenameField.setText(Const.NVL(input.getFilenameField(), ""));
+    wRunningInParallel.setSelection(input.isRunningInParallel());
     for (int i = 0; i < input.getFields().size(); i++) {
       ParquetField field = input.getFields().get(i);
       TableItem item = wFields.table.getItem(i);
@@ -304,11 +382,15 @@ public class ParquetInputDialog extends BaseTransformDialog implements ITransfor
       item.setText(index++, Const.NVL(field.getTargetLength(), ""));
       item.setText(index++, Const.NVL(field.getTargetPrecision(), ""));
     }
+    refreshConditionFields();
   }
 
   private void ok() {
     returnValue = wTransformName.getText();
 
+    if (wFilterCondition.getLevel() > 0) {
+      wFilterCondition.goUp();
+    }
     getInfo(input);
     input.setChanged();
     dispose();
@@ -316,6 +398,7 @@ public class ParquetInputDialog extends BaseTransformDialog implements ITransfor
 
   private void getInfo(ParquetInputMeta meta) {
     meta.setFilenameField(wFilenameField.getText());
+    meta.setRunningInParallel(wRunningInParallel.getSelection());
     meta.getFields().clear();
     for (TableItem item : wFields.getNonEmptyItems()) {
       int index = 1;
@@ -333,6 +416,7 @@ public class ParquetInputDialog extends BaseTransformDialog implements ITransfor
 
   private void cancel() {
     returnValue = null;
+    input.setFilterCondition(backupFilterCondition);
     dispose();
   }
 
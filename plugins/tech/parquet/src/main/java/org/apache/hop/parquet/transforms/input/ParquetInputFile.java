@@ -0,0 +1,159 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.parquet.transforms.input;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.vfs2.Capability;
+import org.apache.commons.vfs2.FileObject;
+import org.apache.commons.vfs2.FileSystemException;
+import org.apache.commons.vfs2.RandomAccessContent;
+import org.apache.commons.vfs2.provider.local.LocalFile;
+import org.apache.commons.vfs2.util.RandomAccessMode;
+import org.apache.hop.core.vfs.HopVfs;
+import org.apache.parquet.io.InputFile;
+import org.apache.parquet.io.SeekableInputStream;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A Parquet file read through Hop VFS without loading it into memory. Parquet reads the footer
+ * first and then only the column chunks it needs, so the file is read with seeks:
+ *
+ * <ul>
+ *   <li>Local files are read with positional reads on a file channel.
+ *   <li>Files of a file system with random access are read with its random access content. On S3
+ *       this does ranged GETs.
+ *   <li>Other files are copied to a temporary local file first, which is removed on close. This
+ *       includes Google Cloud Storage and Azure, which don't offer random access.
+ * </ul>
+ */
+public class ParquetInputFile implements InputFile, Closeable {
+
+  private final FileObject fileObject;
+  private final String filename;
+  private final long length;
+
+  private File tempFile;
+
+  public ParquetInputFile(FileObject fileObject) throws FileSystemException {
+    this.fileObject = fileObject;
+    this.filename = HopVfs.getFilename(fileObject);
+    this.length = fileObject.getContent().getSize();
+  }
+
+  @Override
+  public long getLength() {
+    return length;
+  }
+
+  @Override
+  public SeekableInputStream newStream() throws IOException {
+    if (fileObject instanceof LocalFile) {
+      return new FileChannelStream(new File(filename), length);
+    }
+    if (tempFile != null) {
+      return new FileChannelStream(tempFile, length);
+    }
+    if (fileObject.getFileSystem().hasCapability(Capability.RANDOM_ACCESS_READ)) {
+      try {
+        RandomAccessContent content =
+            fileObject.getContent().getRandomAccessContent(RandomAccessMode.READ);
+        return new RandomAccessContentStream(content, length);
+      } catch (FileSystemException e) {
+        // Some providers announce random access without supporting it: copy the file below
+      }
+    }
+
+    tempFile = File.createTempFile("hop-parquet-", ".parquet");
+    try (InputStream inputStream = HopVfs.getInputStream(fileObject);
+        OutputStream outputStream = new FileOutputStream(tempFile)) {
+      IOUtils.copy(inputStream, outputStream);
+    }
+    return new FileChannelStream(tempFile, length);
+  }
+
+  /** Remove the temporary copy of the file, if there is one */
+  @Override
+  public void close() throws IOException {
+    if (tempFile != null) {
+      Files.deleteIfExists(tempFile.toPath());
+      tempFile = null;
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "Parquet file '" + filename + "'";
+  }
+
+  private static class FileChannelStream extends ParquetSeekableInputStream {
+    private final FileChannel channel;
+
+    private FileChannelStream(File file, long length) throws IOException {
+      super(length);
+      this.channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+    }
+
+    @Override
+    protected int readAt(long position, byte[] bytes, int offset, int count) throws IOException {
+      int read = channel.read(ByteBuffer.wrap(bytes, offset, count), position);
+      if (read <= 0) {
+        throw new EOFException("Unexpected end of file at position " + position);
+      }
+      return read;
+    }
+
+    @Override
+    public void close() throws IOException {
+      channel.close();
+    }
+  }
+
+  private static class RandomAccessContentStream extends ParquetSeekableInputStream {
+    private final RandomAccessContent content;
+
+    private RandomAccessContentStream(RandomAccessContent content, long length) {
+      super(length);
+      this.content = content;
+    }
+
+    @Override
+    protected int readAt(long position, byte[] bytes, int offset, int count) throws IOException {
+      if (content.getFilePointer() != position) {
+        content.seek(position);
+      }
+      content.readFully(bytes, offset, count);
+      return count;
+    }
+
+    @Override
+    public void close() throws IOException {
+      content.close();
+    }
+  }
+}
@@ -17,6 +17,7 @@
 
 package org.apache.hop.parquet.transforms.input;
 
+import org.apache.hop.core.Condition;
 import org.apache.hop.core.annotations.Transform;
 import org.apache.hop.core.exception.HopException;
 import org.apache.hop.core.exception.HopTransformException;
@@ -47,8 +48,23 @@ public class ParquetInputMeta extends BaseTransformMeta<ParquetInput, ParquetInp
   @HopMetadataProperty(groupKey = "fields", key = "field")
   private List<ParquetField> fields;
 
+  /**
+   * Only the rows matching this condition are passed on. The parts of the condition which Parquet
+   * can evaluate are used to skip row groups and pages while reading.
+   */
+  @HopMetadataProperty(key = "filter_condition")
+  private Condition filterCondition;
+
+  /**
+   * The transform copies split the row groups of every file between them. Every copy has to
+   * receive all the file names.
+   */
+  @HopMetadataProperty(key = "parallel")
+  private boolean runningInParallel;
+
   public ParquetInputMeta() {
     fields = new ArrayList<>();
+    filterCondition = new Condition();
   }
 
   @Override
@@ -101,4 +117,32 @@ public class ParquetInputMeta extends BaseTransformMeta<ParquetInput, ParquetInp
   public void setFields(List<ParquetField> fields) {
     this.fields = fields;
   }
+
+  /**
+   * Gets filterCondition
+   *
+   * @return value of filterCondition
+   */
+  public Condition getFilterCondition() {
+    return filterCondition;
+  }
+
+  /** @param filterCondition The filterCondition to set */
+  public void setFilterCondition(Condition filterCondition) {
+    this.filterCondition = filterCondition;
+  }
+
+  /**
+   * Gets runningInParallel
+   *
+   * @return value of runningInParallel
+   */
+  public boolean isRunningInParallel() {
+    return runningInParallel;
+  }
+
+  /** @param runningInParallel The runningInParallel to set */
+  public void setRunningInParallel(boolean runningInParallel) {
+    this.runningInParallel = runningInParallel;
+  }
 }
@@ -23,7 +23,9 @@ import org.apache.parquet.hadoop.api.InitContext;
 import org.apache.parquet.hadoop.api.ReadSupport;
 import org.apache.parquet.io.api.RecordMaterializer;
 import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.Type;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -41,7 +43,31 @@ public class ParquetReadSupport extends ReadSupport<RowMetaAndData> {
   @Override
   public ReadContext init(InitContext context) {
     this.messageType = context.getFileSchema();
-    return new ReadContext(messageType, new HashMap<>());
+    return new ReadContext(getRequestedSchema(messageType, fields), new HashMap<>());
+  }
+
+  /**
+   * Only the columns of the fields to read are requested from the file. The column chunks of the
+   * other columns are never read or decompressed.
+   *
+   * @param fileSchema the schema of the file
+   * @param fields the fields to read
+   * @return the projection of the file schema on the fields to read
+   */
+  public static MessageType getRequestedSchema(MessageType fileSchema, List<ParquetField> fields) {
+    if (fields == null || fields.isEmpty()) {
+      return fileSchema;
+    }
+    List<Type> requestedTypes = new ArrayList<>();
+    for (Type type : fileSchema.getFields()) {
+      for (ParquetField field : fields) {
+        if (type.getName().equalsIgnoreCase(field.getSourceField())) {
+          requestedTypes.add(type);
+          break;
+        }
+      }
+    }
+    return new MessageType(fileSchema.getName(), requestedTypes);
   }
 
   @Override
@@ -50,7 +76,7 @@ public class ParquetReadSupport extends ReadSupport<RowMetaAndData> {
       Map<String, String> keyValueMetaData,
       MessageType messageType,
       ReadContext readContext) {
-    return new ParquetRecordMaterializer(messageType, fields);
+    return new ParquetRecordMaterializer(readContext.getRequestedSchema(), fields);
   }
 
   /**
@@ -0,0 +1,193 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.parquet.transforms.input;
+
+import org.apache.parquet.io.SeekableInputStream;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * A seekable input stream over a source which can read bytes at any position. Small reads, like the
+ * ones of the footer and page headers, are served from a buffer. Large reads, like the ones of the
+ * column chunks, go straight to the source.
+ */
+public abstract class ParquetSeekableInputStream extends SeekableInputStream {
+
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  private final long length;
+  private final byte[] buffer;
+
+  /** The position of the first byte in the buffer */
+  private long bufferStart;
+
+  private int bufferLength;
+  private long position;
+
+  protected ParquetSeekableInputStream(long length) {
+    this.length = length;
+    this.buffer = new byte[BUFFER_SIZE];
+  }
+
+  /**
+   * Read bytes from the source at the given position
+   *
+   * @param position the position in the file
+   * @param bytes the buffer to read into
+   * @param offset the offset in the buffer
+   * @param count the number of bytes to read, never more than the remaining bytes of the file
+   * @return the number of bytes read, at least one
+   * @throws IOException in case of a read error
+   */
+  protected abstract int readAt(long position, byte[] bytes, int offset, int count)
+      throws IOException;
+
+  @Override
+  public long getPos() {
+    return position;
+  }
+
+  @Override
+  public void seek(long newPos) throws IOException {
+    if (newPos < 0 || newPos > length) {
+      throw new EOFException("Can't seek to position " + newPos + " of " + length + " bytes");
+    }
+    position = newPos;
+  }
+
+  @Override
+  public long skip(long n) {
+    long skipped = Math.max(0L, Math.min(n, length - position));
+    position += skipped;
+    return skipped;
+  }
+
+  @Override
+  public int available() {
+    return (int) Math.min(Integer.MAX_VALUE, length - position);
+  }
+
+  @Override
+  public int read() throws IOException {
+    if (position >= length) {
+      return -1;
+    }
+    if (position < bufferStart || position >= bufferStart + bufferLength) {
+      fillBuffer();
+    }
+    return buffer[(int) (position++ - bufferStart)] & 0xFF;
+  }
+
+  @Override
+  public int read(byte[] bytes, int offset, int count) throws IOException {
+    if (count == 0) {
+      return 0;
+    }
+    if (position >= length) {
+      return -1;
+    }
+    int toRead = (int) Math.min(count, length - position);
+
+    // Serve what we can from the buffer
+    //
+    if (position >= bufferStart && position < bufferStart + bufferLength) {
+      int fromBuffer = (int) Math.min(toRead, bufferStart + bufferLength - position);
+      System.arraycopy(buffer, (int) (position - bufferStart), bytes, offset, fromBuffer);
+      position += fromBuffer;
+      return fromBuffer;
+    }
+
+    if (toRead >= BUFFER_SIZE) {
+      int read = readAt(position, bytes, offset, toRead);
+      position += read;
+      return read;
+    }
+
+    fillBuffer();
+    int fromBuffer = Math.min(toRead, bufferLength);
+    System.arraycopy(buffer, 0, bytes, offset, fromBuffer);
+    position += fromBuffer;
+    return fromBuffer;
+  }
+
+  @Override
+  public void readFully(byte[] bytes) throws IOException {
+    readFully(bytes, 0, bytes.length);
+  }
+
+  @Override
+  public void readFully(byte[] bytes, int offset, int count) throws IOException {
+    int done = 0;
+    while (done < count) {
+      int read = read(bytes, offset + done, count - done);
+      if (read < 0) {
+        throw new EOFException(
+            "Reached the end of the file with " + (count - done) + " bytes left to read");
+      }
+      done += read;
+    }
+  }
+
+  @Override
+  public int read(ByteBuffer byteBuffer) throws IOException {
+    if (!byteBuffer.hasRemaining()) {
+      return 0;
+    }
+    int read;
+    if (byteBuffer.hasArray()) {
+      read =
+          read(
+              byteBuffer.array(),
+              byteBuffer.arrayOffset() + byteBuffer.position(),
+              byteBuffer.remaining());
+      if (read > 0) {
+        byteBuffer.position(byteBuffer.position() + read);
+      }
+    } else {
+      byte[] bytes = new byte[Math.min(byteBuffer.remaining(), BUFFER_SIZE)];
+      read = read(bytes, 0, bytes.length);
+      if (read > 0) {
+        byteBuffer.put(bytes, 0, read);
+      }
+    }
+    return read;
+  }
+
+  @Override
+  public void readFully(ByteBuffer byteBuffer) throws IOException {
+    while (byteBuffer.hasRemaining()) {
+      if (read(byteBuffer) < 0) {
+        throw new EOFException(
+            "Reached the end of the file with "
+                + byteBuffer.remaining()
+                + " bytes left to read");
+      }
+    }
+  }
+
+  private void fillBuffer() throws IOException {
+    int count = (int) Math.min(BUFFER_SIZE, length - position);
+    bufferStart = position;
+    bufferLength = 0;
+    while (bufferLength < count) {
+      bufferLength += readAt(position + bufferLength, buffer, bufferLength, count - bufferLength);
+    }
+  }
+}
@@ -26,6 +26,7 @@ import org.apache.hop.core.Const;
 import org.apache.hop.core.RowMetaAndData;
 import org.apache.hop.core.exception.HopException;
 import org.apache.hop.core.row.IValueMeta;
+import org.apache.hop.core.util.Utils;
 import org.apache.hop.core.vfs.HopVfs;
 import org.apache.hop.pipeline.Pipeline;
 import org.apache.hop.pipeline.PipelineMeta;
@@ -35,8 +36,9 @@ import org.apache.parquet.avro.AvroSchemaConverter;
 import org.apache.parquet.column.ParquetProperties;
 import org.apache.parquet.hadoop.ParquetFileWriter;
 import org.apache.parquet.hadoop.ParquetWriter;
-import org.apache.parquet.schema.MessageType;
 
+import java.io.BufferedOutputStream;
+import java.io.OutputStream;
 import java.text.DecimalFormat;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
@@ -44,6 +46,18 @@ import java.util.Date;
 
 public class ParquetOutput extends BaseTransform<ParquetOutputMeta, ParquetOutputData> {
 
+  /** Folder name of the partition of null values, the one Hive and Spark use */
+  public static final String NULL_PARTITION_VALUE = "__HIVE_DEFAULT_PARTITION__";
+
+  /** The number of partition files which are open at the same time if not specified */
+  private static final int DEFAULT_MAX_OPEN_FILES = 10;
+
+  /** The number of rows after which the size of the file being written is checked */
+  private static final int SIZE_CHECK_INTERVAL = 1000;
+
+  /** Parquet writes page headers in small pieces, which shouldn't go to the file one by one */
+  private static final int OUTPUT_BUFFER_SIZE = 128 * 1024;
+
   public ParquetOutput(
       TransformMeta transformMeta,
       ParquetOutputMeta meta,
@@ -65,9 +79,12 @@ public class ParquetOutput extends BaseTransform<ParquetOutputMeta, ParquetOutpu
         Const.toInt(
             resolve(meta.getDictionaryPageSize()), ParquetProperties.DEFAULT_DICTIONARY_PAGE_SIZE);
     data.rowGroupSize =
-        Const.toInt(
-            resolve(meta.getRowGroupSize()), ParquetProperties.DEFAULT_PAGE_ROW_COUNT_LIMIT);
+        Const.toInt(resolve(meta.getRowGroupSize()), ParquetWriter.DEFAULT_BLOCK_SIZE);
     data.maxSplitSizeRows = Const.toLong(resolve(meta.getFileSplitSize()), -1);
+    data.maxSplitSizeBytes = Const.toLong(resolve(meta.getFileSplitFileSize()), -1);
+    data.maxOpenFiles =
+        Math.max(
+            1, Const.toInt(resolve(meta.getPartitionMaxOpenFiles()), DEFAULT_MAX_OPEN_FILES));
 
     return super.init();
   }
@@ -82,7 +99,7 @@ public class ParquetOutput extends BaseTransform<ParquetOutputMeta, ParquetOutpu
     }
 
     if (row == null) {
-      closeFile();
+      closeFiles();
       setOutputDone();
       return false;
     }
@@ -98,26 +115,37 @@ public class ParquetOutput extends BaseTransform<ParquetOutputMeta, ParquetOutpu
         }
         data.sourceFieldIndexes.add(index);
       }
-      openNewFile();
+
+      String partitionField = resolve(meta.getPartitionField());
+      if (!Utils.isEmpty(partitionField)) {
+        data.partitionFieldIndex = getInputRowMeta().indexOfValue(partitionField);
+        if (data.partitionFieldIndex < 0) {
+          throw new HopException("Unable to find partition field '" + partitionField + "'");
+        }
+      }
+      buildSchema();
     }
 
+    ParquetOutputData.PartitionWriter partitionWriter = getPartitionWriter(row);
+
     // See if we don't need to create a new file split into parts...
     //
-    if (meta.isFilenameIncludingSplitNr()
-        && data.maxSplitSizeRows > 0
-        && data.splitRowCount >= data.maxSplitSizeRows) {
-      // Close file and start a new one...
+    if (partitionWriter.writer != null && isSplitNeeded(partitionWriter)) {
+      // Close the file, the next one is opened below
       //
-      closeFile();
-      openNewFile();
+      closeFile(partitionWriter);
+    }
+    if (partitionWriter.writer == null) {
+      closeLeastRecentlyUsedFiles();
+      openNewFile(partitionWriter);
     }
 
     // Write the row, handled by class ParquetWriteSupport
     //
     try {
-      data.writer.write(new RowMetaAndData(getInputRowMeta(), row));
+      partitionWriter.writer.write(new RowMetaAndData(getInputRowMeta(), row));
       incrementLinesOutput();
-      data.splitRowCount++;
+      partitionWriter.splitRowCount++;
     } catch (Exception e) {
       throw new HopException("Error writing row to parquet file", e);
     }
@@ -126,11 +154,103 @@ public class ParquetOutput extends BaseTransform<ParquetOutputMeta, ParquetOutpu
     return true;
   }
 
-  private void openNewFile() throws HopException {
+  /**
+   * Every partition has its own file. Rows are written to the file of the partition they belong
+   * to.
+   *
+   * @param row the row to write
+   * @return the writer of the partition of the row
+   */
+  private ParquetOutputData.PartitionWriter getPartitionWriter(Object[] row) throws HopException {
+    String partitionFolder = null;
+    if (data.partitionFieldIndex >= 0) {
+      IValueMeta partitionValueMeta = getInputRowMeta().getValueMeta(data.partitionFieldIndex);
+      Object partitionValue = row[data.partitionFieldIndex];
+      String value =
+          partitionValueMeta.isNull(partitionValue)
+              ? null
+              : partitionValueMeta.getString(partitionValue);
+      partitionFolder =
+          escapePartitionValue(partitionValueMeta.getName()) + "=" + escapePartitionValue(value);
+    }
+    String key = Const.NVL(partitionFolder, "");
+
+    // Getting an open writer marks it as the most recently used one
+    //
+    ParquetOutputData.PartitionWriter partitionWriter = data.openWriters.get(key);
+    if (partitionWriter == null) {
+      partitionWriter = data.writers.get(key);
+    }
+    if (partitionWriter == null) {
+      partitionWriter = new ParquetOutputData.PartitionWriter(partitionFolder);
+      data.writers.put(key, partitionWriter);
+    }
+    return partitionWriter;
+  }
 
-    data.splitRowCount = 0;
-    data.split++;
+  /**
+   * Every open file keeps a row group in memory. Before a file is opened, the file of the partition
+   * which was written to the longest ago is closed when the maximum number of open files is
+   * reached. When rows for that partition arrive later on, they are written to a new file.
+   */
+  void closeLeastRecentlyUsedFiles() throws HopException {
+    while (data.openWriters.size() >= data.maxOpenFiles) {
+      ParquetOutputData.PartitionWriter partitionWriter =
+          data.openWriters.values().iterator().next();
+      if (log.isDetailed()) {
+        logDetailed(
+            "Closing file "
+                + partitionWriter.filename
+                + ", the maximum number of open files is reached");
+      }
+      closeFile(partitionWriter);
+      partitionWriter.splitNrForced = true;
+    }
+  }
 
+  /**
+   * A file is split when it has the maximum number of rows or when the data written and buffered
+   * reaches the maximum file size. The size is checked every {@link #SIZE_CHECK_INTERVAL} rows.
+   */
+  boolean isSplitNeeded(ParquetOutputData.PartitionWriter partitionWriter) {
+    if (!meta.isFilenameIncludingSplitNr()) {
+      return false;
+    }
+    long rowCount = partitionWriter.splitRowCount;
+    if (data.maxSplitSizeRows > 0 && rowCount >= data.maxSplitSizeRows) {
+      return true;
+    }
+    return data.maxSplitSizeBytes > 0
+        && rowCount > 0
+        && rowCount % SIZE_CHECK_INTERVAL == 0
+        && partitionWriter.writer.getDataSize() >= data.maxSplitSizeBytes;
+  }
+
+  /**
+   * Escape the characters which can't be used in a folder name, the way Hive does it. Like in Hive
+   * null and empty values go to the default partition.
+   *
+   * @param value the partition value
+   * @return the escaped value
+   */
+  public static String escapePartitionValue(String value) {
+    if (Utils.isEmpty(value)) {
+      return NULL_PARTITION_VALUE;
+    }
+    StringBuilder escaped = new StringBuilder(value.length());
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c < ' ' || c == 0x7F || "\"#%'*/:=?\\{[]^".indexOf(c) >= 0) {
+        escaped.append('%').append(String.format("%02X", (int) c));
+      } else {
+        escaped.append(c);
+      }
+    }
+    return escaped.toString();
+  }
+
+  /** The schema only depends on the input row layout, it's the same for all files */
+  private void buildSchema() throws HopException {
     // Hadoop configuration
     //
     data.conf = new Configuration();
@@ -207,18 +327,32 @@ public class ParquetOutput extends BaseTransform<ParquetOutputMeta, ParquetOutpu
 
     // Convert from Avro to Parquet schema
     //
-    MessageType messageType = new AvroSchemaConverter().convert(data.avroSchema);
+    data.messageType = new AvroSchemaConverter().convert(data.avroSchema);
+  }
+
+  private void openNewFile(ParquetOutputData.PartitionWriter partitionWriter)
+      throws HopException {
+
+    partitionWriter.splitRowCount = 0;
+    partitionWriter.split++;
 
     // Calculate the filename...
     //
-    data.filename = buildFilename(getPipeline().getExecutionStartDate());
+    String filename =
+        buildFilename(
+            getPipeline().getExecutionStartDate(),
+            partitionWriter.partitionFolder,
+            partitionWriter.split,
+            meta.isFilenameIncludingSplitNr() || partitionWriter.splitNrForced);
+    partitionWriter.filename = filename;
 
     try {
-      FileObject fileObject = HopVfs.getFileObject(data.filename);
+      FileObject fileObject = HopVfs.getFileObject(filename);
 
       // See if we need to create the parent folder(s)...
+      // The folders of new partitions are always created.
       //
-      if (meta.isFilenameCreatingParentFolders()) {
+      if (meta.isFilenameCreatingParentFolders() || partitionWriter.partitionFolder != null) {
         FileObject parentFolder = fileObject.getParent();
         if (parentFolder != null && !parentFolder.exists()) {
           // Try to create the parent folder...
@@ -227,14 +361,16 @@ public class ParquetOutput extends BaseTransform<ParquetOutputMeta, ParquetOutpu
         }
       }
 
-      data.outputStream = HopVfs.getOutputStream(data.filename, false);
-      data.outputFile = new ParquetOutputFile(data.outputStream);
+      OutputStream outputStream =
+          new BufferedOutputStream(
+              HopVfs.getOutputStream(filename, false), OUTPUT_BUFFER_SIZE);
+      ParquetOutputFile outputFile = new ParquetOutputFile(outputStream);
 
-      data.writer =
+      partitionWriter.writer =
           new ParquetWriterBuilder(
-                  messageType,
+                  data.messageType,
                   data.avroSchema,
-                  data.outputFile,
+                  outputFile,
                   data.sourceFieldIndexes,
                   meta.getFields())
               .withPageSize(data.pageSize)
@@ -245,14 +381,26 @@ public class ParquetOutput extends BaseTransform<ParquetOutputMeta, ParquetOutpu
               .withWriterVersion(data.props.getWriterVersion())
               .withWriteMode(ParquetFileWriter.Mode.CREATE)
               .build();
+      data.openWriters.put(Const.NVL(partitionWriter.partitionFolder, ""), partitionWriter);
 
     } catch (Exception e) {
-      throw new HopException("Unable to create output file '" + data.filename + "'", e);
+      throw new HopException("Unable to create output file '" + filename + "'", e);
     }
   }
 
-  private String buildFilename(Date date) {
+  String buildFilename(Date date, String partitionFolder, int split, boolean includeSplitNr) {
     String filename = resolve(meta.getFilenameBase());
+    if (partitionFolder != null) {
+      // The partition folder goes in between the folder and the name of the file, for example
+      // /data/sales/year=2021/part-00-0001.parquet for base file name /data/sales/part
+      //
+      int separatorIndex = Math.max(filename.lastIndexOf('/'), filename.lastIndexOf('\\'));
+      filename =
+          filename.substring(0, separatorIndex + 1)
+              + partitionFolder
+              + "/"
+              + filename.substring(separatorIndex + 1);
+    }
     if (meta.isFilenameIncludingDate()) {
       filename += "-" + new SimpleDateFormat("yyyyMMdd").format(date);
     }
@@ -266,8 +414,8 @@ public class ParquetOutput extends BaseTransform<ParquetOutputMeta, ParquetOutpu
     if (meta.isFilenameIncludingCopyNr()) {
       filename += "-" + new DecimalFormat("00").format(getCopyNr());
     }
-    if (meta.isFilenameIncludingSplitNr()) {
-      filename += "-" + new DecimalFormat("0000").format(data.split);
+    if (includeSplitNr) {
+      filename += "-" + new DecimalFormat("0000").format(split);
     }
     if (data.isBeamContext()) {
       filename+= "_"+log.getLogChannelId()+"_"+data.getBeamBundleNr();
@@ -277,30 +425,40 @@ public class ParquetOutput extends BaseTransform<ParquetOutputMeta, ParquetOutpu
     return filename;
   }
 
-  private void closeFile() throws HopException {
+  private void closeFile(ParquetOutputData.PartitionWriter partitionWriter) throws HopException {
+    if (partitionWriter.writer == null) {
+      return;
+    }
     try {
-      data.writer.close();
+      partitionWriter.writer.close();
     } catch (Exception e) {
-      throw new HopException("Error closing file " + data.filename, e);
+      throw new HopException("Error closing file " + partitionWriter.filename, e);
+    } finally {
+      partitionWriter.writer = null;
+      data.openWriters.remove(Const.NVL(partitionWriter.partitionFolder, ""));
+    }
+  }
+
+  private void closeFiles() throws HopException {
+    for (ParquetOutputData.PartitionWriter partitionWriter : data.writers.values()) {
+      closeFile(partitionWriter);
     }
   }
 
   @Override
   public void batchComplete() throws HopException {
     if (!data.isBeamContext()) {
-      closeFile();
+      closeFiles();
     }
   }
 
   @Override
   public void startBundle() throws HopException {
-    if (!first) {
-      openNewFile();
-    }
+    // The files are opened when the first row of a partition arrives
   }
 
   @Override
   public void finishBundle() throws HopException {
-    closeFile();
+    closeFiles();
   }
 }
@@ -24,27 +24,58 @@ import org.apache.hop.pipeline.transform.BaseTransformData;
 import org.apache.hop.pipeline.transform.ITransformData;
 import org.apache.parquet.column.ParquetProperties;
 import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.schema.MessageType;
 
-import java.io.OutputStream;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 public class ParquetOutputData extends BaseTransformData implements ITransformData {
+
+  /** The file currently written for one partition, or for all rows if there are no partitions */
+  public static class PartitionWriter {
+    /** The partition folder, for example "year=2021", or null without partitions */
+    public final String partitionFolder;
+
+    public String filename;
+    public ParquetWriter<RowMetaAndData> writer;
+    public int split = 0;
+    public long splitRowCount;
+
+    /**
+     * True once a file of the partition was closed to limit the number of open files. The next
+     * files of the partition include the split number so that they don't overwrite it.
+     */
+    public boolean splitNrForced;
+
+    public PartitionWriter(String partitionFolder) {
+      this.partitionFolder = partitionFolder;
+    }
+  }
+
   public ArrayList<Integer> sourceFieldIndexes;
   public Configuration conf;
   public ParquetProperties props;
-  public String filename;
-  public OutputStream outputStream;
-  public ParquetOutputFile outputFile;
-  public ParquetWriter<RowMetaAndData> writer;
-  public int split = 0;
-  public long splitRowCount;
   public long maxSplitSizeRows;
+  public long maxSplitSizeBytes;
   public int rowGroupSize;
   public int pageSize;
   public int dictionaryPageSize;
   public Schema avroSchema;
-  
+  public MessageType messageType;
+  public int partitionFieldIndex = -1;
+  public int maxOpenFiles;
+
+  /**
+   * The writers by partition folder. They stay in here when their file is closed to keep counting
+   * the splits.
+   */
+  public Map<String, PartitionWriter> writers = new LinkedHashMap<>();
+
+  /** The writers with an open file by partition folder, the least recently written to first */
+  public Map<String, PartitionWriter> openWriters = new LinkedHashMap<>(16, 0.75f, true);
+
   public ParquetOutputData() {
-    super();   
+    super();
   }
 }
@@ -64,6 +64,10 @@ public class ParquetOutputDialog extends BaseTransformDialog implements ITransfo
   private Button wFilenameIncludeSplitNr;
   private Label wlFilenameSplitSize;
   private TextVar wFilenameSplitSize;
+  private Label wlFilenameSplitFileSize;
+  private TextVar wFilenameSplitFileSize;
+  private Combo wPartitionField;
+  private TextVar wPartitionMaxOpenFiles;
   private Button wFilenameCreateFolders;
   private Combo wCompressionCodec;
   private Combo wVersion;
@@ -308,6 +312,68 @@ public class ParquetOutputDialog extends BaseTransformDialog implements ITransfo
     wFilenameSplitSize.setLayoutData(fdFilenameSplitSize);
     lastControl = wFilenameSplitSize;
 
+    wlFilenameSplitFileSize = new Label(wFileGroup, SWT.RIGHT);
+    wlFilenameSplitFileSize.setText(
+        BaseMessages.getString(PKG, "ParquetOutputDialog.FilenameSplitFileSize.Label"));
+    wlFilenameSplitFileSize.setToolTipText(
+        BaseMessages.getString(PKG, "ParquetOutputDialog.FilenameSplitFileSize.Tooltip"));
+    PropsUi.setLook(wlFilenameSplitFileSize);
+    FormData fdlFilenameSplitFileSize = new FormData();
+    fdlFilenameSplitFileSize.left = new FormAttachment(0, 0);
+    fdlFilenameSplitFileSize.right = new FormAttachment(middle, -margin);
+    fdlFilenameSplitFileSize.top = new FormAttachment(lastControl, margin);
+    wlFilenameSplitFileSize.setLayoutData(fdlFilenameSplitFileSize);
+    wFilenameSplitFileSize =
+        new TextVar(variables, wFileGroup, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+    PropsUi.setLook(wFilenameSplitFileSize);
+    FormData fdFilenameSplitFileSize = new FormData();
+    fdFilenameSplitFileSize.left = new FormAttachment(middle, 0);
+    fdFilenameSplitFileSize.top = new FormAttachment(wlFilenameSplitFileSize, 0, SWT.CENTER);
+    fdFilenameSplitFileSize.right = new FormAttachment(100, 0);
+    wFilenameSplitFileSize.setLayoutData(fdFilenameSplitFileSize);
+    lastControl = wFilenameSplitFileSize;
+
+    Label wlPartitionField = new Label(wFileGroup, SWT.RIGHT);
+    wlPartitionField.setText(
+        BaseMessages.getString(PKG, "ParquetOutputDialog.PartitionField.Label"));
+    wlPartitionField.setToolTipText(
+        BaseMessages.getString(PKG, "ParquetOutputDialog.PartitionField.Tooltip"));
+    PropsUi.setLook(wlPartitionField);
+    FormData fdlPartitionField = new FormData();
+    fdlPartitionField.left = new FormAttachment(0, 0);
+    fdlPartitionField.right = new FormAttachment(middle, -margin);
+    fdlPartitionField.top = new FormAttachment(lastControl, margin);
+    wlPartitionField.setLayoutData(fdlPartitionField);
+    wPartitionField = new Combo(wFileGroup, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+    PropsUi.setLook(wPartitionField);
+    FormData fdPartitionField = new FormData();
+    fdPartitionField.left = new FormAttachment(middle, 0);
+    fdPartitionField.top = new FormAttachment(wlPartitionField, 0, SWT.CENTER);
+    fdPartitionField.right = new FormAttachment(100, 0);
+    wPartitionField.setLayoutData(fdPartitionField);
+    lastControl = wPartitionField;
+
+    Label wlPartitionMaxOpenFiles = new Label(wFileGroup, SWT.RIGHT);
+    wlPartitionMaxOpenFiles.setText(
+        BaseMessages.getString(PKG, "ParquetOutputDialog.PartitionMaxOpenFiles.Label"));
+    wlPartitionMaxOpenFiles.setToolTipText(
+        BaseMessages.getString(PKG, "ParquetOutputDialog.PartitionMaxOpenFiles.Tooltip"));
+    PropsUi.setLook(wlPartitionMaxOpenFiles);
+    FormData fdlPartitionMaxOpenFiles = new FormData();
+    fdlPartitionMaxOpenFiles.left = new FormAttachment(0, 0);
+    fdlPartitionMaxOpenFiles.right = new FormAttachment(middle, -margin);
+    fdlPartitionMaxOpenFiles.top = new FormAttachment(lastControl, margin);
+    wlPartitionMaxOpenFiles.setLayoutData(fdlPartitionMaxOpenFiles);
+    wPartitionMaxOpenFiles =
+        new TextVar(variables, wFileGroup, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+    PropsUi.setLook(wPartitionMaxOpenFiles);
+    FormData fdPartitionMaxOpenFiles = new FormData();
+    fdPartitionMaxOpenFiles.left = new FormAttachment(middle, 0);
+    fdPartitionMaxOpenFiles.top = new FormAttachment(wlPartitionMaxOpenFiles, 0, SWT.CENTER);
+    fdPartitionMaxOpenFiles.right = new FormAttachment(100, 0);
+    wPartitionMaxOpenFiles.setLayoutData(fdPartitionMaxOpenFiles);
+    lastControl = wPartitionMaxOpenFiles;
+
     Label wlFilenameCreateFolders = new Label(wFileGroup, SWT.RIGHT);
     wlFilenameCreateFolders.setText(
         BaseMessages.getString(PKG, "ParquetOutputDialog.FilenameCreateFolders.Label"));
@@ -466,6 +532,8 @@ public class ParquetOutputDialog extends BaseTransformDialog implements ITransfo
 
     wlFilenameSplitSize.setEnabled(wFilenameIncludeSplitNr.getSelection());
     wFilenameSplitSize.setEnabled(wFilenameIncludeSplitNr.getSelection());
+    wlFilenameSplitFileSize.setEnabled(wFilenameIncludeSplitNr.getSelection());
+    wFilenameSplitFileSize.setEnabled(wFilenameIncludeSplitNr.getSelection());
   }
 
   private void getFields() {
@@ -484,6 +552,7 @@ public class ParquetOutputDialog extends BaseTransformDialog implements ITransfo
     try {
       IRowMeta fields = pipelineMeta.getPrevTransformFields(variables, transformName);
       wFields.getColumns()[0].setComboValues(fields.getFieldNames());
+      wPartitionField.setItems(fields.getFieldNames());
     } catch (Exception e) {
       LogChannel.UI.logError("Error getting source fields", e);
     }
@@ -498,6 +567,9 @@ public class ParquetOutputDialog extends BaseTransformDialog implements ITransfo
     wFilenameIncludeCopyNr.setSelection(input.isFilenameIncludingCopyNr());
     wFilenameIncludeSplitNr.setSelection(input.isFilenameIncludingSplitNr());
     wFilenameSplitSize.setText(Const.NVL(input.getFileSplitSize(), ""));
+    wFilenameSplitFileSize.setText(Const.NVL(input.getFileSplitFileSize(), ""));
+    wPartitionField.setText(Const.NVL(input.getPartitionField(), ""));
+    wPartitionMaxOpenFiles.setText(Const.NVL(input.getPartitionMaxOpenFiles(), ""));
     wFilenameCreateFolders.setSelection(input.isFilenameCreatingParentFolders());
     wCompressionCodec.setText(input.getCompressionCodec().name());
     wVersion.setText(input.getVersion().getDescription());
@@ -526,6 +598,9 @@ public class ParquetOutputDialog extends BaseTransformDialog implements ITransfo
     input.setFilenameIncludingCopyNr(wFilenameIncludeCopyNr.getSelection());
     input.setFilenameIncludingSplitNr(wFilenameIncludeSplitNr.getSelection());
     input.setFileSplitSize(wFilenameSplitSize.getText());
+    input.setFileSplitFileSize(wFilenameSplitFileSize.getText());
+    input.setPartitionField(wPartitionField.getText());
+    input.setPartitionMaxOpenFiles(wPartitionMaxOpenFiles.getText());
     input.setFilenameCreatingParentFolders(wFilenameCreateFolders.getSelection());
 
     CompressionCodecName codec = CompressionCodecName.UNCOMPRESSED;
@@ -63,6 +63,18 @@ public class ParquetOutputMeta extends BaseTransformMeta<ParquetOutput, ParquetO
   @HopMetadataProperty(key = "filename_split_size")
   private String fileSplitSize;
 
+  /** The size in bytes of the data written to a file after which a new file is started */
+  @HopMetadataProperty(key = "filename_split_file_size")
+  private String fileSplitFileSize;
+
+  /** Rows are written to a separate folder per value of this field, for example year=2021 */
+  @HopMetadataProperty(key = "partition_field")
+  private String partitionField;
+
+  /** The maximum number of partition files which are open at the same time */
+  @HopMetadataProperty(key = "partition_max_open_files")
+  private String partitionMaxOpenFiles;
+
   @HopMetadataProperty(key = "filename_create_parent_folders")
   private boolean filenameCreatingParentFolders;
 
@@ -97,6 +109,7 @@ public class ParquetOutputMeta extends BaseTransformMeta<ParquetOutput, ParquetO
     filenameIncludingSplitNr = true;
     filenameCreatingParentFolders = true;
     fileSplitSize = "1000000";
+    partitionMaxOpenFiles = "10";
   }
 
   public ParquetOutputMeta(ParquetOutputMeta m) {
@@ -109,6 +122,9 @@ public class ParquetOutputMeta extends BaseTransformMeta<ParquetOutput, ParquetO
     this.filenameIncludingCopyNr = m.filenameIncludingCopyNr;
     this.filenameIncludingSplitNr = m.filenameIncludingSplitNr;
     this.fileSplitSize = m.fileSplitSize;
+    this.fileSplitFileSize = m.fileSplitFileSize;
+    this.partitionField = m.partitionField;
+    this.partitionMaxOpenFiles = m.partitionMaxOpenFiles;
     this.filenameCreatingParentFolders = m.filenameCreatingParentFolders;
     this.compressionCodec = m.compressionCodec;
     this.version = m.version;
@@ -118,6 +134,15 @@ public class ParquetOutputMeta extends BaseTransformMeta<ParquetOutput, ParquetO
     this.fields = m.fields;
   }
 
+  /**
+   * Only new transforms split files on size: a pipeline without a split file size keeps splitting
+   * on the number of rows only.
+   */
+  @Override
+  public void setDefault() {
+    fileSplitFileSize = Integer.toString(268435456);
+  }
+
   /**
    * Gets filenameBase
    *
@@ -244,6 +269,48 @@ public class ParquetOutputMeta extends BaseTransformMeta<ParquetOutput, ParquetO
     this.fileSplitSize = fileSplitSize;
   }
 
+  /**
+   * Gets fileSplitFileSize
+   *
+   * @return value of fileSplitFileSize
+   */
+  public String getFileSplitFileSize() {
+    return fileSplitFileSize;
+  }
+
+  /** @param fileSplitFileSize The fileSplitFileSize to set */
+  public void setFileSplitFileSize(String fileSplitFileSize) {
+    this.fileSplitFileSize = fileSplitFileSize;
+  }
+
+  /**
+   * Gets partitionField
+   *
+   * @return value of partitionField
+   */
+  public String getPartitionField() {
+    return partitionField;
+  }
+
+  /** @param partitionField The partitionField to set */
+  public void setPartitionField(String partitionField) {
+    this.partitionField = partitionField;
+  }
+
+  /**
+   * Gets partitionMaxOpenFiles
+   *
+   * @return value of partitionMaxOpenFiles
+   */
+  public String getPartitionMaxOpenFiles() {
+    return partitionMaxOpenFiles;
+  }
+
+  /** @param partitionMaxOpenFiles The partitionMaxOpenFiles to set */
+  public void setPartitionMaxOpenFiles(String partitionMaxOpenFiles) {
+    this.partitionMaxOpenFiles = partitionMaxOpenFiles;
+  }
+
   /**
    * Gets filenameCreatingParentFolders
    *
@@ -22,6 +22,7 @@ import org.apache.avro.Schema;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hop.core.RowMetaAndData;
 import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.core.row.IValueMeta;
 import org.apache.parquet.hadoop.api.WriteSupport;
 import org.apache.parquet.io.api.Binary;
@@ -34,6 +35,13 @@ import java.util.Map;
 
 public class ParquetWriteSupport extends WriteSupport<RowMetaAndData> {
 
+  /** Adds a non-null value of one field to the record */
+  @FunctionalInterface
+  private interface IValueWriter {
+    void write(RecordConsumer recordConsumer, IValueMeta valueMeta, Object valueData)
+        throws HopException;
+  }
+
   private final MessageType messageType;
   private final Schema avroSchema;
   private RecordConsumer recordConsumer;
@@ -42,6 +50,14 @@ public class ParquetWriteSupport extends WriteSupport<RowMetaAndData> {
   private Map<Integer, Schema> fieldSchemas;
   private Map<Integer, LogicalType> fieldTypes;
 
+  /** The row layout the value writers were chosen for */
+  private IRowMeta writersRowMeta;
+
+  private int[] indexes;
+  private String[] targetFieldNames;
+  private IValueMeta[] valueMetas;
+  private IValueWriter[] valueWriters;
+
   public ParquetWriteSupport(
       MessageType messageType,
       Schema avroSchema,
@@ -68,50 +84,24 @@ public class ParquetWriteSupport extends WriteSupport<RowMetaAndData> {
 
   @Override
   public void write(RowMetaAndData row) {
+    if (row.getRowMeta() != writersRowMeta) {
+      prepareValueWriters(row.getRowMeta());
+    }
+    Object[] rowData = row.getData();
+
     recordConsumer.startMessage();
     try {
       // Grab the fields that are mapped...
       // Write a value
       //
-      for (int i = 0; i < fields.size(); i++) {
-        ParquetField field = fields.get(i);
-        int index = sourceFieldIndexes.get(i);
-        IValueMeta valueMeta = row.getValueMeta(index);
-        Object valueData = row.getData()[index];
-
-        boolean isNull = valueMeta.isNull(valueData);
-        if (!isNull) {
-          recordConsumer.startField(field.getTargetFieldName(), i);
-
-          switch (valueMeta.getType()) {
-            case IValueMeta.TYPE_INTEGER:
-              recordConsumer.addLong(valueMeta.getInteger(valueData));
-              break;
-            case IValueMeta.TYPE_NUMBER:
-              recordConsumer.addDouble(valueMeta.getNumber(valueData));
-              break;
-            case IValueMeta.TYPE_BOOLEAN:
-              recordConsumer.addBoolean(valueMeta.getBoolean(valueData));
-              break;
-            case IValueMeta.TYPE_DATE:
-              recordConsumer.addLong(valueMeta.getDate(valueData).getTime());
-              break;
-            case IValueMeta.TYPE_BINARY:
-              byte[] bytes = valueMeta.getBinary(valueData);
-              recordConsumer.addBinary(Binary.fromConstantByteArray(bytes));
-              break;
-            case IValueMeta.TYPE_BIGNUMBER:
-              // Convert to String for now...
-              //
-              String bigString = valueMeta.getString(valueData);
-              recordConsumer.addBinary(Binary.fromString(bigString));
-              break;
-            case IValueMeta.TYPE_STRING:
-            default:
-              recordConsumer.addBinary(Binary.fromString(valueMeta.getString(valueData)));
-              break;
-          }
-          recordConsumer.endField(field.getTargetFieldName(), i);
+      for (int i = 0; i < valueWriters.length; i++) {
+        IValueMeta valueMeta = valueMetas[i];
+        Object valueData = rowData[indexes[i]];
+
+        if (!valueMeta.isNull(valueData)) {
+          recordConsumer.startField(targetFieldNames[i], i);
+          valueWriters[i].write(recordConsumer, valueMeta, valueData);
+          recordConsumer.endField(targetFieldNames[i], i);
         }
       }
       recordConsumer.endMessage();
@@ -119,4 +109,48 @@ public class ParquetWriteSupport extends WriteSupport<RowMetaAndData> {
       throw new RuntimeException("Error writing row to Parquet", e);
     }
   }
+
+  /**
+   * The way to write a field only depends on its data type: it's chosen once for all rows rather
+   * than for every value.
+   *
+   * @param rowMeta the layout of the rows to write
+   */
+  private void prepareValueWriters(IRowMeta rowMeta) {
+    int size = fields.size();
+    indexes = new int[size];
+    targetFieldNames = new String[size];
+    valueMetas = new IValueMeta[size];
+    valueWriters = new IValueWriter[size];
+    for (int i = 0; i < size; i++) {
+      indexes[i] = sourceFieldIndexes.get(i);
+      targetFieldNames[i] = fields.get(i).getTargetFieldName();
+      valueMetas[i] = rowMeta.getValueMeta(indexes[i]);
+      valueWriters[i] = getValueWriter(valueMetas[i]);
+    }
+    writersRowMeta = rowMeta;
+  }
+
+  private static IValueWriter getValueWriter(IValueMeta valueMeta) {
+    switch (valueMeta.getType()) {
+      case IValueMeta.TYPE_INTEGER:
+        return (consumer, meta, data) -> consumer.addLong(meta.getInteger(data));
+      case IValueMeta.TYPE_NUMBER:
+        return (consumer, meta, data) -> consumer.addDouble(meta.getNumber(data));
+      case IValueMeta.TYPE_BOOLEAN:
+        return (consumer, meta, data) -> consumer.addBoolean(meta.getBoolean(data));
+      case IValueMeta.TYPE_DATE:
+        return (consumer, meta, data) -> consumer.addLong(meta.getDate(data).getTime());
+      case IValueMeta.TYPE_BINARY:
+        return (consumer, meta, data) ->
+            consumer.addBinary(Binary.fromConstantByteArray(meta.getBinary(data)));
+      case IValueMeta.TYPE_BIGNUMBER:
+        // Convert to String for now...
+        //
+      case IValueMeta.TYPE_STRING:
+      default:
+        return (consumer, meta, data) ->
+            consumer.addBinary(Binary.fromString(meta.getString(data)));
+    }
+  }
 }
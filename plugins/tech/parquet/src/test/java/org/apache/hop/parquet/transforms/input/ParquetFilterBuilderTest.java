@@ -0,0 +1,209 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.parquet.transforms.input;
+
+import org.apache.hop.core.Condition;
+import org.apache.hop.core.Condition.Function;
+import org.apache.hop.core.Condition.Operator;
+import org.apache.hop.core.HopClientEnvironment;
+import org.apache.hop.core.row.IValueMeta;
+import org.apache.hop.core.row.ValueMetaAndData;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.row.value.ValueMetaNumber;
+import org.apache.hop.core.row.value.ValueMetaString;
+import org.apache.hop.junit.rules.RestoreHopEnvironment;
+import org.apache.parquet.filter2.predicate.FilterApi;
+import org.apache.parquet.filter2.predicate.FilterPredicate;
+import org.apache.parquet.filter2.predicate.Operators;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.schema.MessageTypeParser;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class ParquetFilterBuilderTest {
+  @ClassRule public static RestoreHopEnvironment env = new RestoreHopEnvironment();
+
+  private static final Operators.LongColumn ID = FilterApi.longColumn("id");
+  private static final Operators.DoubleColumn AMOUNT = FilterApi.doubleColumn("amount");
+  private static final Operators.BinaryColumn NAME = FilterApi.binaryColumn("name");
+
+  private ParquetFilterBuilder builder;
+
+  @BeforeClass
+  public static void setUpBeforeClass() throws Exception {
+    HopClientEnvironment.init();
+  }
+
+  @Before
+  public void setUp() throws Exception {
+    builder =
+        new ParquetFilterBuilder(
+            MessageTypeParser.parseMessageType(
+                "message test { required int64 id; optional double amount; "
+                    + "optional binary name (UTF8); repeated int64 codes; }"),
+            Arrays.asList(
+                new ParquetField("id", "id", "Integer", null, null, null),
+                new ParquetField("amount", "amount", "Number", null, null, null),
+                new ParquetField("name", "name", "String", null, null, null),
+                new ParquetField("codes", "codes", "Integer", null, null, null),
+                new ParquetField("missing", "missing", "Integer", null, null, null)));
+  }
+
+  @Test
+  public void testComparisons() throws Exception {
+    assertEquals(FilterApi.lt(ID, 5L), builder.build(atomic("id", Function.SMALLER, 5L)));
+    assertEquals(
+        FilterApi.gtEq(AMOUNT, 1.5), builder.build(atomic("amount", Function.LARGER_EQUAL, 1.5)));
+    assertEquals(
+        FilterApi.eq(NAME, Binary.fromString("abc")),
+        builder.build(atomic("name", Function.EQUAL, "abc")));
+    assertEquals(FilterApi.notEq(ID, 5L), builder.build(atomic("id", Function.NOT_EQUAL, 5L)));
+  }
+
+  @Test
+  public void testNegation() throws Exception {
+    // Hop keeps the nulls for a negated comparison, Parquet drops them for a plain one
+    //
+    Condition notSmaller = atomic("id", Function.SMALLER, 5L);
+    notSmaller.setNegated(true);
+    assertEquals(
+        FilterApi.or(FilterApi.gtEq(ID, 5L), FilterApi.eq(ID, null)), builder.build(notSmaller));
+
+    Condition notEqual = atomic("id", Function.EQUAL, 5L);
+    notEqual.setNegated(true);
+    assertEquals(FilterApi.notEq(ID, 5L), builder.build(notEqual));
+
+    // NOT (id < 5 AND amount > 1.5) is (id >= 5 OR id IS NULL) OR (amount <= 1.5 OR amount IS
+    // NULL)
+    //
+    Condition composite =
+        composite(
+            atomic("id", Function.SMALLER, 5L),
+            Operator.AND,
+            atomic("amount", Function.LARGER, 1.5));
+    composite.setNegated(true);
+    assertEquals(
+        FilterApi.or(
+            FilterApi.or(FilterApi.gtEq(ID, 5L), FilterApi.eq(ID, null)),
+            FilterApi.or(FilterApi.ltEq(AMOUNT, 1.5), FilterApi.eq(AMOUNT, null))),
+        builder.build(composite));
+
+    // id < 5 AND NOT amount > 1.5
+    //
+    assertEquals(
+        FilterApi.and(
+            FilterApi.lt(ID, 5L),
+            FilterApi.or(FilterApi.ltEq(AMOUNT, 1.5), FilterApi.eq(AMOUNT, null))),
+        builder.build(
+            composite(
+                atomic("id", Function.SMALLER, 5L),
+                Operator.AND_NOT,
+                atomic("amount", Function.LARGER, 1.5))));
+  }
+
+  @Test
+  public void testNullHandling() throws Exception {
+    assertEquals(FilterApi.eq(ID, null), builder.build(atomic("id", Function.NULL, null)));
+    assertEquals(FilterApi.notEq(ID, null), builder.build(atomic("id", Function.NOT_NULL, null)));
+
+    Condition notNull = atomic("id", Function.NULL, null);
+    notNull.setNegated(true);
+    assertEquals(FilterApi.notEq(ID, null), builder.build(notNull));
+
+    // An empty string is null in Hop but not in Parquet
+    //
+    assertNull(builder.build(atomic("name", Function.NULL, null)));
+
+    // Comparing with a null constant filters nothing
+    //
+    assertNull(builder.build(atomic("id", Function.EQUAL, null)));
+  }
+
+  @Test
+  public void testSupersetFallback() throws Exception {
+    // The parts which can't be translated are left out of an AND
+    //
+    assertEquals(
+        FilterApi.lt(ID, 5L),
+        builder.build(
+            composite(
+                atomic("id", Function.SMALLER, 5L),
+                Operator.AND,
+                atomic("name", Function.LIKE, "a%"))));
+
+    // An OR with a part which can't be translated filters nothing
+    //
+    assertNull(
+        builder.build(
+            composite(
+                atomic("id", Function.SMALLER, 5L),
+                Operator.OR,
+                atomic("name", Function.LIKE, "a%"))));
+
+    // Neither does XOR
+    //
+    assertNull(
+        builder.build(
+            composite(
+                atomic("id", Function.SMALLER, 5L),
+                Operator.XOR,
+                atomic("amount", Function.LARGER, 1.5))));
+
+    // Fields compared with fields, repeated or missing columns and integers compared with a
+    // number aren't translated
+    //
+    assertNull(builder.build(new Condition("id", Function.EQUAL, "amount", null)));
+    assertNull(builder.build(atomic("codes", Function.EQUAL, 5L)));
+    assertNull(builder.build(atomic("missing", Function.EQUAL, 5L)));
+    assertNull(builder.build(atomic("id", Function.SMALLER, 5.5)));
+    assertNull(builder.build(new Condition()));
+  }
+
+  private static Condition atomic(String field, Function function, Object value)
+      throws Exception {
+    IValueMeta valueMeta;
+    if (value instanceof Long) {
+      valueMeta = new ValueMetaInteger("constant");
+    } else if (value instanceof Double) {
+      valueMeta = new ValueMetaNumber("constant");
+    } else {
+      valueMeta = new ValueMetaString("constant");
+    }
+    ValueMetaAndData exact =
+        function == Function.NULL || function == Function.NOT_NULL
+            ? null
+            : new ValueMetaAndData(valueMeta, value);
+    return new Condition(field, function, null, exact);
+  }
+
+  private static Condition composite(Condition left, Operator operator, Condition right)
+      throws Exception {
+    Condition condition = new Condition();
+    condition.addCondition(left);
+    right.setOperator(operator);
+    condition.addCondition(right);
+    return condition;
+  }
+}
@@ -0,0 +1,130 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.parquet.transforms.input;
+
+import org.apache.commons.vfs2.Capability;
+import org.apache.commons.vfs2.FileContent;
+import org.apache.commons.vfs2.FileName;
+import org.apache.commons.vfs2.FileObject;
+import org.apache.commons.vfs2.FileSystem;
+import org.apache.hop.core.vfs.HopVfs;
+import org.apache.parquet.io.SeekableInputStream;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ParquetInputFileTest {
+
+  private byte[] data;
+  private File file;
+
+  @Before
+  public void setUp() throws Exception {
+    data = new byte[150000];
+    new Random(1).nextBytes(data);
+    file = File.createTempFile("parquet-input-file-test", ".bin");
+    Files.write(file.toPath(), data);
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    Files.deleteIfExists(file.toPath());
+  }
+
+  @Test
+  public void testLocalFile() throws Exception {
+    try (ParquetInputFile inputFile =
+        new ParquetInputFile(HopVfs.getFileObject(file.getAbsolutePath()))) {
+      assertEquals(data.length, inputFile.getLength());
+      try (SeekableInputStream stream = inputFile.newStream()) {
+        assertReads(stream);
+      }
+      assertNull(getTempFile(inputFile));
+    }
+  }
+
+  @Test
+  public void testCopyIsRemovedOnClose() throws Exception {
+    FileName fileName = mock(FileName.class);
+    when(fileName.getRootURI()).thenReturn("test:///");
+    when(fileName.getURI()).thenReturn("test:///data.parquet");
+    FileContent content = mock(FileContent.class);
+    when(content.getSize()).thenReturn((long) data.length);
+    when(content.getInputStream()).thenReturn(new ByteArrayInputStream(data));
+    FileSystem fileSystem = mock(FileSystem.class);
+    when(fileSystem.hasCapability(Capability.RANDOM_ACCESS_READ)).thenReturn(false);
+    FileObject fileObject = mock(FileObject.class);
+    when(fileObject.getName()).thenReturn(fileName);
+    when(fileObject.getContent()).thenReturn(content);
+    when(fileObject.getFileSystem()).thenReturn(fileSystem);
+
+    ParquetInputFile inputFile = new ParquetInputFile(fileObject);
+    File tempFile;
+    try (SeekableInputStream stream = inputFile.newStream()) {
+      tempFile = getTempFile(inputFile);
+      assertNotNull(tempFile);
+      assertTrue(tempFile.exists());
+      assertReads(stream);
+    }
+
+    // A second stream reads the same copy
+    //
+    try (SeekableInputStream stream = inputFile.newStream()) {
+      assertEquals(tempFile, getTempFile(inputFile));
+      assertReads(stream);
+    }
+
+    inputFile.close();
+    assertFalse(tempFile.exists());
+  }
+
+  private void assertReads(SeekableInputStream stream) throws Exception {
+    byte[] footer = new byte[8];
+    stream.seek(data.length - 8L);
+    stream.readFully(footer);
+    assertArrayEquals(Arrays.copyOfRange(data, data.length - 8, data.length), footer);
+
+    byte[] chunk = new byte[100000];
+    stream.seek(20000);
+    stream.readFully(chunk);
+    assertArrayEquals(Arrays.copyOfRange(data, 20000, 120000), chunk);
+    assertEquals(120000, stream.getPos());
+  }
+
+  private static File getTempFile(ParquetInputFile inputFile) throws Exception {
+    Field field = ParquetInputFile.class.getDeclaredField("tempFile");
+    field.setAccessible(true);
+    return (File) field.get(inputFile);
+  }
+}
@@ -0,0 +1,176 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.parquet.transforms.input;
+
+import org.apache.hop.core.logging.ILoggingObject;
+import org.apache.hop.core.variables.IVariables;
+import org.apache.hop.pipeline.transform.TransformMeta;
+import org.apache.hop.pipeline.transforms.mock.TransformMockHelper;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ParquetInputTest {
+  private TransformMockHelper<ParquetInputMeta, ParquetInputData> transformMockHelper;
+
+  @Before
+  public void setup() {
+    transformMockHelper =
+        new TransformMockHelper<>(
+            "Parquet Input test", ParquetInputMeta.class, ParquetInputData.class);
+    when(transformMockHelper.logChannelFactory.create(any(), any(ILoggingObject.class)))
+        .thenReturn(transformMockHelper.iLogChannel);
+    when(transformMockHelper.iTransformMeta.isRunningInParallel()).thenReturn(true);
+    when(transformMockHelper.transformMeta.getCopies(any(IVariables.class))).thenReturn(3);
+  }
+
+  @After
+  public void tearDown() {
+    transformMockHelper.cleanUp();
+  }
+
+  @Test
+  public void testFileRangesCoverTheFile() {
+    long length = 1000L;
+    long[][] ranges = new long[3][];
+    for (int copyNr = 0; copyNr < 3; copyNr++) {
+      ranges[copyNr] = createParquetInput(copyNr, 3).getFileRange("file.parquet", length);
+    }
+    Arrays.sort(ranges, (a, b) -> Long.compare(a[0], b[0]));
+
+    // The ranges follow each other without gaps or overlap, the last one ends at the file length
+    //
+    assertArrayEquals(new long[] {0L, 333L}, ranges[0]);
+    assertArrayEquals(new long[] {333L, 666L}, ranges[1]);
+    assertArrayEquals(new long[] {666L, 1000L}, ranges[2]);
+  }
+
+  @Test
+  public void testFileRangeDoesNotDependOnTheCall() {
+    ParquetInput parquetInput = createParquetInput(1, 3);
+    assertArrayEquals(
+        parquetInput.getFileRange("file.parquet", 1000L),
+        parquetInput.getFileRange("file.parquet", 1000L));
+  }
+
+  @Test
+  public void testFirstRangesAreSpreadOverTheCopies() {
+    // A file with a single row group is read by the copy with the range starting at 0.
+    // Over a number of files every copy gets to read some of them.
+    //
+    Set<Integer> readingCopies = new HashSet<>();
+    for (int file = 0; file < 30; file++) {
+      String filename = "file-" + file + ".parquet";
+      for (int copyNr = 0; copyNr < 3; copyNr++) {
+        if (createParquetInput(copyNr, 3).getFileRange(filename, 1000L)[0] == 0L) {
+          readingCopies.add(copyNr);
+        }
+      }
+    }
+    assertEquals(3, readingCopies.size());
+  }
+
+  @Test
+  public void testFileRangeOfASmallFile() {
+    // Smaller than the number of copies: only one copy gets the whole file
+    //
+    int copiesWithData = 0;
+    for (int copyNr = 0; copyNr < 3; copyNr++) {
+      long[] range = createParquetInput(copyNr, 3).getFileRange("small.parquet", 2L);
+      if (range[1] > range[0]) {
+        assertArrayEquals(new long[] {0L, 2L}, range);
+        copiesWithData++;
+      }
+    }
+    assertEquals(1, copiesWithData);
+  }
+
+  @Test
+  public void testInitInParallel() {
+    TransformMeta previousTransform = mockPreviousTransform(false, 1);
+    when(transformMockHelper.pipelineMeta.findPreviousTransforms(transformMockHelper.transformMeta))
+        .thenReturn(Arrays.asList(previousTransform));
+
+    ParquetInput parquetInput = createParquetInput(0, 3);
+    assertTrue(parquetInput.init());
+    assertTrue(parquetInput.getData().parallel);
+  }
+
+  @Test
+  public void testInitFailsWhenThePreviousTransformDistributes() {
+    TransformMeta previousTransform = mockPreviousTransform(true, 1);
+    when(transformMockHelper.pipelineMeta.findPreviousTransforms(transformMockHelper.transformMeta))
+        .thenReturn(Arrays.asList(previousTransform));
+
+    assertFalse(createParquetInput(0, 3).init());
+  }
+
+  @Test
+  public void testInitFailsWithTheSameNumberOfCopies() {
+    TransformMeta previousTransform = mockPreviousTransform(false, 3);
+    when(transformMockHelper.pipelineMeta.findPreviousTransforms(transformMockHelper.transformMeta))
+        .thenReturn(Arrays.asList(previousTransform));
+
+    assertFalse(createParquetInput(0, 3).init());
+  }
+
+  @Test
+  public void testInitWithoutRunningInParallel() {
+    when(transformMockHelper.iTransformMeta.isRunningInParallel()).thenReturn(false);
+    TransformMeta previousTransform = mockPreviousTransform(true, 3);
+    when(transformMockHelper.pipelineMeta.findPreviousTransforms(transformMockHelper.transformMeta))
+        .thenReturn(Arrays.asList(previousTransform));
+
+    ParquetInput parquetInput = createParquetInput(0, 3);
+    assertTrue(parquetInput.init());
+    assertFalse(parquetInput.getData().parallel);
+  }
+
+  private TransformMeta mockPreviousTransform(boolean distributes, int copies) {
+    TransformMeta previousTransform = mock(TransformMeta.class);
+    when(previousTransform.getName()).thenReturn("Get file names");
+    when(previousTransform.isDistributes()).thenReturn(distributes);
+    when(previousTransform.getCopies(any(IVariables.class))).thenReturn(copies);
+    return previousTransform;
+  }
+
+  private ParquetInput createParquetInput(int copyNr, int copies) {
+    ParquetInputData data = new ParquetInputData();
+    data.transformNumber = copyNr;
+    data.totalNumberOfTransforms = copies;
+    return new ParquetInput(
+        transformMockHelper.transformMeta,
+        transformMockHelper.iTransformMeta,
+        data,
+        copyNr,
+        transformMockHelper.pipelineMeta,
+        transformMockHelper.pipeline);
+  }
+}
@@ -0,0 +1,133 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.parquet.transforms.input;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.EOFException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class ParquetSeekableInputStreamTest {
+
+  /** Reads a byte array, at most 1000 bytes at a time, and counts the reads */
+  private static class ByteArrayStream extends ParquetSeekableInputStream {
+    private final byte[] data;
+    private int nrReads;
+
+    private ByteArrayStream(byte[] data) {
+      super(data.length);
+      this.data = data;
+    }
+
+    @Override
+    protected int readAt(long position, byte[] bytes, int offset, int count) {
+      nrReads++;
+      int read = Math.min(count, 1000);
+      System.arraycopy(data, (int) position, bytes, offset, read);
+      return read;
+    }
+  }
+
+  private byte[] data;
+  private ByteArrayStream stream;
+
+  @Before
+  public void setUp() {
+    data = new byte[200000];
+    for (int i = 0; i < data.length; i++) {
+      data[i] = (byte) (i % 251);
+    }
+    stream = new ByteArrayStream(data);
+  }
+
+  @Test
+  public void testSeek() throws Exception {
+    stream.seek(150000);
+    assertEquals(150000, stream.getPos());
+    assertEquals(data[150000] & 0xFF, stream.read());
+    assertEquals(150001, stream.getPos());
+
+    stream.seek(10);
+    assertEquals(data[10] & 0xFF, stream.read());
+
+    stream.seek(data.length);
+    assertEquals(-1, stream.read());
+  }
+
+  @Test(expected = EOFException.class)
+  public void testSeekBeyondTheEnd() throws Exception {
+    stream.seek(data.length + 1L);
+  }
+
+  @Test
+  public void testSmallReadsUseTheBuffer() throws Exception {
+    byte[] bytes = new byte[10];
+    stream.seek(100);
+    stream.readFully(bytes);
+    stream.seek(5000);
+    stream.readFully(bytes);
+    assertArrayEquals(Arrays.copyOfRange(data, 5000, 5010), bytes);
+    stream.seek(200);
+    stream.readFully(bytes);
+    assertArrayEquals(Arrays.copyOfRange(data, 200, 210), bytes);
+
+    // One buffer of 64 KB from position 100, filled 1000 bytes at a time
+    //
+    assertEquals(66, stream.nrReads);
+  }
+
+  @Test
+  public void testReadFully() throws Exception {
+    byte[] bytes = new byte[100000];
+    stream.seek(60000);
+    stream.readFully(bytes);
+    assertArrayEquals(Arrays.copyOfRange(data, 60000, 160000), bytes);
+    assertEquals(160000, stream.getPos());
+
+    bytes = new byte[300];
+    stream.readFully(bytes, 100, 200);
+    assertArrayEquals(
+        Arrays.copyOfRange(data, 160000, 160200), Arrays.copyOfRange(bytes, 100, 300));
+  }
+
+  @Test
+  public void testReadFullyByteBuffer() throws Exception {
+    ByteBuffer heap = ByteBuffer.allocate(70000);
+    stream.seek(5);
+    stream.readFully(heap);
+    assertArrayEquals(Arrays.copyOfRange(data, 5, 70005), heap.array());
+
+    ByteBuffer direct = ByteBuffer.allocateDirect(70000);
+    stream.readFully(direct);
+    direct.flip();
+    byte[] bytes = new byte[70000];
+    direct.get(bytes);
+    assertArrayEquals(Arrays.copyOfRange(data, 70005, 140005), bytes);
+  }
+
+  @Test(expected = EOFException.class)
+  public void testReadFullyBeyondTheEnd() throws Exception {
+    stream.seek(data.length - 10L);
+    stream.readFully(new byte[11]);
+  }
+}
@@ -0,0 +1,227 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.parquet.transforms.output;
+
+import org.apache.hop.core.RowMetaAndData;
+import org.apache.hop.core.logging.ILoggingObject;
+import org.apache.hop.pipeline.transforms.mock.TransformMockHelper;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Date;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ParquetOutputTest {
+  private TransformMockHelper<ParquetOutputMeta, ParquetOutputData> transformMockHelper;
+  private ParquetOutputMeta meta;
+  private ParquetOutputData data;
+  private ParquetOutput parquetOutput;
+
+  @Before
+  public void setup() {
+    transformMockHelper =
+        new TransformMockHelper<>(
+            "Parquet Output test", ParquetOutputMeta.class, ParquetOutputData.class);
+    when(transformMockHelper.logChannelFactory.create(any(), any(ILoggingObject.class)))
+        .thenReturn(transformMockHelper.iLogChannel);
+    meta = new ParquetOutputMeta();
+    meta.setFilenameBase("/data/sales/part");
+    data = new ParquetOutputData();
+    parquetOutput =
+        new ParquetOutput(
+            transformMockHelper.transformMeta,
+            meta,
+            data,
+            0,
+            transformMockHelper.pipelineMeta,
+            transformMockHelper.pipeline);
+  }
+
+  @After
+  public void tearDown() {
+    transformMockHelper.cleanUp();
+  }
+
+  @Test
+  public void testEscapePartitionValue() {
+    assertEquals("2021", ParquetOutput.escapePartitionValue("2021"));
+    assertEquals("New York", ParquetOutput.escapePartitionValue("New York"));
+
+    // Folder separators and the characters Hive escapes
+    assertEquals("a%2Fb", ParquetOutput.escapePartitionValue("a/b"));
+    assertEquals("a%5Cb", ParquetOutput.escapePartitionValue("a\\b"));
+    assertEquals("x%3Dy%3A1", ParquetOutput.escapePartitionValue("x=y:1"));
+    assertEquals("%2F..%2F..%2Fetc", ParquetOutput.escapePartitionValue("/../../etc"));
+    assertEquals("tab%09", ParquetOutput.escapePartitionValue("tab\t"));
+
+    // The value always follows "field=", the dots alone can't leave the folder
+    assertEquals("..", ParquetOutput.escapePartitionValue(".."));
+
+    // Null and empty values go to the default partition
+    assertEquals(ParquetOutput.NULL_PARTITION_VALUE, ParquetOutput.escapePartitionValue(null));
+    assertEquals(ParquetOutput.NULL_PARTITION_VALUE, ParquetOutput.escapePartitionValue(""));
+  }
+
+  @Test
+  public void testBuildFilename() {
+    Date date = new Date();
+    assertEquals(
+        "/data/sales/part-00-0001.parquet", parquetOutput.buildFilename(date, null, 1, true));
+    assertEquals("/data/sales/part-00.parquet", parquetOutput.buildFilename(date, null, 1, false));
+
+    meta.setFilenameIncludingCopyNr(false);
+    assertEquals(
+        "/data/sales/part-0012.parquet", parquetOutput.buildFilename(date, null, 12, true));
+  }
+
+  @Test
+  public void testBuildFilenameWithPartitionFolder() {
+    Date date = new Date();
+
+    // The partition folder goes in between the folder and the base name of the file
+    //
+    assertEquals(
+        "/data/sales/year=2021/part-00-0001.parquet",
+        parquetOutput.buildFilename(date, "year=2021", 1, true));
+    assertEquals(
+        "/data/sales/city=..%2Fetc/part-00-0002.parquet",
+        parquetOutput.buildFilename(
+            date, "city=" + ParquetOutput.escapePartitionValue("../etc"), 2, true));
+
+    meta.setFilenameBase("C:\\data\\part");
+    assertEquals(
+        "C:\\data\\year=2021/part-00-0001.parquet",
+        parquetOutput.buildFilename(date, "year=2021", 1, true));
+
+    // Without a folder in the base name, the partition folder is relative too
+    //
+    meta.setFilenameBase("part");
+    assertEquals(
+        "year=2021/part-00-0001.parquet", parquetOutput.buildFilename(date, "year=2021", 1, true));
+  }
+
+  @Test
+  public void testSplitOnFileSize() {
+    data.maxSplitSizeRows = -1;
+    data.maxSplitSizeBytes = 1000L;
+    ParquetOutputData.PartitionWriter partitionWriter = newPartitionWriter(2000L);
+
+    // The size is only checked every 1000 rows
+    //
+    partitionWriter.splitRowCount = 999;
+    assertFalse(parquetOutput.isSplitNeeded(partitionWriter));
+    partitionWriter.splitRowCount = 1000;
+    assertTrue(parquetOutput.isSplitNeeded(partitionWriter));
+
+    // Below the size
+    //
+    when(partitionWriter.writer.getDataSize()).thenReturn(999L);
+    assertFalse(parquetOutput.isSplitNeeded(partitionWriter));
+
+    // No split without split numbers in the file name
+    //
+    when(partitionWriter.writer.getDataSize()).thenReturn(2000L);
+    meta.setFilenameIncludingSplitNr(false);
+    assertFalse(parquetOutput.isSplitNeeded(partitionWriter));
+  }
+
+  @Test
+  public void testSplitOnRowCount() {
+    data.maxSplitSizeRows = 10L;
+    data.maxSplitSizeBytes = -1L;
+    ParquetOutputData.PartitionWriter partitionWriter = newPartitionWriter(0L);
+
+    partitionWriter.splitRowCount = 9;
+    assertFalse(parquetOutput.isSplitNeeded(partitionWriter));
+    partitionWriter.splitRowCount = 10;
+    assertTrue(parquetOutput.isSplitNeeded(partitionWriter));
+  }
+
+  @Test
+  public void testCloseLeastRecentlyUsedFile() throws Exception {
+    data.maxOpenFiles = 2;
+    ParquetOutputData.PartitionWriter first = newPartitionWriter("year=2020");
+    ParquetOutputData.PartitionWriter second = newPartitionWriter("year=2021");
+
+    // Writing to the first partition makes the second one the least recently used
+    //
+    assertSame(first, data.openWriters.get("year=2020"));
+    ParquetWriter<RowMetaAndData> firstWriter = first.writer;
+    ParquetWriter<RowMetaAndData> secondWriter = second.writer;
+    parquetOutput.closeLeastRecentlyUsedFiles();
+
+    verify(firstWriter, never()).close();
+    verify(secondWriter).close();
+    assertNotNull(first.writer);
+    assertNull(second.writer);
+    assertFalse(first.splitNrForced);
+    assertTrue(second.splitNrForced);
+    assertEquals(1, data.openWriters.size());
+    assertSame(first, data.openWriters.get("year=2020"));
+
+    // Later files of the closed partition include the split number
+    //
+    meta.setFilenameIncludingSplitNr(false);
+    assertEquals(
+        "/data/sales/year=2021/part-00-0002.parquet",
+        parquetOutput.buildFilename(new Date(), "year=2021", 2, second.splitNrForced));
+  }
+
+  @Test
+  public void testSplitFileSizeOnlyForNewTransforms() {
+    // Loaded metadata without the option keeps splitting on rows only
+    //
+    assertNull(new ParquetOutputMeta().getFileSplitFileSize());
+
+    ParquetOutputMeta newMeta = new ParquetOutputMeta();
+    newMeta.setDefault();
+    assertEquals("268435456", newMeta.getFileSplitFileSize());
+  }
+
+  @SuppressWarnings("unchecked")
+  private ParquetOutputData.PartitionWriter newPartitionWriter(String partitionFolder) {
+    ParquetOutputData.PartitionWriter partitionWriter =
+        new ParquetOutputData.PartitionWriter(partitionFolder);
+    partitionWriter.writer = mock(ParquetWriter.class);
+    data.writers.put(partitionFolder, partitionWriter);
+    data.openWriters.put(partitionFolder, partitionWriter);
+    return partitionWriter;
+  }
+
+  @SuppressWarnings("unchecked")
+  private ParquetOutputData.PartitionWriter newPartitionWriter(long dataSize) {
+    ParquetOutputData.PartitionWriter partitionWriter =
+        new ParquetOutputData.PartitionWriter(null);
+    partitionWriter.writer = mock(ParquetWriter.class);
+    when(partitionWriter.writer.getDataSize()).thenReturn(dataSize);
+    return partitionWriter;
+  }
+}
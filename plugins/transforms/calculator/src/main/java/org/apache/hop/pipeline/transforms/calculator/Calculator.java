@@ -62,8 +62,8 @@ public class Calculator extends BaseTransform<CalculatorMeta, CalculatorData> {
   @Override
   public boolean processRow() throws HopException {
 
-    Object[] r = getRow(); // get row, set busy!
-    if (r == null) { // no more input to be expected...
+    List<Object[]> rows = getRows(ROW_BATCH_SIZE); // get rows, set busy!
+    if (rows == null) { // no more input to be expected...
       setOutputDone();
       data.clearValuesMetaMapping();
       return false;
@@ -164,32 +164,53 @@ public class Calculator extends BaseTransform<CalculatorMeta, CalculatorData> {
       }
     }
 
-    if (log.isRowLevel()) {
-      logRowlevel(
-          BaseMessages.getString(PKG, "Calculator.Log.ReadRow")
-              + getLinesRead()
-              + " : "
-              + getInputRowMeta().getString(r));
-    }
-
+    // Calculate the whole batch of rows and pass them on in one go
+    //
+    List<Object[]> outputRows = new ArrayList<>(rows.size());
+    long lineNr = getLinesRead() - rows.size();
     try {
-      Object[] row = calcFields(getInputRowMeta(), r);
-      putRow(data.getOutputRowMeta(), row); // copy row to possible alternate rowset(s).
+      for (Object[] r : rows) {
+        lineNr++;
+        if (log.isRowLevel()) {
+          logRowlevel(
+              BaseMessages.getString(PKG, "Calculator.Log.ReadRow")
+                  + lineNr
+                  + " : "
+                  + getInputRowMeta().getString(r));
+        }
 
-      if (log.isRowLevel()) {
-        logRowlevel("Wrote row #" + getLinesWritten() + " : " + getInputRowMeta().getString(r));
-      }
-      if (checkFeedback(getLinesRead())) {
-        if (log.isBasic()) {
-          logBasic(BaseMessages.getString(PKG, "Calculator.Log.Linenr", "" + getLinesRead()));
+        try {
+          outputRows.add(calcFields(getInputRowMeta(), r));
+        } catch (HopFileNotFoundException e) {
+          if (meta.isFailIfNoFile()) {
+            putRows(data.getOutputRowMeta(), outputRows);
+            logError(
+                BaseMessages.getString(PKG, "Calculator.Log.NoFile") + " : " + e.getFilepath());
+            setErrors(getErrors() + 1);
+            return false;
+          }
+          continue;
+        } catch (HopException e) {
+          // The rows before the failing one are passed on, just like when processing row by row
+          //
+          putRows(data.getOutputRowMeta(), outputRows);
+          throw e;
+        }
+
+        if (log.isRowLevel()) {
+          logRowlevel(
+              "Wrote row #"
+                  + (getLinesWritten() + outputRows.size())
+                  + " : "
+                  + getInputRowMeta().getString(r));
+        }
+        if (checkFeedback(lineNr)) {
+          if (log.isBasic()) {
+            logBasic(BaseMessages.getString(PKG, "Calculator.Log.Linenr", "" + lineNr));
+          }
         }
       }
-    } catch (HopFileNotFoundException e) {
-      if (meta.isFailIfNoFile()) {
-        logError(BaseMessages.getString(PKG, "Calculator.Log.NoFile") + " : " + e.getFilepath());
-        setErrors(getErrors() + 1);
-        return false;
-      }
+      putRows(data.getOutputRowMeta(), outputRows); // copy rows to possible alternate rowset(s).
     } catch (HopException e) {
       logError(
           BaseMessages.getString(
@@ -209,4 +209,9 @@ public class CalculatorMeta extends BaseTransformMeta<Calculator, CalculatorData
   public void setFailIfNoFile(boolean failIfNoFile) {
     this.failIfNoFile = failIfNoFile;
   }
+
+  @Override
+  public boolean supportsFusion() {
+    return true;
+  }
 }
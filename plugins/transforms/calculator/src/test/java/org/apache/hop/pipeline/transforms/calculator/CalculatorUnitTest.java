@@ -21,6 +21,7 @@ import junit.framework.Assert;
 import org.apache.hop.core.Const;
 import org.apache.hop.core.HopEnvironment;
 import org.apache.hop.core.IRowSet;
+import org.apache.hop.core.QueueRowSet;
 import org.apache.hop.core.exception.HopException;
 import org.apache.hop.core.exception.HopTransformException;
 import org.apache.hop.core.logging.ILoggingObject;
@@ -130,6 +131,66 @@ public class CalculatorUnitTest {
     assertFalse(processed);
   }
 
+  @Test
+  public void testRowsBeforeAFailingRowArePassedOn() throws HopException {
+    RowMeta inputRowMeta = new RowMeta();
+    inputRowMeta.addValueMeta(new ValueMetaString("Value"));
+    inputRowMeta.addValueMeta(new ValueMetaString("Divisor"));
+
+    // A real row set, so the rows are read in one batch
+    //
+    IRowSet inputRowSet = new QueueRowSet();
+    for (String value : new String[] {"11", "12", "not a number", "14"}) {
+      inputRowSet.putRow(inputRowMeta, new Object[] {value, "10"});
+    }
+    inputRowSet.setDone();
+
+    CalculatorMeta meta = new CalculatorMeta();
+    meta.getFunctions()
+        .add(
+            new CalculatorMetaFunction(
+                "remainder",
+                CalculationType.REMAINDER,
+                "Value",
+                "Divisor",
+                null,
+                "Integer",
+                0,
+                0,
+                "",
+                "",
+                "",
+                "",
+                false));
+
+    CalculatorData data = new CalculatorData();
+
+    Calculator calculator =
+        new Calculator(smh.transformMeta, meta, data, 0, smh.pipelineMeta, smh.pipeline);
+    calculator.addRowSetToInputRowSets(inputRowSet);
+    calculator.setInputRowMeta(inputRowMeta);
+    calculator.init();
+
+    List<Object> written = new ArrayList<>();
+    calculator.addRowListener(
+        new RowAdapter() {
+          @Override
+          public void rowWrittenEvent(IRowMeta rowMeta, Object[] row) {
+            written.add(row[2]);
+          }
+        });
+    try {
+      calculator.processRow();
+      fail("The conversion error should be thrown");
+    } catch (HopTransformException e) {
+      // expected
+    }
+
+    assertEquals(2, written.size());
+    assertEquals(1L, written.get(0));
+    assertEquals(2L, written.get(1));
+  }
+
   @Test
   public void testAddSeconds() throws HopException {
     RowMeta inputRowMeta = new RowMeta();
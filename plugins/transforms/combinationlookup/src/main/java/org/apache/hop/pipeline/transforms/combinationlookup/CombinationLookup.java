@@ -19,6 +19,8 @@ package org.apache.hop.pipeline.transforms.combinationlookup;
 
 import org.apache.hop.core.Const;
 import org.apache.hop.core.RowMetaAndData;
+import org.apache.hop.core.cache.CacheEvictionPolicy;
+import org.apache.hop.core.cache.LookupCache;
 import org.apache.hop.core.database.Database;
 import org.apache.hop.core.database.DatabaseMeta;
 import org.apache.hop.core.exception.HopConfigException;
@@ -35,17 +37,16 @@ import org.apache.hop.core.util.Utils;
 import org.apache.hop.i18n.BaseMessages;
 import org.apache.hop.pipeline.Pipeline;
 import org.apache.hop.pipeline.PipelineMeta;
+import org.apache.hop.pipeline.engine.IEngineMetric;
 import org.apache.hop.pipeline.transform.BaseTransform;
 import org.apache.hop.pipeline.transform.TransformMeta;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.Date;
-import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Manages or looks up information in a Type 1 or junk dimension.
@@ -134,73 +135,10 @@ public class CombinationLookup extends BaseTransform<CombinationLookupMeta, Comb
       return;
     }
 
-    // store it in the cache if needed.
-    data.cache.put(new RowMetaAndData(rowMeta, row), tk);
-
-    // check if the size is not too big...
-    // Allow for a buffer overrun of 20% and then remove those 20% in one go.
-    // Just to keep performance in track.
+    // store it in the cache if needed, the least recently used entries are evicted once the cache
+    // is full.
     //
-    int tenPercent = meta.getCacheSize() / 10;
-    if (meta.getCacheSize() > 0 && data.cache.size() > meta.getCacheSize() + tenPercent) {
-      // Which cache entries do we delete here?
-      // We delete those with the lowest technical key...
-      // Those would arguably be the "oldest" dimension entries.
-      // Oh well... Nothing is going to be perfect here...
-      //
-      // Getting the lowest 20% requires some kind of sorting algorithm and I'm not sure we want to
-      // do that.
-      // Sorting is slow and even in the best case situation we need to do 2 passes over the cache
-      // entries...
-      //
-      // Perhaps we should get 20% random values and delete everything below the lowest but one TK.
-      //
-      List<RowMetaAndData> keys = new ArrayList<>(data.cache.keySet());
-      int sizeBefore = keys.size();
-      List<Long> samples = new ArrayList<>();
-
-      // Take 10 sample technical keys....
-      int transformsize = keys.size() / 5;
-      if (transformsize < 1) {
-        transformsize = 1; // make sure we have no endless loop
-      }
-      for (int i = 0; i < keys.size(); i += transformsize) {
-        RowMetaAndData key = keys.get(i);
-        Long value = data.cache.get(key);
-        if (value != null) {
-          samples.add(value);
-        }
-      }
-      // Sort these 5 elements...
-      Collections.sort(samples);
-
-      // What is the smallest?
-      // Take the second, not the fist in the list, otherwise we would be removing a single entry =
-      // not good.
-      if (samples.size() > 1) {
-        data.smallestCacheKey = samples.get(1).longValue();
-      } else { // except when there is only one sample
-        data.smallestCacheKey = samples.get(0).longValue();
-      }
-
-      // Remove anything in the cache <= smallest.
-      // This makes it almost single pass...
-      // This algorithm is not 100% correct, but I guess it beats sorting the whole cache all the
-      // time.
-      //
-      for (int i = 0; i < keys.size(); i++) {
-        RowMetaAndData key = keys.get(i);
-        Long value = data.cache.get(key);
-        if (value != null) {
-          if (value.longValue() <= data.smallestCacheKey) {
-            data.cache.remove(key); // this one has to go.
-          }
-        }
-      }
-
-      int sizeAfter = data.cache.size();
-      logDetailed("Reduced the lookup cache from " + sizeBefore + " to " + sizeAfter + " rows.");
-    }
+    data.cache.put(new RowMetaAndData(rowMeta, row), tk);
 
     if (isRowLevel()) {
       logRowlevel("Cache store: key=" + rowMeta.getString(row) + "    key=" + tk);
@@ -706,11 +644,8 @@ public class CombinationLookup extends BaseTransform<CombinationLookupMeta, Comb
       data.realSchemaName = resolve(meta.getSchemaName());
       data.realTableName = resolve(meta.getTableName());
 
-      if (meta.getCacheSize() > 0) {
-        data.cache = new HashMap<>((int) (meta.getCacheSize() * 1.5));
-      } else {
-        data.cache = new HashMap<>();
-      }
+      data.cache =
+          new LookupCache<>(CacheEvictionPolicy.LRU, Math.max(meta.getCacheSize(), 0));
       if (meta.getDatabaseMeta() == null) {
         logError(
             BaseMessages.getString(
@@ -736,6 +671,11 @@ public class CombinationLookup extends BaseTransform<CombinationLookupMeta, Comb
     return false;
   }
 
+  @Override
+  public Map<IEngineMetric, Long> getCustomMetrics() {
+    return getCacheMetrics(data.cache);
+  }
+
   @Override
   public void dispose() {
     if (data.db != null) {
@@ -18,19 +18,19 @@
 package org.apache.hop.pipeline.transforms.combinationlookup;
 
 import org.apache.hop.core.RowMetaAndData;
+import org.apache.hop.core.cache.LookupCache;
 import org.apache.hop.core.database.Database;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.pipeline.transform.BaseTransformData;
 import org.apache.hop.pipeline.transform.ITransformData;
 
 import java.sql.PreparedStatement;
-import java.util.Map;
 
 public class CombinationLookupData extends BaseTransformData implements ITransformData {
   public Database db;
   public int[] keynrs; // nrs in row of the keys
 
-  public Map<RowMetaAndData, Long> cache;
+  public LookupCache<RowMetaAndData, Long> cache;
 
   public IRowMeta outputRowMeta;
   public IRowMeta lookupRowMeta;
@@ -44,7 +44,6 @@ public class CombinationLookupData extends BaseTransformData implements ITransfo
 
   public PreparedStatement prepStatementLookup;
   public PreparedStatement prepStatementInsert;
-  public long smallestCacheKey;
 
   /** Default Constructor */
   public CombinationLookupData() {
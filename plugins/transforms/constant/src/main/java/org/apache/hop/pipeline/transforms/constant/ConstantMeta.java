@@ -138,4 +138,9 @@ public class ConstantMeta extends BaseTransformMeta<Constant, ConstantData> {
     ConstantMeta meta = (ConstantMeta) transformMeta.getTransform();
     Constant.buildRow(meta, data, remarks);
   }
+
+  @Override
+  public boolean supportsFusion() {
+    return true;
+  }
 }
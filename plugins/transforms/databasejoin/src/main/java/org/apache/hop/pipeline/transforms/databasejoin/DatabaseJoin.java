@@ -17,6 +17,7 @@
 
 package org.apache.hop.pipeline.transforms.databasejoin;
 
+import org.apache.hop.core.Const;
 import org.apache.hop.core.database.Database;
 import org.apache.hop.core.database.DatabaseMeta;
 import org.apache.hop.core.exception.HopDatabaseException;
@@ -33,7 +34,11 @@ import org.apache.hop.pipeline.transform.BaseTransform;
 import org.apache.hop.pipeline.transform.TransformMeta;
 
 import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
 
 /**
  * Use values from input streams to joins with values in a database. Freehand SQL can be used to do
@@ -43,6 +48,9 @@ public class DatabaseJoin extends BaseTransform<DatabaseJoinMeta, DatabaseJoinDa
 
   private static final Class<?> PKG = DatabaseJoinMeta.class; // For Translator
 
+  private static final Pattern ORDER_BY_PATTERN =
+      Pattern.compile("\\bORDER\\s+BY\\b", Pattern.CASE_INSENSITIVE);
+
   private final ReentrantLock dbLock = new ReentrantLock();
 
   public DatabaseJoin(
@@ -55,44 +63,56 @@ public class DatabaseJoin extends BaseTransform<DatabaseJoinMeta, DatabaseJoinDa
     super(transformMeta, meta, data, copyNr, pipelineMeta, pipeline);
   }
 
-  private void lookupValues(IRowMeta rowMeta, Object[] rowData) throws HopException {
+  private void initLookup(IRowMeta rowMeta, Object[] rowData) throws HopException {
+    data.outputRowMeta = rowMeta.clone();
+    meta.getFields(
+        data.outputRowMeta,
+        getTransformName(),
+        new IRowMeta[] {
+          meta.getTableFields(this),
+        },
+        null,
+        this,
+        metadataProvider);
+
+    data.lookupRowMeta = new RowMeta();
+
+    if (log.isDetailed()) {
+      logDetailed(
+          BaseMessages.getString(PKG, "DatabaseJoin.Log.CheckingRow")
+              + rowMeta.getString(rowData));
+    }
 
-    dbLock.lock();
+    data.keynrs = new int[meta.getParameters().size()];
 
-    if (first) {
-      first = false;
+    for (int i = 0; i < data.keynrs.length; i++) {
+      ParameterField field = meta.getParameters().get(i);
+      data.keynrs[i] = rowMeta.indexOfValue(field.getName());
+      if (data.keynrs[i] < 0) {
+        throw new HopTransformException(
+            BaseMessages.getString(PKG, "DatabaseJoin.Exception.FieldNotFound", field.getName()));
+      }
 
-      data.outputRowMeta = rowMeta.clone();
-      meta.getFields(
-          data.outputRowMeta,
-          getTransformName(),
-          new IRowMeta[] {
-            meta.getTableFields(this),
-          },
-          null,
-          this,
-          metadataProvider);
-
-      data.lookupRowMeta = new RowMeta();
-
-      if (log.isDetailed()) {
-        logDetailed(
-            BaseMessages.getString(PKG, "DatabaseJoin.Log.CheckingRow")
-                + rowMeta.getString(rowData));
+      data.lookupRowMeta.addValueMeta(rowMeta.getValueMeta(data.keynrs[i]).clone());
+    }
+
+    if (data.batchSize > 1) {
+      // The parameters of every row in the batch, one after the other
+      //
+      data.batchParametersMeta = new RowMeta();
+      for (int row = 0; row < data.batchSize; row++) {
+        data.batchParametersMeta.addRowMeta(data.lookupRowMeta);
       }
+    }
+  }
 
-      data.keynrs = new int[meta.getParameters().size()];
+  private void lookupValues(IRowMeta rowMeta, Object[] rowData) throws HopException {
 
-      for (int i = 0; i < data.keynrs.length; i++) {
-        ParameterField field = meta.getParameters().get(i);
-        data.keynrs[i] = rowMeta.indexOfValue(field.getName());
-        if (data.keynrs[i] < 0) {
-          throw new HopTransformException(
-              BaseMessages.getString(PKG, "DatabaseJoin.Exception.FieldNotFound", field.getName()));
-        }
+    dbLock.lock();
 
-        data.lookupRowMeta.addValueMeta(rowMeta.getValueMeta(data.keynrs[i]).clone());
-      }
+    if (first) {
+      first = false;
+      initLookup(rowMeta, rowData);
     }
     final ResultSet rs;
     try {
@@ -158,6 +178,168 @@ public class DatabaseJoin extends BaseTransform<DatabaseJoinMeta, DatabaseJoinDa
     }
   }
 
+  /**
+   * Joins the rows of the current batch with a single query. The query of the transform is
+   * repeated for every row in a UNION ALL, with the index of the row as the first column. The rows
+   * found are passed on in the order of the input rows.
+   */
+  private void lookupBatch() throws HopException {
+    List<Object[]> rows = data.batchRows;
+    IRowMeta rowMeta = getInputRowMeta();
+
+    dbLock.lock();
+    try {
+      if (first) {
+        first = false;
+        initLookup(rowMeta, rows.get(0));
+      }
+
+      // The statement always has the same number of parameters: repeat the last row if needed
+      //
+      int nrParameters = data.keynrs.length;
+      Object[] parameters = new Object[data.batchSize * nrParameters];
+      for (int row = 0; row < data.batchSize; row++) {
+        Object[] rowData = rows.get(Math.min(row, rows.size() - 1));
+        for (int i = 0; i < nrParameters; i++) {
+          parameters[row * nrParameters + i] = rowData[data.keynrs[i]];
+        }
+      }
+
+      ResultSet rs = data.db.openQuery(data.batchStatement, data.batchParametersMeta, parameters);
+      IRowMeta addMeta = data.db.getReturnRowMeta();
+
+      List<List<Object[]>> found = new ArrayList<>(rows.size());
+      for (int row = 0; row < rows.size(); row++) {
+        found.add(new ArrayList<>());
+      }
+      Object[] add = data.db.getRow(rs);
+      while (add != null) {
+        incrementLinesInput();
+        int row = addMeta.getInteger(add, 0).intValue();
+        if (row < rows.size()) {
+          found.get(row).add(Arrays.copyOfRange(add, 1, add.length));
+        }
+        add = data.db.getRow(rs);
+      }
+      data.db.closeQuery(rs);
+
+      for (int row = 0; row < rows.size(); row++) {
+        Object[] rowData = rows.get(row);
+        for (Object[] values : found.get(row)) {
+          Object[] newRow = RowDataUtil.resizeArray(rowData, data.outputRowMeta.size());
+          System.arraycopy(values, 0, newRow, rowMeta.size(), values.length);
+          // we have to clone, the input row can be re-used for the next values
+          putRow(data.outputRowMeta, data.outputRowMeta.cloneRow(newRow));
+
+          if (log.isRowLevel()) {
+            logRowlevel(
+                BaseMessages.getString(PKG, "DatabaseJoin.Log.PutoutRow")
+                    + data.outputRowMeta.getString(newRow));
+          }
+        }
+
+        // Nothing found? Perhaps we have to put something out after all?
+        if (found.get(row).isEmpty() && meta.isOuterJoin()) {
+          if (data.notfound == null) {
+            // Just return null values for all values, without the row index
+            //
+            data.notfound = new Object[addMeta.size() - 1];
+          }
+          Object[] newRow = RowDataUtil.resizeArray(rowData, data.outputRowMeta.size());
+          System.arraycopy(data.notfound, 0, newRow, rowMeta.size(), data.notfound.length);
+          putRow(data.outputRowMeta, newRow);
+        }
+      }
+    } finally {
+      dbLock.unlock();
+    }
+  }
+
+  /**
+   * The rows of a UNION ALL come back in no particular order: the order of the query and a limit on
+   * the number of rows per input row can't be kept in a batch.
+   *
+   * @param sql The query of the transform
+   * @param rowLimit The maximum number of rows to return per input row, 0 for all rows
+   * @return true if the input rows can be joined in batches
+   */
+  static boolean isBatchPossible(String sql, int rowLimit) {
+    return rowLimit <= 0 && !ORDER_BY_PATTERN.matcher(sql).find();
+  }
+
+  /**
+   * Every row of a batch takes a parameter per parameter field: the batch has to stay within the
+   * maximum number of parameters of a statement of the database.
+   *
+   * @param batchSize The number of rows to join per query
+   * @param nrParameters The number of parameters of the query of the transform
+   * @param maxParameters The maximum number of parameters of a statement, 0 if there is no limit
+   * @return The number of rows to join per query
+   */
+  static int getBatchSize(int batchSize, int nrParameters, int maxParameters) {
+    if (maxParameters > 0 && nrParameters > 0 && batchSize * nrParameters > maxParameters) {
+      return maxParameters / nrParameters;
+    }
+    return batchSize;
+  }
+
+  /**
+   * Builds the query to join a batch of rows with: the query of the transform is repeated for
+   * every row with the index of the row in the batch as an extra first column.
+   *
+   * @param sql The query of the transform
+   * @param batchSize The number of rows in a batch
+   * @return The batch query
+   */
+  static String getBatchSql(String sql, int batchSize) {
+    String rowSql = Const.trim(sql);
+    while (rowSql.endsWith(";")) {
+      rowSql = Const.trim(rowSql.substring(0, rowSql.length() - 1));
+    }
+
+    StringBuilder batchSql = new StringBuilder();
+    for (int row = 0; row < batchSize; row++) {
+      if (row > 0) {
+        batchSql.append(Const.CR).append("UNION ALL").append(Const.CR);
+      }
+      batchSql
+          .append("SELECT ")
+          .append(row)
+          .append(" AS hop_batch_row, q.* FROM (")
+          .append(rowSql)
+          .append(") q");
+    }
+    return batchSql.toString();
+  }
+
+  /**
+   * Joins the buffered rows, sending them all to the error handling when it fails.
+   *
+   * @return false if the transform needs to stop
+   */
+  private boolean processBatch() throws HopException {
+    try {
+      lookupBatch();
+    } catch (HopException e) {
+      if (!getTransformMeta().isDoingErrorHandling()) {
+        logError(
+            BaseMessages.getString(PKG, "DatabaseJoin.Log.ErrorInTransformRunning")
+                + e.getMessage(),
+            e);
+        setErrors(1);
+        stopAll();
+        setOutputDone(); // signal end to receiver(s)
+        return false;
+      }
+      for (Object[] row : data.batchRows) {
+        putError(getInputRowMeta(), row, 1, e.toString(), null, "DBJOIN001");
+      }
+    } finally {
+      data.batchRows.clear();
+    }
+    return true;
+  }
+
   @Override
   public boolean processRow() throws HopException {
 
@@ -166,10 +348,23 @@ public class DatabaseJoin extends BaseTransform<DatabaseJoinMeta, DatabaseJoinDa
 
     Object[] r = getRow(); // Get row from input rowset & set row busy!
     if (r == null) { // no more input to be expected...
+      // Join the rows of the last batch
+      //
+      if (data.batchRows != null && !data.batchRows.isEmpty() && !processBatch()) {
+        return false;
+      }
       setOutputDone();
       return false;
     }
 
+    if (data.batchSize > 1) {
+      data.batchRows.add(r);
+      if (data.batchRows.size() >= data.batchSize) {
+        return processBatch();
+      }
+      return true;
+    }
+
     try {
       lookupValues(getInputRowMeta(), r); // add new values to the row in rowset[0].
 
@@ -221,6 +416,9 @@ public class DatabaseJoin extends BaseTransform<DatabaseJoinMeta, DatabaseJoinDa
     try {
       if (data.db != null && data.db.getConnection() != null && !data.isCanceled) {
         data.db.cancelStatement(data.pstmt);
+        if (data.batchStatement != null) {
+          data.db.cancelStatement(data.batchStatement);
+        }
         setStopped(true);
         data.isCanceled = true;
       }
@@ -266,7 +464,35 @@ public class DatabaseJoin extends BaseTransform<DatabaseJoinMeta, DatabaseJoinDa
           if (log.isDebug()) {
             logDebug(BaseMessages.getString(PKG, "DatabaseJoin.Log.SQLStatement", sql));
           }
-          data.db.setQueryLimit(meta.getRowLimit());
+          boolean batch = meta.getBatchSize() > 1;
+          if (batch && !isBatchPossible(sql, meta.getRowLimit())) {
+            batch = false;
+            if (log.isDetailed()) {
+              logDetailed(BaseMessages.getString(PKG, "DatabaseJoin.Log.BatchDisabled"));
+            }
+          }
+          if (batch) {
+            data.batchSize =
+                getBatchSize(
+                    meta.getBatchSize(),
+                    meta.getParameters().size(),
+                    databaseMeta.getIDatabase().getMaxStatementParameters());
+            if (data.batchSize < meta.getBatchSize() && log.isDetailed()) {
+              logDetailed(
+                  BaseMessages.getString(PKG, "DatabaseJoin.Log.BatchSizeLimited", data.batchSize));
+            }
+            batch = data.batchSize > 1;
+          }
+          if (batch) {
+            String batchSql = getBatchSql(sql, data.batchSize);
+            data.batchStatement = data.db.prepareSql(batchSql);
+            data.batchRows = new ArrayList<>(data.batchSize);
+            if (log.isDebug()) {
+              logDebug(BaseMessages.getString(PKG, "DatabaseJoin.Log.SQLStatement", batchSql));
+            }
+          } else {
+            data.db.setQueryLimit(meta.getRowLimit());
+          }
 
           return true;
         } catch (HopException e) {
@@ -292,6 +518,10 @@ public class DatabaseJoin extends BaseTransform<DatabaseJoinMeta, DatabaseJoinDa
         data.db.closePreparedStatement(data.pstmt);
         data.pstmt = null;
       }
+      if (data.batchStatement != null) {
+        data.db.closePreparedStatement(data.batchStatement);
+        data.batchStatement = null;
+      }
       super.dispose();
     } catch (HopDatabaseException e) {
       logError("Unexpected error closing statement : " + e.toString());
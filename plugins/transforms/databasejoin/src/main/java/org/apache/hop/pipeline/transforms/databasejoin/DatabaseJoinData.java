@@ -23,6 +23,7 @@ import org.apache.hop.pipeline.transform.BaseTransformData;
 import org.apache.hop.pipeline.transform.ITransformData;
 
 import java.sql.PreparedStatement;
+import java.util.List;
 
 public class DatabaseJoinData extends BaseTransformData implements ITransformData {
   public Database db;
@@ -35,6 +36,13 @@ public class DatabaseJoinData extends BaseTransformData implements ITransformDat
   public Object[] notfound; // Values in case nothing is found...
   public boolean isCanceled;
 
+  /** The number of rows joined with a single query, 0 when joining row by row */
+  public int batchSize;
+
+  public PreparedStatement batchStatement;
+  public IRowMeta batchParametersMeta;
+  public List<Object[]> batchRows;
+
   public DatabaseJoinData() {
     super();
 
@@ -71,6 +71,12 @@ public class DatabaseJoinMeta extends BaseTransformMeta<DatabaseJoin, DatabaseJo
       injectionKeyDescription = "DatabaseJoinMeta.Injection.RowLimit")
   private int rowLimit;
 
+  /** Number of input rows to join with a single query (0 or 1=one query per row) */
+  @HopMetadataProperty(
+      key = "batch_size",
+      injectionKeyDescription = "DatabaseJoinMeta.Injection.BatchSize")
+  private int batchSize;
+
   /**
    * false: don't return rows where nothing is found true: at least return one source row, the rest
    * is NULL
@@ -104,6 +110,7 @@ public class DatabaseJoinMeta extends BaseTransformMeta<DatabaseJoin, DatabaseJo
     this.connection = clone.connection;
     this.sql = clone.sql;
     this.rowLimit = clone.rowLimit;
+    this.batchSize = clone.batchSize;
     this.outerJoin = clone.outerJoin;
     this.replaceVariables = clone.replaceVariables;
     for (ParameterField field : clone.parameters) {
@@ -149,6 +156,16 @@ public class DatabaseJoinMeta extends BaseTransformMeta<DatabaseJoin, DatabaseJo
     this.rowLimit = rowLimit;
   }
 
+  /** @return Returns the batchSize. */
+  public int getBatchSize() {
+    return batchSize;
+  }
+
+  /** @param batchSize The batchSize to set. */
+  public void setBatchSize(int batchSize) {
+    this.batchSize = batchSize;
+  }
+
   /** @return Returns the sql. */
   public String getSql() {
     return sql;
@@ -167,6 +184,7 @@ public class DatabaseJoinMeta extends BaseTransformMeta<DatabaseJoin, DatabaseJo
   @Override
   public void setDefault() {
     rowLimit = 0;
+    batchSize = 0;
     sql = "";
     outerJoin = false;
     replaceVariables = false;
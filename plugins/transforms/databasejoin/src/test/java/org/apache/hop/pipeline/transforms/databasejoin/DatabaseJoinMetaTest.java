@@ -54,7 +54,13 @@ public class DatabaseJoinMetaTest implements IInitializer<DatabaseJoinMeta> {
   public void setUpLoadSave() throws Exception {
     List<String> attributes =
         Arrays.asList(
-            "sql", "rowLimit", "outerJoin", "replaceVariables", "connection", "parameters");
+            "sql",
+            "rowLimit",
+            "batchSize",
+            "outerJoin",
+            "replaceVariables",
+            "connection",
+            "parameters");
 
     Map<String, String> getterMap = new HashMap<>();
     //    getterMap.put("parameters", "getParameters");
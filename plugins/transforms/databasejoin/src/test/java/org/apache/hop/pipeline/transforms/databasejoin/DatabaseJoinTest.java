@@ -17,6 +17,7 @@
 
 package org.apache.hop.pipeline.transforms.databasejoin;
 
+import org.apache.hop.core.Const;
 import org.apache.hop.core.database.Database;
 import org.apache.hop.core.exception.HopException;
 import org.apache.hop.pipeline.Pipeline;
@@ -31,6 +32,7 @@ import org.junit.Test;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 
+import static junit.framework.TestCase.assertEquals;
 import static junit.framework.TestCase.assertFalse;
 import static junit.framework.TestCase.assertTrue;
 import static org.mockito.Matchers.any;
@@ -133,4 +135,42 @@ public class DatabaseJoinTest {
     verify(mockTransformDataInterface.db, times(0)).cancelStatement(any(PreparedStatement.class));
     assertFalse(mockTransformDataInterface.isCanceled);
   }
+
+  @Test
+  public void testBatchSqlRepeatsTheQueryForEveryRow() {
+    String sql = DatabaseJoin.getBatchSql("SELECT name FROM customer WHERE id = ? ;", 3);
+
+    assertEquals(
+        "SELECT 0 AS hop_batch_row, q.* FROM (SELECT name FROM customer WHERE id = ?) q"
+            + Const.CR
+            + "UNION ALL"
+            + Const.CR
+            + "SELECT 1 AS hop_batch_row, q.* FROM (SELECT name FROM customer WHERE id = ?) q"
+            + Const.CR
+            + "UNION ALL"
+            + Const.CR
+            + "SELECT 2 AS hop_batch_row, q.* FROM (SELECT name FROM customer WHERE id = ?) q",
+        sql);
+  }
+
+  @Test
+  public void testNoBatchWithOrderByOrRowLimit() {
+    assertTrue(DatabaseJoin.isBatchPossible("SELECT name FROM customer WHERE id = ?", 0));
+    assertTrue(DatabaseJoin.isBatchPossible("SELECT ordered_by FROM orders WHERE id = ?", 0));
+    assertFalse(DatabaseJoin.isBatchPossible("SELECT name FROM customer WHERE id = ?", 5));
+    assertFalse(
+        DatabaseJoin.isBatchPossible("SELECT name FROM customer WHERE id = ? order\n  by name", 0));
+  }
+
+  @Test
+  public void testBatchSizeWithinTheParameterLimit() {
+    // No limit or within the limit
+    assertEquals(1000, DatabaseJoin.getBatchSize(1000, 3, 0));
+    assertEquals(500, DatabaseJoin.getBatchSize(500, 4, 2100));
+    assertEquals(1000, DatabaseJoin.getBatchSize(1000, 0, 2100));
+
+    // SQL Server takes at most 2100 parameters
+    assertEquals(700, DatabaseJoin.getBatchSize(1000, 3, 2100));
+    assertEquals(1, DatabaseJoin.getBatchSize(1000, 1500, 2100));
+  }
 }
@@ -20,6 +20,7 @@ package org.apache.hop.pipeline.transforms.databaselookup;
 import com.google.common.annotations.VisibleForTesting;
 import org.apache.commons.lang.StringUtils;
 import org.apache.hop.core.Const;
+import org.apache.hop.core.RowMetaAndData;
 import org.apache.hop.core.database.Database;
 import org.apache.hop.core.database.DatabaseMeta;
 import org.apache.hop.core.exception.HopDatabaseException;
@@ -36,13 +37,23 @@ import org.apache.hop.core.util.Utils;
 import org.apache.hop.i18n.BaseMessages;
 import org.apache.hop.pipeline.Pipeline;
 import org.apache.hop.pipeline.PipelineMeta;
+import org.apache.hop.pipeline.engine.IEngineMetric;
 import org.apache.hop.pipeline.transform.BaseTransform;
 import org.apache.hop.pipeline.transform.TransformMeta;
 import org.apache.hop.pipeline.transforms.databaselookup.readallcache.ReadAllCache;
 
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /** Looks up values in a database using keys from input streams. */
 public class DatabaseLookup extends BaseTransform<DatabaseLookupMeta, DatabaseLookupData> {
@@ -68,8 +79,18 @@ public class DatabaseLookup extends BaseTransform<DatabaseLookupMeta, DatabaseLo
    */
   @VisibleForTesting
   synchronized Object[] lookupValues(IRowMeta inputRowMeta, Object[] row) throws HopException {
-    Object[] outputRow = RowDataUtil.resizeArray(row, data.outputRowMeta.size());
+    return lookupValues(inputRowMeta, row, getLookupRow(inputRowMeta, row));
+  }
 
+  /**
+   * Gets the values of the keys of an input row, converted to the data types of the lookup table.
+   *
+   * @param inputRowMeta The metadata of the input row
+   * @param row The input row
+   * @return the values to look up
+   * @throws HopException In case a value can't be converted.
+   */
+  private Object[] getLookupRow(IRowMeta inputRowMeta, Object[] row) throws HopException {
     Object[] lookupRow = new Object[data.lookupMeta.size()];
     int lookupIndex = 0;
 
@@ -102,6 +123,21 @@ public class DatabaseLookup extends BaseTransform<DatabaseLookupMeta, DatabaseLo
       }
     }
 
+    return lookupRow;
+  }
+
+  /**
+   * Performs the lookup based on the meta-data, the input row and the values to look up.
+   *
+   * @param row The row to add the returned lookup fields to
+   * @param lookupRow The values to look up, calculated from the row
+   * @return the resulting row after the lookup values where added
+   * @throws HopException In case something goes wrong.
+   */
+  synchronized Object[] lookupValues(IRowMeta inputRowMeta, Object[] row, Object[] lookupRow)
+      throws HopException {
+    Object[] outputRow = RowDataUtil.resizeArray(row, data.outputRowMeta.size());
+
     Object[] add;
     boolean cacheNow = false;
     boolean cacheHit = false;
@@ -130,8 +166,12 @@ public class DatabaseLookup extends BaseTransform<DatabaseLookupMeta, DatabaseLo
                   + data.lookupMeta.getString(lookupRow));
         }
 
-        data.db.setValuesLookup(data.lookupMeta, lookupRow);
-        add = data.db.getLookup(meta.getLookup().isFailingOnMultipleResults());
+        if (data.batchResults != null) {
+          add = getBatchResult(lookupRow);
+        } else {
+          data.db.setValuesLookup(data.lookupMeta, lookupRow);
+          add = data.db.getLookup(meta.getLookup().isFailingOnMultipleResults());
+        }
         cacheNow = true;
       }
     }
@@ -183,9 +223,11 @@ public class DatabaseLookup extends BaseTransform<DatabaseLookupMeta, DatabaseLo
         // as the returned lookup row, but since we make the lookup row
         // that should not be a problem.
         //
+        IRowMeta returnRowMeta =
+            data.batchResults != null ? data.batchReturnRowMeta : data.db.getReturnRowMeta();
         int[] types = data.returnValueTypes;
         for (int i = 0; i < types.length; i++) {
-          IValueMeta returned = data.db.getReturnRowMeta().getValueMeta(i);
+          IValueMeta returned = returnRowMeta.getValueMeta(i);
           IValueMeta expected = data.returnMeta.getValueMeta(i);
 
           if (returned != null && types[i] > 0 && types[i] != returned.getType()) {
@@ -309,6 +351,11 @@ public class DatabaseLookup extends BaseTransform<DatabaseLookupMeta, DatabaseLo
   public boolean processRow() throws HopException {
     Object[] r = getRow(); // Get row from input rowset & set row busy!
     if (r == null) { // no more input to be expected...
+      // Look up the rows of the last batch
+      //
+      if (data.batchRows != null && !data.batchRows.isEmpty() && !lookupBatch()) {
+        return false;
+      }
       setOutputDone();
       return false;
     }
@@ -401,7 +448,9 @@ public class DatabaseLookup extends BaseTransform<DatabaseLookupMeta, DatabaseLo
       }
 
       if (meta.isCached()) {
-        data.cache = DefaultCache.newCache(data, meta.getCacheSize());
+        DefaultCache cache = DefaultCache.newCache(data, meta);
+        data.cache = cache;
+        data.lookupCache = cache.getLookupCache();
       }
 
       determineFieldsTypesQueryingDb();
@@ -428,6 +477,8 @@ public class DatabaseLookup extends BaseTransform<DatabaseLookupMeta, DatabaseLo
       if (meta.isCached() && meta.isLoadingAllDataInCache()) {
         loadAllTableDataIntoTheCache();
       }
+
+      initBatchLookup();
     }
 
     if (log.isRowLevel()) {
@@ -436,9 +487,32 @@ public class DatabaseLookup extends BaseTransform<DatabaseLookupMeta, DatabaseLo
               + getInputRowMeta().getString(r));
     }
 
+    if (data.batchSize > 1) {
+      data.batchRows.add(r);
+      if (data.batchRows.size() >= data.batchSize) {
+        return lookupBatch();
+      }
+      return true;
+    }
+
+    return processLookup(r, null);
+  }
+
+  /**
+   * Looks up the values for an input row and passes the result on.
+   *
+   * @param r The input row
+   * @param lookupRow The values to look up or null if they still need to be calculated
+   * @return false if the transform needs to stop
+   * @throws HopException In case something goes wrong.
+   */
+  private boolean processLookup(Object[] r, Object[] lookupRow) throws HopException {
     try {
       // add new lookup values to the row
-      Object[] outputRow = lookupValues(getInputRowMeta(), r);
+      Object[] outputRow =
+          lookupRow == null
+              ? lookupValues(getInputRowMeta(), r)
+              : lookupValues(getInputRowMeta(), r, lookupRow);
 
       if (outputRow != null) {
         // copy row to output rowset(s)
@@ -454,22 +528,273 @@ public class DatabaseLookup extends BaseTransform<DatabaseLookupMeta, DatabaseLo
         }
       }
     } catch (HopException e) {
-      if (getTransformMeta().isDoingErrorHandling()) {
-        putError(getInputRowMeta(), r, 1, e.getMessage(), null, "DBLOOKUPD001");
-      } else {
-        logError(
-            BaseMessages.getString(PKG, "DatabaseLookup.ERROR003.UnexpectedErrorDuringProcessing")
-                + e.getMessage());
-        setErrors(1);
-        stopAll();
-        setOutputDone(); // signal end to receiver(s)
-        return false;
-      }
+      return handleLookupError(r, e);
     }
 
     return true;
   }
 
+  private boolean handleLookupError(Object[] r, HopException e) throws HopException {
+    if (getTransformMeta().isDoingErrorHandling()) {
+      putError(getInputRowMeta(), r, 1, e.getMessage(), null, "DBLOOKUPD001");
+      return true;
+    }
+    logError(
+        BaseMessages.getString(PKG, "DatabaseLookup.ERROR003.UnexpectedErrorDuringProcessing")
+            + e.getMessage());
+    setErrors(1);
+    stopAll();
+    setOutputDone(); // signal end to receiver(s)
+    return false;
+  }
+
+  /**
+   * See if the lookups can be done in batches and prepare the statement for it. This is only
+   * possible if all the conditions are "=": the keys of a batch of rows are then looked up with a
+   * single IN list (one key field) or a list of OR-ed conditions (more key fields).
+   */
+  private void initBatchLookup() throws HopException {
+    data.batchSize = 0;
+    int batchSize = meta.getLookupBatchSize();
+    if (batchSize <= 1 || (meta.isCached() && meta.isLoadingAllDataInCache())) {
+      return;
+    }
+    for (int condition : data.conditions) {
+      if (condition != DatabaseLookupMeta.CONDITION_EQ) {
+        logBasic(BaseMessages.getString(PKG, "DatabaseLookup.Log.BatchLookupNotPossible"));
+        return;
+      }
+    }
+
+    DatabaseMeta databaseMeta = getPipelineMeta().findDatabase(meta.getConnection(), variables);
+    List<KeyField> keyFields = meta.getLookup().getKeyFields();
+    List<ReturnValue> returnValues = meta.getLookup().getReturnValues();
+
+    // Every row of a batch takes a parameter per key field: stay within the database limit
+    //
+    int maxParameters = databaseMeta.getIDatabase().getMaxStatementParameters();
+    if (maxParameters > 0 && batchSize * keyFields.size() > maxParameters) {
+      batchSize = maxParameters / keyFields.size();
+      if (log.isDetailed()) {
+        logDetailed(
+            BaseMessages.getString(PKG, "DatabaseLookup.Log.BatchSizeLimited", batchSize));
+      }
+      if (batchSize <= 1) {
+        return;
+      }
+    }
+
+    // The key fields come first so we know which key a row belongs to
+    //
+    StringBuilder sql = new StringBuilder("SELECT ");
+    for (int i = 0; i < keyFields.size(); i++) {
+      if (i > 0) {
+        sql.append(", ");
+      }
+      sql.append(databaseMeta.quoteField(keyFields.get(i).getTableField()));
+    }
+    for (ReturnValue returnValue : returnValues) {
+      sql.append(", ").append(databaseMeta.quoteField(returnValue.getTableField()));
+    }
+    sql.append(" FROM ")
+        .append(
+            databaseMeta.getQuotedSchemaTableCombination(
+                this, meta.getSchemaName(), meta.getTableName()))
+        .append(" WHERE ");
+
+    if (keyFields.size() == 1) {
+      sql.append(databaseMeta.quoteField(keyFields.get(0).getTableField())).append(" IN (");
+      for (int row = 0; row < batchSize; row++) {
+        sql.append(row > 0 ? ", ?" : "?");
+      }
+      sql.append(")");
+    } else {
+      for (int row = 0; row < batchSize; row++) {
+        sql.append(row > 0 ? " OR (" : "(");
+        for (int i = 0; i < keyFields.size(); i++) {
+          if (i > 0) {
+            sql.append(" AND ");
+          }
+          sql.append(databaseMeta.quoteField(keyFields.get(i).getTableField())).append(" = ?");
+        }
+        sql.append(")");
+      }
+    }
+
+    String orderBy = meta.getLookup().getOrderByClause();
+    if (StringUtils.isNotEmpty(orderBy)) {
+      sql.append(" ORDER BY ").append(orderBy);
+    }
+
+    if (log.isDetailed()) {
+      logDetailed(BaseMessages.getString(PKG, "DatabaseLookup.Log.BatchLookupSql", sql));
+    }
+    data.batchStatement = data.db.prepareSql(sql.toString());
+    data.batchRows = new ArrayList<>(batchSize);
+    data.batchSize = batchSize;
+  }
+
+  /**
+   * Looks up the rows of the current batch. The keys which are not in the cache are looked up with
+   * a single query, after that the rows are passed on in their original order.
+   *
+   * @return false if the transform needs to stop
+   * @throws HopException In case something goes wrong.
+   */
+  private boolean lookupBatch() throws HopException {
+    List<Object[]> rows = data.batchRows;
+    Object[][] lookupRows = new Object[rows.size()][];
+    Set<RowMetaAndData> keys = new LinkedHashSet<>();
+
+    data.batchResults = new HashMap<>();
+    data.batchDuplicateKeys = new HashSet<>();
+    try {
+      for (int i = 0; i < rows.size(); i++) {
+        try {
+          lookupRows[i] = getLookupRow(getInputRowMeta(), rows.get(i));
+        } catch (HopException e) {
+          // The error is handled when this row is looked up on its own below
+          //
+          continue;
+        }
+        if (meta.isCached() && data.cache.isRowInCache(data.lookupMeta, lookupRows[i])) {
+          continue;
+        }
+        RowMetaAndData key = new RowMetaAndData(data.lookupMeta, lookupRows[i]);
+        if (hasNullValue(lookupRows[i])) {
+          // A null never equals anything, no need to ask the database
+          //
+          data.batchResults.put(key, null);
+        } else {
+          keys.add(key);
+        }
+      }
+
+      try {
+        fetchBatch(keys);
+      } catch (HopException e) {
+        for (Object[] row : rows) {
+          if (!handleLookupError(row, e)) {
+            return false;
+          }
+        }
+        return true;
+      }
+
+      for (int i = 0; i < rows.size(); i++) {
+        if (!processLookup(rows.get(i), lookupRows[i])) {
+          return false;
+        }
+      }
+      return true;
+    } finally {
+      rows.clear();
+      data.batchResults = null;
+      data.batchDuplicateKeys = null;
+    }
+  }
+
+  /**
+   * Runs the batch query for the given keys and stores the rows found in the batch results. Keys
+   * without a row in the table are stored with a null value.
+   *
+   * @param keys The keys to look up, at most the batch size
+   * @throws HopException In case something goes wrong.
+   */
+  private void fetchBatch(Collection<RowMetaAndData> keys) throws HopException {
+    if (keys.isEmpty()) {
+      return;
+    }
+    int nrKeys = data.lookupMeta.size();
+
+    if (data.batchParametersMeta == null) {
+      data.batchParametersMeta = new RowMeta();
+      for (int row = 0; row < data.batchSize; row++) {
+        for (int i = 0; i < nrKeys; i++) {
+          data.batchParametersMeta.addValueMeta(data.lookupMeta.getValueMeta(i));
+        }
+      }
+    }
+
+    // The statement always has the same number of parameters: repeat the last key if needed
+    //
+    Object[] parameters = new Object[data.batchSize * nrKeys];
+    int index = 0;
+    Object[] keyData = null;
+    for (RowMetaAndData key : keys) {
+      data.batchResults.put(key, null);
+      keyData = key.getData();
+      System.arraycopy(keyData, 0, parameters, index, nrKeys);
+      index += nrKeys;
+    }
+    for (; index < parameters.length; index += nrKeys) {
+      System.arraycopy(keyData, 0, parameters, index, nrKeys);
+    }
+
+    ResultSet resultSet =
+        data.db.openQuery(data.batchStatement, data.batchParametersMeta, parameters);
+    try {
+      IRowMeta resultRowMeta = data.db.getReturnRowMeta();
+      if (data.batchReturnRowMeta == null) {
+        data.batchReturnRowMeta = new RowMeta();
+        for (int i = nrKeys; i < resultRowMeta.size(); i++) {
+          data.batchReturnRowMeta.addValueMeta(resultRowMeta.getValueMeta(i));
+        }
+      }
+
+      Object[] row;
+      while ((row = data.db.getRow(resultSet)) != null) {
+        Object[] foundKey = new Object[nrKeys];
+        for (int i = 0; i < nrKeys; i++) {
+          foundKey[i] =
+              data.lookupMeta.getValueMeta(i).convertData(resultRowMeta.getValueMeta(i), row[i]);
+        }
+        RowMetaAndData key = new RowMetaAndData(data.lookupMeta, foundKey);
+
+        // Keep the first row of every key, like a lookup of a single row
+        //
+        if (data.batchResults.get(key) != null) {
+          data.batchDuplicateKeys.add(key);
+        } else {
+          data.batchResults.put(key, Arrays.copyOfRange(row, nrKeys, row.length));
+        }
+      }
+    } finally {
+      try {
+        resultSet.close();
+      } catch (SQLException e) {
+        throw new HopDatabaseException("Unable to close resultset after looking up data", e);
+      }
+    }
+  }
+
+  private Object[] getBatchResult(Object[] lookupRow) throws HopException {
+    RowMetaAndData key = new RowMetaAndData(data.lookupMeta, lookupRow);
+    if (!data.batchResults.containsKey(key)) {
+      // It was in the cache when the batch was collected but it got removed since
+      //
+      fetchBatch(Collections.singletonList(key));
+    }
+    if (meta.getLookup().isFailingOnMultipleResults() && data.batchDuplicateKeys.contains(key)) {
+      throw new HopDatabaseException(
+          "Only 1 row was expected as a result of a lookup, and at least 2 were found!");
+    }
+    Object[] add = data.batchResults.get(key);
+
+    // Every row gets its own copy, the values are converted in place
+    //
+    return add == null ? null : add.clone();
+  }
+
+  private static boolean hasNullValue(Object[] lookupRow) {
+    for (Object value : lookupRow) {
+      if (value == null) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   private void loadAllTableDataIntoTheCache() throws HopException {
     DatabaseMeta dbMeta = getPipelineMeta().findDatabase(meta.getConnection(), variables);
 
@@ -512,15 +837,18 @@ public class DatabaseLookup extends BaseTransform<DatabaseLookupMeta, DatabaseLo
         sql += " ORDER BY " + lookup.getOrderByClause();
       }
 
-      // Now that we have the SQL constructed, let's store the rows...
+      // Now that we have the SQL constructed, let's store the rows as they are read.
+      // The result set is fetched in blocks, the table is never kept as a list next to the cache.
       //
-      List<Object[]> rows = db.getRows(sql, 0);
-      if (rows != null && !rows.isEmpty()) {
+      ResultSet resultSet = db.openQuery(sql);
+      try {
         if (data.allEquals) {
-          putToDefaultCache(db, rows);
+          putToDefaultCache(db, resultSet);
         } else {
-          putToReadOnlyCache(db, rows);
+          putToReadOnlyCache(db, resultSet);
         }
+      } finally {
+        db.closeQuery(resultSet);
       }
     } catch (Exception e) {
       throw new HopException(e);
@@ -531,13 +859,14 @@ public class DatabaseLookup extends BaseTransform<DatabaseLookupMeta, DatabaseLo
     }
   }
 
-  private void putToDefaultCache(Database db, List<Object[]> rows) {
+  private void putToDefaultCache(Database db, ResultSet resultSet) throws HopException {
     final int keysAmount = meta.getLookup().getKeyFields().size();
     IRowMeta prototype = copyValueMetasFrom(db.getReturnRowMeta(), keysAmount);
 
     // Copy the data into 2 parts: key and value...
     //
-    for (Object[] row : rows) {
+    Object[] row;
+    while ((row = db.getRow(resultSet)) != null && !isStopped()) {
       int index = 0;
       // not sure it is efficient to re-create the same on every row,
       // but this was done earlier, so I'm keeping this behaviour
@@ -567,8 +896,8 @@ public class DatabaseLookup extends BaseTransform<DatabaseLookupMeta, DatabaseLo
     return result;
   }
 
-  private void putToReadOnlyCache(Database db, List<Object[]> rows) {
-    ReadAllCache.Builder cacheBuilder = new ReadAllCache.Builder(data, rows.size());
+  private void putToReadOnlyCache(Database db, ResultSet resultSet) throws HopException {
+    ReadAllCache.Builder cacheBuilder = new ReadAllCache.Builder(data);
 
     // all keys have the same row meta,
     // it is useless to re-create it each time
@@ -579,7 +908,8 @@ public class DatabaseLookup extends BaseTransform<DatabaseLookupMeta, DatabaseLo
     // Copy the data into 2 parts: key and value...
     //
     final int valuesAmount = data.returnMeta.size();
-    for (Object[] row : rows) {
+    Object[] row;
+    while ((row = db.getRow(resultSet)) != null && !isStopped()) {
       Object[] keyData = new Object[keysAmount];
       System.arraycopy(row, 0, keyData, 0, keysAmount);
 
@@ -589,7 +919,15 @@ public class DatabaseLookup extends BaseTransform<DatabaseLookupMeta, DatabaseLo
       cacheBuilder.add(keyData, valueData);
       incrementLinesInput();
     }
-    data.cache = cacheBuilder.build();
+    if (cacheBuilder.getSize() > 0) {
+      data.cache = cacheBuilder.build();
+      data.lookupCache = null;
+    }
+  }
+
+  @Override
+  public Map<IEngineMetric, Long> getCustomMetrics() {
+    return getCacheMetrics(data.lookupCache);
   }
 
   /** Stop the running query */
@@ -599,6 +937,9 @@ public class DatabaseLookup extends BaseTransform<DatabaseLookupMeta, DatabaseLo
     if (data.db != null && !data.isCanceled) {
       synchronized (data.db) {
         data.db.cancelQuery();
+        if (data.batchStatement != null) {
+          data.db.cancelStatement(data.batchStatement);
+        }
       }
       data.isCanceled = true;
     }
@@ -658,13 +999,26 @@ public class DatabaseLookup extends BaseTransform<DatabaseLookupMeta, DatabaseLo
   public void dispose() {
 
     if (data.db != null) {
+      if (data.batchStatement != null) {
+        try {
+          data.db.closePreparedStatement(data.batchStatement);
+        } catch (HopDatabaseException e) {
+          logError("Unexpected error closing statement : " + e.toString());
+        }
+      }
       data.db.disconnect();
     }
 
     // Recover memory immediately, allow in-memory data to be garbage collected
+    // The statistics of the cache are kept
     //
     data.cache = null;
+    if (data.lookupCache != null) {
+      data.lookupCache.clear();
+    }
     data.db = null;
+    data.batchStatement = null;
+    data.batchRows = null;
 
     super.dispose();
   }
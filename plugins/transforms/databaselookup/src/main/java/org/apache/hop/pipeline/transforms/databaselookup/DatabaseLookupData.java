@@ -17,16 +17,24 @@
 
 package org.apache.hop.pipeline.transforms.databaselookup;
 
+import org.apache.hop.core.RowMetaAndData;
+import org.apache.hop.core.cache.LookupCache;
 import org.apache.hop.core.database.Database;
 import org.apache.hop.core.exception.HopException;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.pipeline.transform.BaseTransformData;
 import org.apache.hop.pipeline.transform.ITransformData;
 
+import java.sql.PreparedStatement;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 public class DatabaseLookupData extends BaseTransformData implements ITransformData {
   public ICache cache;
+
+  /** The bounded cache of the default cache, kept to report its statistics */
+  public LookupCache<RowMetaAndData, Object[]> lookupCache;
   public Database db;
 
   public Object[] nullif; // Not found: default values...
@@ -45,6 +53,20 @@ public class DatabaseLookupData extends BaseTransformData implements ITransformD
   public String[] returnTrimTypes;
   public List<Integer> trimIndexes;
 
+  /** The number of rows to look up with a single query, 0 when looking up row by row */
+  public int batchSize;
+
+  public List<Object[]> batchRows;
+  public PreparedStatement batchStatement;
+  public IRowMeta batchParametersMeta;
+  public IRowMeta batchReturnRowMeta;
+
+  /** The rows found in the database for the keys of the current batch */
+  public Map<RowMetaAndData, Object[]> batchResults;
+
+  /** The keys of the current batch for which more than one row was found */
+  public Set<RowMetaAndData> batchDuplicateKeys;
+
   public DatabaseLookupData() {
     super();
 
@@ -64,6 +86,18 @@ public class DatabaseLookupData extends BaseTransformData implements ITransformD
      */
     Object[] getRowFromCache(IRowMeta lookupMeta, Object[] lookupRow) throws HopException;
 
+    /**
+     * Checks whether a data row matches the conditions without counting it as a use of the row.
+     *
+     * @param lookupMeta meta object for dealing with {@code lookupRow}
+     * @param lookupRow tuple containing values for comparison
+     * @return true if a matching data row is in the cache
+     * @throws HopException
+     */
+    default boolean isRowInCache(IRowMeta lookupMeta, Object[] lookupRow) throws HopException {
+      return getRowFromCache(lookupMeta, lookupRow) != null;
+    }
+
     /**
      * Saved {@code add} as data row and {@code lookupRow} as a key for searching it.
      *
@@ -21,6 +21,7 @@ import java.util.ArrayList;
 import java.util.List;
 import org.apache.commons.lang.StringUtils;
 import org.apache.hop.core.Const;
+import org.apache.hop.core.cache.CacheEvictionPolicy;
 import org.apache.hop.core.database.Database;
 import org.apache.hop.core.database.DatabaseMeta;
 import org.apache.hop.core.exception.HopException;
@@ -31,6 +32,7 @@ import org.apache.hop.core.row.value.ValueMetaFactory;
 import org.apache.hop.core.util.Utils;
 import org.apache.hop.core.variables.IVariables;
 import org.apache.hop.i18n.BaseMessages;
+import org.apache.hop.metadata.api.IEnumHasCodeAndDescription;
 import org.apache.hop.pipeline.PipelineMeta;
 import org.apache.hop.pipeline.transform.BaseTransformMeta;
 import org.apache.hop.pipeline.transform.ITransformDialog;
@@ -47,6 +49,7 @@ import org.apache.hop.ui.core.widget.TextVar;
 import org.apache.hop.ui.pipeline.transform.BaseTransformDialog;
 import org.apache.hop.ui.pipeline.transform.ITableItemInsertListener;
 import org.eclipse.swt.SWT;
+import org.eclipse.swt.custom.CCombo;
 import org.eclipse.swt.events.ModifyListener;
 import org.eclipse.swt.events.SelectionAdapter;
 import org.eclipse.swt.events.SelectionEvent;
@@ -73,6 +76,15 @@ public class DatabaseLookupDialog extends BaseTransformDialog implements ITransf
   private Label wlCachesize;
   private Text wCachesize;
 
+  private Label wlCacheMemorySize;
+  private Text wCacheMemorySize;
+
+  private Label wlCacheEvictionPolicy;
+  private CCombo wCacheEvictionPolicy;
+
+  private Label wlBatchSize;
+  private Text wBatchSize;
+
   private TableView wKey;
 
   private TextVar wSchema;
@@ -263,6 +275,54 @@ public class DatabaseLookupDialog extends BaseTransformDialog implements ITransf
     fdCachesize.top = new FormAttachment(wCache, margin);
     wCachesize.setLayoutData(fdCachesize);
 
+    // ICache memory size line
+    wlCacheMemorySize = new Label(shell, SWT.RIGHT);
+    wlCacheMemorySize.setText(
+        BaseMessages.getString(PKG, "DatabaseLookupDialog.CacheMemorySize.Label"));
+    wlCacheMemorySize.setToolTipText(
+        BaseMessages.getString(PKG, "DatabaseLookupDialog.CacheMemorySize.Tooltip"));
+    PropsUi.setLook(wlCacheMemorySize);
+    FormData fdlCacheMemorySize = new FormData();
+    fdlCacheMemorySize.left = new FormAttachment(0, 0);
+    fdlCacheMemorySize.right = new FormAttachment(middle, -margin);
+    fdlCacheMemorySize.top = new FormAttachment(wCachesize, margin);
+    wlCacheMemorySize.setLayoutData(fdlCacheMemorySize);
+    wCacheMemorySize = new Text(shell, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+    wCacheMemorySize.setToolTipText(
+        BaseMessages.getString(PKG, "DatabaseLookupDialog.CacheMemorySize.Tooltip"));
+    PropsUi.setLook(wCacheMemorySize);
+    wCacheMemorySize.addModifyListener(lsMod);
+    FormData fdCacheMemorySize = new FormData();
+    fdCacheMemorySize.left = new FormAttachment(middle, 0);
+    fdCacheMemorySize.right = new FormAttachment(100, 0);
+    fdCacheMemorySize.top = new FormAttachment(wCachesize, margin);
+    wCacheMemorySize.setLayoutData(fdCacheMemorySize);
+
+    // ICache eviction policy line
+    wlCacheEvictionPolicy = new Label(shell, SWT.RIGHT);
+    wlCacheEvictionPolicy.setText(
+        BaseMessages.getString(PKG, "DatabaseLookupDialog.CacheEvictionPolicy.Label"));
+    wlCacheEvictionPolicy.setToolTipText(
+        BaseMessages.getString(PKG, "DatabaseLookupDialog.CacheEvictionPolicy.Tooltip"));
+    PropsUi.setLook(wlCacheEvictionPolicy);
+    FormData fdlCacheEvictionPolicy = new FormData();
+    fdlCacheEvictionPolicy.left = new FormAttachment(0, 0);
+    fdlCacheEvictionPolicy.right = new FormAttachment(middle, -margin);
+    fdlCacheEvictionPolicy.top = new FormAttachment(wCacheMemorySize, margin);
+    wlCacheEvictionPolicy.setLayoutData(fdlCacheEvictionPolicy);
+    wCacheEvictionPolicy = new CCombo(shell, SWT.SINGLE | SWT.READ_ONLY | SWT.BORDER);
+    wCacheEvictionPolicy.setItems(
+        IEnumHasCodeAndDescription.getDescriptions(CacheEvictionPolicy.class));
+    wCacheEvictionPolicy.setToolTipText(
+        BaseMessages.getString(PKG, "DatabaseLookupDialog.CacheEvictionPolicy.Tooltip"));
+    PropsUi.setLook(wCacheEvictionPolicy);
+    wCacheEvictionPolicy.addModifyListener(lsMod);
+    FormData fdCacheEvictionPolicy = new FormData();
+    fdCacheEvictionPolicy.left = new FormAttachment(middle, 0);
+    fdCacheEvictionPolicy.right = new FormAttachment(100, 0);
+    fdCacheEvictionPolicy.top = new FormAttachment(wCacheMemorySize, margin);
+    wCacheEvictionPolicy.setLayoutData(fdCacheEvictionPolicy);
+
     // ICache : Load all?
     wlCacheLoadAll = new Label(shell, SWT.RIGHT);
     wlCacheLoadAll.setText(BaseMessages.getString(PKG, "DatabaseLookupDialog.CacheLoadAll.Label"));
@@ -270,7 +330,7 @@ public class DatabaseLookupDialog extends BaseTransformDialog implements ITransf
     FormData fdlCacheLoadAll = new FormData();
     fdlCacheLoadAll.left = new FormAttachment(0, 0);
     fdlCacheLoadAll.right = new FormAttachment(middle, -margin);
-    fdlCacheLoadAll.top = new FormAttachment(wCachesize, margin);
+    fdlCacheLoadAll.top = new FormAttachment(wCacheEvictionPolicy, margin);
     wlCacheLoadAll.setLayoutData(fdlCacheLoadAll);
     wCacheLoadAll = new Button(shell, SWT.CHECK);
     PropsUi.setLook(wCacheLoadAll);
@@ -287,12 +347,34 @@ public class DatabaseLookupDialog extends BaseTransformDialog implements ITransf
           }
         });
 
+    // Lookup batch size line
+    wlBatchSize = new Label(shell, SWT.RIGHT);
+    wlBatchSize.setText(BaseMessages.getString(PKG, "DatabaseLookupDialog.BatchSize.Label"));
+    wlBatchSize.setToolTipText(
+        BaseMessages.getString(PKG, "DatabaseLookupDialog.BatchSize.Tooltip"));
+    PropsUi.setLook(wlBatchSize);
+    FormData fdlBatchSize = new FormData();
+    fdlBatchSize.left = new FormAttachment(0, 0);
+    fdlBatchSize.right = new FormAttachment(middle, -margin);
+    fdlBatchSize.top = new FormAttachment(wCacheLoadAll, margin);
+    wlBatchSize.setLayoutData(fdlBatchSize);
+    wBatchSize = new Text(shell, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+    wBatchSize.setToolTipText(
+        BaseMessages.getString(PKG, "DatabaseLookupDialog.BatchSize.Tooltip"));
+    PropsUi.setLook(wBatchSize);
+    wBatchSize.addModifyListener(lsMod);
+    FormData fdBatchSize = new FormData();
+    fdBatchSize.left = new FormAttachment(middle, 0);
+    fdBatchSize.right = new FormAttachment(100, 0);
+    fdBatchSize.top = new FormAttachment(wCacheLoadAll, margin);
+    wBatchSize.setLayoutData(fdBatchSize);
+
     Label wlKey = new Label(shell, SWT.NONE);
     wlKey.setText(BaseMessages.getString(PKG, "DatabaseLookupDialog.Keys.Label"));
     PropsUi.setLook(wlKey);
     FormData fdlKey = new FormData();
     fdlKey.left = new FormAttachment(0, 0);
-    fdlKey.top = new FormAttachment(wCacheLoadAll, margin);
+    fdlKey.top = new FormAttachment(wBatchSize, margin);
     wlKey.setLayoutData(fdlKey);
 
     int nrKeyCols = 4;
@@ -574,8 +656,14 @@ public class DatabaseLookupDialog extends BaseTransformDialog implements ITransf
 
     wCachesize.setEnabled(wCache.getSelection() && !wCacheLoadAll.getSelection());
     wlCachesize.setEnabled(wCache.getSelection() && !wCacheLoadAll.getSelection());
+    wCacheMemorySize.setEnabled(wCache.getSelection() && !wCacheLoadAll.getSelection());
+    wlCacheMemorySize.setEnabled(wCache.getSelection() && !wCacheLoadAll.getSelection());
+    wCacheEvictionPolicy.setEnabled(wCache.getSelection() && !wCacheLoadAll.getSelection());
+    wlCacheEvictionPolicy.setEnabled(wCache.getSelection() && !wCacheLoadAll.getSelection());
     wCacheLoadAll.setEnabled(wCache.getSelection());
     wlCacheLoadAll.setEnabled(wCache.getSelection());
+    wBatchSize.setEnabled(!wCache.getSelection() || !wCacheLoadAll.getSelection());
+    wlBatchSize.setEnabled(!wCache.getSelection() || !wCacheLoadAll.getSelection());
     wFailMultiple.setEnabled(!wCache.getSelection());
     wlFailMultiple.setEnabled(!wCache.getSelection());
   }
@@ -586,7 +674,11 @@ public class DatabaseLookupDialog extends BaseTransformDialog implements ITransf
 
     wCache.setSelection(input.isCached());
     wCachesize.setText("" + input.getCacheSize());
+    wCacheMemorySize.setText("" + input.getCacheMemorySize());
+    wCacheEvictionPolicy.setText(
+        CacheEvictionPolicy.lookupCode(input.getCacheEvictionPolicy()).getDescription());
     wCacheLoadAll.setSelection(input.isLoadingAllDataInCache());
+    wBatchSize.setText("" + input.getLookupBatchSize());
 
     Lookup lookup = input.getLookup();
 
@@ -649,6 +741,12 @@ public class DatabaseLookupDialog extends BaseTransformDialog implements ITransf
 
     input.setCached(wCache.getSelection());
     input.setCacheSize(Const.toInt(wCachesize.getText(), 0));
+    input.setCacheMemorySize(Const.toInt(wCacheMemorySize.getText(), 0));
+    input.setCacheEvictionPolicy(
+        IEnumHasCodeAndDescription.lookupDescription(
+                CacheEvictionPolicy.class, wCacheEvictionPolicy.getText(), CacheEvictionPolicy.LRU)
+            .getCode());
+    input.setLookupBatchSize(Const.toInt(wBatchSize.getText(), 0));
     input.setLoadingAllDataInCache(wCacheLoadAll.getSelection());
 
     for (TableItem item : wKey.getNonEmptyItems()) {
@@ -23,6 +23,7 @@ import org.apache.hop.core.Const;
 import org.apache.hop.core.ICheckResult;
 import org.apache.hop.core.IProvidesModelerMeta;
 import org.apache.hop.core.annotations.Transform;
+import org.apache.hop.core.cache.CacheEvictionPolicy;
 import org.apache.hop.core.database.Database;
 import org.apache.hop.core.database.DatabaseMeta;
 import org.apache.hop.core.exception.HopDatabaseException;
@@ -99,17 +100,39 @@ public class DatabaseLookupMeta extends BaseTransformMeta<DatabaseLookup, Databa
       injectionKeyDescription = "DatabaseLookupMeta.Injection.CacheLoadAll")
   private boolean loadingAllDataInCache;
 
+  /** The code of the way to pick the entries to remove from a full cache */
+  @HopMetadataProperty(
+      key = "cache_eviction_policy",
+      injectionKeyDescription = "DatabaseLookupMeta.Injection.CacheEvictionPolicy")
+  private String cacheEvictionPolicy;
+
+  /** Limit the estimated memory of the cache to this number of MB, 0 for no limit */
+  @HopMetadataProperty(
+      key = "cache_memory_size",
+      injectionKeyDescription = "DatabaseLookupMeta.Injection.CacheMemorySize")
+  private int cacheMemorySize;
+
+  /** Look up the keys which are not in the cache with a single query per batch of rows */
+  @HopMetadataProperty(
+      key = "lookup_batch_size",
+      injectionKeyDescription = "DatabaseLookupMeta.Injection.LookupBatchSize")
+  private int lookupBatchSize;
+
   @HopMetadataProperty(key = "lookup")
   private Lookup lookup;
 
   public DatabaseLookupMeta() {
     lookup = new Lookup();
+    cacheEvictionPolicy = CacheEvictionPolicy.LRU.getCode();
   }
 
   public DatabaseLookupMeta(DatabaseLookupMeta m) {
     this.cached = m.cached;
     this.cacheSize = m.cacheSize;
     this.loadingAllDataInCache = m.loadingAllDataInCache;
+    this.cacheEvictionPolicy = m.cacheEvictionPolicy;
+    this.cacheMemorySize = m.cacheMemorySize;
+    this.lookupBatchSize = m.lookupBatchSize;
     this.lookup = new Lookup(m.lookup);
   }
 
@@ -558,6 +581,54 @@ public class DatabaseLookupMeta extends BaseTransformMeta<DatabaseLookup, Databa
     this.loadingAllDataInCache = loadingAllDataInCache;
   }
 
+  /**
+   * Gets cacheEvictionPolicy
+   *
+   * @return the code of the cache eviction policy
+   */
+  public String getCacheEvictionPolicy() {
+    return cacheEvictionPolicy;
+  }
+
+  /**
+   * @param cacheEvictionPolicy The code of the cache eviction policy to set
+   */
+  public void setCacheEvictionPolicy(String cacheEvictionPolicy) {
+    this.cacheEvictionPolicy = cacheEvictionPolicy;
+  }
+
+  /**
+   * Gets cacheMemorySize
+   *
+   * @return the maximum estimated memory of the cache in MB, 0 for no limit
+   */
+  public int getCacheMemorySize() {
+    return cacheMemorySize;
+  }
+
+  /**
+   * @param cacheMemorySize The maximum estimated memory of the cache in MB to set
+   */
+  public void setCacheMemorySize(int cacheMemorySize) {
+    this.cacheMemorySize = cacheMemorySize;
+  }
+
+  /**
+   * Gets lookupBatchSize
+   *
+   * @return value of lookupBatchSize
+   */
+  public int getLookupBatchSize() {
+    return lookupBatchSize;
+  }
+
+  /**
+   * @param lookupBatchSize The lookupBatchSize to set
+   */
+  public void setLookupBatchSize(int lookupBatchSize) {
+    this.lookupBatchSize = lookupBatchSize;
+  }
+
   /**
    * Gets lookup
    *
@@ -18,35 +18,64 @@
 package org.apache.hop.pipeline.transforms.databaselookup;
 
 import org.apache.hop.core.RowMetaAndData;
-import org.apache.hop.core.TimedRow;
+import org.apache.hop.core.cache.CacheEvictionPolicy;
+import org.apache.hop.core.cache.LookupCache;
+import org.apache.hop.core.cache.RowSizeEstimator;
 import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.exception.HopValueException;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.core.row.IValueMeta;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Date;
-import java.util.LinkedHashMap;
-import java.util.List;
-
-/** Old code, copied from {@linkplain DatabaseLookup} */
+/**
+ * Caches the looked up rows by key in a {@link LookupCache}, bounded by the cache size and memory
+ * size of the transform. The rows loaded at startup are never evicted.
+ */
 public class DefaultCache implements DatabaseLookupData.ICache {
 
-  public static DefaultCache newCache(DatabaseLookupData data, int cacheSize) {
-    if (cacheSize > 0) {
-      cacheSize = (int) (cacheSize * 1.5);
-    } else {
-      cacheSize = 16;
+  private static final long MEGABYTE = 1024L * 1024L;
+
+  /**
+   * Create a cache with the limits and eviction policy of the transform
+   *
+   * @param data the transform data
+   * @param meta the transform metadata
+   * @return the new cache
+   */
+  public static DefaultCache newCache(DatabaseLookupData data, DatabaseLookupMeta meta) {
+    if (meta.isLoadingAllDataInCache()) {
+      return new DefaultCache(data, new LookupCache<>(CacheEvictionPolicy.LRU, 0));
     }
-    return new DefaultCache(data, cacheSize);
+    return new DefaultCache(
+        data,
+        new LookupCache<>(
+            CacheEvictionPolicy.lookupCode(meta.getCacheEvictionPolicy()),
+            meta.getCacheSize(),
+            meta.getCacheMemorySize() * MEGABYTE,
+            DefaultCache::estimateSize));
+  }
+
+  /**
+   * Create a least recently used cache
+   *
+   * @param data the transform data
+   * @param cacheSize the maximum number of rows in the cache, 0 for no limit
+   * @return the new cache
+   */
+  public static DefaultCache newCache(DatabaseLookupData data, int cacheSize) {
+    return new DefaultCache(data, new LookupCache<>(CacheEvictionPolicy.LRU, cacheSize));
   }
 
   private final DatabaseLookupData data;
-  private final LinkedHashMap<RowMetaAndData, TimedRow> map;
+  private final LookupCache<RowMetaAndData, Object[]> cache;
 
-  DefaultCache(DatabaseLookupData data, int capacity) {
+  DefaultCache(DatabaseLookupData data, LookupCache<RowMetaAndData, Object[]> cache) {
     this.data = data;
-    map = new LinkedHashMap<>(capacity);
+    this.cache = cache;
+  }
+
+  private static long estimateSize(RowMetaAndData key, Object[] value) {
+    // The key, its row and the entry of the cache
+    return 96 + RowSizeEstimator.estimateSize(key.getData()) + RowSizeEstimator.estimateSize(value);
   }
 
   @Override
@@ -54,82 +83,84 @@ public class DefaultCache implements DatabaseLookupData.ICache {
     if (data.allEquals) {
       // only do the map lookup when all equals otherwise conditions >, <, <> will give wrong
       // results
-      TimedRow timedRow = map.get(new RowMetaAndData(data.lookupMeta, lookupRow));
-      if (timedRow != null) {
-        return timedRow.getRow();
-      }
+      return cache.get(new RowMetaAndData(data.lookupMeta, lookupRow));
     } else { // special handling of conditions <,>, <> etc.
       if (!data.hasDBCondition) { // e.g. LIKE not handled by this routine, yet
         // TODO: find an alternative way to look up the data based on the condition.
         // Not all conditions are "=" so we are going to have to evaluate row by row
         // A sorted list or index might be a good solution here...
         //
-        for (RowMetaAndData key : map.keySet()) {
-          // Now verify that the key is matching our conditions...
-          //
-          boolean match = true;
-          int lookupIndex = 0;
-          for (int i = 0; i < data.conditions.length && match; i++) {
-            IValueMeta cmpMeta = lookupMeta.getValueMeta(lookupIndex);
-            Object cmpData = lookupRow[lookupIndex];
-            IValueMeta keyMeta = key.getValueMeta(i);
-            Object keyData = key.getData()[i];
+        return cache.find((key, value) -> matches(lookupMeta, lookupRow, key));
+      }
+    }
+    return null;
+  }
 
-            switch (data.conditions[i]) {
-              case DatabaseLookupMeta.CONDITION_EQ:
-                match = (cmpMeta.compare(cmpData, keyMeta, keyData) == 0);
-                break;
-              case DatabaseLookupMeta.CONDITION_NE:
-                match = (cmpMeta.compare(cmpData, keyMeta, keyData) != 0);
-                break;
-              case DatabaseLookupMeta.CONDITION_LT:
-                match = (cmpMeta.compare(cmpData, keyMeta, keyData) > 0);
-                break;
-              case DatabaseLookupMeta.CONDITION_LE:
-                match = (cmpMeta.compare(cmpData, keyMeta, keyData) >= 0);
-                break;
-              case DatabaseLookupMeta.CONDITION_GT:
-                match = (cmpMeta.compare(cmpData, keyMeta, keyData) < 0);
-                break;
-              case DatabaseLookupMeta.CONDITION_GE:
-                match = (cmpMeta.compare(cmpData, keyMeta, keyData) <= 0);
-                break;
-              case DatabaseLookupMeta.CONDITION_IS_NULL:
-                match = keyMeta.isNull(keyData);
-                break;
-              case DatabaseLookupMeta.CONDITION_IS_NOT_NULL:
-                match = !keyMeta.isNull(keyData);
-                break;
-              case DatabaseLookupMeta.CONDITION_BETWEEN:
-                // Between key >= cmp && key <= cmp2
-                IValueMeta cmpMeta2 = lookupMeta.getValueMeta(lookupIndex + 1);
-                Object cmpData2 = lookupRow[lookupIndex + 1];
-                match = (keyMeta.compare(keyData, cmpMeta, cmpData) >= 0);
-                if (match) {
-                  match = (keyMeta.compare(keyData, cmpMeta2, cmpData2) <= 0);
-                }
-                lookupIndex++;
-                break;
-                // TODO: add LIKE operator (think of changing the hasDBCondition logic then)
-              default:
-                match = false;
-                data.hasDBCondition =
-                    true; // avoid looping in here the next time, also safety when a new condition
-                // will be introduced
-                break;
-            }
-            lookupIndex++;
-          }
+  /** Verify that the key is matching our conditions... */
+  private boolean matches(IRowMeta lookupMeta, Object[] lookupRow, RowMetaAndData key)
+      throws HopValueException {
+    boolean match = true;
+    int lookupIndex = 0;
+    for (int i = 0; i < data.conditions.length && match; i++) {
+      IValueMeta cmpMeta = lookupMeta.getValueMeta(lookupIndex);
+      Object cmpData = lookupRow[lookupIndex];
+      IValueMeta keyMeta = key.getValueMeta(i);
+      Object keyData = key.getData()[i];
+
+      switch (data.conditions[i]) {
+        case DatabaseLookupMeta.CONDITION_EQ:
+          match = (cmpMeta.compare(cmpData, keyMeta, keyData) == 0);
+          break;
+        case DatabaseLookupMeta.CONDITION_NE:
+          match = (cmpMeta.compare(cmpData, keyMeta, keyData) != 0);
+          break;
+        case DatabaseLookupMeta.CONDITION_LT:
+          match = (cmpMeta.compare(cmpData, keyMeta, keyData) > 0);
+          break;
+        case DatabaseLookupMeta.CONDITION_LE:
+          match = (cmpMeta.compare(cmpData, keyMeta, keyData) >= 0);
+          break;
+        case DatabaseLookupMeta.CONDITION_GT:
+          match = (cmpMeta.compare(cmpData, keyMeta, keyData) < 0);
+          break;
+        case DatabaseLookupMeta.CONDITION_GE:
+          match = (cmpMeta.compare(cmpData, keyMeta, keyData) <= 0);
+          break;
+        case DatabaseLookupMeta.CONDITION_IS_NULL:
+          match = keyMeta.isNull(keyData);
+          break;
+        case DatabaseLookupMeta.CONDITION_IS_NOT_NULL:
+          match = !keyMeta.isNull(keyData);
+          break;
+        case DatabaseLookupMeta.CONDITION_BETWEEN:
+          // Between key >= cmp && key <= cmp2
+          IValueMeta cmpMeta2 = lookupMeta.getValueMeta(lookupIndex + 1);
+          Object cmpData2 = lookupRow[lookupIndex + 1];
+          match = (keyMeta.compare(keyData, cmpMeta, cmpData) >= 0);
           if (match) {
-            TimedRow timedRow = map.get(key);
-            if (timedRow != null) {
-              return timedRow.getRow();
-            }
+            match = (keyMeta.compare(keyData, cmpMeta2, cmpData2) <= 0);
           }
-        }
+          lookupIndex++;
+          break;
+          // TODO: add LIKE operator (think of changing the hasDBCondition logic then)
+        default:
+          match = false;
+          data.hasDBCondition =
+              true; // avoid looping in here the next time, also safety when a new condition
+          // will be introduced
+          break;
       }
+      lookupIndex++;
     }
-    return null;
+    return match;
+  }
+
+  @Override
+  public boolean isRowInCache(IRowMeta lookupMeta, Object[] lookupRow) throws HopException {
+    if (data.allEquals) {
+      return cache.containsKey(new RowMetaAndData(data.lookupMeta, lookupRow));
+    }
+    return getRowFromCache(lookupMeta, lookupRow) != null;
   }
 
   @Override
@@ -144,46 +175,18 @@ public class DefaultCache implements DatabaseLookupData.ICache {
     // * Additionally, if using the load all data feature, re-inserting would reverse the order
     // * specified in the transform.
     // */
-    map.put(rowMetaAndData, new TimedRow(add));
-
-    // See if we have to limit the cache_size.
-    // Sample 10% of the rows in the cache.
-    // Remove everything below the second lowest date.
-    // That should on average remove more than 10% of the entries
-    // It's not exact science, but it will be faster than the old algorithm
-
-    // 2009-02-01: If you had previously set a cache size and then turned on load all,
-    // this
-    // method would throw out entries if the previous cache size wasn't big enough.
-    if (!meta.isLoadingAllDataInCache()
-        && meta.getCacheSize() > 0
-        && map.size() > meta.getCacheSize()) {
-      List<RowMetaAndData> keys = new ArrayList<>(map.keySet());
-      List<Date> samples = new ArrayList<>();
-      int incr = keys.size() / 10;
-      if (incr == 0) {
-        incr = 1;
-      }
-      for (int k = 0; k < keys.size(); k += incr) {
-        RowMetaAndData key = keys.get(k);
-        TimedRow timedRow = map.get(key);
-        samples.add(timedRow.getLogDate());
-      }
-
-      Collections.sort(samples);
-
-      if (samples.size() > 1) {
-        Date smallest = samples.get(1);
-
-        // Everything below the smallest date goes away...
-        for (RowMetaAndData key : keys) {
-          TimedRow timedRow = map.get(key);
+    //
+    // The cache evicts entries itself once it's full
+    //
+    cache.put(rowMetaAndData, add);
+  }
 
-          if (timedRow.getLogDate().compareTo(smallest) < 0) {
-            map.remove(key);
-          }
-        }
-      }
-    }
+  /**
+   * Gets cache
+   *
+   * @return the cache with the statistics of its use
+   */
+  public LookupCache<RowMetaAndData, Object[]> getLookupCache() {
+    return cache;
   }
 }
@@ -42,9 +42,9 @@ class EqIndex extends Index {
   @Override
   void doApply(SearchingContext context, IValueMeta lookupMeta, Object lookupValue)
       throws HopException {
-    int firstValue = findInsertionPointOf(new IndexedValue(lookupValue, -1));
-    final int length = values.length;
-    if (firstValue == length || valueMeta.compare(values[firstValue].key, lookupValue) != 0) {
+    int firstValue = findInsertionPointOf(lookupValue, -1);
+    final int length = rows.length;
+    if (firstValue == length || valueMeta.compare(keyAt(firstValue), lookupValue) != 0) {
       // nothing was found
       if (isMatchingNonEquality) {
         // everything is acceptable, just do nothing
@@ -53,10 +53,10 @@ class EqIndex extends Index {
       context.setEmpty();
     } else {
       BitSet bitSet = context.getWorkingSet();
-      bitSet.set(values[firstValue].row, true);
+      bitSet.set(rows[firstValue], true);
       int lastValue = firstValue + 1;
-      while (lastValue != length && valueMeta.compare(values[lastValue].key, lookupValue) == 0) {
-        bitSet.set(values[lastValue].row, true);
+      while (lastValue != length && valueMeta.compare(keyAt(lastValue), lookupValue) == 0) {
+        bitSet.set(rows[lastValue], true);
         lastValue++;
       }
 
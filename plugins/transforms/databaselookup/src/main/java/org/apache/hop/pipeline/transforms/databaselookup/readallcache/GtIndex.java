@@ -17,6 +17,7 @@
 
 package org.apache.hop.pipeline.transforms.databaselookup.readallcache;
 
+import org.apache.hop.core.exception.HopException;
 import org.apache.hop.core.row.IValueMeta;
 
 import java.util.BitSet;
@@ -39,9 +40,10 @@ class GtIndex extends Index {
   }
 
   @Override
-  void doApply(SearchingContext context, IValueMeta lookupMeta, Object lookupValue) {
-    int firstValue = findInsertionPointOf(new IndexedValue(lookupValue, Integer.MAX_VALUE));
-    final int length = values.length;
+  void doApply(SearchingContext context, IValueMeta lookupMeta, Object lookupValue)
+      throws HopException {
+    int firstValue = findInsertionPointOf(lookupValue, Integer.MAX_VALUE);
+    final int length = rows.length;
     if (firstValue == length) {
       // everything is less than lookupValue
       if (isMatchingLessOrEqual) {
@@ -63,7 +65,7 @@ class GtIndex extends Index {
       }
 
       for (int i = start; i < end; i++) {
-        bitSet.set(values[i].row, true);
+        bitSet.set(rows[i], true);
       }
 
       context.intersect(bitSet, (start == 0) ^ isMatchingLessOrEqual);
@@ -21,44 +21,124 @@ import org.apache.hop.core.exception.HopException;
 import org.apache.hop.core.exception.HopValueException;
 import org.apache.hop.core.row.IValueMeta;
 
-import java.util.Arrays;
 import java.util.Comparator;
 
+/**
+ * A sorted index over one key column of {@linkplain ReadAllCache}. The index only keeps the row
+ * numbers in the order of their keys, the keys themselves stay in the column they were read in.
+ * Row numbers are used as the second dimension of the order, so that equal keys are kept in the
+ * order of the rows.
+ */
 abstract class Index {
 
   final int column;
   final IValueMeta valueMeta;
-  final IndexedValue[] values;
+
+  /** The keys of the column by row number */
+  Object[] keys;
+
+  /** The row numbers sorted by their keys */
+  final int[] rows;
 
   Index(int column, IValueMeta valueMeta, int rowsAmount) {
     this.column = column;
     this.valueMeta = valueMeta;
-    this.values = new IndexedValue[rowsAmount];
+    this.rows = new int[rowsAmount];
   }
 
-  Comparator<IndexedValue> createComparator() {
-    return new IndexValueComparator(valueMeta);
+  /**
+   * Compares two keys, using the row numbers when the keys are equal.
+   *
+   * @param key1 the first key
+   * @param row1 the row of the first key
+   * @param key2 the second key
+   * @param row2 the row of the second key
+   * @return the order of the keys
+   * @throws HopValueException in case the keys can't be compared
+   */
+  int compare(Object key1, int row1, Object key2, int row2) throws HopValueException {
+    // does not expect nulls here!
+    int c = valueMeta.compare(key1, key2);
+    return (c == 0) ? Integer.compare(row1, row2) : c;
   }
 
   void performIndexingOf(Object[][] rows) {
+    Object[] columnKeys = new Object[rows.length];
     for (int i = 0, len = rows.length; i < len; i++) {
-      values[i] = new IndexedValue(rows[i][column], i);
+      columnKeys[i] = rows[i][column];
+    }
+    performIndexingOfColumn(columnKeys);
+  }
+
+  /**
+   * Sorts the rows of the column using meta to compare and row number as second dimension
+   *
+   * @param columnKeys the keys of the column by row number
+   */
+  void performIndexingOfColumn(Object[] columnKeys) {
+    this.keys = columnKeys;
+    for (int i = 0; i < rows.length; i++) {
+      rows[i] = i;
+    }
+    try {
+      mergeSort(rows.clone(), rows, 0, rows.length);
+    } catch (HopValueException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  private void mergeSort(int[] src, int[] dest, int from, int to) throws HopValueException {
+    if (to - from < 2) {
+      return;
+    }
+    int middle = (from + to) >>> 1;
+    mergeSort(dest, src, from, middle);
+    mergeSort(dest, src, middle, to);
+
+    int left = from;
+    int right = middle;
+    for (int i = from; i < to; i++) {
+      if (right >= to
+          || (left < middle
+              && compare(keys[src[left]], src[left], keys[src[right]], src[right]) <= 0)) {
+        dest[i] = src[left++];
+      } else {
+        dest[i] = src[right++];
+      }
     }
-    // sort values using meta to compare and row number as seconds dimension
-    Arrays.sort(values, createComparator());
   }
 
   /**
-   * Performs binary search algorithm looking for {@code value} in the sorted array and returns
-   * decoded index of insertion (decoded index returned by Arrays.binarySearch())
+   * Performs binary search algorithm looking for {@code value} in the sorted rows and returns the
+   * index of insertion
    *
    * @param value value to look for
-   * @return decoded index
+   * @param row the row number to compare with when a key is equal to the value
+   * @return index of insertion
    */
-  int findInsertionPointOf(IndexedValue value) {
-    int index = Arrays.binarySearch(values, value, createComparator());
-    // index == ( -insertion_point - 1)
-    return -(index + 1);
+  int findInsertionPointOf(Object value, int row) throws HopValueException {
+    int low = 0;
+    int high = rows.length - 1;
+    while (low <= high) {
+      int middle = (low + high) >>> 1;
+      int c = compare(keys[rows[middle]], rows[middle], value, row);
+      if (c < 0) {
+        low = middle + 1;
+      } else if (c > 0) {
+        high = middle - 1;
+      } else {
+        return middle;
+      }
+    }
+    return low;
+  }
+
+  /**
+   * @param position the position in the sorted index
+   * @return the key at the position
+   */
+  Object keyAt(int position) {
+    return keys[rows[position]];
   }
 
   public int getColumn() {
@@ -89,36 +169,4 @@ abstract class Index {
   static Comparator<Index> restrictionComparator() {
     return (o1, o2) -> Integer.compare(o1.getRestrictionPower(), o2.getRestrictionPower());
   }
-
-  static class IndexedValue {
-    final Object key;
-    final int row;
-
-    public IndexedValue(Object key, int row) {
-      this.key = key;
-      this.row = row;
-    }
-  }
-
-  static class IndexValueComparator implements Comparator<IndexedValue> {
-
-    private final IValueMeta meta;
-
-    public IndexValueComparator(IValueMeta meta) {
-      this.meta = meta;
-    }
-
-    @Override
-    public int compare(IndexedValue o1, IndexedValue o2) {
-      // does not expect nulls here!
-      int c;
-      try {
-        c = meta.compare(o1.key, o2.key);
-      } catch (HopValueException e) {
-        throw new RuntimeException(e);
-      }
-
-      return (c == 0) ? Integer.compare(o1.row, o2.row) : c;
-    }
-  }
 }
@@ -18,12 +18,12 @@
 package org.apache.hop.pipeline.transforms.databaselookup.readallcache;
 
 import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.exception.HopValueException;
 import org.apache.hop.core.row.IValueMeta;
 
 import java.util.BitSet;
-import java.util.Comparator;
 
-class IsNullIndex extends Index implements Comparator<Index.IndexedValue> {
+class IsNullIndex extends Index {
 
   private final boolean isMatchingNull;
 
@@ -32,22 +32,17 @@ class IsNullIndex extends Index implements Comparator<Index.IndexedValue> {
     this.isMatchingNull = isMatchingNull;
   }
 
-  @Override
-  Comparator<IndexedValue> createComparator() {
-    return this;
-  }
-
   @Override
   void doApply(SearchingContext context, IValueMeta lookupMeta, Object lookupValue)
       throws HopException {
     int artificialRow = isMatchingNull ? Integer.MAX_VALUE : -1;
 
-    int afterLastValue = findInsertionPointOf(new IndexedValue(null, artificialRow));
+    int afterLastValue = findInsertionPointOf(null, artificialRow);
     if (afterLastValue == 0) {
       // no matching values
       context.setEmpty();
     } else {
-      int length = values.length;
+      int length = rows.length;
 
       int start;
       int end;
@@ -61,7 +56,7 @@ class IsNullIndex extends Index implements Comparator<Index.IndexedValue> {
 
       BitSet bitSet = context.getWorkingSet();
       for (int i = start; i < end; i++) {
-        bitSet.set(values[i].row, true);
+        bitSet.set(rows[i], true);
       }
 
       context.intersect(bitSet, (start != 0));
@@ -74,36 +69,32 @@ class IsNullIndex extends Index implements Comparator<Index.IndexedValue> {
   }
 
   @Override
-  public int compare(IndexedValue o1, IndexedValue o2) {
+  int compare(Object key1, int row1, Object key2, int row2) throws HopValueException {
     // to unify doApply() routing for both cases, the order depends on isMatchingNull:
     //   isMatchingNull == true  --> nulls are first
     //   isMatchingNull == false --> nulls are last
     // regardless the flag's value, rows' order is kept
-    try {
-      boolean null1 = valueMeta.isNull(o1.key);
-      boolean null2 = valueMeta.isNull(o2.key);
+    boolean null1 = valueMeta.isNull(key1);
+    boolean null2 = valueMeta.isNull(key2);
 
-      int c;
-      if (null1) {
-        if (null2) {
-          c = 0;
-        } else {
-          c = -1;
-        }
+    int c;
+    if (null1) {
+      if (null2) {
+        c = 0;
       } else {
-        if (null2) {
-          c = 1;
-        } else {
-          c = 0;
-        }
+        c = -1;
       }
-      if (c == 0) {
-        return Integer.compare(o1.row, o2.row);
+    } else {
+      if (null2) {
+        c = 1;
       } else {
-        return isMatchingNull ? c : -c;
+        c = 0;
       }
-    } catch (HopException e) {
-      throw new RuntimeException(e);
+    }
+    if (c == 0) {
+      return Integer.compare(row1, row2);
+    } else {
+      return isMatchingNull ? c : -c;
     }
   }
 }
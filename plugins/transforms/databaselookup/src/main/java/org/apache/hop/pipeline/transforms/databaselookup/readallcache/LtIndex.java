@@ -17,6 +17,7 @@
 
 package org.apache.hop.pipeline.transforms.databaselookup.readallcache;
 
+import org.apache.hop.core.exception.HopException;
 import org.apache.hop.core.row.IValueMeta;
 
 import java.util.BitSet;
@@ -40,8 +41,9 @@ class LtIndex extends Index {
   }
 
   @Override
-  void doApply(SearchingContext context, IValueMeta lookupMeta, Object lookupValue) {
-    int firstValue = findInsertionPointOf(new IndexedValue(lookupValue, -1));
+  void doApply(SearchingContext context, IValueMeta lookupMeta, Object lookupValue)
+      throws HopException {
+    int firstValue = findInsertionPointOf(lookupValue, -1);
     if (firstValue == 0) {
       // everything is greater than lookupValue
       if (isMatchingGreaterOrEqual) {
@@ -54,16 +56,16 @@ class LtIndex extends Index {
 
       int start;
       int end;
-      if (firstValue < values.length / 2) {
+      if (firstValue < rows.length / 2) {
         start = 0;
         end = firstValue;
       } else {
         start = firstValue;
-        end = values.length;
+        end = rows.length;
       }
 
       for (int i = start; i < end; i++) {
-        bitSet.set(values[i].row, true);
+        bitSet.set(rows[i], true);
       }
 
       context.intersect(bitSet, (start != 0) ^ isMatchingGreaterOrEqual);
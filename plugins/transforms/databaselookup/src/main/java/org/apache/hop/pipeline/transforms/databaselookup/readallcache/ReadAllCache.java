@@ -24,6 +24,7 @@ import org.apache.hop.pipeline.transforms.databaselookup.DatabaseLookupData;
 import org.apache.hop.pipeline.transforms.databaselookup.DatabaseLookupMeta;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.BitSet;
 import java.util.List;
 import java.util.PriorityQueue;
@@ -32,13 +33,20 @@ import java.util.PriorityQueue;
  * This is a read-only array-based cache to be used in {@linkplain
  * org.apache.hop.pipeline.transforms.databaselookup.DatabaseLookup DatabaseLookup} when "Load All
  * Data In ICache" checkbox is selected. Internally, it uses some optimizations to reduce memory
- * consumption.
+ * consumption: the keys are stored by column and the indexes only keep sorted row numbers.
  */
 public class ReadAllCache implements DatabaseLookupData.ICache {
 
+  /** Below this amount of rows the indexes are built one after the other */
+  static final int PARALLEL_INDEXING_THRESHOLD = 50000;
+
   private final DatabaseLookupData transformData;
 
-  private final Object[][] keys;
+  private final int rowsAmount;
+
+  /** The keys by column and row number */
+  private final Object[][] keyColumns;
+
   private final IRowMeta keysMeta;
 
   private final Object[][] data;
@@ -50,20 +58,24 @@ public class ReadAllCache implements DatabaseLookupData.ICache {
   private final int[][] otherConditions;
 
   ReadAllCache(
-      DatabaseLookupData transformData, Object[][] keys, IRowMeta keysMeta, Object[][] data) {
+      DatabaseLookupData transformData,
+      int rowsAmount,
+      Object[][] keyColumns,
+      IRowMeta keysMeta,
+      Object[][] data) {
     this.transformData = transformData;
-    this.keys = keys;
+    this.rowsAmount = rowsAmount;
+    this.keyColumns = keyColumns;
     this.keysMeta = keysMeta;
     this.data = data;
 
-    Object[] pair = createIndexes(transformData, keysMeta, keys);
+    Object[] pair = createIndexes(transformData, keysMeta, rowsAmount, keyColumns);
     indexes = (Index[]) pair[0];
     otherConditions = (int[][]) pair[1];
   }
 
   private static Object[] createIndexes(
-      DatabaseLookupData transformData, IRowMeta keysMeta, Object[][] keys) {
-    final int rowsAmount = keys.length;
+      DatabaseLookupData transformData, IRowMeta keysMeta, int rowsAmount, Object[][] keyColumns) {
     final int[] conditions = transformData.conditions;
 
     // it makes sense to apply restrictions in the specific order, namely, to use those, that can
@@ -71,6 +83,7 @@ public class ReadAllCache implements DatabaseLookupData.ICache {
     // Index.restrictionComparator() uses heuristic "restriction power" of each index
     PriorityQueue<Index> indexes =
         new PriorityQueue<>(conditions.length, Index.restrictionComparator());
+    List<Index> unsortedIndexes = new ArrayList<>();
     List<int[]> otherConditions = new ArrayList<>();
     for (int i = 0, len = conditions.length; i < len; i++) {
       int condition = conditions[i];
@@ -104,11 +117,23 @@ public class ReadAllCache implements DatabaseLookupData.ICache {
       if (index == null) {
         otherConditions.add(new int[] {i, condition});
       } else {
-        index.performIndexingOf(keys);
-        indexes.add(index);
+        unsortedIndexes.add(index);
       }
     }
 
+    // every index sorts its own column, so they can be built at the same time
+    //
+    if (unsortedIndexes.size() > 1 && rowsAmount >= PARALLEL_INDEXING_THRESHOLD) {
+      unsortedIndexes
+          .parallelStream()
+          .forEach(index -> index.performIndexingOfColumn(keyColumns[index.getColumn()]));
+    } else {
+      for (Index index : unsortedIndexes) {
+        index.performIndexingOfColumn(keyColumns[index.getColumn()]);
+      }
+    }
+    indexes.addAll(unsortedIndexes);
+
     return new Object[] {
       indexes.toArray(new Index[indexes.size()]),
       otherConditions.toArray(new int[otherConditions.size()][])
@@ -124,7 +149,7 @@ public class ReadAllCache implements DatabaseLookupData.ICache {
     }
 
     SearchingContext context = new SearchingContext();
-    context.init(keys.length);
+    context.init(rowsAmount);
 
     for (Index index : indexes) {
       int column = index.getColumn();
@@ -144,15 +169,13 @@ public class ReadAllCache implements DatabaseLookupData.ICache {
     BitSet candidates = context.getCandidates();
     int candidate = candidates.nextSetBit(0);
     while (candidate != -1) {
-      Object[] dataKeys = keys[candidate];
-
       boolean matches = true;
       int lookupShift = 0;
       for (int i = 0, len = otherConditions.length; i < len && matches; i++) {
         int[] columnConditionPair = otherConditions[i];
 
         final int column = columnConditionPair[0];
-        Object keyData = dataKeys[column];
+        Object keyData = keyColumns[column][candidate];
         IValueMeta keyMeta = keysMeta.getValueMeta(column);
 
         int lookupIndex = column + lookupShift;
@@ -195,20 +218,32 @@ public class ReadAllCache implements DatabaseLookupData.ICache {
     throw new UnsupportedOperationException("This cache is read-only");
   }
 
-  /** Builder class for {@linkplain ReadAllCache}. Note, it does no checks or verifications! */
+  /**
+   * Builder class for {@linkplain ReadAllCache}. The rows can be added as they are read, the
+   * builder grows as needed. Note, it does no checks or verifications!
+   */
   public static class Builder {
+    private static final int DEFAULT_CAPACITY = 1024;
+
     private final DatabaseLookupData transformData;
-    private final Object[][] keys;
-    private final Object[][] data;
+    private Object[][] keyColumns;
+    private Object[][] data;
 
     private IRowMeta keysMeta;
 
     private int current;
 
+    public Builder(DatabaseLookupData transformData) {
+      this(transformData, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param transformData the data of the transform
+     * @param amount the expected amount of rows
+     */
     public Builder(DatabaseLookupData transformData, int amount) {
       this.transformData = transformData;
-      keys = new Object[amount][];
-      data = new Object[amount][];
+      data = new Object[Math.max(amount, 1)][];
     }
 
     public void setKeysMeta(IRowMeta keysMeta) {
@@ -216,13 +251,35 @@ public class ReadAllCache implements DatabaseLookupData.ICache {
     }
 
     public void add(Object[] keys, Object[] data) {
-      this.keys[current] = keys;
+      if (keyColumns == null) {
+        keyColumns = new Object[keys.length][this.data.length];
+      }
+      if (current == this.data.length) {
+        int capacity = current + (current >> 1) + 1;
+        this.data = Arrays.copyOf(this.data, capacity);
+        for (int i = 0; i < keyColumns.length; i++) {
+          keyColumns[i] = Arrays.copyOf(keyColumns[i], capacity);
+        }
+      }
+      for (int i = 0; i < keys.length; i++) {
+        keyColumns[i][current] = keys[i];
+      }
       this.data[current] = data;
       current++;
     }
 
+    /**
+     * @return the amount of rows added
+     */
+    public int getSize() {
+      return current;
+    }
+
     public ReadAllCache build() {
-      return new ReadAllCache(transformData, keys, keysMeta, data);
+      if (keyColumns == null) {
+        keyColumns = new Object[keysMeta.size()][0];
+      }
+      return new ReadAllCache(transformData, current, keyColumns, keysMeta, data);
     }
   }
 }
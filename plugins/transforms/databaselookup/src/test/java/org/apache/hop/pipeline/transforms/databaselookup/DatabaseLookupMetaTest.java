@@ -177,6 +177,9 @@ public class DatabaseLookupMetaTest {
     meta.setCached(true);
     meta.setCacheSize(123456);
     meta.setLoadingAllDataInCache(true);
+    meta.setLookupBatchSize(500);
+    meta.setCacheMemorySize(64);
+    meta.setCacheEvictionPolicy("W-TinyLFU");
     Lookup lookup = meta.getLookup();
     lookup.getKeyFields().add(new KeyField("aa", "gg", "ee", "cc"));
     lookup.getKeyFields().add(new KeyField("bb", "hh", "ff", "dd"));
@@ -212,6 +215,9 @@ public class DatabaseLookupMetaTest {
     assertEquals(meta.isCached(), meta2.isCached());
     assertEquals(meta.getCacheSize(), meta2.getCacheSize());
     assertEquals(meta.isLoadingAllDataInCache(), meta2.isLoadingAllDataInCache());
+    assertEquals(meta.getLookupBatchSize(), meta2.getLookupBatchSize());
+    assertEquals(meta.getCacheMemorySize(), meta2.getCacheMemorySize());
+    assertEquals(meta.getCacheEvictionPolicy(), meta2.getCacheEvictionPolicy());
 
     assertEquals(lookup.getKeyFields().size(), lookup2.getKeyFields().size());
     for (int i = 0; i < lookup.getKeyFields().size(); i++) {
@@ -322,6 +328,9 @@ public class DatabaseLookupMetaTest {
             .addString("orderBy")
             .addString("failOnMultiple?")
             .addString("eatRow?")
+            .addString("batchSize")
+            .addString("cacheMemorySize")
+            .addString("evictionPolicy")
             .build();
     List<RowMetaAndData> rows =
         Arrays.asList(
@@ -335,7 +344,10 @@ public class DatabaseLookupMetaTest {
                 "Y",
                 "field1 DESC",
                 "Y",
-                "Y"));
+                "Y",
+                "250",
+                "128",
+                "W-TinyLFU"));
 
     injector.setProperty(meta, "connection", rows, "database");
     assertNotNull(meta.getConnection());
@@ -347,6 +359,12 @@ public class DatabaseLookupMetaTest {
     assertEquals(123, meta.getCacheSize());
     injector.setProperty(meta, "cache_load_all", rows, "loadAll?");
     assertTrue(meta.isLoadingAllDataInCache());
+    injector.setProperty(meta, "lookup_batch_size", rows, "batchSize");
+    assertEquals(250, meta.getLookupBatchSize());
+    injector.setProperty(meta, "cache_memory_size", rows, "cacheMemorySize");
+    assertEquals(128, meta.getCacheMemorySize());
+    injector.setProperty(meta, "cache_eviction_policy", rows, "evictionPolicy");
+    assertEquals("W-TinyLFU", meta.getCacheEvictionPolicy());
     injector.setProperty(meta, "schema", rows, "schema");
     assertEquals("schema1", meta.getLookup().getSchemaName());
     injector.setProperty(meta, "table", rows, "table");
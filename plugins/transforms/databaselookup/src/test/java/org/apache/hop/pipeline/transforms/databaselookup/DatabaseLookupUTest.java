@@ -52,14 +52,23 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
@@ -74,7 +83,9 @@ import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class DatabaseLookupUTest {
@@ -360,8 +371,7 @@ public class DatabaseLookupUTest {
 
   private DatabaseLookupData getCreatedData(boolean allEquals) throws Exception {
     Database db = mock(Database.class);
-    when(db.getRows(anyString(), anyInt()))
-        .thenReturn(Collections.singletonList(new Object[] {1L}));
+    mockTableRows(db, new Object[] {1L});
 
     RowMeta returnRowMeta = new RowMeta();
     returnRowMeta.addValueMeta(new ValueMetaInteger());
@@ -387,6 +397,12 @@ public class DatabaseLookupUTest {
     return data;
   }
 
+  private void mockTableRows(Database db, Object[]... rows) throws HopException {
+    Deque<Object[]> tableRows = new ArrayDeque<>(Arrays.asList(rows));
+    when(db.openQuery(anyString())).thenReturn(mock(ResultSet.class));
+    when(db.getRow(any(ResultSet.class))).thenAnswer(invocation -> tableRows.poll());
+  }
+
   private DatabaseLookupMeta createTestMeta() {
     DatabaseLookupMeta meta = new DatabaseLookupMeta();
     meta.setCached(true);
@@ -424,8 +440,7 @@ public class DatabaseLookupUTest {
   @Test
   public void createsReadDefaultCache_AndUsesOnlyNeededFieldsFromMeta() throws Exception {
     Database db = mock(Database.class);
-    when(db.getRows(anyString(), anyInt()))
-        .thenReturn(Arrays.asList(new Object[] {1L}, new Object[] {2L}));
+    mockTableRows(db, new Object[] {1L}, new Object[] {2L});
 
     RowMeta returnRowMeta = new RowMeta();
     returnRowMeta.addValueMeta(new ValueMetaInteger());
@@ -452,6 +467,122 @@ public class DatabaseLookupUTest {
     assertNotNull(data.cache.getRowFromCache(data.lookupMeta, new Object[] {2L}));
   }
 
+  @Test
+  public void batchLookupQueriesTheMissingKeysOnce() throws Exception {
+    // Two batches of rows: 4 and 3
+    assertEquals(2, runBatchLookup(new NoneDatabaseMeta()));
+  }
+
+  @Test
+  public void batchLookupStaysWithinTheParameterLimit() throws Exception {
+    NoneDatabaseMeta limitedMeta =
+        new NoneDatabaseMeta() {
+          @Override
+          public int getMaxStatementParameters() {
+            return 3;
+          }
+        };
+    // Three batches of rows: 3, 3 and 1
+    assertEquals(3, runBatchLookup(limitedMeta));
+  }
+
+  /**
+   * Looks up 7 rows in batches of 4 rows
+   *
+   * @return the number of batch queries
+   */
+  private int runBatchLookup(NoneDatabaseMeta genericMeta) throws Exception {
+    Map<Long, String> table = new HashMap<>();
+    table.put(1L, "one");
+    table.put(2L, "two");
+    table.put(3L, "three");
+
+    Database db = mock(Database.class);
+    when(db.prepareSql(anyString())).thenReturn(mock(PreparedStatement.class));
+    Deque<Object[]> resultRows = new ArrayDeque<>();
+    AtomicInteger queries = new AtomicInteger();
+    when(db.openQuery(any(PreparedStatement.class), any(IRowMeta.class), any(Object[].class)))
+        .thenAnswer(
+            invocation -> {
+              queries.incrementAndGet();
+              Object[] parameters = invocation.getArgument(2);
+              Arrays.stream(parameters)
+                  .distinct()
+                  .filter(table::containsKey)
+                  .forEach(id -> resultRows.add(new Object[] {id, table.get(id)}));
+              return mock(ResultSet.class);
+            });
+    when(db.getRow(any(ResultSet.class))).thenAnswer(invocation -> resultRows.poll());
+    RowMeta returnRowMeta = new RowMeta();
+    returnRowMeta.addValueMeta(new ValueMetaInteger(ID_FIELD));
+    returnRowMeta.addValueMeta(new ValueMetaString("name"));
+    when(db.getReturnRowMeta()).thenReturn(returnRowMeta);
+
+    DatabaseLookupMeta meta = new DatabaseLookupMeta();
+    meta.setConnection("connection1");
+    meta.setLookupBatchSize(4);
+    meta.getLookup().setTableName("VirtualTable");
+    meta.getLookup().getKeyFields().add(new KeyField(ID_FIELD, "", "=", ID_FIELD));
+    meta.getLookup()
+        .getReturnValues()
+        .add(
+            new ReturnValue(
+                "name",
+                "name",
+                "",
+                "String",
+                ValueMetaString.getTrimTypeCode(IValueMeta.TRIM_TYPE_NONE)));
+    DatabaseLookupData data = new DatabaseLookupData();
+
+    DatabaseMeta dbMeta = new DatabaseMeta();
+    dbMeta.setIDatabase(genericMeta);
+    DatabaseLookup transform = spyLookup(mockHelper, meta, data, db, dbMeta);
+    when(transform.getPipelineMeta().findDatabase(any(String.class), any(IVariables.class)))
+        .thenReturn(dbMeta);
+    doAnswer(
+            invocation -> {
+              data.keytypes = new int[] {IValueMeta.TYPE_INTEGER};
+              return null;
+            })
+        .when(transform)
+        .determineFieldsTypesQueryingDb();
+
+    RowMeta input = new RowMeta();
+    input.addValueMeta(new ValueMetaInteger(ID_FIELD));
+    transform.setInputRowMeta(input);
+    Iterator<Object[]> inputRows =
+        Arrays.asList(
+                new Object[] {1L},
+                new Object[] {2L},
+                new Object[] {5L},
+                new Object[] {1L},
+                new Object[] {3L},
+                new Object[] {null},
+                new Object[] {2L})
+            .iterator();
+    doAnswer(invocation -> inputRows.hasNext() ? inputRows.next() : null)
+        .when(transform)
+        .getRow();
+    List<Object[]> output = new ArrayList<>();
+    doAnswer(invocation -> output.add(invocation.getArgument(1)))
+        .when(transform)
+        .putRow(any(IRowMeta.class), any(Object[].class));
+
+    assertTrue(transform.init());
+    while (transform.processRow()) {
+      // Keep going
+    }
+
+    verify(db, never()).getLookup(anyBoolean());
+
+    String[] expected = {"one", "two", null, "one", "three", null, "two"};
+    assertEquals(expected.length, output.size());
+    for (int i = 0; i < expected.length; i++) {
+      assertEquals(expected[i], output.get(i)[1]);
+    }
+    return queries.get();
+  }
+
   public class MockDatabaseLookup extends DatabaseLookup {
     public MockDatabaseLookup(
         TransformMeta transformMeta,
@@ -33,6 +33,7 @@ import java.util.List;
 import java.util.StringTokenizer;
 
 import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
 
 public class ReadAllCacheTest {
@@ -194,4 +195,29 @@ public class ReadAllCacheTest {
     Object[] found = cache.getRowFromCache(new RowMeta(), new Object[0]);
     assertArrayEquals("(keys[1] == 1L) --> row 2", new Object[] {"one"}, found);
   }
+
+  @Test
+  public void builderGrows_AndIndexesLargeCacheInParallel() throws Exception {
+    transformData = new DatabaseLookupData();
+    transformData.conditions =
+        new int[] {DatabaseLookupMeta.CONDITION_EQ, DatabaseLookupMeta.CONDITION_GE};
+
+    RowMeta meta = new RowMeta();
+    meta.addValueMeta(new ValueMetaInteger());
+    meta.addValueMeta(new ValueMetaInteger());
+
+    int amount = ReadAllCache.PARALLEL_INDEXING_THRESHOLD + 10;
+    ReadAllCache.Builder builder = new ReadAllCache.Builder(transformData, 1);
+    builder.setKeysMeta(meta);
+    for (long i = amount - 1; i >= 0; i--) {
+      builder.add(new Object[] {i % 1000, i}, new Object[] {i});
+    }
+    assertEquals(amount, builder.getSize());
+    ReadAllCache cache = builder.build();
+
+    // key1 == 5 and key2 >= 40000 --> the first row added is the highest number
+    Object[] found = cache.getRowFromCache(meta, new Object[] {5L, 40000L});
+    assertArrayEquals(new Object[] {50005L}, found);
+    assertNull(cache.getRowFromCache(meta, new Object[] {5L, 50006L}));
+  }
 }
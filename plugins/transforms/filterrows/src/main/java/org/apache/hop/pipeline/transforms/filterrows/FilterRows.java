@@ -29,6 +29,7 @@ import org.apache.hop.pipeline.transform.BaseTransform;
 import org.apache.hop.pipeline.transform.TransformMeta;
 import org.apache.hop.pipeline.transform.stream.IStream;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /** Filters input rows base on conditions. */
@@ -64,8 +65,8 @@ public class FilterRows extends BaseTransform<FilterRowsMeta, FilterRowsData> {
 
   @Override
   public boolean processRow() throws HopException {
-    Object[] r = getRow(); // Get next usable row from input rowset(s)!
-    if (r == null) {
+    List<Object[]> rows = getRows(ROW_BATCH_SIZE); // Get next usable rows from input rowset(s)!
+    if (rows == null) {
       setOutputDone();
       return false;
     }
@@ -119,43 +120,52 @@ public class FilterRows extends BaseTransform<FilterRowsMeta, FilterRowsData> {
       }
     }
 
-    boolean keep = keepRow(getInputRowMeta(), r); // Keep this row?
-    if (!data.chosesTargetTransforms) {
-      if (keep) {
-        putRow(data.outputRowMeta, r); // copy row to output rowset(s)
-      }
-    } else {
-      if (keep) {
-        if (data.trueRowSet != null) {
-          if (log.isRowLevel()) {
-            logRowlevel(
-                "Sending row to true  :"
-                    + data.trueTransformName
-                    + " : "
-                    + getInputRowMeta().getString(r));
-          }
-          putRowTo(data.outputRowMeta, r, data.trueRowSet);
+    List<Object[]> keptRows = new ArrayList<>(rows.size());
+    long lineNr = getLinesRead() - rows.size();
+    for (Object[] r : rows) {
+      lineNr++;
+      boolean keep = keepRow(getInputRowMeta(), r); // Keep this row?
+      if (!data.chosesTargetTransforms) {
+        if (keep) {
+          keptRows.add(r); // copy row to output rowset(s) below
         }
       } else {
-        if (data.falseRowSet != null) {
-          if (log.isRowLevel()) {
-            logRowlevel(
-                "Sending row to false :"
-                    + data.falseTransformName
-                    + " : "
-                    + getInputRowMeta().getString(r));
+        if (keep) {
+          if (data.trueRowSet != null) {
+            if (log.isRowLevel()) {
+              logRowlevel(
+                  "Sending row to true  :"
+                      + data.trueTransformName
+                      + " : "
+                      + getInputRowMeta().getString(r));
+            }
+            putRowTo(data.outputRowMeta, r, data.trueRowSet);
+          }
+        } else {
+          if (data.falseRowSet != null) {
+            if (log.isRowLevel()) {
+              logRowlevel(
+                  "Sending row to false :"
+                      + data.falseTransformName
+                      + " : "
+                      + getInputRowMeta().getString(r));
+            }
+            putRowTo(data.outputRowMeta, r, data.falseRowSet);
           }
-          putRowTo(data.outputRowMeta, r, data.falseRowSet);
         }
       }
-    }
 
-    if (checkFeedback(getLinesRead())) {
-      if (log.isBasic()) {
-        logBasic(BaseMessages.getString(PKG, "FilterRows.Log.LineNumber") + getLinesRead());
+      if (checkFeedback(lineNr)) {
+        if (log.isBasic()) {
+          logBasic(BaseMessages.getString(PKG, "FilterRows.Log.LineNumber") + lineNr);
+        }
       }
     }
 
+    if (!keptRows.isEmpty()) {
+      putRows(data.outputRowMeta, keptRows); // copy rows to output rowset(s)
+    }
+
     return true;
   }
 
@@ -307,6 +307,11 @@ public class FilterRowsMeta extends BaseTransformMeta<FilterRows, FilterRowsData
     return true;
   }
 
+  @Override
+  public boolean supportsFusion() {
+    return true;
+  }
+
   /**
    * Get non-existing referenced input fields
    *
@@ -24,6 +24,9 @@ import org.apache.hop.core.database.DatabaseMeta;
 import org.apache.hop.core.exception.HopDatabaseException;
 import org.apache.hop.core.exception.HopException;
 import org.apache.hop.core.exception.HopTransformException;
+import org.apache.hop.core.exception.HopValueException;
+import org.apache.hop.core.hash.RowContentHashIndex;
+import org.apache.hop.core.hash.RowContentHashIndex.RowState;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.core.row.IValueMeta;
 import org.apache.hop.core.row.RowMeta;
@@ -33,6 +36,7 @@ import org.apache.hop.pipeline.PipelineMeta;
 import org.apache.hop.pipeline.transform.BaseTransform;
 import org.apache.hop.pipeline.transform.TransformMeta;
 
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
@@ -57,29 +61,8 @@ public class InsertUpdate extends BaseTransform<InsertUpdateMeta, InsertUpdateDa
   protected synchronized void lookupValues(IRowMeta rowMeta, Object[] row) throws HopException {
     // OK, now do the lookup.
     // We need the lookupvalues for that.
-    Object[] lookupRow = new Object[data.lookupParameterRowMeta.size()];
-    int lookupIndex = 0;
-
-    for (int i = 0; i < data.keynrs.length; i++) {
-      if (data.keynrs[i] >= 0) {
-        lookupRow[lookupIndex] = row[data.keynrs[i]];
-        lookupIndex++;
-      }
-      if (data.keynrs2[i] >= 0) {
-        lookupRow[lookupIndex] = row[data.keynrs2[i]];
-        lookupIndex++;
-      }
-    }
-
-    data.db.setValues(data.lookupParameterRowMeta, lookupRow, data.prepStatementLookup);
-
-    if (log.isDebug()) {
-      logDebug(
-          BaseMessages.getString(PKG, "InsertUpdate.Log.ValuesSetForLookup")
-              + data.lookupParameterRowMeta.getString(lookupRow));
-    }
-    Object[] add = data.db.getLookup(data.prepStatementLookup);
-    incrementLinesInput();
+    Object[] lookupRow = getLookupRow(row);
+    Object[] add = lookup(lookupRow);
 
     if (add == null) {
       /*
@@ -119,22 +102,7 @@ public class InsertUpdate extends BaseTransform<InsertUpdateMeta, InsertUpdateDa
          *
          * UPDATE row or do nothing?
          */
-        boolean update = false;
-        for (int i = 0; i < data.valuenrs.length; i++) {
-          InsertUpdateValue valueField = meta.getInsertUpdateLookupField().getValueFields().get(i);
-          if (valueField.isUpdate()) {
-            IValueMeta valueMeta = rowMeta.getValueMeta(data.valuenrs[i]);
-            IValueMeta retMeta = data.db.getReturnRowMeta().getValueMeta(i);
-
-            Object rowvalue = row[data.valuenrs[i]];
-            Object retvalue = add[i];
-
-            if (retMeta.compare(retvalue, valueMeta, rowvalue) != 0) {
-              update = true;
-            }
-          }
-        }
-        if (update) {
+        if (isChanged(rowMeta, row, add)) {
           // Create the update row...
           Object[] updateRow = new Object[data.updateParameterRowMeta.size()];
           int j = 0;
@@ -173,6 +141,270 @@ public class InsertUpdate extends BaseTransform<InsertUpdateMeta, InsertUpdateDa
     }
   }
 
+  /** The parameters of the lookup statement: the key values, two for BETWEEN */
+  private Object[] getLookupRow(Object[] row) {
+    Object[] lookupRow = new Object[data.lookupParameterRowMeta.size()];
+    int lookupIndex = 0;
+
+    for (int i = 0; i < data.keynrs.length; i++) {
+      if (data.keynrs[i] >= 0) {
+        lookupRow[lookupIndex] = row[data.keynrs[i]];
+        lookupIndex++;
+      }
+      if (data.keynrs2[i] >= 0) {
+        lookupRow[lookupIndex] = row[data.keynrs2[i]];
+        lookupIndex++;
+      }
+    }
+    return lookupRow;
+  }
+
+  /**
+   * Look up the row with the given key values in the table.
+   *
+   * @return the values of the table row or null if it wasn't found
+   */
+  private Object[] lookup(Object[] lookupRow) throws HopException {
+    data.db.setValues(data.lookupParameterRowMeta, lookupRow, data.prepStatementLookup);
+
+    if (log.isDebug()) {
+      logDebug(
+          BaseMessages.getString(PKG, "InsertUpdate.Log.ValuesSetForLookup")
+              + data.lookupParameterRowMeta.getString(lookupRow));
+    }
+    Object[] add = data.db.getLookup(data.prepStatementLookup);
+    incrementLinesInput();
+    return add;
+  }
+
+  /** Is one of the values to update different from the one in the table row which was found? */
+  private boolean isChanged(IRowMeta rowMeta, Object[] row, Object[] add)
+      throws HopValueException {
+    boolean update = false;
+    for (int i = 0; i < data.valuenrs.length; i++) {
+      InsertUpdateValue valueField = meta.getInsertUpdateLookupField().getValueFields().get(i);
+      if (valueField.isUpdate()) {
+        IValueMeta valueMeta = rowMeta.getValueMeta(data.valuenrs[i]);
+        IValueMeta retMeta = data.db.getReturnRowMeta().getValueMeta(i);
+
+        Object rowvalue = row[data.valuenrs[i]];
+        Object retvalue = add[i];
+
+        if (retMeta.compare(retvalue, valueMeta, rowvalue) != 0) {
+          update = true;
+        }
+      }
+    }
+    return update;
+  }
+
+  /**
+   * Compare a row with the preloaded table. New rows are inserted and changed rows are updated, in
+   * batches if the database supports it.
+   *
+   * @param rowMeta the layout of the row
+   * @param row the row
+   * @throws HopException in case the row can't be compared or written
+   */
+  protected void compareValues(IRowMeta rowMeta, Object[] row) throws HopException {
+    Object[] key = new Object[data.keynrs.length];
+    boolean nullKey = false;
+    for (int i = 0; i < data.keynrs.length; i++) {
+      IValueMeta valueMeta = rowMeta.getValueMeta(data.keynrs[i]);
+      key[i] = valueMeta.convertToNormalStorageType(row[data.keynrs[i]]);
+      nullKey |= valueMeta.isNull(row[data.keynrs[i]]);
+    }
+    Object[] content = new Object[data.contentnrs.length];
+    for (int i = 0; i < data.contentnrs.length; i++) {
+      IValueMeta valueMeta = rowMeta.getValueMeta(data.contentnrs[i]);
+      content[i] = valueMeta.convertToNormalStorageType(row[data.contentnrs[i]]);
+    }
+
+    // A null key never equals a key in the table: the lookup wouldn't find it either
+    //
+    RowState state = nullKey ? RowState.NEW : data.contentIndex.classify(key, content);
+
+    if (state == RowState.NEW && !nullKey) {
+      // The keys are matched exactly in memory: when a key isn't found the database decides,
+      // it may compare case-insensitively or ignore trailing spaces
+      //
+      Object[] add = lookup(getLookupRow(row));
+      if (add != null) {
+        state = isChanged(rowMeta, row, add) ? RowState.CHANGED : RowState.UNCHANGED;
+        if (state == RowState.UNCHANGED) {
+          data.contentIndex.put(key, content);
+        }
+      }
+    }
+
+    if (state == RowState.NEW) {
+      if (log.isRowLevel()) {
+        logRowlevel(BaseMessages.getString(PKG, "InsertUpdate.InsertRow") + rowMeta.getString(row));
+      }
+      Object[] insertRow = new Object[data.valuenrs.length];
+      for (int i = 0; i < data.valuenrs.length; i++) {
+        insertRow[i] = row[data.valuenrs[i]];
+      }
+      data.db.setValuesInsert(data.insertRowMeta, insertRow);
+      data.db.insertRow(data.db.getPrepStatementInsert(), data.useBatch, false);
+      if (!nullKey) {
+        data.contentIndex.put(key, content);
+      }
+      incrementLinesOutput();
+      changeWritten();
+    } else if (meta.isUpdateBypassed()) {
+      if (log.isRowLevel()) {
+        logRowlevel(
+            BaseMessages.getString(PKG, "InsertUpdate.Log.UpdateBypassed")
+                + rowMeta.getString(row));
+      }
+      incrementLinesSkipped();
+    } else if (state == RowState.CHANGED) {
+      Object[] updateRow = new Object[data.updateParameterRowMeta.size()];
+      int j = 0;
+      for (int i = 0; i < data.valuenrs.length; i++) {
+        if (meta.getInsertUpdateLookupField().getValueFields().get(i).isUpdate()) {
+          updateRow[j++] = row[data.valuenrs[i]];
+        }
+      }
+      // All key conditions are "=": the where clause has one parameter per key
+      for (int i = 0; i < data.keynrs.length; i++) {
+        updateRow[j + i] = row[data.keynrs[i]];
+      }
+      if (log.isRowLevel()) {
+        logRowlevel(
+            BaseMessages.getString(PKG, "InsertUpdate.Log.UpdateRow") + rowMeta.getString(row));
+      }
+      data.db.setValues(data.updateParameterRowMeta, updateRow, data.prepStatementUpdate);
+      data.db.insertRow(data.prepStatementUpdate, data.useBatch, false);
+      data.contentIndex.put(key, content);
+      incrementLinesUpdated();
+      changeWritten();
+    } else {
+      incrementLinesSkipped();
+    }
+  }
+
+  /** Execute the pending batches and commit once the commit size is reached. */
+  private void changeWritten() throws HopDatabaseException {
+    if (++data.pendingChanges >= data.commitSize) {
+      executePendingBatches();
+      if (!data.db.isAutoCommit()) {
+        data.db.commit();
+      }
+    }
+  }
+
+  /** The inserts go first: a changed row can be one which was inserted earlier in the batch. */
+  private void executePendingBatches() throws HopDatabaseException {
+    try {
+      if (data.useBatch) {
+        data.db.getPrepStatementInsert().executeBatch();
+        data.db.getPrepStatementInsert().clearBatch();
+        if (data.prepStatementUpdate != null) {
+          data.prepStatementUpdate.executeBatch();
+          data.prepStatementUpdate.clearBatch();
+        }
+      }
+    } catch (SQLException ex) {
+      throw Database.createHopDatabaseBatchException("Error updating batch", ex);
+    }
+    data.pendingChanges = 0;
+  }
+
+  /**
+   * The table can be preloaded if the keys identify rows by equality. Rows can't go to error
+   * handling since the statements are executed in batches.
+   */
+  private boolean isPreloadPossible() {
+    List<InsertUpdateKeyField> keyFields = meta.getInsertUpdateLookupField().getLookupKeys();
+    if (keyFields.isEmpty() || getTransformMeta().isDoingErrorHandling()) {
+      return false;
+    }
+    for (InsertUpdateKeyField keyField : keyFields) {
+      if (!"=".equals(Const.trim(keyField.getKeyCondition()))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Read the keys and the values to update of the whole table and keep them in a {@link
+   * RowContentHashIndex}. The database values are converted to the types of the input fields, the
+   * way they're compared during a lookup.
+   *
+   * @param rowMeta the layout of the input rows
+   * @throws HopException in case the table can't be read
+   */
+  protected void preloadTable(IRowMeta rowMeta) throws HopException {
+    DatabaseMeta databaseMeta = getPipelineMeta().findDatabase(meta.getConnection(), variables);
+    List<InsertUpdateKeyField> keyFields = meta.getInsertUpdateLookupField().getLookupKeys();
+    List<InsertUpdateValue> valueFields = meta.getInsertUpdateLookupField().getValueFields();
+
+    data.preloadKeyMeta = new RowMeta();
+    data.preloadContentMeta = new RowMeta();
+    List<Integer> contentnrs = new ArrayList<>();
+
+    StringBuilder sql = new StringBuilder("SELECT ");
+    for (int i = 0; i < keyFields.size(); i++) {
+      if (i != 0) {
+        sql.append(", ");
+      }
+      sql.append(databaseMeta.quoteField(keyFields.get(i).getKeyLookup()));
+      data.preloadKeyMeta.addValueMeta(normalStorage(rowMeta.getValueMeta(data.keynrs[i])));
+    }
+    if (!meta.isUpdateBypassed()) {
+      for (int i = 0; i < valueFields.size(); i++) {
+        if (valueFields.get(i).isUpdate()) {
+          sql.append(", ").append(databaseMeta.quoteField(valueFields.get(i).getUpdateLookup()));
+          data.preloadContentMeta.addValueMeta(
+              normalStorage(rowMeta.getValueMeta(data.valuenrs[i])));
+          contentnrs.add(data.valuenrs[i]);
+        }
+      }
+    }
+    sql.append(" FROM ").append(data.schemaTable);
+    data.contentnrs = ArrayUtils.toPrimitive(contentnrs.toArray(new Integer[0]));
+    data.contentIndex = new RowContentHashIndex(data.preloadKeyMeta, data.preloadContentMeta);
+
+    if (log.isDetailed()) {
+      logDetailed(
+          BaseMessages.getString(PKG, "InsertUpdate.Log.PreloadingTable", data.schemaTable));
+    }
+
+    ResultSet rs = data.db.openQuery(databaseMeta.stripCR(sql.toString()));
+    try {
+      IRowMeta tableRowMeta = data.db.getReturnRowMeta();
+      Object[] tableRow;
+      while (!isStopped() && (tableRow = data.db.getRow(rs)) != null) {
+        data.contentIndex.putTableRow(tableRowMeta, tableRow);
+      }
+    } finally {
+      data.db.closeQuery(rs);
+    }
+
+    if (log.isDetailed()) {
+      logDetailed(
+          BaseMessages.getString(
+              PKG,
+              "InsertUpdate.Log.TablePreloaded",
+              Integer.toString(data.contentIndex.getSize()),
+              data.schemaTable,
+              Long.toString(data.contentIndex.getMemoryUsage())));
+    }
+
+    data.useBatch = !data.db.isAutoCommit() && data.db.getUseBatchInsert(true);
+    data.commitSize = meta.getCommitSizeVar(this);
+    data.preloaded = true;
+  }
+
+  private static IValueMeta normalStorage(IValueMeta valueMeta) {
+    IValueMeta normal = valueMeta.clone();
+    normal.setStorageType(IValueMeta.STORAGE_TYPE_NORMAL);
+    return normal;
+  }
+
   @Override
   public boolean processRow() throws HopException {
 
@@ -312,10 +544,22 @@ public class InsertUpdate extends BaseTransform<InsertUpdateMeta, InsertUpdateDa
         }
         prepareUpdate(getInputRowMeta());
       }
+
+      if (meta.isPreloadTable()) {
+        if (isPreloadPossible()) {
+          preloadTable(getInputRowMeta());
+        } else {
+          logBasic(BaseMessages.getString(PKG, "InsertUpdate.Log.PreloadNotPossible"));
+        }
+      }
     }
 
     try {
-      lookupValues(getInputRowMeta(), r); // add new values to the row in rowset[0].
+      if (data.preloaded) {
+        compareValues(getInputRowMeta(), r);
+      } else {
+        lookupValues(getInputRowMeta(), r); // add new values to the row in rowset[0].
+      }
       putRow(
           data.outputRowMeta,
           r); // Nothing changed to the input, return the same row, pass a "cloned" metadata
@@ -544,6 +788,9 @@ public class InsertUpdate extends BaseTransform<InsertUpdateMeta, InsertUpdateDa
   private void commitBatch(boolean dispose) {
     if (data.db != null) {
       try {
+        if (data.preloaded && getErrors() == 0) {
+          executePendingBatches();
+        }
         if (!data.db.isAutoCommit()) {
           if (getErrors() == 0) {
             data.db.commit();
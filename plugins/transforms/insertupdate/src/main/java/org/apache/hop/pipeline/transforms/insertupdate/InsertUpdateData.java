@@ -18,6 +18,7 @@
 package org.apache.hop.pipeline.transforms.insertupdate;
 
 import org.apache.hop.core.database.Database;
+import org.apache.hop.core.hash.RowContentHashIndex;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.pipeline.transform.BaseTransformData;
 import org.apache.hop.pipeline.transform.ITransformData;
@@ -44,6 +45,18 @@ public class InsertUpdateData extends BaseTransformData implements ITransformDat
   public IRowMeta lookupReturnRowMeta;
   public IRowMeta insertRowMeta;
 
+  /** True if the table was preloaded: rows are compared with the index instead of looked up */
+  public boolean preloaded;
+
+  public RowContentHashIndex contentIndex;
+  public IRowMeta preloadKeyMeta;
+  public IRowMeta preloadContentMeta;
+  public int[] contentnrs; // Stream nrs of the values which are compared
+
+  public boolean useBatch;
+  public int commitSize;
+  public int pendingChanges; // Inserts and updates since the last commit
+
   /** Default constructor. */
   public InsertUpdateData() {
     super();
@@ -86,6 +86,8 @@ public class InsertUpdateDialog extends BaseTransformDialog implements ITransfor
 
   private Button wUpdateBypassed;
 
+  private Button wPreloadTable;
+
   private final InsertUpdateMeta input;
 
   /** List of ColumnInfo that should have the field names of the selected database table */
@@ -249,12 +251,34 @@ public class InsertUpdateDialog extends BaseTransformDialog implements ITransfor
     wUpdateBypassed.setLayoutData(fdUpdateBypassed);
     wUpdateBypassed.addSelectionListener(new ComponentSelectionListener(input));
 
+    // PreloadTable line
+    Label wlPreloadTable = new Label(shell, SWT.RIGHT);
+    wlPreloadTable.setText(BaseMessages.getString(PKG, "InsertUpdateDialog.PreloadTable.Label"));
+    wlPreloadTable.setToolTipText(
+        BaseMessages.getString(PKG, "InsertUpdateDialog.PreloadTable.Tooltip"));
+    PropsUi.setLook(wlPreloadTable);
+    FormData fdlPreloadTable = new FormData();
+    fdlPreloadTable.left = new FormAttachment(0, 0);
+    fdlPreloadTable.top = new FormAttachment(wUpdateBypassed, margin);
+    fdlPreloadTable.right = new FormAttachment(middle, -margin);
+    wlPreloadTable.setLayoutData(fdlPreloadTable);
+    wPreloadTable = new Button(shell, SWT.CHECK);
+    wPreloadTable.setToolTipText(
+        BaseMessages.getString(PKG, "InsertUpdateDialog.PreloadTable.Tooltip"));
+    PropsUi.setLook(wPreloadTable);
+    FormData fdPreloadTable = new FormData();
+    fdPreloadTable.left = new FormAttachment(middle, 0);
+    fdPreloadTable.top = new FormAttachment(wlPreloadTable, 0, SWT.CENTER);
+    fdPreloadTable.right = new FormAttachment(100, 0);
+    wPreloadTable.setLayoutData(fdPreloadTable);
+    wPreloadTable.addSelectionListener(new ComponentSelectionListener(input));
+
     Label wlKey = new Label(shell, SWT.NONE);
     wlKey.setText(BaseMessages.getString(PKG, "InsertUpdateDialog.Keys.Label"));
     PropsUi.setLook(wlKey);
     FormData fdlKey = new FormData();
     fdlKey.left = new FormAttachment(0, 0);
-    fdlKey.top = new FormAttachment(wUpdateBypassed, margin);
+    fdlKey.top = new FormAttachment(wPreloadTable, margin);
     wlKey.setLayoutData(fdlKey);
 
     int nrKeyCols = 4;
@@ -609,6 +633,7 @@ public class InsertUpdateDialog extends BaseTransformDialog implements ITransfor
 
     wCommit.setText(input.getCommitSize());
     wUpdateBypassed.setSelection(input.isUpdateBypassed());
+    wPreloadTable.setSelection(input.isPreloadTable());
 
     if (input.getInsertUpdateLookupField().getLookupKeys() != null) {
       for (int i = 0; i < input.getInsertUpdateLookupField().getLookupKeys().size(); i++) {
@@ -676,6 +701,7 @@ public class InsertUpdateDialog extends BaseTransformDialog implements ITransfor
 
     inf.setCommitSize(wCommit.getText());
     inf.setUpdateBypassed(wUpdateBypassed.getSelection());
+    inf.setPreloadTable(wPreloadTable.getSelection());
 
     if (log.isDebug()) {
       logDebug(BaseMessages.getString(PKG, "InsertUpdateDialog.Log.FoundKeys", nrkeys + ""));
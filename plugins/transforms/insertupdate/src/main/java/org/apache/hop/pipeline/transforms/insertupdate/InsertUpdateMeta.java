@@ -83,6 +83,13 @@ public class InsertUpdateMeta extends BaseTransformMeta<InsertUpdate, InsertUpda
       injectionKey = "DO_NOT")
   private boolean updateBypassed;
 
+  /** Read the keys and a hash of the values of the table up front instead of a lookup per row */
+  @HopMetadataProperty(
+      key = "preload_table",
+      injectionKeyDescription = "InsertUpdateMeta.Injection.PRELOAD_TABLE",
+      injectionKey = "PRELOAD_TABLE")
+  private boolean preloadTable;
+
   /** database connection */
   @HopMetadataProperty(
       key = "connection",
@@ -645,6 +652,21 @@ public class InsertUpdateMeta extends BaseTransformMeta<InsertUpdate, InsertUpda
     this.updateBypassed = updateBypassed;
   }
 
+  /**
+   * @return true if the keys and a hash of the values of the table are read before the first row
+   */
+  public boolean isPreloadTable() {
+    return preloadTable;
+  }
+
+  /**
+   * @param preloadTable true to read the keys and a hash of the values of the table before the
+   *     first row
+   */
+  public void setPreloadTable(boolean preloadTable) {
+    this.preloadTable = preloadTable;
+  }
+
   @Override
   public IRowMeta getRequiredFields(IVariables variables) throws HopException {
 
@@ -19,6 +19,7 @@ package org.apache.hop.pipeline.transforms.insertupdate;
 
 import org.apache.hop.core.database.Database;
 import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.hash.RowContentHashIndex;
 import org.apache.hop.core.logging.ILoggingObject;
 import org.apache.hop.core.row.IValueMeta;
 import org.apache.hop.core.row.RowMeta;
@@ -34,9 +35,13 @@ import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.List;
 
+import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /** @see InsertUpdate */
@@ -108,4 +113,103 @@ public class InsertUpdateTestLazyConversion {
     transform.first = false;
     transform.processRow();
   }
+
+  @Test
+  public void testPreloadedTableLazyConversion() throws HopException {
+    Database db = mock(Database.class);
+    PreparedStatement insertStatement = mock(PreparedStatement.class);
+    PreparedStatement updateStatement = mock(PreparedStatement.class);
+    doReturn(insertStatement).when(db).getPrepStatementInsert();
+
+    ValueMetaString keyMeta = new ValueMetaString("Id");
+    keyMeta.setStorageType(IValueMeta.STORAGE_TYPE_BINARY_STRING);
+    keyMeta.setStorageMetadata(new ValueMetaString("Id"));
+
+    ValueMetaString storageMetadata = new ValueMetaString("Date");
+    storageMetadata.setConversionMask("yyyy-MM-dd");
+    ValueMetaDate valueMeta = new ValueMetaDate("Date");
+    valueMeta.setStorageType(IValueMeta.STORAGE_TYPE_BINARY_STRING);
+    valueMeta.setStorageMetadata(storageMetadata);
+
+    RowMeta inputRowMeta = new RowMeta();
+    inputRowMeta.addValueMeta(keyMeta);
+    inputRowMeta.addValueMeta(valueMeta);
+
+    InsertUpdateMeta transformMeta = smh.iTransformMeta;
+    InsertUpdateLookupField mockedIulf = mock(InsertUpdateLookupField.class);
+    List<InsertUpdateValue> items = mock(ArrayList.class);
+    when(transformMeta.getInsertUpdateLookupField()).thenReturn(mockedIulf);
+    when(transformMeta.getInsertUpdateLookupField().getValueFields()).thenReturn(items);
+    when(items.get(0)).thenReturn(mock(InsertUpdateValue.class));
+    when(items.get(0).isUpdate()).thenReturn(true);
+
+    // The table holds key "a" with the date of the first row
+    //
+    RowMeta preloadKeyMeta = new RowMeta();
+    preloadKeyMeta.addValueMeta(new ValueMetaString("Id"));
+    RowMeta preloadContentMeta = new RowMeta();
+    preloadContentMeta.addValueMeta(new ValueMetaDate("Date"));
+    RowContentHashIndex contentIndex =
+        new RowContentHashIndex(preloadKeyMeta, preloadContentMeta);
+    contentIndex.put(
+        new Object[] {"a"},
+        new Object[] {valueMeta.convertToNormalStorageType("2013-12-20".getBytes())});
+
+    RowMeta lookupParameterRowMeta = new RowMeta();
+    lookupParameterRowMeta.addValueMeta(keyMeta);
+
+    InsertUpdateData transformData = smh.iTransformData;
+    transformData.db = db;
+    transformData.keynrs = new int[] {0};
+    transformData.keynrs2 = new int[] {-1};
+    transformData.lookupParameterRowMeta = lookupParameterRowMeta;
+    transformData.valuenrs = new int[] {1};
+    transformData.contentnrs = new int[] {1};
+    transformData.preloaded = true;
+    transformData.contentIndex = contentIndex;
+    transformData.commitSize = 100;
+    transformData.insertRowMeta = new RowMeta();
+    transformData.updateParameterRowMeta = inputRowMeta;
+    transformData.prepStatementUpdate = updateStatement;
+
+    InsertUpdate transform =
+        new InsertUpdate(
+            smh.transformMeta,
+            smh.iTransformMeta,
+            smh.iTransformData,
+            0,
+            smh.pipelineMeta,
+            smh.pipeline);
+
+    // Unchanged
+    transform.compareValues(inputRowMeta, new Object[] {"a".getBytes(), "2013-12-20".getBytes()});
+    verify(db, never()).insertRow(any(PreparedStatement.class), anyBoolean(), anyBoolean());
+
+    // Changed
+    transform.compareValues(inputRowMeta, new Object[] {"a".getBytes(), "2013-12-21".getBytes()});
+    verify(db, times(1)).insertRow(updateStatement, false, false);
+
+    // New, after that the key is known
+    transform.compareValues(inputRowMeta, new Object[] {"b".getBytes(), "2013-12-21".getBytes()});
+    transform.compareValues(inputRowMeta, new Object[] {"b".getBytes(), "2013-12-21".getBytes()});
+    verify(db, times(1)).insertRow(insertStatement, false, false);
+    verify(db, times(2)).insertRow(any(PreparedStatement.class), anyBoolean(), anyBoolean());
+
+    // A key which isn't in memory is looked up: the database may compare differently
+    //
+    verify(db, times(1)).getLookup(any(PreparedStatement.class));
+    RowMeta returnRowMeta = new RowMeta();
+    returnRowMeta.addValueMeta(new ValueMetaDate("Date"));
+    doReturn(returnRowMeta).when(db).getReturnRowMeta();
+    doReturn(new Object[] {valueMeta.convertToNormalStorageType("2013-12-20".getBytes())})
+        .when(db)
+        .getLookup(any(PreparedStatement.class));
+
+    transform.compareValues(inputRowMeta, new Object[] {"A".getBytes(), "2013-12-20".getBytes()});
+    verify(db, times(2)).insertRow(any(PreparedStatement.class), anyBoolean(), anyBoolean());
+
+    transform.compareValues(inputRowMeta, new Object[] {"c".getBytes(), "2013-12-21".getBytes()});
+    verify(db, times(2)).insertRow(updateStatement, false, false);
+    verify(db, times(1)).insertRow(insertStatement, false, false);
+  }
 }
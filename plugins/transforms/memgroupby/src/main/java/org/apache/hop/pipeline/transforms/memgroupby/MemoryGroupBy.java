@@ -38,6 +38,7 @@ import org.apache.hop.core.row.value.ValueMetaInteger;
 import org.apache.hop.core.row.value.ValueMetaNumber;
 import org.apache.hop.core.row.value.ValueMetaString;
 import org.apache.hop.core.util.Utils;
+import org.apache.hop.core.vfs.HopVfs;
 import org.apache.hop.i18n.BaseMessages;
 import org.apache.hop.pipeline.Pipeline;
 import org.apache.hop.pipeline.PipelineMeta;
@@ -54,6 +55,12 @@ import static org.apache.hop.pipeline.transforms.memgroupby.MemoryGroupByMeta.Gr
 public class MemoryGroupBy extends BaseTransform<MemoryGroupByMeta, MemoryGroupByData> {
   private static final Class<?> PKG = MemoryGroupByMeta.class; // For Translator
 
+  /** New groups are spilled to 2^SPILL_PARTITION_BITS partitions */
+  private static final int SPILL_PARTITION_BITS = 5;
+
+  /** Beyond this depth the groups of a partition are aggregated in memory, whatever it takes */
+  private static final int MAX_SPILL_LEVEL = 6;
+
   private boolean allNullsAreZero = false;
   private boolean minNullIsValued = false;
 
@@ -188,29 +195,20 @@ public class MemoryGroupBy extends BaseTransform<MemoryGroupByMeta, MemoryGroupB
   }
 
   private void handleLastOfGroup() throws HopException {
+    boolean noGroups = data.map.isEmpty() && data.spillPartitions == null;
+
     // Dump the content of the map...
     //
-    for (HashEntry entry : data.map.keySet()) {
-      Aggregate aggregate = data.map.get(entry);
-      Object[] aggregateResult = getAggregateResult(aggregate);
+    outputGroups();
 
-      Object[] outputRowData = RowDataUtil.allocateRowData(data.outputRowMeta.size());
-      int index = 0;
-      for (int i = 0; i < data.groupMeta.size(); i++) {
-        outputRowData[index++] =
-            data.groupMeta.getValueMeta(i).convertToNormalStorageType(entry.getGroupData()[i]);
-      }
-      for (int i = 0; i < data.aggMeta.size(); i++) {
-        outputRowData[index++] =
-            data.aggMeta.getValueMeta(i).convertToNormalStorageType(aggregateResult[i]);
-      }
-      putRow(data.outputRowMeta, outputRowData);
-    }
+    // Then aggregate the groups which didn't fit in memory, one partition at a time
+    //
+    aggregateSpilledPartitions();
 
     // What if we always need to give back one row?
     // This means we give back 0 for count all, count distinct, null for everything else
     //
-    if (data.map.isEmpty() && meta.isAlwaysGivingBackOneRow()) {
+    if (noGroups && meta.isAlwaysGivingBackOneRow()) {
       Object[] outputRowData = RowDataUtil.allocateRowData(data.outputRowMeta.size());
       int index = 0;
       for (int i = 0; i < data.groupMeta.size(); i++) {
@@ -230,6 +228,125 @@ public class MemoryGroupBy extends BaseTransform<MemoryGroupByMeta, MemoryGroupB
     }
   }
 
+  private void outputGroups() throws HopException {
+    for (HashEntry entry : data.map.keySet()) {
+      Aggregate aggregate = data.map.get(entry);
+      Object[] aggregateResult = getAggregateResult(aggregate);
+
+      Object[] outputRowData = RowDataUtil.allocateRowData(data.outputRowMeta.size());
+      int index = 0;
+      for (int i = 0; i < data.groupMeta.size(); i++) {
+        outputRowData[index++] =
+            data.groupMeta.getValueMeta(i).convertToNormalStorageType(entry.getGroupData()[i]);
+      }
+      for (int i = 0; i < data.aggMeta.size(); i++) {
+        outputRowData[index++] =
+            data.aggMeta.getValueMeta(i).convertToNormalStorageType(aggregateResult[i]);
+      }
+      putRow(data.outputRowMeta, outputRowData);
+    }
+  }
+
+  /**
+   * Is there room for a new group in memory? Once the memory limits are reached, the groups in
+   * memory are still aggregated but the rows of new groups are written to a spill partition. All
+   * rows of a group end up in the same place, in their original order.
+   *
+   * @return true if the rows of a new group have to be spilled to disk
+   */
+  private boolean mustSpill() {
+    if (data.spillPartitions != null) {
+      return true;
+    }
+    if (data.spillLevel >= MAX_SPILL_LEVEL || data.map.isEmpty()) {
+      return false;
+    }
+
+    boolean full = data.spillGroupsLimit > 0 && data.map.size() >= data.spillGroupsLimit;
+
+    // Check the free memory every 1000 new groups...
+    //
+    if (!full && data.spillFreeMemoryLimit > 0 && ++data.newGroupsCounter >= 1000) {
+      data.newGroupsCounter = 0;
+      full = Const.getPercentageFreeMemory() < data.spillFreeMemoryLimit;
+    }
+
+    if (full) {
+      if (log.isDetailed()) {
+        logDetailed(
+            BaseMessages.getString(PKG, "MemoryGroupBy.Log.SpillingGroups", data.map.size()));
+      }
+      data.spillPartitions = new SpillPartition[1 << SPILL_PARTITION_BITS];
+      for (int i = 0; i < data.spillPartitions.length; i++) {
+        data.spillPartitions[i] =
+            new SpillPartition(data.spillDirectory, data.inputRowMeta, data.spillLevel + 1);
+      }
+    }
+    return full;
+  }
+
+  private void spillRow(HashEntry entry, Object[] r) throws HopException {
+    // Use other bits of the hash code at every level to split a partition further
+    //
+    int hash =
+        Integer.rotateLeft(
+            entry.hashCode() * 0x9E3779B9, data.spillLevel * SPILL_PARTITION_BITS);
+    data.spillPartitions[hash >>> (32 - SPILL_PARTITION_BITS)].write(r);
+  }
+
+  /** Queue the partitions the rows of new groups were spilled to. */
+  private void finishSpilling() {
+    if (data.spillPartitions == null) {
+      return;
+    }
+    for (SpillPartition partition : data.spillPartitions) {
+      if (partition.getNrRows() > 0) {
+        data.pendingPartitions.push(partition);
+      } else {
+        partition.delete();
+      }
+    }
+    data.spillPartitions = null;
+  }
+
+  /**
+   * Aggregate the spilled partitions one by one. Every partition holds the complete rows of its
+   * groups so the result of a partition can be passed on right away. A partition which still
+   * doesn't fit in memory is split up further.
+   */
+  private void aggregateSpilledPartitions() throws HopException {
+    finishSpilling();
+
+    while (!data.pendingPartitions.isEmpty()) {
+      SpillPartition partition = data.pendingPartitions.pop();
+      data.map.clear();
+      data.spillLevel = partition.getLevel();
+
+      if (log.isDetailed()) {
+        logDetailed(
+            BaseMessages.getString(
+                PKG,
+                "MemoryGroupBy.Log.AggregatingSpilledPartition",
+                partition.getNrRows(),
+                HopVfs.getFilename(partition.getFileObject())));
+      }
+      try {
+        partition.startReading();
+        Object[] r;
+        while ((r = partition.read()) != null) {
+          addToAggregate(r);
+        }
+      } finally {
+        partition.delete();
+      }
+
+      outputGroups();
+      finishSpilling();
+    }
+
+    data.spillLevel = 0;
+  }
+
   /**
    * Used for junits in MemoryGroupByAggregationNullsTest
    *
@@ -247,6 +364,11 @@ public class MemoryGroupBy extends BaseTransform<MemoryGroupByMeta, MemoryGroupB
 
     Aggregate aggregate = data.map.get(entry);
     if (aggregate == null) {
+      if (mustSpill()) {
+        spillRow(entry, r);
+        return;
+      }
+
       // Create a new value...
       //
       aggregate = new Aggregate();
@@ -574,6 +696,9 @@ public class MemoryGroupBy extends BaseTransform<MemoryGroupByMeta, MemoryGroupB
 
     if (super.init()) {
       data.map = new HashMap<>(5000);
+      data.spillGroupsLimit = Const.toLong(resolve(meta.getSpillGroupsLimit()), 0L);
+      data.spillFreeMemoryLimit = Const.toInt(resolve(meta.getSpillFreeMemoryLimit()), 0);
+      data.spillDirectory = resolve(meta.getSpillDirectory());
       return true;
     }
     return false;
@@ -23,6 +23,8 @@ import org.apache.hop.core.row.IValueMeta;
 import org.apache.hop.pipeline.transform.BaseTransformData;
 import org.apache.hop.pipeline.transform.ITransformData;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.HashMap;
 
 public class MemoryGroupByData extends BaseTransformData implements ITransformData {
@@ -89,8 +91,28 @@ public class MemoryGroupByData extends BaseTransformData implements ITransformDa
 
   public boolean newBatch;
 
+  /** The maximum number of groups in memory, 0 for no limit */
+  public long spillGroupsLimit;
+
+  /** The percentage of free memory below which groups are spilled, 0 for no limit */
+  public int spillFreeMemoryLimit;
+
+  public String spillDirectory;
+
+  /** The partitions new groups are spilled to, null as long as everything fits in memory */
+  public SpillPartition[] spillPartitions;
+
+  /** The number of times the rows being aggregated were partitioned already */
+  public int spillLevel;
+
+  /** The spilled partitions waiting to be aggregated */
+  public Deque<SpillPartition> pendingPartitions;
+
+  public int newGroupsCounter;
+
   public MemoryGroupByData() {
     super();
+    pendingPartitions = new ArrayDeque<>();
   }
 
   public HashEntry getHashEntry(Object[] groupData) {
@@ -100,5 +122,15 @@ public class MemoryGroupByData extends BaseTransformData implements ITransformDa
   /** Method responsible for clearing out memory hogs */
   public void clear() {
     map = new HashMap<>();
+    if (spillPartitions != null) {
+      for (SpillPartition partition : spillPartitions) {
+        partition.delete();
+      }
+      spillPartitions = null;
+    }
+    for (SpillPartition partition : pendingPartitions) {
+      partition.delete();
+    }
+    pendingPartitions.clear();
   }
 }
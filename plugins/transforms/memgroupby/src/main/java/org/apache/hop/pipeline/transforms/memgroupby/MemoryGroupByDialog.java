@@ -33,6 +33,7 @@ import org.apache.hop.ui.core.dialog.BaseDialog;
 import org.apache.hop.ui.core.dialog.ErrorDialog;
 import org.apache.hop.ui.core.widget.ColumnInfo;
 import org.apache.hop.ui.core.widget.TableView;
+import org.apache.hop.ui.core.widget.TextVar;
 import org.apache.hop.ui.pipeline.transform.BaseTransformDialog;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.events.ModifyListener;
@@ -59,6 +60,12 @@ public class MemoryGroupByDialog extends BaseTransformDialog implements ITransfo
 
   private Button wAlwaysAddResult;
 
+  private TextVar wSpillGroupsLimit;
+
+  private TextVar wSpillFreeMemoryLimit;
+
+  private TextVar wSpillDirectory;
+
   private final MemoryGroupByMeta input;
 
   private ColumnInfo[] ciKey;
@@ -143,12 +150,87 @@ public class MemoryGroupByDialog extends BaseTransformDialog implements ITransfo
     wAlwaysAddResult.setLayoutData(fdAlwaysAddResult);
     wAlwaysAddResult.addSelectionListener(lsSel);
 
+    // Maximum number of groups in memory
+    //
+    Label wlSpillGroupsLimit = new Label(shell, SWT.RIGHT);
+    wlSpillGroupsLimit.setText(
+        BaseMessages.getString(PKG, "MemoryGroupByDialog.SpillGroupsLimit.Label"));
+    PropsUi.setLook(wlSpillGroupsLimit);
+    FormData fdlSpillGroupsLimit = new FormData();
+    fdlSpillGroupsLimit.left = new FormAttachment(0, 0);
+    fdlSpillGroupsLimit.top = new FormAttachment(wlAlwaysAddResult, margin);
+    fdlSpillGroupsLimit.right = new FormAttachment(middle, -margin);
+    wlSpillGroupsLimit.setLayoutData(fdlSpillGroupsLimit);
+    wSpillGroupsLimit = new TextVar(variables, shell, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+    wSpillGroupsLimit.setToolTipText(
+        BaseMessages.getString(PKG, "MemoryGroupByDialog.SpillGroupsLimit.ToolTip"));
+    PropsUi.setLook(wSpillGroupsLimit);
+    wSpillGroupsLimit.addModifyListener(lsMod);
+    FormData fdSpillGroupsLimit = new FormData();
+    fdSpillGroupsLimit.left = new FormAttachment(middle, 0);
+    fdSpillGroupsLimit.top = new FormAttachment(wlSpillGroupsLimit, 0, SWT.CENTER);
+    fdSpillGroupsLimit.right = new FormAttachment(100, 0);
+    wSpillGroupsLimit.setLayoutData(fdSpillGroupsLimit);
+
+    // Free memory threshold
+    //
+    Label wlSpillFreeMemoryLimit = new Label(shell, SWT.RIGHT);
+    wlSpillFreeMemoryLimit.setText(
+        BaseMessages.getString(PKG, "MemoryGroupByDialog.SpillFreeMemoryLimit.Label"));
+    PropsUi.setLook(wlSpillFreeMemoryLimit);
+    FormData fdlSpillFreeMemoryLimit = new FormData();
+    fdlSpillFreeMemoryLimit.left = new FormAttachment(0, 0);
+    fdlSpillFreeMemoryLimit.top = new FormAttachment(wSpillGroupsLimit, margin);
+    fdlSpillFreeMemoryLimit.right = new FormAttachment(middle, -margin);
+    wlSpillFreeMemoryLimit.setLayoutData(fdlSpillFreeMemoryLimit);
+    wSpillFreeMemoryLimit = new TextVar(variables, shell, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+    wSpillFreeMemoryLimit.setToolTipText(
+        BaseMessages.getString(PKG, "MemoryGroupByDialog.SpillFreeMemoryLimit.ToolTip"));
+    PropsUi.setLook(wSpillFreeMemoryLimit);
+    wSpillFreeMemoryLimit.addModifyListener(lsMod);
+    FormData fdSpillFreeMemoryLimit = new FormData();
+    fdSpillFreeMemoryLimit.left = new FormAttachment(middle, 0);
+    fdSpillFreeMemoryLimit.top = new FormAttachment(wlSpillFreeMemoryLimit, 0, SWT.CENTER);
+    fdSpillFreeMemoryLimit.right = new FormAttachment(100, 0);
+    wSpillFreeMemoryLimit.setLayoutData(fdSpillFreeMemoryLimit);
+
+    // Spill directory
+    //
+    Label wlSpillDirectory = new Label(shell, SWT.RIGHT);
+    wlSpillDirectory.setText(
+        BaseMessages.getString(PKG, "MemoryGroupByDialog.SpillDirectory.Label"));
+    PropsUi.setLook(wlSpillDirectory);
+    FormData fdlSpillDirectory = new FormData();
+    fdlSpillDirectory.left = new FormAttachment(0, 0);
+    fdlSpillDirectory.top = new FormAttachment(wSpillFreeMemoryLimit, margin);
+    fdlSpillDirectory.right = new FormAttachment(middle, -margin);
+    wlSpillDirectory.setLayoutData(fdlSpillDirectory);
+
+    Button wbSpillDirectory = new Button(shell, SWT.PUSH | SWT.CENTER);
+    PropsUi.setLook(wbSpillDirectory);
+    wbSpillDirectory.setText(BaseMessages.getString(PKG, "System.Button.Browse"));
+    FormData fdbSpillDirectory = new FormData();
+    fdbSpillDirectory.right = new FormAttachment(100, 0);
+    fdbSpillDirectory.top = new FormAttachment(wSpillFreeMemoryLimit, margin);
+    wbSpillDirectory.setLayoutData(fdbSpillDirectory);
+
+    wSpillDirectory = new TextVar(variables, shell, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+    PropsUi.setLook(wSpillDirectory);
+    wSpillDirectory.addModifyListener(lsMod);
+    FormData fdSpillDirectory = new FormData();
+    fdSpillDirectory.left = new FormAttachment(middle, 0);
+    fdSpillDirectory.top = new FormAttachment(wSpillFreeMemoryLimit, margin);
+    fdSpillDirectory.right = new FormAttachment(wbSpillDirectory, -margin);
+    wSpillDirectory.setLayoutData(fdSpillDirectory);
+    wbSpillDirectory.addListener(
+        SWT.Selection, e -> BaseDialog.presentDirectoryDialog(shell, wSpillDirectory, variables));
+
     Label wlGroup = new Label(shell, SWT.NONE);
     wlGroup.setText(BaseMessages.getString(PKG, "MemoryGroupByDialog.Group.Label"));
     PropsUi.setLook(wlGroup);
     FormData fdlGroup = new FormData();
     fdlGroup.left = new FormAttachment(0, 0);
-    fdlGroup.top = new FormAttachment(wlAlwaysAddResult, 2 * margin);
+    fdlGroup.top = new FormAttachment(wbSpillDirectory, 2 * margin);
     wlGroup.setLayoutData(fdlGroup);
 
     int groupCols = 1;
@@ -305,6 +387,9 @@ public class MemoryGroupByDialog extends BaseTransformDialog implements ITransfo
     logDebug(BaseMessages.getString(PKG, "MemoryGroupByDialog.Log.GettingKeyInfo"));
 
     wAlwaysAddResult.setSelection(input.isAlwaysGivingBackOneRow());
+    wSpillGroupsLimit.setText(Const.NVL(input.getSpillGroupsLimit(), ""));
+    wSpillFreeMemoryLimit.setText(Const.NVL(input.getSpillFreeMemoryLimit(), ""));
+    wSpillDirectory.setText(Const.NVL(input.getSpillDirectory(), ""));
 
     for (int i = 0; i < input.getGroups().size(); i++) {
       TableItem item = wGroup.table.getItem(i);
@@ -341,6 +426,9 @@ public class MemoryGroupByDialog extends BaseTransformDialog implements ITransfo
     }
 
     input.setAlwaysGivingBackOneRow(wAlwaysAddResult.getSelection());
+    input.setSpillGroupsLimit(wSpillGroupsLimit.getText());
+    input.setSpillFreeMemoryLimit(wSpillFreeMemoryLimit.getText());
+    input.setSpillDirectory(wSpillDirectory.getText());
 
     input.getGroups().clear();
     for (TableItem item : wGroup.getNonEmptyItems()) {
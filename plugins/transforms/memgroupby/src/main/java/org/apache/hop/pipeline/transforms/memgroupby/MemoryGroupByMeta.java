@@ -83,9 +83,31 @@ public class MemoryGroupByMeta extends BaseTransformMeta<MemoryGroupBy, MemoryGr
       injectionKeyDescription = "MemoryGroupBy.Injection.ALWAYSGIVINGBACKONEROW")
   private boolean alwaysGivingBackOneRow;
 
+  /** The maximum number of groups kept in memory before new groups are spilled to disk */
+  @HopMetadataProperty(
+      key = "spill_groups_limit",
+      injectionKey = "SPILL_GROUPS_LIMIT",
+      injectionKeyDescription = "MemoryGroupBy.Injection.SPILL_GROUPS_LIMIT")
+  private String spillGroupsLimit;
+
+  /** The percentage of free memory below which new groups are spilled to disk */
+  @HopMetadataProperty(
+      key = "spill_free_memory_limit",
+      injectionKey = "SPILL_FREE_MEMORY_LIMIT",
+      injectionKeyDescription = "MemoryGroupBy.Injection.SPILL_FREE_MEMORY_LIMIT")
+  private String spillFreeMemoryLimit;
+
+  /** The directory to spill the rows of the groups which don't fit in memory to */
+  @HopMetadataProperty(
+      key = "spill_directory",
+      injectionKey = "SPILL_DIRECTORY",
+      injectionKeyDescription = "MemoryGroupBy.Injection.SPILL_DIRECTORY")
+  private String spillDirectory;
+
   public MemoryGroupByMeta() {
     this.groups = new ArrayList<>();
     this.aggregates = new ArrayList<>();
+    this.spillDirectory = "${java.io.tmpdir}";
   }
 
   public MemoryGroupByMeta(MemoryGroupByMeta meta) {
@@ -97,6 +119,9 @@ public class MemoryGroupByMeta extends BaseTransformMeta<MemoryGroupBy, MemoryGr
       aggregates.add(new GAggregate(aggregate));
     }
     this.alwaysGivingBackOneRow = meta.alwaysGivingBackOneRow;
+    this.spillGroupsLimit = meta.spillGroupsLimit;
+    this.spillFreeMemoryLimit = meta.spillFreeMemoryLimit;
+    this.spillDirectory = meta.spillDirectory;
   }
 
   @Override
@@ -476,6 +501,60 @@ public class MemoryGroupByMeta extends BaseTransformMeta<MemoryGroupBy, MemoryGr
     this.alwaysGivingBackOneRow = alwaysGivingBackOneRow;
   }
 
+  /**
+   * Gets spillGroupsLimit
+   *
+   * @return the maximum number of groups kept in memory, empty or 0 for no limit
+   */
+  public String getSpillGroupsLimit() {
+    return spillGroupsLimit;
+  }
+
+  /**
+   * Sets spillGroupsLimit
+   *
+   * @param spillGroupsLimit the maximum number of groups kept in memory, empty or 0 for no limit
+   */
+  public void setSpillGroupsLimit(String spillGroupsLimit) {
+    this.spillGroupsLimit = spillGroupsLimit;
+  }
+
+  /**
+   * Gets spillFreeMemoryLimit
+   *
+   * @return the percentage of free memory below which groups are spilled, empty or 0 for no limit
+   */
+  public String getSpillFreeMemoryLimit() {
+    return spillFreeMemoryLimit;
+  }
+
+  /**
+   * Sets spillFreeMemoryLimit
+   *
+   * @param spillFreeMemoryLimit the percentage of free memory below which groups are spilled
+   */
+  public void setSpillFreeMemoryLimit(String spillFreeMemoryLimit) {
+    this.spillFreeMemoryLimit = spillFreeMemoryLimit;
+  }
+
+  /**
+   * Gets spillDirectory
+   *
+   * @return value of spillDirectory
+   */
+  public String getSpillDirectory() {
+    return spillDirectory;
+  }
+
+  /**
+   * Sets spillDirectory
+   *
+   * @param spillDirectory value of spillDirectory
+   */
+  public void setSpillDirectory(String spillDirectory) {
+    this.spillDirectory = spillDirectory;
+  }
+
   @Override
   public boolean supportsMultiCopyExecution() {
     return false;
@@ -0,0 +1,175 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.memgroupby;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import org.apache.commons.vfs2.FileObject;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.vfs.HopVfs;
+
+/**
+ * A temporary file with the input rows of the groups of one hash partition which didn't fit in
+ * memory. The rows are aggregated again once the groups in memory are passed on.
+ */
+public class SpillPartition {
+
+  private static final int BUFFER_SIZE = 256 * 1024;
+
+  private final String directory;
+  private final IRowMeta rowMeta;
+  private final int level;
+
+  private FileObject fileObject;
+  private DataOutputStream outputStream;
+  private DataInputStream inputStream;
+  private long nrRows;
+  private long rowsLeft;
+
+  /**
+   * @param directory the directory to create the temporary file in
+   * @param rowMeta the layout of the input rows
+   * @param level the number of times the rows in this file were partitioned
+   */
+  public SpillPartition(String directory, IRowMeta rowMeta, int level) {
+    this.directory = directory;
+    this.rowMeta = rowMeta;
+    this.level = level;
+  }
+
+  /**
+   * Write an input row to the file, the file is created when needed.
+   *
+   * @param row the row to write
+   * @throws HopException in case of an I/O error
+   */
+  public void write(Object[] row) throws HopException {
+    try {
+      if (outputStream == null) {
+        fileObject = HopVfs.createTempFile("memgroupby", ".tmp", directory);
+        outputStream =
+            new DataOutputStream(
+                new BufferedOutputStream(HopVfs.getOutputStream(fileObject, false), BUFFER_SIZE));
+      }
+      rowMeta.writeData(outputStream, row);
+      nrRows++;
+    } catch (Exception e) {
+      throw new HopException("Error writing to temporary file " + fileObject, e);
+    }
+  }
+
+  /**
+   * Close the file after writing and open it for reading.
+   *
+   * @throws HopException in case of an I/O error
+   */
+  public void startReading() throws HopException {
+    try {
+      if (outputStream != null) {
+        outputStream.close();
+        outputStream = null;
+      }
+      inputStream =
+          new DataInputStream(
+              new BufferedInputStream(HopVfs.getInputStream(fileObject), BUFFER_SIZE));
+      rowsLeft = nrRows;
+    } catch (Exception e) {
+      throw new HopException("Error opening temporary file " + fileObject, e);
+    }
+  }
+
+  /**
+   * Read the next input row.
+   *
+   * @return the row or null if all rows were read
+   * @throws HopException in case of an I/O error
+   */
+  public Object[] read() throws HopException {
+    if (rowsLeft <= 0) {
+      return null;
+    }
+    try {
+      rowsLeft--;
+      return rowMeta.readData(inputStream);
+    } catch (Exception e) {
+      throw new HopException("Error reading from temporary file " + fileObject, e);
+    }
+  }
+
+  /** Close the file and delete it, ignoring errors */
+  public void delete() {
+    closeStreams();
+    if (fileObject == null) {
+      return;
+    }
+    try {
+      fileObject.delete();
+    } catch (Exception e) {
+      // Ignore, it's a temporary file
+    }
+  }
+
+  private void closeStreams() {
+    closeQuietly(outputStream);
+    closeQuietly(inputStream);
+    outputStream = null;
+    inputStream = null;
+  }
+
+  private static void closeQuietly(Closeable closeable) {
+    try {
+      if (closeable != null) {
+        closeable.close();
+      }
+    } catch (IOException e) {
+      // Ignore, the file is deleted anyway
+    }
+  }
+
+  /**
+   * Gets fileObject
+   *
+   * @return the temporary file or null if nothing was written
+   */
+  public FileObject getFileObject() {
+    return fileObject;
+  }
+
+  /**
+   * Gets level
+   *
+   * @return the number of times the rows in this file were partitioned
+   */
+  public int getLevel() {
+    return level;
+  }
+
+  /**
+   * Gets nrRows
+   *
+   * @return the number of rows written to the file
+   */
+  public long getNrRows() {
+    return nrRows;
+  }
+}
@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.memgroupby;
+
+import org.apache.hop.core.HopClientEnvironment;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.logging.ILoggingObject;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.row.value.ValueMetaString;
+import org.apache.hop.junit.rules.RestoreHopEngineEnvironment;
+import org.apache.hop.pipeline.transforms.mock.TransformMockHelper;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.when;
+
+public class MemoryGroupBySpillTest {
+  @ClassRule public static RestoreHopEngineEnvironment env = new RestoreHopEngineEnvironment();
+
+  private static TransformMockHelper<MemoryGroupByMeta, MemoryGroupByData> mockHelper;
+
+  @BeforeClass
+  public static void setUpBeforeClass() throws HopException {
+    HopClientEnvironment.init();
+    mockHelper =
+        new TransformMockHelper<>(
+            "Memory Group By", MemoryGroupByMeta.class, MemoryGroupByData.class);
+    when(mockHelper.logChannelFactory.create(any(), any(ILoggingObject.class)))
+        .thenReturn(mockHelper.iLogChannel);
+  }
+
+  @AfterClass
+  public static void cleanUp() {
+    mockHelper.cleanUp();
+  }
+
+  @Test
+  public void testSpilledGroupsGiveSameResult() throws Exception {
+    Map<String, Object[]> expected = runTransform(0);
+
+    // A tiny limit makes the groups spill over several levels of partitions
+    //
+    Map<String, Object[]> spilled = runTransform(10);
+
+    assertEquals(expected.size(), spilled.size());
+    for (Map.Entry<String, Object[]> entry : expected.entrySet()) {
+      Object[] spilledRow = spilled.get(entry.getKey());
+      for (int i = 0; i < entry.getValue().length; i++) {
+        assertEquals(entry.getKey() + " field " + i, entry.getValue()[i], spilledRow[i]);
+      }
+    }
+  }
+
+  private Map<String, Object[]> runTransform(long spillGroupsLimit) throws HopException {
+    IRowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaString("group"));
+    rowMeta.addValueMeta(new ValueMetaInteger("value"));
+
+    MemoryGroupByMeta meta = new MemoryGroupByMeta();
+    meta.getGroups().add(new GGroup("group"));
+    meta.getAggregates()
+        .add(new GAggregate("sum", "value", MemoryGroupByMeta.GroupType.Sum, null));
+    meta.getAggregates()
+        .add(new GAggregate("count", "value", MemoryGroupByMeta.GroupType.CountAll, null));
+    meta.getAggregates()
+        .add(new GAggregate("first", "value", MemoryGroupByMeta.GroupType.First, null));
+    meta.getAggregates()
+        .add(new GAggregate("last", "value", MemoryGroupByMeta.GroupType.Last, null));
+
+    MemoryGroupByData data = new MemoryGroupByData();
+    data.map = new HashMap<>();
+    data.spillGroupsLimit = spillGroupsLimit;
+    data.spillDirectory = System.getProperty("java.io.tmpdir");
+
+    when(mockHelper.transformMeta.getTransform()).thenReturn(meta);
+    MemoryGroupBy transform =
+        spy(
+            new MemoryGroupBy(
+                mockHelper.transformMeta,
+                meta,
+                data,
+                0,
+                mockHelper.pipelineMeta,
+                mockHelper.pipeline));
+    doNothing().when(transform).setOutputDone();
+    doReturn(rowMeta).when(transform).getInputRowMeta();
+
+    Map<String, Object[]> output = new HashMap<>();
+    doAnswer(
+            invocation -> {
+              Object[] row = (Object[]) invocation.getArguments()[1];
+              Object[] previous = output.put((String) row[0], row);
+              assertEquals("Group " + row[0] + " was passed twice", null, previous);
+              return null;
+            })
+        .when(transform)
+        .putRow((IRowMeta) any(), (Object[]) any());
+
+    List<Object[]> rows = new ArrayList<>();
+    for (long i = 0; i < 5000; i++) {
+      rows.add(new Object[] {"group-" + (i * 7919 % 500), i});
+    }
+    Iterator<Object[]> iterator = rows.iterator();
+    doAnswer(invocation -> iterator.hasNext() ? iterator.next() : null).when(transform).getRow();
+    while (transform.processRow()) {}
+
+    assertEquals(500, output.size());
+    assertEquals(0, data.pendingPartitions.size());
+    return output;
+  }
+}
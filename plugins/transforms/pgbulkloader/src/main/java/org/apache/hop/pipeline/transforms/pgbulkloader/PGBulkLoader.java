@@ -33,7 +33,10 @@ import org.apache.hop.core.exception.HopException;
 import org.apache.hop.core.logging.ILoggingObject;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.core.row.IValueMeta;
+import org.apache.hop.core.row.RowMeta;
 import org.apache.hop.core.util.Utils;
+import org.apache.hop.databases.postgresql.PostgreSqlBinaryCopyEncoder;
+import org.apache.hop.databases.postgresql.PostgreSqlBulkLoader;
 import org.apache.hop.i18n.BaseMessages;
 import org.apache.hop.pipeline.Pipeline;
 import org.apache.hop.pipeline.PipelineMeta;
@@ -48,6 +51,7 @@ import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.Arrays;
 import java.util.List;
 
 /** Performs a bulk load to a postgres table. */
@@ -55,8 +59,14 @@ public class PGBulkLoader extends BaseTransform<PGBulkLoaderMeta, PGBulkLoaderDa
 
   private static final Class<?> PKG = PGBulkLoaderMeta.class; // For Translator
 
+  /** Encoded rows are handed to the writer thread in buffers of about this size */
+  private static final int BINARY_BUFFER_SIZE = 64 * 1024;
+
+  /** The number of buffers which can wait for the writer thread */
+  private static final int BINARY_BUFFERS_IN_FLIGHT = 4;
+
   private Charset clientEncoding = Charset.defaultCharset();
-  private PGCopyOutputStream pgCopyOut;
+  @VisibleForTesting PGCopyOutputStream pgCopyOut;
 
   public PGBulkLoader(
       TransformMeta transformMeta,
@@ -110,12 +120,16 @@ public class PGBulkLoader extends BaseTransform<PGBulkLoaderMeta, PGBulkLoaderDa
     contents.append(" FROM STDIN"); // FIFO file
 
     // The "FORMAT" clause
-    contents
-        .append(" WITH CSV DELIMITER AS '")
-        .append(resolve(meta.getDelimiter()))
-        .append("' QUOTE AS '")
-        .append(resolve(meta.getEnclosure()))
-        .append("'");
+    if (meta.isBinaryFormat()) {
+      contents.append(" WITH (FORMAT BINARY)");
+    } else {
+      contents
+          .append(" WITH CSV DELIMITER AS '")
+          .append(resolve(meta.getDelimiter()))
+          .append("' QUOTE AS '")
+          .append(resolve(meta.getEnclosure()))
+          .append("'");
+    }
     contents.append(";").append(Const.CR);
 
     return contents.toString();
@@ -154,14 +168,56 @@ public class PGBulkLoader extends BaseTransform<PGBulkLoaderMeta, PGBulkLoaderDa
 
       processTruncate();
 
+      if (meta.isBinaryFormat()) {
+        data.encoder = new PostgreSqlBinaryCopyEncoder(getBinaryRowMeta(), getColumnTypes());
+        data.binaryRow = new Object[data.keynrs.length];
+      }
+
       logBasic("Launching command: " + copyCmd);
       pgCopyOut = new PGCopyOutputStream((PGConnection) data.db.getConnection(), copyCmd);
 
+      if (data.encoder != null) {
+        data.encoder.writeHeader();
+        data.copyWriter =
+            new PGBulkLoaderCopyWriter(pgCopyOut, BINARY_BUFFERS_IN_FLIGHT, this::abortConnection);
+        data.copyWriter.start(getTransformName() + " COPY writer");
+      }
     } catch (Exception ex) {
       throw new HopException("Error while preparing the COPY " + copyCmd, ex);
     }
   }
 
+  /** @return the layout of the values to load, in the order of the mappings */
+  private IRowMeta getBinaryRowMeta() throws HopException {
+    IRowMeta rowMeta = new RowMeta();
+    for (int i = 0; i < data.keynrs.length; i++) {
+      if (data.keynrs[i] < 0) {
+        throw new HopException(
+            "Unable to find field ["
+                + meta.getMappings().get(i).getFieldStream()
+                + "] in the input row");
+      }
+      rowMeta.addValueMeta(getInputRowMeta().getValueMeta(data.keynrs[i]));
+    }
+    return rowMeta;
+  }
+
+  /**
+   * The binary format needs the exact types of the target columns, ask the server for them.
+   *
+   * @return the type names of the mapped columns
+   */
+  private String[] getColumnTypes() throws HopException {
+    DatabaseMeta dm = meta.getDatabaseMeta();
+    String tableName =
+        dm.getQuotedSchemaTableCombination(this, meta.getSchemaName(), meta.getTableName());
+    String[] columns = new String[meta.getMappings().size()];
+    for (int i = 0; i < columns.length; i++) {
+      columns[i] = dm.quoteField(meta.getMappings().get(i).getFieldTable());
+    }
+    return PostgreSqlBulkLoader.getColumnTypes(data.db.getConnection(), tableName, columns);
+  }
+
   @VisibleForTesting
   Database getDatabase(ILoggingObject parentObject, PGBulkLoaderMeta pgBulkLoaderMeta) {
     DatabaseMeta dbMeta = pgBulkLoaderMeta.getDatabaseMeta();
@@ -215,6 +271,12 @@ public class PGBulkLoader extends BaseTransform<PGBulkLoaderMeta, PGBulkLoaderDa
         // Close the output stream...
         // will be null if no records (empty stream)
         if (data != null && pgCopyOut != null) {
+          if (data.encoder != null) {
+            data.encoder.writeTrailer();
+            sendBinaryBuffer();
+            data.copyWriter.finish();
+            data.copyWriter = null;
+          }
           pgCopyOut.flush();
           pgCopyOut.endCopy();
           pgCopyOut.close();
@@ -251,6 +313,10 @@ public class PGBulkLoader extends BaseTransform<PGBulkLoaderMeta, PGBulkLoaderDa
       return true;
     } catch (Exception e) {
       logError(BaseMessages.getString(PKG, "GPBulkLoader.Log.ErrorInTransform"), e);
+      if (data.copyWriter != null) {
+        data.copyWriter.cancel();
+        data.copyWriter = null;
+      }
       setErrors(1);
       stopAll();
       setOutputDone(); // signal end to receiver(s)
@@ -258,7 +324,33 @@ public class PGBulkLoader extends BaseTransform<PGBulkLoaderMeta, PGBulkLoaderDa
     }
   }
 
+  /**
+   * Encode the mapped values in the binary format. The values are converted to the types of the
+   * target columns, the date masks don't apply.
+   */
+  private void writeBinaryRowToPostgres(Object[] r) throws HopException {
+    for (int i = 0; i < data.keynrs.length; i++) {
+      data.binaryRow[i] = r[data.keynrs[i]];
+    }
+    data.encoder.writeRow(data.binaryRow);
+    if (data.encoder.getLength() >= BINARY_BUFFER_SIZE) {
+      sendBinaryBuffer();
+    }
+  }
+
+  /** Hand the encoded rows over to the writer thread and continue with an empty buffer */
+  private void sendBinaryBuffer() throws HopException {
+    if (data.encoder.getLength() > 0) {
+      data.copyWriter.write(Arrays.copyOf(data.encoder.getBuffer(), data.encoder.getLength()));
+      data.encoder.reset();
+    }
+  }
+
   private void writeRowToPostgres(IRowMeta rowMeta, Object[] r) throws HopException {
+    if (data.encoder != null) {
+      writeBinaryRowToPostgres(r);
+      return;
+    }
 
     try {
       // So, we have this output stream to which we can write CSV data to.
@@ -481,4 +573,42 @@ public class PGBulkLoader extends BaseTransform<PGBulkLoaderMeta, PGBulkLoaderDa
     }
     return false;
   }
+
+  /**
+   * Close the connection under a COPY write which is blocked: cancelCopy() would wait for the
+   * write to finish.
+   */
+  private void abortConnection() {
+    try {
+      data.db.getConnection().abort(Runnable::run);
+    } catch (SQLException e) {
+      logError("Error closing the connection of the COPY", e);
+    }
+  }
+
+  @Override
+  public void dispose() {
+    // When the pipeline is stopped or fails the COPY is still going on: stop the writer thread
+    // and cancel the COPY before the connection is closed
+    //
+    if (data.copyWriter != null) {
+      data.copyWriter.cancel();
+      data.copyWriter = null;
+    }
+    if (pgCopyOut != null) {
+      try {
+        if (pgCopyOut.isActive() && !data.db.getConnection().isClosed()) {
+          pgCopyOut.cancelCopy();
+        }
+      } catch (SQLException e) {
+        logError("Error cancelling the COPY", e);
+      }
+      pgCopyOut = null;
+    }
+    if (data.db != null) {
+      data.db.disconnect();
+      data.db = null;
+    }
+    super.dispose();
+  }
 }
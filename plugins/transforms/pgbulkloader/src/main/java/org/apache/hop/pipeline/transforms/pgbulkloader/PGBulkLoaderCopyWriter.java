@@ -0,0 +1,171 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.pgbulkloader;
+
+import org.apache.hop.core.exception.HopException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Sends the encoded rows of a binary COPY to the server on a separate thread: while one buffer is
+ * being sent, the transform encodes the next rows. Only a few buffers wait to be sent, when the
+ * server can't keep up the transform blocks.
+ *
+ * <p>Only the writer thread uses the COPY stream once it's started, until {@link #finish()}
+ * returns.
+ */
+public class PGBulkLoaderCopyWriter implements Runnable {
+
+  private static final byte[] END_OF_DATA = new byte[0];
+
+  /** How long to wait for the writer thread to stop when the COPY is cancelled */
+  private static final long CANCEL_TIMEOUT_MILLIS = 10000L;
+
+  private final OutputStream outputStream;
+  private final BlockingQueue<byte[]> buffers;
+  private final Runnable abortWrite;
+
+  /** The writer thread is sending a buffer to the server */
+  private volatile boolean writing;
+
+  /** The first error of the writer thread, the buffers after it are discarded */
+  private volatile Exception exception;
+
+  private Thread thread;
+
+  /**
+   * @param outputStream the COPY stream
+   * @param capacity the maximum number of buffers waiting to be sent
+   * @param abortWrite makes a write which is in progress fail, e.g. by closing the connection
+   */
+  public PGBulkLoaderCopyWriter(OutputStream outputStream, int capacity, Runnable abortWrite) {
+    this.outputStream = outputStream;
+    this.buffers = new ArrayBlockingQueue<>(capacity);
+    this.abortWrite = abortWrite;
+  }
+
+  /**
+   * Start the writer thread
+   *
+   * @param threadName the name of the thread
+   */
+  public void start(String threadName) {
+    thread = new Thread(this, threadName);
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  /**
+   * Hand a buffer over to the writer thread. This blocks while the queue is full.
+   *
+   * @param buffer the encoded rows, not to be modified afterwards
+   * @throws HopException in case an earlier buffer couldn't be sent or when interrupted
+   */
+  public void write(byte[] buffer) throws HopException {
+    checkException();
+    try {
+      buffers.put(buffer);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new HopException("Interrupted while handing rows to the COPY writer thread", e);
+    }
+  }
+
+  /**
+   * Wait until all buffers handed over are sent and stop the writer thread.
+   *
+   * @throws HopException in case a buffer couldn't be sent or when interrupted
+   */
+  public void finish() throws HopException {
+    if (thread != null) {
+      try {
+        buffers.put(END_OF_DATA);
+        thread.join();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new HopException("Interrupted while waiting for the COPY writer thread", e);
+      } finally {
+        thread = null;
+      }
+    }
+    checkException();
+  }
+
+  /**
+   * Stop the writer thread, the buffers which weren't sent yet are discarded. Interrupting the
+   * thread doesn't unblock a write to the server, so a write in progress is aborted first.
+   */
+  public void cancel() {
+    if (thread != null) {
+      buffers.clear();
+      buffers.offer(END_OF_DATA);
+      boolean aborted = writing;
+      if (aborted) {
+        abortWrite.run();
+      }
+      thread.interrupt();
+      try {
+        thread.join(CANCEL_TIMEOUT_MILLIS);
+        if (thread.isAlive() && !aborted) {
+          // The thread started a write after all
+          //
+          abortWrite.run();
+          thread.join(CANCEL_TIMEOUT_MILLIS);
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      thread = null;
+    }
+  }
+
+  @Override
+  public void run() {
+    try {
+      while (true) {
+        byte[] buffer = buffers.take();
+        if (buffer == END_OF_DATA) {
+          break;
+        }
+        if (exception == null) {
+          writing = true;
+          try {
+            outputStream.write(buffer);
+          } catch (IOException e) {
+            // Keep taking the buffers so the transform doesn't block, it sees the error next
+            //
+            exception = e;
+          } finally {
+            writing = false;
+          }
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void checkException() throws HopException {
+    if (exception != null) {
+      throw new HopException("Error sending rows with COPY", exception);
+    }
+  }
+}
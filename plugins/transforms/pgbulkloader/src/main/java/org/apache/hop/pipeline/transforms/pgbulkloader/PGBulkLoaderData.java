@@ -21,6 +21,7 @@ import org.apache.hop.core.database.Database;
 import org.apache.hop.core.row.IValueMeta;
 import org.apache.hop.core.row.value.ValueMetaDate;
 import org.apache.hop.core.util.StreamLogger;
+import org.apache.hop.databases.postgresql.PostgreSqlBinaryCopyEncoder;
 import org.apache.hop.pipeline.transform.BaseTransformData;
 import org.apache.hop.pipeline.transform.ITransformData;
 import org.postgresql.PGConnection;
@@ -52,6 +53,15 @@ public class PGBulkLoaderData extends BaseTransformData implements ITransformDat
   public IValueMeta dateMeta;
   public IValueMeta dateTimeMeta;
 
+  /** Encodes the rows in the binary format of COPY, null for CSV */
+  public PostgreSqlBinaryCopyEncoder encoder;
+
+  /** The values to encode, in the order of the mappings */
+  public Object[] binaryRow;
+
+  /** Sends the encoded rows while the next rows are encoded */
+  public PGBulkLoaderCopyWriter copyWriter;
+
   /** Default constructor. */
   public PGBulkLoaderData() {
     super();
@@ -80,6 +80,8 @@ public class PGBulkLoaderDialog extends BaseTransformDialog implements ITransfor
 
   private CCombo wLoadAction;
 
+  private CCombo wFormat;
+
   private TableView wReturn;
 
   private TextVar wEnclosure;
@@ -292,13 +294,36 @@ public class PGBulkLoaderDialog extends BaseTransformDialog implements ITransfor
     fdDelimiter.right = new FormAttachment(100, 0);
     wDelimiter.setLayoutData(fdDelimiter);
 
+    // Format line
+    Label wlFormat = new Label(shell, SWT.RIGHT);
+    wlFormat.setText(BaseMessages.getString(PKG, "PGBulkLoaderDialog.Format.Label"));
+    wlFormat.setToolTipText(BaseMessages.getString(PKG, "PGBulkLoaderDialog.Format.Tooltip"));
+    PropsUi.setLook(wlFormat);
+    FormData fdlFormat = new FormData();
+    fdlFormat.left = new FormAttachment(0, 0);
+    fdlFormat.top = new FormAttachment(wDelimiter, margin);
+    fdlFormat.right = new FormAttachment(middle, -margin);
+    wlFormat.setLayoutData(fdlFormat);
+    wFormat = new CCombo(shell, SWT.SINGLE | SWT.READ_ONLY | SWT.BORDER);
+    wFormat.add(BaseMessages.getString(PKG, "PGBulkLoaderDialog.CsvFormat.Label"));
+    wFormat.add(BaseMessages.getString(PKG, "PGBulkLoaderDialog.BinaryFormat.Label"));
+    wFormat.select(0);
+    wFormat.addModifyListener(lsMod);
+    wFormat.addModifyListener(e -> setFlags());
+    PropsUi.setLook(wFormat);
+    FormData fdFormat = new FormData();
+    fdFormat.left = new FormAttachment(middle, 0);
+    fdFormat.top = new FormAttachment(wDelimiter, margin);
+    fdFormat.right = new FormAttachment(100, 0);
+    wFormat.setLayoutData(fdFormat);
+
     // Stop on Error line
     Label wlStopOnError = new Label(shell, SWT.RIGHT);
     wlStopOnError.setText(BaseMessages.getString(PKG, "PGBulkLoaderDialog.StopOnError.Label"));
     PropsUi.setLook(wlStopOnError);
     FormData fdlStopOnError = new FormData();
     fdlStopOnError.left = new FormAttachment(0, 0);
-    fdlStopOnError.top = new FormAttachment(wDelimiter, margin);
+    fdlStopOnError.top = new FormAttachment(wFormat, margin);
     fdlStopOnError.right = new FormAttachment(middle, -margin);
     wlStopOnError.setLayoutData(fdlStopOnError);
     wStopOnError = new Button(shell, SWT.CHECK);
@@ -490,6 +515,8 @@ public class PGBulkLoaderDialog extends BaseTransformDialog implements ITransfor
       wEnclosure.setText(input.getEnclosure());
     }
     wStopOnError.setSelection(input.isStopOnError());
+    wFormat.select(input.isBinaryFormat() ? 1 : 0);
+    setFlags();
     if (input.getDbNameOverride() != null) {
       wDbNameOverride.setText(input.getDbNameOverride());
     }
@@ -667,6 +694,13 @@ public class PGBulkLoaderDialog extends BaseTransformDialog implements ITransfor
     }
   }
 
+  /** The enclosure and delimiter only apply to the CSV format */
+  private void setFlags() {
+    boolean csv = wFormat.getSelectionIndex() != 1;
+    wEnclosure.setEnabled(csv);
+    wDelimiter.setEnabled(csv);
+  }
+
   private void cancel() {
     transformName = null;
     input.setChanged(changed);
@@ -705,6 +739,10 @@ public class PGBulkLoaderDialog extends BaseTransformDialog implements ITransfor
     inf.setDelimiter(wDelimiter.getText());
     inf.setEnclosure(wEnclosure.getText());
     inf.setStopOnError(wStopOnError.getSelection());
+    inf.setFormat(
+        wFormat.getSelectionIndex() == 1
+            ? PGBulkLoaderMeta.FORMAT_BINARY
+            : PGBulkLoaderMeta.FORMAT_CSV);
 
     /*
      * /* Set the loadaction
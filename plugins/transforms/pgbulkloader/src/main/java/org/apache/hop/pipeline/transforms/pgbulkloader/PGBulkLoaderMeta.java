@@ -108,6 +108,12 @@ public class PGBulkLoaderMeta extends BaseTransformMeta<PGBulkLoader, PGBulkLoad
       injectionKeyDescription = "PGBulkLoader.Injection.Enclosure.Label")
   private String enclosure;
 
+  /** The format of the data sent with COPY: CSV or BINARY */
+  @HopMetadataProperty(
+      key = "format",
+      injectionKeyDescription = "PGBulkLoader.Injection.Format.Label")
+  private String format;
+
   /** Stop On Error */
   @HopMetadataProperty(
       key = "stop_on_error",
@@ -127,6 +133,12 @@ public class PGBulkLoaderMeta extends BaseTransformMeta<PGBulkLoader, PGBulkLoad
   public static final String DATE_MASK_DATE = "DATE";
   public static final String DATE_MASK_DATETIME = "DATETIME";
 
+  /*
+   * Do not translate following values!!! They are will end up in the workflow export.
+   */
+  public static final String FORMAT_CSV = "CSV";
+  public static final String FORMAT_BINARY = "BINARY";
+
   public static final int NR_DATE_MASK_PASS_THROUGH = 0;
   public static final int NR_DATE_MASK_DATE = 1;
   public static final int NR_DATE_MASK_DATETIME = 2;
@@ -143,6 +155,7 @@ public class PGBulkLoaderMeta extends BaseTransformMeta<PGBulkLoader, PGBulkLoad
     dbNameOverride = "";
     delimiter = ";";
     enclosure = "\"";
+    format = FORMAT_CSV;
     stopOnError = false;
     mappings = new ArrayList<>();
   }
@@ -505,6 +518,21 @@ public class PGBulkLoaderMeta extends BaseTransformMeta<PGBulkLoader, PGBulkLoad
     this.enclosure = enclosure;
   }
 
+  /** @return the format of the data sent with COPY, CSV unless set */
+  public String getFormat() {
+    return format;
+  }
+
+  /** @param format the format of the data sent with COPY: CSV or BINARY */
+  public void setFormat(String format) {
+    this.format = format;
+  }
+
+  /** @return true if the values are sent in the binary format of COPY */
+  public boolean isBinaryFormat() {
+    return FORMAT_BINARY.equalsIgnoreCase(format);
+  }
+
   @Override
   public String getMissingDatabaseConnectionInformationMessage() {
     return null;
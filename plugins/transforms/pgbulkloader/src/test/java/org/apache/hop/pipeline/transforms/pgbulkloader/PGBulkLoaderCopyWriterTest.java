@@ -0,0 +1,128 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.hop.pipeline.transforms.pgbulkloader;
+
+import org.apache.hop.core.exception.HopException;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class PGBulkLoaderCopyWriterTest {
+
+  @Test
+  public void testBuffersAreWrittenInOrder() throws Exception {
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    PGBulkLoaderCopyWriter writer = new PGBulkLoaderCopyWriter(outputStream, 2, () -> {});
+    writer.start("test writer");
+    for (int i = 0; i < 100; i++) {
+      writer.write(new byte[] {(byte) i, (byte) (i + 1)});
+    }
+    writer.finish();
+
+    byte[] expected = new byte[200];
+    for (int i = 0; i < 100; i++) {
+      expected[i * 2] = (byte) i;
+      expected[i * 2 + 1] = (byte) (i + 1);
+    }
+    assertArrayEquals(expected, outputStream.toByteArray());
+  }
+
+  @Test
+  public void testWriteErrorIsReported() throws Exception {
+    OutputStream failing =
+        new OutputStream() {
+          @Override
+          public void write(int b) throws IOException {
+            throw new IOException("connection lost");
+          }
+        };
+    PGBulkLoaderCopyWriter writer = new PGBulkLoaderCopyWriter(failing, 1, () -> {});
+    writer.start("test writer");
+    for (int i = 0; i < 10; i++) {
+      try {
+        writer.write(new byte[] {1});
+      } catch (HopException e) {
+        // The error is seen by a later write or by finish
+      }
+    }
+    try {
+      writer.finish();
+      fail("The write error should be reported");
+    } catch (HopException e) {
+      assertTrue(e.getCause() instanceof IOException);
+    }
+  }
+
+  @Test
+  public void testCancelAbortsABlockedWrite() throws Exception {
+    CountDownLatch writeStarted = new CountDownLatch(1);
+    CountDownLatch aborted = new CountDownLatch(1);
+    OutputStream blocking =
+        new OutputStream() {
+          @Override
+          public void write(int b) throws IOException {
+            // Like a socket write, this doesn't return when the thread is interrupted
+            //
+            writeStarted.countDown();
+            while (true) {
+              try {
+                if (aborted.await(1, TimeUnit.MINUTES)) {
+                  throw new IOException("connection closed");
+                }
+              } catch (InterruptedException e) {
+                // Keep blocking
+              }
+            }
+          }
+        };
+    PGBulkLoaderCopyWriter writer = new PGBulkLoaderCopyWriter(blocking, 2, aborted::countDown);
+    writer.start("test writer");
+    writer.write(new byte[] {1});
+    assertTrue(writeStarted.await(10, TimeUnit.SECONDS));
+
+    long start = System.currentTimeMillis();
+    writer.cancel();
+
+    assertEquals(0, aborted.getCount());
+    assertTrue(System.currentTimeMillis() - start < 5000);
+  }
+
+  @Test
+  public void testCancelWithoutAWriteDoesNotAbort() throws Exception {
+    AtomicBoolean aborted = new AtomicBoolean();
+    PGBulkLoaderCopyWriter writer =
+        new PGBulkLoaderCopyWriter(new ByteArrayOutputStream(), 2, () -> aborted.set(true));
+    writer.start("test writer");
+
+    writer.cancel();
+
+    assertFalse(aborted.get());
+  }
+}
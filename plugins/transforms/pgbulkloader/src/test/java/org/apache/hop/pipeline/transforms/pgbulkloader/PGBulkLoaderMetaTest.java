@@ -18,6 +18,7 @@
 package org.apache.hop.pipeline.transforms.pgbulkloader;
 
 import org.apache.hop.core.HopEnvironment;
+import org.apache.hop.core.injection.bean.BeanInjectionInfo;
 import org.apache.hop.core.plugins.PluginRegistry;
 import org.apache.hop.core.plugins.TransformPluginType;
 import org.apache.hop.core.row.value.ValueMetaPluginType;
@@ -37,6 +38,9 @@ import org.junit.Test;
 
 import java.util.UUID;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
 public class PGBulkLoaderMetaTest {
   @ClassRule public static RestoreHopEngineEnvironment env = new RestoreHopEngineEnvironment();
 
@@ -63,6 +67,21 @@ public class PGBulkLoaderMetaTest {
     tester.testSerialization();
   }
 
+  @Test
+  public void testFormatInjection() {
+    BeanInjectionInfo<PGBulkLoaderMeta> injectionInfo =
+        new BeanInjectionInfo<>(PGBulkLoaderMeta.class);
+
+    // Like the delimiter and enclosure the format is injected with its metadata key
+    //
+    BeanInjectionInfo<PGBulkLoaderMeta>.Property format =
+        injectionInfo.getProperties().get("format");
+    assertNotNull(format);
+    assertEquals("PGBulkLoader.Injection.Format.Label", format.getDescription());
+    assertNotNull(injectionInfo.getProperties().get("delimiter"));
+    assertNotNull(injectionInfo.getProperties().get("enclosure"));
+  }
+
   @BeforeClass
   public static void setUpBeforeClass() throws Exception {
     PluginRegistry.addPluginType(ValueMetaPluginType.getInstance());
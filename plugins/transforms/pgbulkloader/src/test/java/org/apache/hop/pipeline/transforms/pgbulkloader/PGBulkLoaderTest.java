@@ -17,6 +17,7 @@
 
 package org.apache.hop.pipeline.transforms.pgbulkloader;
 
+import org.apache.hop.core.Const;
 import org.apache.hop.core.HopClientEnvironment;
 import org.apache.hop.core.database.Database;
 import org.apache.hop.core.database.DatabaseMeta;
@@ -34,18 +35,23 @@ import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.ClassRule;
 import org.junit.Test;
+import org.postgresql.copy.PGCopyOutputStream;
 
+import java.sql.Connection;
 import java.util.ArrayList;
+import java.util.Arrays;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -126,6 +132,85 @@ public class PGBulkLoaderTest {
     verify(spy).processTruncate();
   }
 
+  @Test
+  public void testBinaryCopyCommand() throws Exception {
+    PGBulkLoaderMeta meta = getPgBulkLoaderMock(null);
+    doReturn("staging").when(meta).getSchemaName();
+    doReturn("target").when(meta).getTableName();
+    doReturn(
+            Arrays.asList(
+                new PGBulkLoaderMappingMeta("id", "id", null),
+                new PGBulkLoaderMappingMeta("amount", "amount", null)))
+        .when(meta)
+        .getMappings();
+    doReturn(true).when(meta).isBinaryFormat();
+
+    PGBulkLoader loader =
+        new PGBulkLoader(
+            transformMockHelper.transformMeta,
+            meta,
+            transformMockHelper.iTransformData,
+            0,
+            transformMockHelper.pipelineMeta,
+            transformMockHelper.pipeline);
+
+    assertEquals(
+        "COPY staging.target ( id, amount )  FROM STDIN WITH (FORMAT BINARY);" + Const.CR,
+        loader.getCopyCommand());
+  }
+
+  @Test
+  public void testDisposeCancelsTheCopy() throws Exception {
+    PGBulkLoaderCopyWriter copyWriter = mock(PGBulkLoaderCopyWriter.class);
+    PGCopyOutputStream copyOut = mock(PGCopyOutputStream.class);
+    when(copyOut.isActive()).thenReturn(true);
+    Database db = mock(Database.class);
+    when(db.getConnection()).thenReturn(mock(Connection.class));
+    PGBulkLoaderData data = transformMockHelper.iTransformData;
+    data.copyWriter = copyWriter;
+    data.db = db;
+    pgBulkLoader.pgCopyOut = copyOut;
+
+    pgBulkLoader.dispose();
+
+    verify(copyWriter).cancel();
+    verify(copyOut).cancelCopy();
+    verify(db).disconnect();
+    assertNull(data.copyWriter);
+    assertNull(data.db);
+    assertNull(pgBulkLoader.pgCopyOut);
+  }
+
+  @Test
+  public void testDisposeAfterTheConnectionWasAborted() throws Exception {
+    PGCopyOutputStream copyOut = mock(PGCopyOutputStream.class);
+    when(copyOut.isActive()).thenReturn(true);
+    Connection connection = mock(Connection.class);
+    when(connection.isClosed()).thenReturn(true);
+    Database db = mock(Database.class);
+    when(db.getConnection()).thenReturn(connection);
+    transformMockHelper.iTransformData.db = db;
+    pgBulkLoader.pgCopyOut = copyOut;
+
+    pgBulkLoader.dispose();
+
+    verify(copyOut, never()).cancelCopy();
+    verify(db).disconnect();
+    assertNull(pgBulkLoader.pgCopyOut);
+  }
+
+  @Test
+  public void testDisposeAfterTheCopyEnded() throws Exception {
+    PGCopyOutputStream copyOut = mock(PGCopyOutputStream.class);
+    when(copyOut.isActive()).thenReturn(false);
+    pgBulkLoader.pgCopyOut = copyOut;
+
+    pgBulkLoader.dispose();
+
+    verify(copyOut, never()).cancelCopy();
+    assertNull(pgBulkLoader.pgCopyOut);
+  }
+
   @Test
   public void testDBNameOverridden_IfDbNameOverrideSetUp() throws Exception {
     // Db Name Override is set up
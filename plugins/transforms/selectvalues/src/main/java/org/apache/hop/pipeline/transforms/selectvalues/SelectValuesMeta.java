@@ -736,6 +736,11 @@ public class SelectValuesMeta extends BaseTransformMeta<SelectValues, SelectValu
     return true;
   }
 
+  @Override
+  public boolean supportsFusion() {
+    return true;
+  }
+
   public SelectField[] getSelectFields() {
     return selectFields;
   }
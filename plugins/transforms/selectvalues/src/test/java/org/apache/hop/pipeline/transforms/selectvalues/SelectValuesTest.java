@@ -41,6 +41,7 @@ import org.junit.ClassRule;
 import org.junit.Test;
 
 import java.math.BigDecimal;
+import java.util.List;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
@@ -362,6 +363,13 @@ public class SelectValuesTest {
       rowMeta = rm;
     }
 
+    @Override
+    public void putRows(IRowMeta rm, List<Object[]> rows) throws HopTransformException {
+      for (Object[] row : rows) {
+        putRow(rm, row);
+      }
+    }
+
     /**
      * Find input row set.
      *
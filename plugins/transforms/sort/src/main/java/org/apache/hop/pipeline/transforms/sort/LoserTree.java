@@ -0,0 +1,121 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.sort;
+
+import org.apache.hop.core.exception.HopException;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Merges k sorted sources with a tree of losers. Every inner node of the tree keeps the source
+ * which lost the match at that node, the overall winner sits on top. Taking the smallest entry only
+ * replays the matches on the path of the winning source: log2(k) comparisons per entry, about half
+ * of what a binary heap needs.
+ *
+ * <p>Of equal entries the one from the source with the lowest index comes first.
+ */
+public class LoserTree {
+
+  /** A sorted stream of entries */
+  public interface ISource {
+    /**
+     * @return the next entry or null if there are no more entries
+     */
+    SortEntry next() throws HopException;
+  }
+
+  private final ISource[] sources;
+  private final SortEntry[] heads;
+  private final Comparator<SortEntry> comparator;
+  private final int k;
+
+  /** tree[0] is the winner, tree[1..k-1] the losers */
+  private final int[] tree;
+
+  public LoserTree(List<? extends ISource> sources, Comparator<SortEntry> comparator)
+      throws HopException {
+    this.sources = sources.toArray(new ISource[0]);
+    this.comparator = comparator;
+    this.k = this.sources.length;
+    this.heads = new SortEntry[k];
+    for (int i = 0; i < k; i++) {
+      heads[i] = this.sources[i].next();
+    }
+
+    // Start with a virtual source k which beats everything, then let every source play its way up
+    //
+    this.tree = new int[Math.max(1, k)];
+    Arrays.fill(tree, k);
+    for (int i = k - 1; i >= 0; i--) {
+      adjust(i);
+    }
+  }
+
+  /**
+   * Take the smallest entry of all sources.
+   *
+   * @return the entry or null if all sources are exhausted
+   */
+  public SortEntry next() throws HopException {
+    if (k == 0) {
+      return null;
+    }
+    int winner = tree[0];
+    SortEntry entry = heads[winner];
+    if (entry == null) {
+      return null;
+    }
+    heads[winner] = sources[winner].next();
+    adjust(winner);
+    return entry;
+  }
+
+  private void adjust(int source) {
+    int winner = source;
+    for (int node = (source + k) >> 1; node > 0; node >>= 1) {
+      if (beats(tree[node], winner)) {
+        int loser = winner;
+        winner = tree[node];
+        tree[node] = loser;
+      }
+    }
+    tree[0] = winner;
+  }
+
+  /** Does source a come before source b? Exhausted sources lose every match. */
+  private boolean beats(int a, int b) {
+    if (a == k) {
+      return true;
+    }
+    if (b == k) {
+      return false;
+    }
+    SortEntry ea = heads[a];
+    SortEntry eb = heads[b];
+    if (ea == null) {
+      return false;
+    }
+    if (eb == null) {
+      return true;
+    }
+    int cmp = comparator.compare(ea, eb);
+    return cmp < 0 || (cmp == 0 && a < b);
+  }
+}
@@ -0,0 +1,226 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.sort;
+
+import org.apache.hop.core.exception.HopValueException;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.IValueMeta;
+import org.apache.hop.core.row.value.ValueMetaBinary;
+import org.apache.hop.core.row.value.ValueMetaBoolean;
+import org.apache.hop.core.row.value.ValueMetaDate;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.row.value.ValueMetaNumber;
+import org.apache.hop.core.row.value.ValueMetaString;
+
+import java.util.Arrays;
+
+/**
+ * Encodes the sort keys of a row into a byte array. Comparing two of these arrays byte by byte,
+ * unsigned, gives the same result as {@link IRowMeta#compare(Object[], Object[], int[])} on the
+ * rows. Comparing the keys is a lot cheaper than comparing the rows: there is no type dispatching,
+ * no conversion and no boxing.
+ *
+ * <p>Every key value starts with a null marker. Null values sort first, like in {@link
+ * IValueMeta#compare(Object, Object)}. The value follows in an order preserving form:
+ *
+ * <ul>
+ *   <li>Integer, Date: 8 bytes, big endian, sign bit flipped
+ *   <li>Number: the 8 bytes of the double with the sign bit flipped, all bits flipped if negative
+ *   <li>Boolean: 1 byte
+ *   <li>String: the UTF-16 characters, big endian, 0x00 escaped as 0x00 0xFF and terminated with
+ *       0x00 0x00
+ *   <li>Binary: 4 bytes of length followed by the bytes with their sign bit flipped
+ * </ul>
+ *
+ * All the bytes of a value are flipped for a descending sort. Case insensitive strings, collators
+ * and other data types can't be encoded: in that case {@link #create(IRowMeta, int[])} returns null
+ * and the rows are compared the regular way.
+ *
+ * <p>An encoder is not thread safe.
+ */
+public class SortKeyEncoder {
+
+  private static final byte NULL_MARKER = 0x00;
+  private static final byte VALUE_MARKER = 0x01;
+
+  private final IValueMeta[] valueMetas;
+  private final int[] fieldNrs;
+
+  private byte[] buffer;
+  private int position;
+
+  private SortKeyEncoder(IValueMeta[] valueMetas, int[] fieldNrs) {
+    this.valueMetas = valueMetas;
+    this.fieldNrs = fieldNrs;
+    this.buffer = new byte[64];
+  }
+
+  /**
+   * Create an encoder for the given sort keys.
+   *
+   * @param rowMeta the layout of the rows to sort, with the sorting criteria assigned
+   * @param fieldNrs the indexes of the sort keys
+   * @return the encoder or null if one of the keys can't be encoded
+   */
+  public static SortKeyEncoder create(IRowMeta rowMeta, int[] fieldNrs) {
+    IValueMeta[] valueMetas = new IValueMeta[fieldNrs.length];
+    for (int i = 0; i < fieldNrs.length; i++) {
+      IValueMeta valueMeta = rowMeta.getValueMeta(fieldNrs[i]);
+      if (!isSupported(valueMeta)) {
+        return null;
+      }
+      valueMetas[i] = valueMeta;
+    }
+    return new SortKeyEncoder(valueMetas, fieldNrs);
+  }
+
+  private static boolean isSupported(IValueMeta valueMeta) {
+    // Subclasses might compare in a different way
+    //
+    Class<?> clazz = valueMeta.getClass();
+    if (clazz == ValueMetaString.class) {
+      return !valueMeta.isCaseInsensitive() && valueMeta.isCollatorDisabled();
+    }
+    return clazz == ValueMetaInteger.class
+        || clazz == ValueMetaNumber.class
+        || clazz == ValueMetaDate.class
+        || clazz == ValueMetaBoolean.class
+        || clazz == ValueMetaBinary.class;
+  }
+
+  /**
+   * Encode the sort keys of a row.
+   *
+   * @param row the row
+   * @return the binary sort key
+   * @throws HopValueException in case a value can't be converted
+   */
+  public byte[] encode(Object[] row) throws HopValueException {
+    position = 0;
+    for (int i = 0; i < valueMetas.length; i++) {
+      IValueMeta valueMeta = valueMetas[i];
+      Object data = row[fieldNrs[i]];
+      int start = position;
+
+      if (valueMeta.isNull(data)) {
+        writeByte(NULL_MARKER);
+      } else {
+        writeByte(VALUE_MARKER);
+        switch (valueMeta.getType()) {
+          case IValueMeta.TYPE_STRING:
+            writeString(valueMeta.getString(data), valueMeta.isIgnoreWhitespace());
+            break;
+          case IValueMeta.TYPE_INTEGER:
+            writeLong(valueMeta.getInteger(data) ^ Long.MIN_VALUE);
+            break;
+          case IValueMeta.TYPE_NUMBER:
+            writeDouble(valueMeta.getNumber(data));
+            break;
+          case IValueMeta.TYPE_DATE:
+            writeLong(valueMeta.getDate(data).getTime() ^ Long.MIN_VALUE);
+            break;
+          case IValueMeta.TYPE_BOOLEAN:
+            writeByte(valueMeta.getBoolean(data) ? (byte) 1 : (byte) 0);
+            break;
+          case IValueMeta.TYPE_BINARY:
+            writeBinary(valueMeta.getBinary(data));
+            break;
+          default:
+            throw new HopValueException(
+                valueMeta.toStringMeta() + " : unable to encode a sort key of this data type");
+        }
+      }
+
+      if (valueMeta.isSortedDescending()) {
+        for (int p = start; p < position; p++) {
+          buffer[p] = (byte) ~buffer[p];
+        }
+      }
+    }
+    return Arrays.copyOf(buffer, position);
+  }
+
+  private void writeString(String string, boolean trim) {
+    if (trim) {
+      string = string.trim();
+    }
+    int length = string.length();
+    ensureCapacity(length * 4 + 2);
+    for (int i = 0; i < length; i++) {
+      char c = string.charAt(i);
+      putEscaped((byte) (c >>> 8));
+      putEscaped((byte) c);
+    }
+    buffer[position++] = 0x00;
+    buffer[position++] = 0x00;
+  }
+
+  private void putEscaped(byte b) {
+    buffer[position++] = b;
+    if (b == 0x00) {
+      buffer[position++] = (byte) 0xFF;
+    }
+  }
+
+  private void writeDouble(double value) {
+    long bits = Double.doubleToLongBits(value);
+    writeLong(bits < 0 ? ~bits : bits ^ Long.MIN_VALUE);
+  }
+
+  private void writeBinary(byte[] bytes) {
+    ensureCapacity(4 + bytes.length);
+    int length = bytes.length;
+    buffer[position++] = (byte) (length >>> 24);
+    buffer[position++] = (byte) (length >>> 16);
+    buffer[position++] = (byte) (length >>> 8);
+    buffer[position++] = (byte) length;
+    for (byte b : bytes) {
+      buffer[position++] = (byte) (b ^ 0x80);
+    }
+  }
+
+  private void writeLong(long value) {
+    ensureCapacity(8);
+    for (int shift = 56; shift >= 0; shift -= 8) {
+      buffer[position++] = (byte) (value >>> shift);
+    }
+  }
+
+  private void writeByte(byte b) {
+    ensureCapacity(1);
+    buffer[position++] = b;
+  }
+
+  private void ensureCapacity(int extra) {
+    if (position + extra > buffer.length) {
+      buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + extra));
+    }
+  }
+
+  /**
+   * Compare two binary sort keys.
+   *
+   * @param key1 the first key
+   * @param key2 the second key
+   * @return a negative number, zero or a positive number if the first key sorts before, together
+   *     with or after the second key
+   */
+  public static int compare(byte[] key1, byte[] key2) {
+    return Arrays.compareUnsigned(key1, key2);
+  }
+}
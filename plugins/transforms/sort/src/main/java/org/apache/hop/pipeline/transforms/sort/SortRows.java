@@ -42,9 +42,12 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.SocketTimeoutException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
 
@@ -74,6 +77,9 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
 
     // Save row
     data.buffer.add(r);
+    if (data.keyEncoder != null) {
+      data.keys.add(data.keyEncoder.encode(r));
+    }
 
     // Check the free memory every 1000 rows...
     //
@@ -120,6 +126,11 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
       return;
     }
 
+    if (data.fastSort) {
+      sortExternalRowsFast();
+      return;
+    }
+
     // First sort the rows in buffer[]
     quickSort(data.buffer);
 
@@ -219,6 +230,145 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
     data.getBufferIndex = 0;
   }
 
+  /**
+   * Sort the buffer and write it to a temporary file in the fast format: the binary sort key (if
+   * any) followed by the row.
+   */
+  private void sortExternalRowsFast() throws HopException {
+    SortEntry[] entries = sortEntries();
+
+    try {
+      FileObject fileObject =
+          HopVfs.createTempFile(meta.getPrefix(), ".tmp", resolve(meta.getDirectory()));
+      data.files.add(fileObject); // Remember the files, also to clean them up!
+      SortRunFile runFile =
+          new SortRunFile(
+              fileObject, data.outputRowMeta, data.compressFiles, data.keyEncoder != null);
+      data.runFiles.add(runFile);
+
+      try (SortRunFile.Writer writer = runFile.openWriter()) {
+        SortEntry previous = null;
+        for (SortEntry entry : entries) {
+          if (meta.isOnlyPassingUniqueRows()
+              && previous != null
+              && data.entryComparator.compare(entry, previous) == 0) {
+            if (log.isRowLevel()) {
+              logRowlevel(
+                  BaseMessages.getString(
+                      PKG,
+                      "SortRows.RowLevel.DuplicateRowRemoved",
+                      data.outputRowMeta.getString(entry.row)));
+            }
+          } else {
+            writer.write(entry);
+          }
+          previous = entry;
+        }
+      }
+    } catch (Exception e) {
+      throw new HopException("Error processing temp-file!", e);
+    }
+
+    if (data.sortSize < 0 && data.buffer.size() > data.minSortSize) {
+      // See sortExternalRows()
+      data.minSortSize = (int) Math.round(data.buffer.size() * 0.90);
+    }
+
+    data.buffer.clear();
+    data.keys.clear();
+
+    data.freeMemoryPct = Const.getPercentageFreeMemory();
+    data.freeCounter = 0;
+    if (data.sortSize <= 0 && log.isDetailed()) {
+      logDetailed(
+          BaseMessages.getString(PKG, "SortRows.Detailed.AvailableMemory", data.freeMemoryPct));
+    }
+
+    data.getBufferIndex = 0;
+  }
+
+  /**
+   * Sort the rows in the buffer together with their binary sort keys. With binary keys the sort
+   * runs in parallel. Without them the rows are compared the regular way, in a single thread since
+   * the value metadata isn't thread safe.
+   *
+   * @return the sorted entries
+   */
+  private SortEntry[] sortEntries() {
+    int size = data.buffer.size();
+    SortEntry[] entries = new SortEntry[size];
+    boolean withKeys = data.keyEncoder != null;
+    for (int i = 0; i < size; i++) {
+      entries[i] = new SortEntry(withKeys ? data.keys.get(i) : null, data.buffer.get(i));
+    }
+
+    if (!withKeys) {
+      Arrays.sort(entries, data.entryComparator);
+    } else if (data.sortPool != null) {
+      // Parallel sorting forks its tasks in the pool it runs in
+      //
+      data.sortPool.invoke(
+          ForkJoinTask.adapt(() -> Arrays.parallelSort(entries, data.entryComparator)));
+    } else {
+      Arrays.parallelSort(entries, data.entryComparator);
+    }
+    return entries;
+  }
+
+  /** Sort the in-memory buffer in fast sort mode. */
+  private void sortBufferFast() {
+    if (data.buffer.isEmpty()) {
+      return;
+    }
+    SortEntry[] entries = sortEntries();
+    for (int i = 0; i < entries.length; i++) {
+      data.buffer.set(i, entries[i].row);
+    }
+    data.keys.clear();
+  }
+
+  /** Merge the temporary files of the fast sort mode with a loser tree. */
+  private Object[] getBufferFast() throws HopException {
+    if (data.loserTree == null) {
+      if (log.isBasic()) {
+        logBasic(
+            BaseMessages.getString(PKG, "SortRows.Basic.OpeningTempFiles", data.runFiles.size()));
+      }
+      for (SortRunFile runFile : data.runFiles) {
+        if (log.isDetailed()) {
+          logDetailed(
+              BaseMessages.getString(
+                  PKG,
+                  "SortRows.Detailed.FromFileExpectingRows",
+                  HopVfs.getFilename(runFile.getFileObject()),
+                  runFile.getNrRows()));
+        }
+        data.runReaders.add(runFile.openReader());
+      }
+      data.loserTree = new LoserTree(data.runReaders, data.entryComparator);
+    }
+
+    SortEntry entry = data.loserTree.next();
+    if (meta.isOnlyPassingUniqueRows()) {
+      // Every run is unique on its own but the same key can still show up in several runs
+      //
+      while (entry != null
+          && data.previousEntry != null
+          && data.entryComparator.compare(entry, data.previousEntry) == 0) {
+        if (log.isRowLevel()) {
+          logRowlevel(
+              BaseMessages.getString(
+                  PKG,
+                  "SortRows.RowLevel.DuplicateRowRemoved",
+                  data.outputRowMeta.getString(entry.row)));
+        }
+        entry = data.loserTree.next();
+      }
+      data.previousEntry = entry;
+    }
+    return entry == null ? null : entry.row;
+  }
+
   private DataInputStream getDataInputStream(GZIPInputStream gzipInputStream) {
     DataInputStream result = new DataInputStream(gzipInputStream);
     data.gzis.add(gzipInputStream);
@@ -228,9 +378,13 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
   // get sorted rows from available files in iterative manner.
   // that means call to this method will continue to return rows
   // till all temp files will not be read to the end.
-  Object[] getBuffer() throws HopValueException {
+  Object[] getBuffer() throws HopException {
     Object[] retval;
 
+    if (data.fastSort && !data.files.isEmpty()) {
+      return getBufferFast();
+    }
+
     // Open all files at once and read one row from each file...
     if (CollectionUtils.isNotEmpty(data.files) && (data.dis.isEmpty() || data.fis.isEmpty())) {
       if (log.isBasic()) {
@@ -437,6 +591,19 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
         i++;
       }
       data.rowComparator = new RowObjectArrayComparator(data.outputRowMeta, data.fieldnrs);
+
+      if (data.fastSort) {
+        data.keyEncoder = SortKeyEncoder.create(data.outputRowMeta, data.fieldnrs);
+        if (data.keyEncoder != null) {
+          data.entryComparator = (e1, e2) -> SortKeyEncoder.compare(e1.key, e2.key);
+        } else {
+          data.entryComparator = (e1, e2) -> data.rowComparator.compare(e1.row, e2.row);
+          if (log.isDetailed()) {
+            logDetailed(
+                "Not all sort keys can be sorted on a binary key, comparing rows the regular way");
+          }
+        }
+      }
     } // end if first
 
     // it is not first row and it is null
@@ -573,12 +740,24 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
 
     data.minSortSize = 5000;
 
+    data.fastSort = meta.isFastSort();
+    if (data.fastSort) {
+      int sortThreads = Const.toInt(resolve(meta.getSortThreads()), 0);
+      if (sortThreads > 0) {
+        data.sortPool = new ForkJoinPool(sortThreads);
+      }
+    }
+
     return true;
   }
 
   @Override
   public void dispose() {
     clearBuffers();
+    if (data.sortPool != null) {
+      data.sortPool.shutdown();
+      data.sortPool = null;
+    }
     super.dispose();
   }
 
@@ -601,6 +780,15 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
         BaseTransform.closeQuietly(is);
       }
     }
+    // close the temp files of the fast sort
+    for (SortRunFile.Reader reader : data.runReaders) {
+      reader.close();
+    }
+    data.runReaders.clear();
+    data.loserTree = null;
+    data.previousEntry = null;
+    data.keys.clear();
+
     // remove temp files
     for (int f = 0; f < data.files.size(); f++) {
       FileObject fileToDelete = data.files.get(f);
@@ -612,6 +800,10 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
         logError(e.getLocalizedMessage(), e);
       }
     }
+    if (data.fastSort) {
+      data.files.clear();
+      data.runFiles.clear();
+    }
   }
 
   /** Sort the entire vector, if it is not empty. */
@@ -661,6 +853,8 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
     if (data.files.size() > 0) {
       // dump to dist and then read from disk
       sortExternalRows();
+    } else if (data.fastSort) {
+      sortBufferFast();
     } else {
       // sort in memory
       quickSort(data.buffer);
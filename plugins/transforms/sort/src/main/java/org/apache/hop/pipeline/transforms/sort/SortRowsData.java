@@ -27,6 +27,7 @@ import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 import java.util.zip.GZIPInputStream;
 
 public class SortRowsData extends BaseTransformData implements ITransformData {
@@ -67,6 +68,19 @@ public class SortRowsData extends BaseTransformData implements ITransformData {
   public int[] groupnrs;
   public boolean newBatch;
 
+  /*
+   * Fast sort
+   */
+  public boolean fastSort;
+  public SortKeyEncoder keyEncoder;
+  public List<byte[]> keys;
+  public ForkJoinPool sortPool;
+  public Comparator<SortEntry> entryComparator;
+  public List<SortRunFile> runFiles;
+  public List<SortRunFile.Reader> runReaders;
+  public LoserTree loserTree;
+  public SortEntry previousEntry;
+
   public SortRowsData() {
     super();
 
@@ -75,6 +89,9 @@ public class SortRowsData extends BaseTransformData implements ITransformData {
     gzis = new ArrayList<>();
     dis = new ArrayList<>();
     bufferSizes = new ArrayList<>();
+    keys = new ArrayList<>();
+    runFiles = new ArrayList<>();
+    runReaders = new ArrayList<>();
 
     previous = null; // Heroic
   }
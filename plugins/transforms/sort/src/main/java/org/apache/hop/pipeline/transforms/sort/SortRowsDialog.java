@@ -71,6 +71,10 @@ public class SortRowsDialog extends BaseTransformDialog implements ITransformDia
 
   private Button wUniqueRows;
 
+  private Button wFastSort;
+
+  private TextVar wSortThreads;
+
   private TableView wFields;
 
   private final SortRowsMeta input;
@@ -258,6 +262,51 @@ public class SortRowsDialog extends BaseTransformDialog implements ITransformDia
     wUniqueRows.setLayoutData(fdUniqueRows);
     wUniqueRows.addSelectionListener(new ComponentSelectionListener(input));
 
+    // Sorting on binary keys with multiple threads?
+    Label wlFastSort = new Label(shell, SWT.RIGHT);
+    wlFastSort.setText(BaseMessages.getString(PKG, "SortRowsDialog.FastSort.Label"));
+    PropsUi.setLook(wlFastSort);
+    FormData fdlFastSort = new FormData();
+    fdlFastSort.left = new FormAttachment(0, 0);
+    fdlFastSort.right = new FormAttachment(middle, -margin);
+    fdlFastSort.top = new FormAttachment(wUniqueRows, margin);
+    wlFastSort.setLayoutData(fdlFastSort);
+    wFastSort = new Button(shell, SWT.CHECK);
+    wFastSort.setToolTipText(BaseMessages.getString(PKG, "SortRowsDialog.FastSort.Tooltip"));
+    PropsUi.setLook(wFastSort);
+    FormData fdFastSort = new FormData();
+    fdFastSort.left = new FormAttachment(middle, 0);
+    fdFastSort.top = new FormAttachment(wlFastSort, 0, SWT.CENTER);
+    fdFastSort.right = new FormAttachment(100, 0);
+    wFastSort.setLayoutData(fdFastSort);
+    wFastSort.addSelectionListener(
+        new SelectionAdapter() {
+          @Override
+          public void widgetSelected(SelectionEvent e) {
+            input.setChanged();
+            wSortThreads.setEnabled(wFastSort.getSelection());
+          }
+        });
+
+    // The number of threads to sort with
+    Label wlSortThreads = new Label(shell, SWT.RIGHT);
+    wlSortThreads.setText(BaseMessages.getString(PKG, "SortRowsDialog.SortThreads.Label"));
+    PropsUi.setLook(wlSortThreads);
+    FormData fdlSortThreads = new FormData();
+    fdlSortThreads.left = new FormAttachment(0, 0);
+    fdlSortThreads.right = new FormAttachment(middle, -margin);
+    fdlSortThreads.top = new FormAttachment(wFastSort, margin * 2);
+    wlSortThreads.setLayoutData(fdlSortThreads);
+    wSortThreads = new TextVar(variables, shell, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+    wSortThreads.setToolTipText(BaseMessages.getString(PKG, "SortRowsDialog.SortThreads.Tooltip"));
+    PropsUi.setLook(wSortThreads);
+    wSortThreads.addModifyListener(lsMod);
+    FormData fdSortThreads = new FormData();
+    fdSortThreads.left = new FormAttachment(middle, 0);
+    fdSortThreads.top = new FormAttachment(wFastSort, margin * 2);
+    fdSortThreads.right = new FormAttachment(100, 0);
+    wSortThreads.setLayoutData(fdSortThreads);
+
     wOk = new Button(shell, SWT.PUSH);
     wOk.setText(BaseMessages.getString(PKG, "System.Button.OK"));
     wOk.addListener(SWT.Selection, e -> ok());
@@ -275,7 +324,7 @@ public class SortRowsDialog extends BaseTransformDialog implements ITransformDia
     PropsUi.setLook(wlFields);
     FormData fdlFields = new FormData();
     fdlFields.left = new FormAttachment(0, 0);
-    fdlFields.top = new FormAttachment(wUniqueRows, margin);
+    fdlFields.top = new FormAttachment(wSortThreads, margin);
     wlFields.setLayoutData(fdlFields);
 
     final int FieldsRows = input.getFieldName().length;
@@ -403,6 +452,9 @@ public class SortRowsDialog extends BaseTransformDialog implements ITransformDia
     wCompress.setSelection(input.getCompressFiles());
     wCompress.setVariableName(input.getCompressFilesVariable());
     wUniqueRows.setSelection(input.isOnlyPassingUniqueRows());
+    wFastSort.setSelection(input.isFastSort());
+    wSortThreads.setText(Const.NVL(input.getSortThreads(), ""));
+    wSortThreads.setEnabled(input.isFastSort());
 
     Table table = wFields.table;
     if (input.getFieldName().length > 0) {
@@ -468,6 +520,8 @@ public class SortRowsDialog extends BaseTransformDialog implements ITransformDia
     input.setCompressFiles(wCompress.getSelection());
     input.setCompressFilesVariable(wCompress.getVariableName());
     input.setOnlyPassingUniqueRows(wUniqueRows.getSelection());
+    input.setFastSort(wFastSort.getSelection());
+    input.setSortThreads(wSortThreads.getText());
 
     int nrFields = wFields.nrNonEmpty();
 
@@ -116,6 +116,17 @@ public class SortRowsMeta extends BaseTransformMeta<SortRows, SortRowsData> impl
   /** The variable to use to set the compressFiles option boolean */
   private String compressFilesVariable;
 
+  /**
+   * Fast sort: binary sort keys, sorting in parallel, a faster temporary file format and a loser
+   * tree merge of the temporary files
+   */
+  @Injection(name = "FAST_SORT")
+  private boolean fastSort;
+
+  /** The number of threads to sort with in fast sort mode, empty for the number of processors */
+  @Injection(name = "SORT_THREADS")
+  private String sortThreads;
+
   public SortRowsMeta() {
     super(); // allocate BaseTransformMeta
   }
@@ -203,6 +214,8 @@ public class SortRowsMeta extends BaseTransformMeta<SortRows, SortRowsData> impl
       compressFilesVariable = XmlHandler.getTagValue(transformNode, "compress_variable");
       onlyPassingUniqueRows =
           "Y".equalsIgnoreCase(XmlHandler.getTagValue(transformNode, "unique_rows"));
+      fastSort = "Y".equalsIgnoreCase(XmlHandler.getTagValue(transformNode, "fast_sort"));
+      sortThreads = XmlHandler.getTagValue(transformNode, "sort_threads");
 
       Node fields = XmlHandler.getSubNode(transformNode, "fields");
       int nrFields = XmlHandler.countNodes(fields, "field");
@@ -240,6 +253,8 @@ public class SortRowsMeta extends BaseTransformMeta<SortRows, SortRowsData> impl
     compressFiles = false;
     compressFilesVariable = null;
     onlyPassingUniqueRows = false;
+    fastSort = false;
+    sortThreads = null;
 
     int nrFields = 0;
 
@@ -266,6 +281,8 @@ public class SortRowsMeta extends BaseTransformMeta<SortRows, SortRowsData> impl
         .append("      ")
         .append(XmlHandler.addTagValue("compress_variable", compressFilesVariable));
     retval.append("      ").append(XmlHandler.addTagValue("unique_rows", onlyPassingUniqueRows));
+    retval.append("      ").append(XmlHandler.addTagValue("fast_sort", fastSort));
+    retval.append("      ").append(XmlHandler.addTagValue("sort_threads", sortThreads));
 
     retval.append("    <fields>").append(Const.CR);
     for (int i = 0; i < fieldName.length; i++) {
@@ -514,6 +531,26 @@ public class SortRowsMeta extends BaseTransformMeta<SortRows, SortRowsData> impl
     this.caseSensitive = caseSensitive;
   }
 
+  /** @return true if the fast sort mode is enabled */
+  public boolean isFastSort() {
+    return fastSort;
+  }
+
+  /** @param fastSort true to enable the fast sort mode */
+  public void setFastSort(boolean fastSort) {
+    this.fastSort = fastSort;
+  }
+
+  /** @return the number of threads to sort with in fast sort mode */
+  public String getSortThreads() {
+    return sortThreads;
+  }
+
+  /** @param sortThreads the number of threads to sort with in fast sort mode */
+  public void setSortThreads(String sortThreads) {
+    this.sortThreads = sortThreads;
+  }
+
   /** @return the collatorEnabled */
   public boolean[] getCollatorEnabled() {
     return collatorEnabled;
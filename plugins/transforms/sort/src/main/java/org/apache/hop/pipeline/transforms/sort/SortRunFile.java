@@ -0,0 +1,211 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.sort;
+
+import org.apache.commons.vfs2.FileObject;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.vfs.HopVfs;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * A temporary file with a sorted run of rows. Every row is preceded by its binary sort key, if
+ * there is one. The file is written through a large buffer and, if requested, compressed with the
+ * fastest deflate level rather than the default GZIP level.
+ */
+public class SortRunFile {
+
+  private static final int BUFFER_SIZE = 1024 * 1024;
+
+  private final FileObject fileObject;
+  private final IRowMeta rowMeta;
+  private final boolean compressed;
+  private final boolean withKeys;
+  private long nrRows;
+
+  public SortRunFile(
+      FileObject fileObject, IRowMeta rowMeta, boolean compressed, boolean withKeys) {
+    this.fileObject = fileObject;
+    this.rowMeta = rowMeta;
+    this.compressed = compressed;
+    this.withKeys = withKeys;
+  }
+
+  /**
+   * Open the file for writing.
+   *
+   * @return the writer
+   * @throws HopException in case the file can't be opened
+   */
+  public Writer openWriter() throws HopException {
+    try {
+      return new Writer(HopVfs.getOutputStream(fileObject, false));
+    } catch (Exception e) {
+      throw new HopException("Unable to open temporary sort file " + fileObject, e);
+    }
+  }
+
+  /**
+   * Open the file for reading.
+   *
+   * @return the reader
+   * @throws HopException in case the file can't be opened
+   */
+  public Reader openReader() throws HopException {
+    try {
+      return new Reader(HopVfs.getInputStream(fileObject));
+    } catch (Exception e) {
+      throw new HopException("Unable to open temporary sort file " + fileObject, e);
+    }
+  }
+
+  /** Delete the file, ignoring errors */
+  public void delete() {
+    try {
+      fileObject.delete();
+    } catch (Exception e) {
+      // Ignore, it's a temporary file
+    }
+  }
+
+  /**
+   * Gets fileObject
+   *
+   * @return value of fileObject
+   */
+  public FileObject getFileObject() {
+    return fileObject;
+  }
+
+  /**
+   * Gets nrRows
+   *
+   * @return the number of rows written to the file
+   */
+  public long getNrRows() {
+    return nrRows;
+  }
+
+  public class Writer implements AutoCloseable {
+    private final DataOutputStream outputStream;
+    private final Deflater deflater;
+
+    private Writer(OutputStream fileOutputStream) {
+      OutputStream stream = new BufferedOutputStream(fileOutputStream, BUFFER_SIZE);
+      if (compressed) {
+        deflater = new Deflater(Deflater.BEST_SPEED);
+        stream = new DeflaterOutputStream(stream, deflater, BUFFER_SIZE);
+      } else {
+        deflater = null;
+      }
+      outputStream = new DataOutputStream(stream);
+    }
+
+    public void write(SortEntry entry) throws HopException {
+      try {
+        if (withKeys) {
+          outputStream.writeInt(entry.key.length);
+          outputStream.write(entry.key);
+        }
+        rowMeta.writeData(outputStream, entry.row);
+        nrRows++;
+      } catch (IOException e) {
+        throw new HopException("Error writing to temporary sort file " + fileObject, e);
+      }
+    }
+
+    @Override
+    public void close() throws HopException {
+      try {
+        outputStream.close();
+      } catch (IOException e) {
+        throw new HopException("Error closing temporary sort file " + fileObject, e);
+      } finally {
+        if (deflater != null) {
+          deflater.end();
+        }
+      }
+    }
+  }
+
+  public class Reader implements LoserTree.ISource, AutoCloseable {
+    private final DataInputStream inputStream;
+    private final Inflater inflater;
+    private long rowsLeft;
+
+    private Reader(InputStream fileInputStream) {
+      InputStream stream = new BufferedInputStream(fileInputStream, BUFFER_SIZE);
+      if (compressed) {
+        inflater = new Inflater();
+        stream = new InflaterInputStream(stream, inflater, BUFFER_SIZE);
+      } else {
+        inflater = null;
+      }
+      inputStream = new DataInputStream(stream);
+      rowsLeft = nrRows;
+    }
+
+    /**
+     * Read the next row from the run.
+     *
+     * @return the next entry or null if all rows were read
+     */
+    @Override
+    public SortEntry next() throws HopException {
+      if (rowsLeft <= 0) {
+        return null;
+      }
+      try {
+        byte[] key = null;
+        if (withKeys) {
+          key = new byte[inputStream.readInt()];
+          inputStream.readFully(key);
+        }
+        Object[] row = rowMeta.readData(inputStream);
+        rowsLeft--;
+        return new SortEntry(key, row);
+      } catch (Exception e) {
+        throw new HopException("Error reading from temporary sort file " + fileObject, e);
+      }
+    }
+
+    @Override
+    public void close() {
+      try {
+        inputStream.close();
+      } catch (IOException e) {
+        // Ignore, it's a temporary file
+      } finally {
+        if (inflater != null) {
+          inflater.end();
+        }
+      }
+    }
+  }
+}
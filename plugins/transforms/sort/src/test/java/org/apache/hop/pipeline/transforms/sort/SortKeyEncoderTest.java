@@ -0,0 +1,150 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.sort;
+
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.IValueMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaBigNumber;
+import org.apache.hop.core.row.value.ValueMetaBinary;
+import org.apache.hop.core.row.value.ValueMetaBoolean;
+import org.apache.hop.core.row.value.ValueMetaDate;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.row.value.ValueMetaNumber;
+import org.apache.hop.core.row.value.ValueMetaString;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class SortKeyEncoderTest {
+
+  private static final String[] STRINGS = {"", "a", "a\u0000", "a\u0000b", "ab", "B", "é", "￿"};
+  private static final double[] NUMBERS = {
+    Double.NEGATIVE_INFINITY, -1.5, -0.0, 0.0, 1e-300, 2.5, Double.POSITIVE_INFINITY, Double.NaN
+  };
+
+  @Test
+  public void testSameOrderAsRowMeta() throws Exception {
+    for (boolean descending : new boolean[] {false, true}) {
+      IRowMeta rowMeta = new RowMeta();
+      rowMeta.addValueMeta(new ValueMetaString("string"));
+      rowMeta.addValueMeta(new ValueMetaInteger("integer"));
+      rowMeta.addValueMeta(new ValueMetaNumber("number"));
+      rowMeta.addValueMeta(new ValueMetaDate("date"));
+      rowMeta.addValueMeta(new ValueMetaBoolean("boolean"));
+      rowMeta.addValueMeta(new ValueMetaBinary("binary"));
+      for (IValueMeta valueMeta : rowMeta.getValueMetaList()) {
+        valueMeta.setSortedDescending(descending);
+      }
+      int[] fieldNrs = {0, 1, 2, 3, 4, 5};
+
+      SortKeyEncoder encoder = SortKeyEncoder.create(rowMeta, fieldNrs);
+      assertNotNull(encoder);
+
+      Random random = new Random(42);
+      List<Object[]> rows = new ArrayList<>();
+      for (int i = 0; i < 2000; i++) {
+        rows.add(
+            new Object[] {
+              nullOr(random, STRINGS[random.nextInt(STRINGS.length)]),
+              nullOr(random, (long) random.nextInt(5) - 2L),
+              nullOr(random, NUMBERS[random.nextInt(NUMBERS.length)]),
+              nullOr(random, new Date(random.nextInt(3) * 1000L - 1000L)),
+              nullOr(random, random.nextBoolean()),
+              nullOr(random, new byte[] {(byte) (random.nextInt(3) - 1), 0}),
+            });
+      }
+
+      for (int i = 0; i < rows.size() - 1; i++) {
+        Object[] row1 = rows.get(i);
+        Object[] row2 = rows.get(i + 1);
+        int expected = Integer.signum(rowMeta.compare(row1, row2, fieldNrs));
+        int actual =
+            Integer.signum(SortKeyEncoder.compare(encoder.encode(row1), encoder.encode(row2)));
+        assertEquals(Arrays.toString(row1) + " <> " + Arrays.toString(row2), expected, actual);
+      }
+    }
+  }
+
+  @Test
+  public void testUnsupportedKeys() {
+    IRowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaString("string"));
+    rowMeta.addValueMeta(new ValueMetaBigNumber("bignumber"));
+
+    assertNull(SortKeyEncoder.create(rowMeta, new int[] {1}));
+
+    rowMeta.getValueMeta(0).setCaseInsensitive(true);
+    assertNull(SortKeyEncoder.create(rowMeta, new int[] {0}));
+
+    rowMeta.getValueMeta(0).setCaseInsensitive(false);
+    rowMeta.getValueMeta(0).setCollatorDisabled(false);
+    assertNull(SortKeyEncoder.create(rowMeta, new int[] {0}));
+  }
+
+  @Test
+  public void testLoserTreeMerge() throws Exception {
+    IRowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaInteger("id"));
+    SortKeyEncoder encoder = SortKeyEncoder.create(rowMeta, new int[] {0});
+
+    // 5 runs of sorted numbers, one of them empty
+    //
+    Random random = new Random(7);
+    List<Long> expected = new ArrayList<>();
+    List<LoserTree.ISource> sources = new ArrayList<>();
+    for (int run = 0; run < 5; run++) {
+      List<SortEntry> entries = new ArrayList<>();
+      long value = 0;
+      for (int i = 0; run != 3 && i < 100; i++) {
+        value += random.nextInt(10);
+        Object[] row = new Object[] {value};
+        entries.add(new SortEntry(encoder.encode(row), row));
+        expected.add(value);
+      }
+      sources.add(iteratorSource(entries));
+    }
+    expected.sort(Long::compare);
+
+    LoserTree tree = new LoserTree(sources, (e1, e2) -> SortKeyEncoder.compare(e1.key, e2.key));
+    List<Long> merged = new ArrayList<>();
+    SortEntry entry;
+    while ((entry = tree.next()) != null) {
+      merged.add((Long) entry.row[0]);
+    }
+    assertEquals(expected, merged);
+  }
+
+  private static LoserTree.ISource iteratorSource(List<SortEntry> entries) {
+    Iterator<SortEntry> iterator = entries.iterator();
+    return () -> iterator.hasNext() ? iterator.next() : null;
+  }
+
+  private static Object nullOr(Random random, Object value) {
+    return random.nextInt(10) == 0 ? null : value;
+  }
+}
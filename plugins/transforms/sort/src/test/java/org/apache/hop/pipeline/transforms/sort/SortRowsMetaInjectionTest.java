@@ -39,6 +39,8 @@ public class SortRowsMetaInjectionTest extends BaseMetadataInjectionTest<SortRow
     check("FREE_MEMORY_TRESHOLD", () -> meta.getFreeMemoryLimit());
     check("ONLY_PASS_UNIQUE_ROWS", () -> meta.isOnlyPassingUniqueRows());
     check("COMPRESS_TEMP_FILES", () -> meta.getCompressFiles());
+    check("FAST_SORT", () -> meta.isFastSort());
+    check("SORT_THREADS", () -> meta.getSortThreads());
     check("NAME", () -> meta.getFieldName()[0]);
     check("SORT_ASCENDING", () -> meta.getAscending()[0]);
     check("IGNORE_CASE", () -> meta.getCaseSensitive()[0]);
@@ -56,6 +56,8 @@ public class SortRowsMetaTest {
             "CompressFiles",
             "CompressFilesVariable",
             "OnlyPassingUniqueRows",
+            "FastSort",
+            "SortThreads",
             "FieldName",
             "Ascending",
             "CaseSensitive",
@@ -0,0 +1,111 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hop.pipeline.transforms.sort;
+
+import org.apache.hop.core.IRowSet;
+import org.apache.hop.core.logging.ILoggingObject;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaString;
+import org.apache.hop.pipeline.transforms.mock.TransformMockHelper;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+public class SortRowsTest {
+
+  private TransformMockHelper<SortRowsMeta, SortRowsData> transformMockHelper;
+
+  @Before
+  public void setup() {
+    transformMockHelper =
+        new TransformMockHelper<>("Test SortRows", SortRowsMeta.class, SortRowsData.class);
+    when(transformMockHelper.logChannelFactory.create(any(), any(ILoggingObject.class)))
+        .thenReturn(transformMockHelper.iLogChannel);
+    when(transformMockHelper.pipeline.isRunning()).thenReturn(true);
+  }
+
+  @After
+  public void tearDown() {
+    transformMockHelper.cleanUp();
+  }
+
+  @Test
+  public void testFastSortUniqueRowsAcrossRuns() throws Exception {
+    SortRowsMeta meta = new SortRowsMeta();
+    meta.setDefault();
+    meta.allocate(1);
+    meta.getFieldName()[0] = "key";
+    meta.getAscending()[0] = true;
+    meta.getCaseSensitive()[0] = true;
+    meta.setDirectory(System.getProperty("java.io.tmpdir"));
+    meta.setSortSize("3");
+    meta.setOnlyPassingUniqueRows(true);
+    meta.setFastSort(true);
+
+    SortRowsData data = new SortRowsData();
+    SortRows sortRows =
+        new SortRows(
+            transformMockHelper.transformMeta,
+            meta,
+            data,
+            0,
+            transformMockHelper.pipelineMeta,
+            transformMockHelper.pipeline);
+    assertTrue(sortRows.init());
+
+    // Three runs of three rows, every run is unique but they share keys
+    //
+    String[] keys = {"b", "a", "c", "a", "d", "b", "c", "a", "e"};
+    List<Object[]> rows = new ArrayList<>();
+    for (String key : keys) {
+      rows.add(new Object[] {key});
+    }
+    IRowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaString("key"));
+    IRowSet inputRowSet = transformMockHelper.getMockInputRowSet(rows);
+    when(inputRowSet.getRowMeta()).thenReturn(rowMeta);
+    sortRows.setInputRowSets(Collections.singletonList(inputRowSet));
+
+    try {
+      for (int i = 0; i < keys.length; i++) {
+        assertTrue(sortRows.processRow());
+      }
+      assertEquals(3, data.runFiles.size());
+
+      // Read the merged runs directly, without the extra check of passBuffer()
+      //
+      List<String> merged = new ArrayList<>();
+      for (Object[] row = sortRows.getBuffer(); row != null; row = sortRows.getBuffer()) {
+        merged.add((String) row[0]);
+      }
+      assertEquals(Arrays.asList("a", "b", "c", "d", "e"), merged);
+    } finally {
+      sortRows.dispose();
+    }
+  }
+}
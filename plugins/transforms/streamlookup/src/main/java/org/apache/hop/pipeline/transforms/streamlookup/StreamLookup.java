@@ -23,6 +23,8 @@ import org.apache.hop.core.exception.HopException;
 import org.apache.hop.core.exception.HopTransformException;
 import org.apache.hop.core.exception.HopValueException;
 import org.apache.hop.core.hash.ByteArrayHashIndex;
+import org.apache.hop.core.hash.CompactByteArrayHashIndex;
+import org.apache.hop.core.hash.CompactLongHashIndex;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.core.row.IValueMeta;
 import org.apache.hop.core.row.RowDataUtil;
@@ -215,6 +217,19 @@ public class StreamLookup extends BaseTransform<StreamLookupMeta, StreamLookupDa
       rowData = getRowFrom(rowSet);
     }
 
+    if (log.isDetailed() && (data.compactLongIndex != null || data.compactHashIndex != null)) {
+      logDetailed(
+          BaseMessages.getString(
+              PKG,
+              "StreamLookup.Log.CompactStoreSize",
+              data.compactLongIndex != null
+                  ? data.compactLongIndex.getSize()
+                  : data.compactHashIndex.getSize(),
+              data.compactLongIndex != null
+                  ? data.compactLongIndex.getMemoryUsage()
+                  : data.compactHashIndex.getMemoryUsage()));
+    }
+
     return true;
   }
 
@@ -298,7 +313,9 @@ public class StreamLookup extends BaseTransform<StreamLookupMeta, StreamLookupDa
       IRowMeta keyMeta, Object[] keyData, IRowMeta valueMeta, Object[] valueData)
       throws HopValueException {
     if (meta.isMemoryPreservationActive()) {
-      if (meta.isUsingSortedList()) {
+      if (meta.isUsingCompactStore()) {
+        addToCompactStore(keyMeta, keyData, valueMeta, valueData);
+      } else if (meta.isUsingSortedList()) {
         KeyValue keyValue = new KeyValue(keyData, valueData);
         int idx = Collections.binarySearch(data.list, keyValue, data.comparator);
         if (idx < 0) {
@@ -340,9 +357,54 @@ public class StreamLookup extends BaseTransform<StreamLookupMeta, StreamLookupDa
     }
   }
 
+  /**
+   * Store a row in the compact store. A single integer key goes into a table of primitive longs,
+   * other keys are serialized. The values are always serialized.
+   */
+  private void addToCompactStore(
+      IRowMeta keyMeta, Object[] keyData, IRowMeta valueMeta, Object[] valueData)
+      throws HopValueException {
+    if (data.compactLongIndex == null && data.compactHashIndex == null) {
+      if (keyMeta.size() == 1 && keyMeta.getValueMeta(0).isInteger()) {
+        data.compactLongIndex = new CompactLongHashIndex();
+      } else {
+        data.compactHashIndex = new CompactByteArrayHashIndex();
+      }
+    }
+
+    byte[] value = RowMeta.extractData(valueMeta, valueData);
+    if (data.compactLongIndex != null) {
+      Long key = keyMeta.getInteger(keyData, 0);
+      if (key == null) {
+        data.compactNullKeyValue = value;
+      } else {
+        data.compactLongIndex.put(key, value);
+      }
+    } else {
+      data.compactHashIndex.put(RowMeta.extractData(keyMeta, keyData), value);
+    }
+  }
+
+  private Object[] getFromCompactStore(IRowMeta keyMeta, Object[] keyData)
+      throws HopValueException {
+    byte[] value;
+    if (data.compactLongIndex != null) {
+      Long key = keyMeta.getInteger(keyData, 0);
+      value = key == null ? data.compactNullKeyValue : data.compactLongIndex.get(key);
+    } else {
+      value = data.compactHashIndex.get(RowMeta.extractData(keyMeta, keyData));
+    }
+    if (value == null) {
+      return null;
+    }
+    return RowMeta.getRow(data.cacheValueMeta, value);
+  }
+
   private Object[] getFromCache(IRowMeta keyMeta, Object[] keyData) throws HopValueException {
     if (meta.isMemoryPreservationActive()) {
-      if (meta.isUsingSortedList()) {
+      if (meta.isUsingCompactStore()) {
+        return getFromCompactStore(keyMeta, keyData);
+      } else if (meta.isUsingSortedList()) {
         KeyValue keyValue = new KeyValue(keyData, null);
         int idx = Collections.binarySearch(data.list, keyValue, data.comparator);
         if (idx < 0) {
@@ -499,6 +561,9 @@ public class StreamLookup extends BaseTransform<StreamLookupMeta, StreamLookupDa
     data.list = null;
     data.hashIndex = null;
     data.longIndex = null;
+    data.compactLongIndex = null;
+    data.compactHashIndex = null;
+    data.compactNullKeyValue = null;
 
     super.dispose();
   }
@@ -20,6 +20,8 @@ package org.apache.hop.pipeline.transforms.streamlookup;
 import org.apache.hop.core.RowMetaAndData;
 import org.apache.hop.core.exception.HopValueException;
 import org.apache.hop.core.hash.ByteArrayHashIndex;
+import org.apache.hop.core.hash.CompactByteArrayHashIndex;
+import org.apache.hop.core.hash.CompactLongHashIndex;
 import org.apache.hop.core.hash.LongHashIndex;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.pipeline.transform.BaseTransformData;
@@ -65,6 +67,15 @@ public class StreamLookupData extends BaseTransformData implements ITransformDat
   public ByteArrayHashIndex hashIndex;
   public LongHashIndex longIndex;
 
+  /** The compact store for a single integer key */
+  public CompactLongHashIndex compactLongIndex;
+
+  /** The compact store for any other key */
+  public CompactByteArrayHashIndex compactHashIndex;
+
+  /** The value for a null integer key in the compact store */
+  public byte[] compactNullKeyValue;
+
   public IRowMeta lookupMeta;
 
   public IRowMeta infoMeta;
@@ -69,6 +69,8 @@ public class StreamLookupDialog extends BaseTransformDialog implements ITransfor
 
   private Button wIntegerPair;
 
+  private Button wCompactStore;
+
   private final StreamLookupMeta input;
 
   private ColumnInfo[] ciKey;
@@ -247,13 +249,35 @@ public class StreamLookupDialog extends BaseTransformDialog implements ITransfor
     wIntegerPair.setLayoutData(fdIntegerPair);
     wIntegerPair.addListener(SWT.Selection, e -> input.setChanged());
 
+    Label wlCompactStore = new Label(shell, SWT.RIGHT);
+    wlCompactStore.setText(BaseMessages.getString(PKG, "StreamLookupDialog.CompactStore.Label"));
+    wlCompactStore.setToolTipText(
+        BaseMessages.getString(PKG, "StreamLookupDialog.CompactStore.Tooltip"));
+    PropsUi.setLook(wlCompactStore);
+    FormData fdlCompactStore = new FormData();
+    fdlCompactStore.left = new FormAttachment(0, 0);
+    fdlCompactStore.bottom = new FormAttachment(wIntegerPair, -margin);
+    fdlCompactStore.right = new FormAttachment(middle, -margin);
+    wlCompactStore.setLayoutData(fdlCompactStore);
+    wCompactStore = new Button(shell, SWT.RADIO);
+    wCompactStore.setEnabled(false);
+    wCompactStore.setToolTipText(
+        BaseMessages.getString(PKG, "StreamLookupDialog.CompactStore.Tooltip"));
+    PropsUi.setLook(wCompactStore);
+    FormData fdCompactStore = new FormData();
+    fdCompactStore.left = new FormAttachment(middle, 0);
+    fdCompactStore.top = new FormAttachment(wlCompactStore, 0, SWT.CENTER);
+    fdCompactStore.right = new FormAttachment(100, 0);
+    wCompactStore.setLayoutData(fdCompactStore);
+    wCompactStore.addListener(SWT.Selection, e -> input.setChanged());
+
     Label wlPreserveMemory = new Label(shell, SWT.RIGHT);
     wlPreserveMemory.setText(
         BaseMessages.getString(PKG, "StreamLookupDialog.PreserveMemory.Label"));
     PropsUi.setLook(wlPreserveMemory);
     FormData fdlPreserveMemory = new FormData();
     fdlPreserveMemory.left = new FormAttachment(0, 0);
-    fdlPreserveMemory.bottom = new FormAttachment(wlIntegerPair, -margin);
+    fdlPreserveMemory.bottom = new FormAttachment(wlCompactStore, -margin);
     fdlPreserveMemory.right = new FormAttachment(middle, -margin);
     wlPreserveMemory.setLayoutData(fdlPreserveMemory);
     wPreserveMemory = new Button(shell, SWT.CHECK);
@@ -272,6 +296,7 @@ public class StreamLookupDialog extends BaseTransformDialog implements ITransfor
           boolean selection = wPreserveMemory.getSelection();
           wSortedList.setEnabled(selection);
           wIntegerPair.setEnabled(selection);
+          wCompactStore.setEnabled(selection);
         });
 
     // THE UPDATE/INSERT TABLE
@@ -443,12 +468,14 @@ public class StreamLookupDialog extends BaseTransformDialog implements ITransfor
     if (isPreserveMemory) {
       wSortedList.setEnabled(true);
       wIntegerPair.setEnabled(true);
+      wCompactStore.setEnabled(true);
     }
     // usually this is sorted list or integer pair
     // for backward compatibility they can be set both
     // but user will be forced to choose only one option later.
     wSortedList.setSelection(input.isUsingSortedList());
     wIntegerPair.setSelection(input.isUsingIntegerPair());
+    wCompactStore.setSelection(input.isUsingCompactStore());
 
     wKey.setRowNums();
     wKey.optWidth(true);
@@ -476,6 +503,7 @@ public class StreamLookupDialog extends BaseTransformDialog implements ITransfor
     input.setMemoryPreservationActive(wPreserveMemory.getSelection());
     input.setUsingSortedList(wSortedList.getSelection());
     input.setUsingIntegerPair(wIntegerPair.getSelection());
+    input.setUsingCompactStore(wCompactStore.getSelection());
 
     if (log.isDebug()) {
       logDebug(BaseMessages.getString(PKG, "StreamLookupDialog.Log.FoundKeys", nrkeys + ""));
@@ -97,6 +97,10 @@ public class StreamLookupMeta extends BaseTransformMeta<StreamLookup, StreamLook
   @Injection(name = "INTEGER_PAIR")
   private boolean usingIntegerPair;
 
+  /** Keep the keys and values serialized in a compact hash table of large byte slabs */
+  @Injection(name = "COMPACT_STORE")
+  private boolean usingCompactStore;
+
   public StreamLookupMeta() {
     super(); // allocate BaseTransformMeta
   }
@@ -164,6 +168,8 @@ public class StreamLookupMeta extends BaseTransformMeta<StreamLookup, StreamLook
           "Y".equalsIgnoreCase(XmlHandler.getTagValue(transformNode, "sorted_list")));
       setUsingIntegerPair(
           "Y".equalsIgnoreCase(XmlHandler.getTagValue(transformNode, "integer_pair")));
+      setUsingCompactStore(
+          "Y".equalsIgnoreCase(XmlHandler.getTagValue(transformNode, "compact_store")));
 
       Node lookup = XmlHandler.getSubNode(transformNode, "lookup");
       nrkeys = XmlHandler.countNodes(lookup, "key");
@@ -214,6 +220,7 @@ public class StreamLookupMeta extends BaseTransformMeta<StreamLookup, StreamLook
     setMemoryPreservationActive(true);
     setUsingSortedList(false);
     setUsingIntegerPair(false);
+    setUsingCompactStore(false);
 
     allocate(0, 0);
   }
@@ -267,6 +274,7 @@ public class StreamLookupMeta extends BaseTransformMeta<StreamLookup, StreamLook
         .append(XmlHandler.addTagValue("preserve_memory", isMemoryPreservationActive()));
     retval.append("    ").append(XmlHandler.addTagValue("sorted_list", isUsingSortedList()));
     retval.append("    ").append(XmlHandler.addTagValue("integer_pair", isUsingIntegerPair()));
+    retval.append("    ").append(XmlHandler.addTagValue("compact_store", isUsingCompactStore()));
 
     retval.append("    <lookup>").append(Const.CR);
     for (int i = 0; i < getKeystream().length; i++) {
@@ -628,6 +636,16 @@ public class StreamLookupMeta extends BaseTransformMeta<StreamLookup, StreamLook
     this.usingIntegerPair = usingIntegerPair;
   }
 
+  /** @return the usingCompactStore */
+  public boolean isUsingCompactStore() {
+    return usingCompactStore;
+  }
+
+  /** @param usingCompactStore the usingCompactStore to set */
+  public void setUsingCompactStore(boolean usingCompactStore) {
+    this.usingCompactStore = usingCompactStore;
+  }
+
   /**
    * If we use injection we can have different arrays lengths. We need synchronize them for
    * consistency behavior with UI
@@ -60,6 +60,7 @@ public class StreamLookupMetaTest implements IInitializer<ITransformMeta> {
             "memoryPreservationActive",
             "usingSortedList",
             "usingIntegerPair",
+            "usingCompactStore",
             "keystream",
             "keylookup",
             "value",
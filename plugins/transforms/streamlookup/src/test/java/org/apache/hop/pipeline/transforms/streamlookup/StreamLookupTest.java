@@ -130,8 +130,8 @@ public class StreamLookupTest {
     return dataRowSet;
   }
 
-  private StreamLookupMeta mockProcessRowMeta(boolean memoryPreservationActive)
-      throws HopTransformException {
+  private StreamLookupMeta mockProcessRowMeta(
+      boolean memoryPreservationActive, boolean compactStore) throws HopTransformException {
     StreamLookupMeta meta = smh.iTransformMeta;
 
     TransformMeta lookupTransformMeta =
@@ -149,6 +149,7 @@ public class StreamLookupTest {
     doReturn(memoryPreservationActive).when(meta).isMemoryPreservationActive();
     doReturn(false).when(meta).isUsingSortedList();
     doReturn(false).when(meta).isUsingIntegerPair();
+    doReturn(compactStore).when(meta).isUsingCompactStore();
     doReturn(new int[] {-1}).when(meta).getValueDefaultType();
     doReturn(new String[] {""}).when(meta).getValueDefault();
     doReturn(new String[] {"Value"}).when(meta).getValueName();
@@ -169,6 +170,15 @@ public class StreamLookupTest {
   private void doTest(
       boolean memoryPreservationActive, boolean binaryLookupStream, boolean binaryDataStream)
       throws HopException {
+    doTest(memoryPreservationActive, false, binaryLookupStream, binaryDataStream);
+  }
+
+  private void doTest(
+      boolean memoryPreservationActive,
+      boolean compactStore,
+      boolean binaryLookupStream,
+      boolean binaryDataStream)
+      throws HopException {
     StreamLookup transform =
         new StreamLookup(
             smh.transformMeta,
@@ -182,7 +192,7 @@ public class StreamLookupTest {
     transform.addRowSetToInputRowSets(mockDataRowSet(binaryDataStream));
     transform.addRowSetToOutputRowSets(new QueueRowSet());
 
-    StreamLookupMeta meta = mockProcessRowMeta(memoryPreservationActive);
+    StreamLookupMeta meta = mockProcessRowMeta(memoryPreservationActive, compactStore);
     StreamLookupData data = new StreamLookupData();
     data.readLookupValues = true;
 
@@ -256,4 +266,14 @@ public class StreamLookupTest {
   public void testMemoryPreservationWithBinaryStreams() throws HopException {
     doTest(true, false, true);
   }
+
+  @Test
+  public void testCompactStoreWithNormalStreams() throws HopException {
+    doTest(true, true, false, false);
+  }
+
+  @Test
+  public void testCompactStoreWithBinaryStreams() throws HopException {
+    doTest(true, true, true, true);
+  }
 }
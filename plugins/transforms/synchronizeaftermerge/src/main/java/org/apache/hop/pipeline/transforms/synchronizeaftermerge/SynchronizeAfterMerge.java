@@ -24,6 +24,9 @@ import org.apache.hop.core.exception.HopDatabaseBatchException;
 import org.apache.hop.core.exception.HopDatabaseException;
 import org.apache.hop.core.exception.HopException;
 import org.apache.hop.core.exception.HopTransformException;
+import org.apache.hop.core.exception.HopValueException;
+import org.apache.hop.core.hash.RowContentHashIndex;
+import org.apache.hop.core.hash.RowContentHashIndex.RowState;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.core.row.IValueMeta;
 import org.apache.hop.core.row.RowMeta;
@@ -35,7 +38,9 @@ import org.apache.hop.pipeline.transform.BaseTransform;
 import org.apache.hop.pipeline.transform.TransformMeta;
 
 import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
@@ -140,6 +145,12 @@ public class SynchronizeAfterMerge
         data.db.setValues(data.insertRowMeta, insertRowData, data.insertStatement);
         data.db.insertRow(data.insertStatement, data.batchMode);
         performInsert = true;
+        if (data.preloaded) {
+          Object[] key = getPreloadKey(row);
+          if (key != null) {
+            data.contentIndex.put(key, getPreloadContent(row));
+          }
+        }
         if (!data.batchMode) {
           incrementLinesOutput();
         }
@@ -162,7 +173,22 @@ public class SynchronizeAfterMerge
           }
         }
         boolean updateorDelete = false;
-        if (meta.isPerformLookup()) {
+        boolean performLookup = meta.isPerformLookup();
+        Object[] key = null;
+        Object[] content = null;
+        if (data.preloaded) {
+
+          // Compare with the preloaded table instead of a lookup.
+          // The keys are matched exactly in memory: when a key isn't found the database decides,
+          // it may compare case-insensitively or ignore trailing spaces.
+
+          key = getPreloadKey(row);
+          content = getPreloadContent(row);
+          RowState state = key == null ? RowState.NEW : data.contentIndex.classify(key, content);
+          performLookup = state == RowState.NEW;
+          updateorDelete = state == RowState.CHANGED;
+        }
+        if (performLookup) {
 
           // LOOKUP
 
@@ -194,25 +220,7 @@ public class SynchronizeAfterMerge
 
           if (add == null) {
             // nothing was found:
-
-            if (data.stringErrorKeyNotFound == null) {
-              data.stringErrorKeyNotFound =
-                  BaseMessages.getString(PKG, "SynchronizeAfterMerge.Exception.KeyCouldNotFound")
-                      + data.lookupParameterRowMeta.getString(lookupRow);
-              data.stringFieldnames = "";
-              for (int i = 0; i < data.lookupParameterRowMeta.size(); i++) {
-                if (i > 0) {
-                  data.stringFieldnames += ", ";
-                }
-                data.stringFieldnames += data.lookupParameterRowMeta.getValueMeta(i).getName();
-              }
-            }
-            data.lookupFailure = true;
-            throw new HopDatabaseException(
-                BaseMessages.getString(
-                    PKG,
-                    "SynchronizeAfterMerge.Exception.KeyCouldNotFound",
-                    data.lookupParameterRowMeta.getString(lookupRow)));
+            throw keyNotFound(lookupRow);
           } else {
             if (log.isRowLevel()) {
               logRowlevel(
@@ -288,6 +296,9 @@ public class SynchronizeAfterMerge
             }
             data.db.insertRow(data.updateStatement, data.batchMode);
             performUpdate = true;
+            if (data.preloaded) {
+              data.contentIndex.put(key, content);
+            }
             incrementLinesUpdated();
 
           } else {
@@ -342,6 +353,9 @@ public class SynchronizeAfterMerge
           }
           data.db.insertRow(data.deleteStatement, data.batchMode);
           performDelete = true;
+          if (data.preloaded) {
+            data.contentIndex.remove(key);
+          }
           incrementLinesUpdated();
         } else {
           // endif operation delete
@@ -533,6 +547,136 @@ public class SynchronizeAfterMerge
     }
   }
 
+  private HopDatabaseException keyNotFound(Object[] lookupRow) throws HopValueException {
+    if (data.stringErrorKeyNotFound == null) {
+      data.stringErrorKeyNotFound =
+          BaseMessages.getString(PKG, "SynchronizeAfterMerge.Exception.KeyCouldNotFound")
+              + data.lookupParameterRowMeta.getString(lookupRow);
+      data.stringFieldnames = "";
+      for (int i = 0; i < data.lookupParameterRowMeta.size(); i++) {
+        if (i > 0) {
+          data.stringFieldnames += ", ";
+        }
+        data.stringFieldnames += data.lookupParameterRowMeta.getValueMeta(i).getName();
+      }
+    }
+    data.lookupFailure = true;
+    return new HopDatabaseException(
+        BaseMessages.getString(
+            PKG,
+            "SynchronizeAfterMerge.Exception.KeyCouldNotFound",
+            data.lookupParameterRowMeta.getString(lookupRow)));
+  }
+
+  /**
+   * @return the key values of the row in normal storage or null if a key value is null
+   */
+  private Object[] getPreloadKey(Object[] row) throws HopValueException {
+    Object[] key = new Object[data.keynrs.length];
+    for (int i = 0; i < data.keynrs.length; i++) {
+      IValueMeta valueMeta = data.inputRowMeta.getValueMeta(data.keynrs[i]);
+      if (valueMeta.isNull(row[data.keynrs[i]])) {
+        return null;
+      }
+      key[i] = valueMeta.convertToNormalStorageType(row[data.keynrs[i]]);
+    }
+    return key;
+  }
+
+  /**
+   * @return the values to update of the row in normal storage
+   */
+  private Object[] getPreloadContent(Object[] row) throws HopValueException {
+    Object[] content = new Object[data.contentnrs.length];
+    for (int i = 0; i < data.contentnrs.length; i++) {
+      IValueMeta valueMeta = data.inputRowMeta.getValueMeta(data.contentnrs[i]);
+      content[i] = valueMeta.convertToNormalStorageType(row[data.contentnrs[i]]);
+    }
+    return content;
+  }
+
+  /**
+   * The table can be preloaded if it replaces the lookup of a single table by equal keys. Rows
+   * can't go to error handling: a failed batch would leave rows in the index which aren't in the
+   * table.
+   */
+  private boolean isPreloadPossible() {
+    if (!meta.isPerformLookup()
+        || meta.istablenameInField()
+        || getTransformMeta().isDoingErrorHandling()
+        || meta.getKeyLookup().length == 0) {
+      return false;
+    }
+    for (String keyCondition : meta.getKeyCondition()) {
+      if (!"=".equals(Const.trim(keyCondition))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Read the keys and the values to update of the whole table and keep them in a {@link
+   * RowContentHashIndex}. The database values are converted to the types of the input fields.
+   */
+  private void preloadTable() throws HopException {
+    DatabaseMeta databaseMeta = meta.getDatabaseMeta();
+    data.preloadKeyMeta = new RowMeta();
+    data.preloadContentMeta = new RowMeta();
+    List<Integer> contentnrs = new ArrayList<>();
+
+    StringBuilder sql = new StringBuilder("SELECT ");
+    for (int i = 0; i < meta.getKeyLookup().length; i++) {
+      if (i != 0) {
+        sql.append(", ");
+      }
+      sql.append(databaseMeta.quoteField(meta.getKeyLookup()[i]));
+      data.preloadKeyMeta.addValueMeta(normalStorage(data.inputRowMeta, data.keynrs[i]));
+    }
+    for (int i = 0; i < meta.getUpdateLookup().length; i++) {
+      if (meta.getUpdate()[i].booleanValue()) {
+        sql.append(", ").append(databaseMeta.quoteField(meta.getUpdateLookup()[i]));
+        data.preloadContentMeta.addValueMeta(normalStorage(data.inputRowMeta, data.valuenrs[i]));
+        contentnrs.add(data.valuenrs[i]);
+      }
+    }
+    sql.append(" FROM ").append(data.realSchemaTable);
+    data.contentnrs = contentnrs.stream().mapToInt(Integer::intValue).toArray();
+    data.contentIndex = new RowContentHashIndex(data.preloadKeyMeta, data.preloadContentMeta);
+
+    if (log.isDetailed()) {
+      logDetailed(
+          BaseMessages.getString(
+              PKG, "SynchronizeAfterMerge.Log.PreloadingTable", data.realSchemaTable));
+    }
+    ResultSet rs = data.db.openQuery(databaseMeta.stripCR(sql.toString()));
+    try {
+      IRowMeta tableRowMeta = data.db.getReturnRowMeta();
+      Object[] tableRow;
+      while (!isStopped() && (tableRow = data.db.getRow(rs)) != null) {
+        data.contentIndex.putTableRow(tableRowMeta, tableRow);
+      }
+    } finally {
+      data.db.closeQuery(rs);
+    }
+    if (log.isDetailed()) {
+      logDetailed(
+          BaseMessages.getString(
+              PKG,
+              "SynchronizeAfterMerge.Log.TablePreloaded",
+              Integer.toString(data.contentIndex.getSize()),
+              data.realSchemaTable,
+              Long.toString(data.contentIndex.getMemoryUsage())));
+    }
+    data.preloaded = true;
+  }
+
+  private static IValueMeta normalStorage(IRowMeta rowMeta, int index) {
+    IValueMeta normal = rowMeta.getValueMeta(index).clone();
+    normal.setStorageType(IValueMeta.STORAGE_TYPE_NORMAL);
+    return normal;
+  }
+
   private void processBatchException(
       String errorMessage, int[] updateCounts, List<Exception> exceptionsList) throws HopException {
     // There was an error with the commit
@@ -879,6 +1023,14 @@ public class SynchronizeAfterMerge
           }
         }
       }
+
+      if (meta.isPreloadTable()) {
+        if (isPreloadPossible()) {
+          preloadTable();
+        } else {
+          logBasic(BaseMessages.getString(PKG, "SynchronizeAfterMerge.Log.PreloadNotPossible"));
+        }
+      }
     } // end if first
 
     try {
@@ -19,6 +19,7 @@ package org.apache.hop.pipeline.transforms.synchronizeaftermerge;
 
 import org.apache.hop.core.database.Database;
 import org.apache.hop.core.database.DatabaseMeta;
+import org.apache.hop.core.hash.RowContentHashIndex;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.pipeline.transform.BaseTransformData;
 import org.apache.hop.pipeline.transform.ITransformData;
@@ -89,6 +90,14 @@ public class SynchronizeAfterMergeData extends BaseTransformData implements ITra
 
   public List<Object[]> batchBuffer;
 
+  /** True if the table was preloaded: rows are compared with the index instead of looked up */
+  public boolean preloaded;
+
+  public RowContentHashIndex contentIndex;
+  public IRowMeta preloadKeyMeta;
+  public IRowMeta preloadContentMeta;
+  public int[] contentnrs; // Stream nrs of the values which are compared
+
   /** Default constructor. */
   public SynchronizeAfterMergeData() {
     super();
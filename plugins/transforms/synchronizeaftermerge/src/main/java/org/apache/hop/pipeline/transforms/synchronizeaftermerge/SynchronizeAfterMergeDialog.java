@@ -103,6 +103,9 @@ public class SynchronizeAfterMergeDialog extends BaseTransformDialog implements
 
   private Button wPerformLookup;
 
+  private Label wlPreloadTable;
+  private Button wPreloadTable;
+
   private CCombo wOperationField;
 
   private TextVar wOrderInsert;
@@ -700,6 +703,34 @@ public class SynchronizeAfterMergeDialog extends BaseTransformDialog implements
     fdPerformLookup.top = new FormAttachment(wlPerformLookup, 0, SWT.CENTER);
     fdPerformLookup.right = new FormAttachment(100, 0);
     wPerformLookup.setLayoutData(fdPerformLookup);
+    wPerformLookup.addSelectionListener(
+        new SelectionAdapter() {
+          @Override
+          public void widgetSelected(SelectionEvent e) {
+            activePreloadTable();
+          }
+        });
+
+    // Preload the table instead of a lookup per row?
+    wlPreloadTable = new Label(wOperationOrder, SWT.RIGHT);
+    wlPreloadTable.setText(
+        BaseMessages.getString(PKG, "SynchronizeAfterMergeDialog.PreloadTable.Label"));
+    PropsUi.setLook(wlPreloadTable);
+    FormData fdlPreloadTable = new FormData();
+    fdlPreloadTable.left = new FormAttachment(0, 0);
+    fdlPreloadTable.top = new FormAttachment(wPerformLookup, margin);
+    fdlPreloadTable.right = new FormAttachment(middle, -margin);
+    wlPreloadTable.setLayoutData(fdlPreloadTable);
+    wPreloadTable = new Button(wOperationOrder, SWT.CHECK);
+    wPreloadTable.setToolTipText(
+        BaseMessages.getString(PKG, "SynchronizeAfterMergeDialog.PreloadTable.Tooltip"));
+    wPreloadTable.addSelectionListener(lsSimpleSelection);
+    PropsUi.setLook(wPreloadTable);
+    FormData fdPreloadTable = new FormData();
+    fdPreloadTable.left = new FormAttachment(middle, 0);
+    fdPreloadTable.top = new FormAttachment(wlPreloadTable, 0, SWT.CENTER);
+    fdPreloadTable.right = new FormAttachment(100, 0);
+    wPreloadTable.setLayoutData(fdPreloadTable);
 
     FormData fdOperationOrder = new FormData();
     fdOperationOrder.left = new FormAttachment(0, margin);
@@ -756,6 +787,7 @@ public class SynchronizeAfterMergeDialog extends BaseTransformDialog implements
     getData();
     setTableFieldCombo();
     activeTablenameField();
+    activePreloadTable();
     input.setChanged(changed);
 
     BaseDialog.defaultShellHandling(shell, c -> ok(), c -> cancel());
@@ -967,6 +999,11 @@ public class SynchronizeAfterMergeDialog extends BaseTransformDialog implements
     ciReturn[1].setComboValues(fieldNames);
   }
 
+  private void activePreloadTable() {
+    wlPreloadTable.setEnabled(wPerformLookup.getSelection());
+    wPreloadTable.setEnabled(wPerformLookup.getSelection());
+  }
+
   private void activeTablenameField() {
     wlTableField.setEnabled(wTablenameInField.getSelection());
     wTableField.setEnabled(wTablenameInField.getSelection());
@@ -1030,6 +1067,7 @@ public class SynchronizeAfterMergeDialog extends BaseTransformDialog implements
       wOrderDelete.setText(input.getOrderDelete());
     }
     wPerformLookup.setSelection(input.isPerformLookup());
+    wPreloadTable.setSelection(input.isPreloadTable());
 
     if (input.getKeyStream() != null) {
       for (int i = 0; i < input.getKeyStream().length; i++) {
@@ -1102,6 +1140,7 @@ public class SynchronizeAfterMergeDialog extends BaseTransformDialog implements
     inf.settablenameField(wTableField.getText());
     inf.setUseBatchUpdate(wBatch.getSelection());
     inf.setPerformLookup(wPerformLookup.getSelection());
+    inf.setPreloadTable(wPreloadTable.getSelection());
 
     inf.setOperationOrderField(wOperationField.getText());
     inf.setOrderInsert(wOrderInsert.getText());
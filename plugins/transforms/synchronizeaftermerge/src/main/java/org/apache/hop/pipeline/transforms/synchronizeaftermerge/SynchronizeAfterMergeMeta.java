@@ -120,6 +120,9 @@ public class SynchronizeAfterMergeMeta extends BaseTransformMeta<SynchronizeAfte
   @Injection(name = "PERFORM_LOOKUP")
   private boolean performLookup;
 
+  @Injection(name = "PRELOAD_TABLE")
+  private boolean preloadTable;
+
   @Injection(name = "ORDER_INSERT")
   private String orderInsert;
 
@@ -162,6 +165,19 @@ public class SynchronizeAfterMergeMeta extends BaseTransformMeta<SynchronizeAfte
     return performLookup;
   }
 
+  /** @param preloadTable The preloadTable flag to set. */
+  public void setPreloadTable(boolean preloadTable) {
+    this.preloadTable = preloadTable;
+  }
+
+  /**
+   * @return true if the keys and a hash of the values of the table are read before the first row
+   *     instead of a lookup per row
+   */
+  public boolean isPreloadTable() {
+    return preloadTable;
+  }
+
   public boolean istablenameInField() {
     return tablenameInField;
   }
@@ -376,6 +392,7 @@ public class SynchronizeAfterMergeMeta extends BaseTransformMeta<SynchronizeAfte
 
       useBatchUpdate = "Y".equalsIgnoreCase(XmlHandler.getTagValue(transformNode, "use_batch"));
       performLookup = "Y".equalsIgnoreCase(XmlHandler.getTagValue(transformNode, "perform_lookup"));
+      preloadTable = "Y".equalsIgnoreCase(XmlHandler.getTagValue(transformNode, "preload_table"));
 
       tablenameInField =
           "Y".equalsIgnoreCase(XmlHandler.getTagValue(transformNode, "tablename_in_field"));
@@ -446,6 +463,7 @@ public class SynchronizeAfterMergeMeta extends BaseTransformMeta<SynchronizeAfte
     orderUpdate = null;
     orderDelete = null;
     performLookup = false;
+    preloadTable = false;
 
     int nrkeys = 0;
     int nrvalues = 0;
@@ -484,6 +502,7 @@ public class SynchronizeAfterMergeMeta extends BaseTransformMeta<SynchronizeAfte
     retval.append("    ").append(XmlHandler.addTagValue("tablename_field", tablenameField));
     retval.append("    ").append(XmlHandler.addTagValue("use_batch", useBatchUpdate));
     retval.append("    ").append(XmlHandler.addTagValue("perform_lookup", performLookup));
+    retval.append("    ").append(XmlHandler.addTagValue("preload_table", preloadTable));
 
     retval
         .append("    ")
@@ -160,6 +160,14 @@ public class SynchronizeAfterMergeMetaInjectionTest
             return meta.isPerformLookup();
           }
         });
+    check(
+        "PRELOAD_TABLE",
+        new IBooleanGetter() {
+          @Override
+          public boolean get() {
+            return meta.isPreloadTable();
+          }
+        });
     check(
         "ORDER_INSERT",
         new IStringGetter() {
@@ -202,6 +210,7 @@ public class SynchronizeAfterMergeMetaInjectionTest
         "TABLE_NAME",
         "STREAM_FIELD2",
         "PERFORM_LOOKUP",
+        "PRELOAD_TABLE",
         "COMPARATOR",
         "OPERATION_ORDER_FIELD",
         "ORDER_DELETE",
@@ -56,6 +56,7 @@ public class SynchronizeAfterMergeMetaTest implements IInitializer<ITransform> {
             "operationOrderField",
             "useBatchUpdate",
             "performLookup",
+            "preloadTable",
             "OrderInsert",
             "OrderUpdate",
             "OrderDelete",
@@ -37,12 +37,16 @@ import org.apache.hop.pipeline.transform.TransformMeta;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.Map;
 
 /** Reads information from a database table by using freehand SQL */
 public class TableInput extends BaseTransform<TableInputMeta, TableInputData> {
 
   private static final Class<?> PKG = TableInputMeta.class; // For Translator
 
+  private static final String PARTITION_KEY_PREFIX = "TableInput.Partition:";
+  private static final String PARTITION_DONE_KEY_PREFIX = "TableInput.PartitionDone:";
+
   public TableInput(
       TransformMeta transformMeta,
       TableInputMeta meta,
@@ -221,8 +225,7 @@ public class TableInput extends BaseTransform<TableInputMeta, TableInputData> {
     }
   }
 
-  private boolean doQuery(IRowMeta parametersMeta, Object[] parameters)
-      throws HopDatabaseException {
+  private boolean doQuery(IRowMeta parametersMeta, Object[] parameters) throws HopException {
     boolean success = true;
 
     // Open the query with the optional parameters received from the source transforms.
@@ -233,6 +236,33 @@ public class TableInput extends BaseTransform<TableInputMeta, TableInputData> {
       sql = meta.getSql();
     }
 
+    // Only read the range of the partition column of this copy
+    //
+    String partitionColumn = resolve(meta.getPartitionColumn());
+    if (!Utils.isEmpty(partitionColumn)
+        && !meta.isExecuteEachInputRow()
+        && getTransformMeta().getCopies(this) > 1) {
+      DatabaseMeta databaseMeta = data.db.getDatabaseMeta();
+      data.partition = getPartition(databaseMeta, sql, partitionColumn, parametersMeta, parameters);
+      if (log.isDetailed()) {
+        logDetailed(
+            BaseMessages.getString(
+                PKG,
+                "TableInput.Log.PartitionRange",
+                Integer.toString(getCopy() + 1),
+                Integer.toString(data.partition.getNrPartitions()),
+                partitionColumn));
+      }
+
+      sql = data.partition.getPartitionSql(databaseMeta, sql, partitionColumn, getCopy());
+      IRowMeta partitionParametersMeta = parametersMeta.clone();
+      partitionParametersMeta.addRowMeta(data.partition.getParametersMeta(getCopy()));
+      parameters =
+          RowDataUtil.addRowData(
+              parameters, parametersMeta.size(), data.partition.getParameters(getCopy()));
+      parametersMeta = partitionParametersMeta;
+    }
+
     if (log.isDetailed()) {
       logDetailed("SQL query : " + sql);
     }
@@ -270,6 +300,42 @@ public class TableInput extends BaseTransform<TableInputMeta, TableInputData> {
     return success;
   }
 
+  /**
+   * Get the ranges of the partition column. The first copy queries the minimum and maximum value,
+   * the other copies of this transform use the same ranges.
+   */
+  private TableInputPartition getPartition(
+      DatabaseMeta databaseMeta,
+      String sql,
+      String partitionColumn,
+      IRowMeta parametersMeta,
+      Object[] parameters)
+      throws HopException {
+    Map<String, Object> extensionDataMap = getPipeline().getExtensionDataMap();
+    String key = PARTITION_KEY_PREFIX + getTransformName();
+    synchronized (extensionDataMap) {
+      TableInputPartition partition = (TableInputPartition) extensionDataMap.get(key);
+      if (partition == null) {
+        String rangeSql = TableInputPartition.getRangeSql(databaseMeta, sql, partitionColumn);
+        if (log.isDetailed()) {
+          logDetailed("Partition range query : " + rangeSql);
+        }
+        RowMetaAndData range =
+            parametersMeta.isEmpty()
+                ? data.db.getOneRow(rangeSql)
+                : data.db.getOneRow(rangeSql, parametersMeta, parameters);
+        IValueMeta rangeMeta = range.getRowMeta().getValueMeta(0);
+        rangeMeta.setName(partitionColumn);
+        Object[] rangeData = range.getData() == null ? new Object[2] : range.getData();
+        partition =
+            TableInputPartition.calculate(
+                rangeMeta, rangeData[0], rangeData[1], getTransformMeta().getCopies(this));
+        extensionDataMap.put(key, partition);
+      }
+      return partition;
+    }
+  }
+
   @Override
   public void dispose() {
     if (log.isBasic()) {
@@ -286,11 +352,36 @@ public class TableInput extends BaseTransform<TableInputMeta, TableInputData> {
         data.db.disconnect();
         data.db = null;
       }
+      releasePartition();
     }
 
     super.dispose();
   }
 
+  /**
+   * The ranges of the partition column are shared by all copies of this transform: the last copy
+   * to finish removes them from the pipeline.
+   */
+  private void releasePartition() {
+    int copies = getTransformMeta().getCopies(this);
+    if (Utils.isEmpty(resolve(meta.getPartitionColumn()))
+        || meta.isExecuteEachInputRow()
+        || copies <= 1) {
+      return;
+    }
+    Map<String, Object> extensionDataMap = getPipeline().getExtensionDataMap();
+    String doneKey = PARTITION_DONE_KEY_PREFIX + getTransformName();
+    synchronized (extensionDataMap) {
+      int done = (Integer) extensionDataMap.getOrDefault(doneKey, 0) + 1;
+      if (done < copies) {
+        extensionDataMap.put(doneKey, done);
+      } else {
+        extensionDataMap.remove(doneKey);
+        extensionDataMap.remove(PARTITION_KEY_PREFIX + getTransformName());
+      }
+    }
+  }
+
   /** Stop the running query */
   @Override
   public synchronized void stopRunning() throws HopException {
@@ -336,6 +427,11 @@ public class TableInput extends BaseTransform<TableInputMeta, TableInputData> {
 
       data.db = new Database(this, this, databaseMeta);
       data.db.setQueryLimit(Const.toInt(resolve(meta.getRowLimit()), 0));
+      data.db.setFetchSize(Const.toInt(resolve(meta.getFetchSize()), 0));
+
+      if (!Utils.isEmpty(meta.getPartitionColumn()) && meta.isExecuteEachInputRow()) {
+        logBasic(BaseMessages.getString(PKG, "TableInput.Log.PartitionNotPossible"));
+      }
 
       try {
         data.db.connect();
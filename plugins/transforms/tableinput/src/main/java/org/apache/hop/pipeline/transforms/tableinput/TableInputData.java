@@ -37,6 +37,9 @@ public class TableInputData extends BaseTransformData implements ITransformData
   public boolean isCanceled;
   public IStream infoStream;
 
+  /** The ranges of the partition column or null if the query isn't split */
+  public TableInputPartition partition;
+
   public TableInputData() {
     super();
 
@@ -73,6 +73,10 @@ public class TableInputDialog extends BaseTransformDialog implements ITransformD
 
   private TextVar wLimit;
 
+  private TextVar wPartitionColumn;
+
+  private TextVar wFetchSize;
+
   private Label wlEachRow;
   private Button wEachRow;
 
@@ -144,6 +148,48 @@ public class TableInputDialog extends BaseTransformDialog implements ITransformD
 
     setButtonPositions(new Button[] {wOk, wPreview, wCancel}, margin, null);
 
+    // Fetch size
+    Label wlFetchSize = new Label(shell, SWT.RIGHT);
+    wlFetchSize.setText(BaseMessages.getString(PKG, "TableInputDialog.FetchSize"));
+    wlFetchSize.setToolTipText(BaseMessages.getString(PKG, "TableInputDialog.FetchSize.Tooltip"));
+    PropsUi.setLook(wlFetchSize);
+    FormData fdlFetchSize = new FormData();
+    fdlFetchSize.left = new FormAttachment(0, 0);
+    fdlFetchSize.right = new FormAttachment(middle, -margin);
+    fdlFetchSize.bottom = new FormAttachment(wOk, -2 * margin);
+    wlFetchSize.setLayoutData(fdlFetchSize);
+    wFetchSize = new TextVar(variables, shell, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+    wFetchSize.setToolTipText(BaseMessages.getString(PKG, "TableInputDialog.FetchSize.Tooltip"));
+    PropsUi.setLook(wFetchSize);
+    wFetchSize.addModifyListener(lsMod);
+    FormData fdFetchSize = new FormData();
+    fdFetchSize.left = new FormAttachment(middle, 0);
+    fdFetchSize.right = new FormAttachment(100, 0);
+    fdFetchSize.bottom = new FormAttachment(wlFetchSize, 0, SWT.CENTER);
+    wFetchSize.setLayoutData(fdFetchSize);
+
+    // Partition column
+    Label wlPartitionColumn = new Label(shell, SWT.RIGHT);
+    wlPartitionColumn.setText(BaseMessages.getString(PKG, "TableInputDialog.PartitionColumn"));
+    wlPartitionColumn.setToolTipText(
+        BaseMessages.getString(PKG, "TableInputDialog.PartitionColumn.Tooltip"));
+    PropsUi.setLook(wlPartitionColumn);
+    FormData fdlPartitionColumn = new FormData();
+    fdlPartitionColumn.left = new FormAttachment(0, 0);
+    fdlPartitionColumn.right = new FormAttachment(middle, -margin);
+    fdlPartitionColumn.bottom = new FormAttachment(wlFetchSize, -margin);
+    wlPartitionColumn.setLayoutData(fdlPartitionColumn);
+    wPartitionColumn = new TextVar(variables, shell, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+    wPartitionColumn.setToolTipText(
+        BaseMessages.getString(PKG, "TableInputDialog.PartitionColumn.Tooltip"));
+    PropsUi.setLook(wPartitionColumn);
+    wPartitionColumn.addModifyListener(lsMod);
+    FormData fdPartitionColumn = new FormData();
+    fdPartitionColumn.left = new FormAttachment(middle, 0);
+    fdPartitionColumn.right = new FormAttachment(100, 0);
+    fdPartitionColumn.bottom = new FormAttachment(wlPartitionColumn, 0, SWT.CENTER);
+    wPartitionColumn.setLayoutData(fdPartitionColumn);
+
     // Limit input ...
     Label wlLimit = new Label(shell, SWT.RIGHT);
     wlLimit.setText(BaseMessages.getString(PKG, "TableInputDialog.LimitSize"));
@@ -151,7 +197,7 @@ public class TableInputDialog extends BaseTransformDialog implements ITransformD
     FormData fdlLimit = new FormData();
     fdlLimit.left = new FormAttachment(0, 0);
     fdlLimit.right = new FormAttachment(middle, -margin);
-    fdlLimit.bottom = new FormAttachment(wOk, -2 * margin);
+    fdlLimit.bottom = new FormAttachment(wlPartitionColumn, -margin);
     wlLimit.setLayoutData(fdlLimit);
     wLimit = new TextVar(variables, shell, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
     PropsUi.setLook(wLimit);
@@ -363,6 +409,8 @@ public class TableInputDialog extends BaseTransformDialog implements ITransformD
     }
 
     wLimit.setText(Const.NVL(input.getRowLimit(), ""));
+    wPartitionColumn.setText(Const.NVL(input.getPartitionColumn(), ""));
+    wFetchSize.setText(Const.NVL(input.getFetchSize(), ""));
     wDataFrom.setText(Const.NVL(input.getLookup(), ""));
     wEachRow.setSelection(input.isExecuteEachInputRow());
     wVariables.setSelection(input.isVariableReplacementActive());
@@ -390,6 +438,8 @@ public class TableInputDialog extends BaseTransformDialog implements ITransformD
             : wSql.getText());
 
     meta.setRowLimit(wLimit.getText());
+    meta.setPartitionColumn(wPartitionColumn.getText());
+    meta.setFetchSize(wFetchSize.getText());
     meta.setExecuteEachInputRow(wEachRow.getSelection());
     meta.setVariableReplacementActive(wVariables.getSelection());
     meta.setLookup(wDataFrom.getText());
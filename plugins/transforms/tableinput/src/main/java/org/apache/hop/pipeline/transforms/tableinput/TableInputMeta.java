@@ -81,6 +81,17 @@ public class TableInputMeta extends BaseTransformMeta<TableInput, TableInputData
 
   @HopMetadataProperty private String lookup;
 
+  /**
+   * The numeric or date column to split the query on. Every transform copy reads its own range of
+   * values. Empty means all copies execute the full query.
+   */
+  @HopMetadataProperty(key = "partition_column", injectionKey = "PARTITION_COLUMN")
+  private String partitionColumn;
+
+  /** The number of rows to fetch from the database at once, empty or 0 for the default */
+  @HopMetadataProperty(key = "fetch_size", injectionKey = "FETCH_SIZE")
+  private String fetchSize;
+
   public TableInputMeta() {
     super();
   }
@@ -131,6 +142,26 @@ public class TableInputMeta extends BaseTransformMeta<TableInput, TableInputData
     this.lookup = lookup;
   }
 
+  /** @return the column to split the query on or empty if the query isn't split */
+  public String getPartitionColumn() {
+    return partitionColumn;
+  }
+
+  /** @param partitionColumn the column to split the query on */
+  public void setPartitionColumn(String partitionColumn) {
+    this.partitionColumn = partitionColumn;
+  }
+
+  /** @return the number of rows to fetch from the database at once */
+  public String getFetchSize() {
+    return fetchSize;
+  }
+
+  /** @param fetchSize the number of rows to fetch from the database at once */
+  public void setFetchSize(String fetchSize) {
+    this.fetchSize = fetchSize;
+  }
+
   @Override
   public Object clone() {
     TableInputMeta retval = (TableInputMeta) super.clone();
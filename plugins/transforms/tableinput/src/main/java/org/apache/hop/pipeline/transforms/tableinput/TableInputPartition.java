@@ -0,0 +1,205 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.tableinput;
+
+import org.apache.hop.core.Const;
+import org.apache.hop.core.database.DatabaseMeta;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.IValueMeta;
+import org.apache.hop.core.row.RowMeta;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.util.Date;
+
+/**
+ * Splits the query of Table Input in ranges of a numeric or date column, one range per transform
+ * copy. The range between the minimum and maximum value is divided in equal parts. The first
+ * range also has the rows without a value and the last range has everything from its lower
+ * boundary on, so that every row is read exactly once.
+ */
+public class TableInputPartition {
+
+  private static final String ALIAS = "hop_partition";
+
+  private final IValueMeta valueMeta;
+
+  /** The lower boundaries of the ranges, except for the first range */
+  private final Object[] boundaries;
+
+  private final int nrPartitions;
+
+  private TableInputPartition(IValueMeta valueMeta, Object[] boundaries, int nrPartitions) {
+    this.valueMeta = valueMeta;
+    this.boundaries = boundaries;
+    this.nrPartitions = nrPartitions;
+  }
+
+  /**
+   * @param databaseMeta the database
+   * @param sql the query to split
+   * @param column the column to split on
+   * @return the query to get the minimum and maximum value of the column
+   */
+  public static String getRangeSql(DatabaseMeta databaseMeta, String sql, String column) {
+    String quotedColumn = databaseMeta.quoteField(column);
+    return "SELECT MIN("
+        + quotedColumn
+        + "), MAX("
+        + quotedColumn
+        + ") FROM ("
+        + Const.CR
+        + sql
+        + Const.CR
+        + ") "
+        + ALIAS;
+  }
+
+  /**
+   * Divide the range of the column in equal parts
+   *
+   * @param valueMeta the type of the column
+   * @param min the minimum value or null if there are no values
+   * @param max the maximum value or null if there are no values
+   * @param nrPartitions the number of ranges
+   * @return the partitioning
+   * @throws HopException if the column is not numeric or a date
+   */
+  public static TableInputPartition calculate(
+      IValueMeta valueMeta, Object min, Object max, int nrPartitions) throws HopException {
+    if (!valueMeta.isNumeric() && !valueMeta.isDate()) {
+      throw new HopException(
+          "Partition column '"
+              + valueMeta.getName()
+              + "' has to be numeric or a date, not "
+              + valueMeta.getTypeDesc());
+    }
+    if (valueMeta.isNull(min) || valueMeta.isNull(max)) {
+      return new TableInputPartition(valueMeta, null, nrPartitions);
+    }
+
+    BigDecimal low = toBigDecimal(valueMeta, min);
+    BigDecimal high = toBigDecimal(valueMeta, max);
+    BigDecimal step =
+        high.subtract(low).divide(BigDecimal.valueOf(nrPartitions), 10, RoundingMode.FLOOR);
+
+    Object[] boundaries = new Object[nrPartitions - 1];
+    for (int i = 0; i < boundaries.length; i++) {
+      BigDecimal boundary = low.add(step.multiply(BigDecimal.valueOf(i + 1L)));
+      boundaries[i] = fromBigDecimal(valueMeta, boundary);
+    }
+    return new TableInputPartition(valueMeta, boundaries, nrPartitions);
+  }
+
+  private static BigDecimal toBigDecimal(IValueMeta valueMeta, Object value) throws HopException {
+    switch (valueMeta.getType()) {
+      case IValueMeta.TYPE_INTEGER:
+        return BigDecimal.valueOf(valueMeta.getInteger(value));
+      case IValueMeta.TYPE_NUMBER:
+        return BigDecimal.valueOf(valueMeta.getNumber(value));
+      case IValueMeta.TYPE_BIGNUMBER:
+        return valueMeta.getBigNumber(value);
+      default:
+        return BigDecimal.valueOf(valueMeta.getDate(value).getTime());
+    }
+  }
+
+  private static Object fromBigDecimal(IValueMeta valueMeta, BigDecimal value) {
+    switch (valueMeta.getType()) {
+      case IValueMeta.TYPE_INTEGER:
+        return value.setScale(0, RoundingMode.FLOOR).longValue();
+      case IValueMeta.TYPE_NUMBER:
+        return value.doubleValue();
+      case IValueMeta.TYPE_BIGNUMBER:
+        return value;
+      case IValueMeta.TYPE_TIMESTAMP:
+        return new Timestamp(value.setScale(0, RoundingMode.FLOOR).longValue());
+      default:
+        return new Date(value.setScale(0, RoundingMode.FLOOR).longValue());
+    }
+  }
+
+  /**
+   * @param databaseMeta the database
+   * @param sql the query to split
+   * @param column the column to split on
+   * @param partitionNr the number of the range to read, the transform copy number
+   * @return the query reading only the given range
+   */
+  public String getPartitionSql(
+      DatabaseMeta databaseMeta, String sql, String column, int partitionNr) {
+    String quotedColumn = databaseMeta.quoteField(column);
+    String condition;
+    if (boundaries == null) {
+      // Nothing to split, the first copy reads everything
+      //
+      condition = partitionNr == 0 ? null : "1 = 0";
+    } else if (nrPartitions == 1) {
+      condition = null;
+    } else if (partitionNr == 0) {
+      condition = quotedColumn + " < ? OR " + quotedColumn + " IS NULL";
+    } else if (partitionNr == nrPartitions - 1) {
+      condition = quotedColumn + " >= ?";
+    } else {
+      condition = quotedColumn + " >= ? AND " + quotedColumn + " < ?";
+    }
+
+    String partitionSql = "SELECT * FROM (" + Const.CR + sql + Const.CR + ") " + ALIAS;
+    if (condition != null) {
+      partitionSql += " WHERE " + condition;
+    }
+    return partitionSql;
+  }
+
+  /**
+   * @param partitionNr the number of the range to read
+   * @return the types of the parameters of the partition query
+   */
+  public IRowMeta getParametersMeta(int partitionNr) {
+    IRowMeta parametersMeta = new RowMeta();
+    for (int i = 0; i < getParameters(partitionNr).length; i++) {
+      IValueMeta parameterMeta = valueMeta.clone();
+      parameterMeta.setStorageType(IValueMeta.STORAGE_TYPE_NORMAL);
+      parametersMeta.addValueMeta(parameterMeta);
+    }
+    return parametersMeta;
+  }
+
+  /**
+   * @param partitionNr the number of the range to read
+   * @return the values of the parameters of the partition query
+   */
+  public Object[] getParameters(int partitionNr) {
+    if (boundaries == null || nrPartitions == 1) {
+      return new Object[0];
+    }
+    if (partitionNr == 0) {
+      return new Object[] {boundaries[0]};
+    }
+    if (partitionNr == nrPartitions - 1) {
+      return new Object[] {boundaries[partitionNr - 1]};
+    }
+    return new Object[] {boundaries[partitionNr - 1], boundaries[partitionNr]};
+  }
+
+  public int getNrPartitions() {
+    return nrPartitions;
+  }
+}
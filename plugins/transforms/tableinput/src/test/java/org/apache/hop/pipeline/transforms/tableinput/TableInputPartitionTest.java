@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.hop.pipeline.transforms.tableinput;
+
+import org.apache.hop.core.database.DatabaseMeta;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.row.value.ValueMetaDate;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.row.value.ValueMetaString;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Date;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class TableInputPartitionTest {
+
+  private DatabaseMeta databaseMeta;
+
+  @Before
+  public void setUp() {
+    databaseMeta = mock(DatabaseMeta.class);
+    when(databaseMeta.quoteField(anyString())).thenAnswer(invocation -> invocation.getArgument(0));
+  }
+
+  @Test
+  public void testIntegerRanges() throws Exception {
+    TableInputPartition partition =
+        TableInputPartition.calculate(new ValueMetaInteger("id"), 0L, 100L, 4);
+
+    assertArrayEquals(new Object[] {25L}, partition.getParameters(0));
+    assertArrayEquals(new Object[] {25L, 50L}, partition.getParameters(1));
+    assertArrayEquals(new Object[] {50L, 75L}, partition.getParameters(2));
+    assertArrayEquals(new Object[] {75L}, partition.getParameters(3));
+    assertEquals(2, partition.getParametersMeta(1).size());
+
+    String sql = "SELECT * FROM t";
+    assertTrue(
+        partition
+            .getPartitionSql(databaseMeta, sql, "id", 0)
+            .endsWith(" WHERE id < ? OR id IS NULL"));
+    assertTrue(
+        partition
+            .getPartitionSql(databaseMeta, sql, "id", 1)
+            .endsWith(" WHERE id >= ? AND id < ?"));
+    assertTrue(partition.getPartitionSql(databaseMeta, sql, "id", 3).endsWith(" WHERE id >= ?"));
+  }
+
+  @Test
+  public void testSmallIntegerRange() throws Exception {
+    TableInputPartition partition =
+        TableInputPartition.calculate(new ValueMetaInteger("id"), 1L, 2L, 4);
+
+    // Some ranges are empty, no value is read twice
+    assertArrayEquals(new Object[] {1L}, partition.getParameters(0));
+    assertArrayEquals(new Object[] {1L, 1L}, partition.getParameters(1));
+    assertArrayEquals(new Object[] {1L, 1L}, partition.getParameters(2));
+    assertArrayEquals(new Object[] {1L}, partition.getParameters(3));
+  }
+
+  @Test
+  public void testDateRanges() throws Exception {
+    TableInputPartition partition =
+        TableInputPartition.calculate(new ValueMetaDate("day"), new Date(0), new Date(3000), 3);
+
+    assertArrayEquals(new Object[] {new Date(1000)}, partition.getParameters(0));
+    assertArrayEquals(new Object[] {new Date(1000), new Date(2000)}, partition.getParameters(1));
+    assertArrayEquals(new Object[] {new Date(2000)}, partition.getParameters(2));
+  }
+
+  @Test
+  public void testEmptyRange() throws Exception {
+    TableInputPartition partition =
+        TableInputPartition.calculate(new ValueMetaInteger("id"), null, null, 2);
+
+    String sql = "SELECT * FROM t";
+    assertEquals(0, partition.getParameters(0).length);
+    assertTrue(partition.getPartitionSql(databaseMeta, sql, "id", 0).endsWith(") hop_partition"));
+    assertTrue(partition.getPartitionSql(databaseMeta, sql, "id", 1).endsWith(" WHERE 1 = 0"));
+  }
+
+  @Test(expected = HopException.class)
+  public void testStringColumnIsNotSupported() throws Exception {
+    TableInputPartition.calculate(new ValueMetaString("name"), "a", "z", 2);
+  }
+}
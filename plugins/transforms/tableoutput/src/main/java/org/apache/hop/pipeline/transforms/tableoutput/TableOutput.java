@@ -20,6 +20,7 @@ package org.apache.hop.pipeline.transforms.tableoutput;
 import org.apache.hop.core.Const;
 import org.apache.hop.core.RowMetaAndData;
 import org.apache.hop.core.database.Database;
+import org.apache.hop.core.database.IBulkLoader;
 import org.apache.hop.core.database.IDatabase;
 import org.apache.hop.core.exception.HopDatabaseBatchException;
 import org.apache.hop.core.exception.HopDatabaseException;
@@ -39,6 +40,7 @@ import org.apache.hop.pipeline.transform.TransformMeta;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 
@@ -60,8 +62,9 @@ public class TableOutput extends BaseTransform<TableOutputMeta, TableOutputData>
   @Override
   public boolean processRow() throws HopException {
 
-    Object[] r = getRow(); // this also waits for a previous transform to be finished.
-    if (r == null) { // no more input to be expected...
+    List<Object[]> rows =
+        getRows(ROW_BATCH_SIZE); // this also waits for a previous transform to be finished.
+    if (rows == null) { // no more input to be expected...
       if (first && meta.isTruncateTable() && !meta.isOnlyWhenHaveRows()) {
         truncateTable();
       }
@@ -111,18 +114,28 @@ public class TableOutput extends BaseTransform<TableOutputMeta, TableOutputData>
           }
         }
       }
+
+      if (data.asyncWrite) {
+        startWriter();
+      }
     }
 
     try {
-      Object[] outputRowData = writeToTable(getInputRowMeta(), r);
-      if (outputRowData != null) {
-        putRow(data.outputRowMeta, outputRowData); // in case we want it go further...
-        incrementLinesOutput();
-      }
+      List<Object[]> outputRows = new ArrayList<>(rows.size());
+      long lineNr = getLinesRead() - rows.size();
+      for (Object[] r : rows) {
+        lineNr++;
+        Object[] outputRowData = writeToTable(getInputRowMeta(), r);
+        if (outputRowData != null) {
+          outputRows.add(outputRowData);
+          incrementLinesOutput();
+        }
 
-      if (checkFeedback(getLinesRead()) && log.isBasic()) {
-        logBasic("linenr " + getLinesRead());
+        if (checkFeedback(lineNr) && log.isBasic()) {
+          logBasic("linenr " + lineNr);
+        }
       }
+      putRows(data.outputRowMeta, outputRows); // in case we want it go further...
     } catch (HopException e) {
       logError("Because of an error, this transform can't continue: ", e);
       setErrors(1);
@@ -143,6 +156,15 @@ public class TableOutput extends BaseTransform<TableOutputMeta, TableOutputData>
       return null;
     }
 
+    if (data.writer != null) {
+      addToBatch(r);
+      return null;
+    }
+
+    if (data.bulkLoad && addToBulkLoad(r)) {
+      return r;
+    }
+
     PreparedStatement insertStatement = null;
     Object[] insertRowData;
     Object[] outputRowData = r;
@@ -427,6 +449,179 @@ public class TableOutput extends BaseTransform<TableOutputMeta, TableOutputData>
     return outputRowData;
   }
 
+  /** Start the thread which writes the batches while the next one is filled */
+  private void startWriter() {
+    String sql =
+        data.db.getInsertStatement(
+            resolve(meta.getSchemaName()), data.tableName, data.insertRowMeta);
+    if (log.isDetailed()) {
+      logDetailed("Prepared statement : " + sql);
+    }
+    data.writer =
+        new TableOutputWriter(
+            data.db,
+            sql,
+            data.insertRowMeta,
+            getTransformMeta().isDoingErrorHandling(),
+            meta.isIgnoreErrors());
+    data.currentBatch = new TableOutputWriter.Batch();
+    boolean virtual =
+        getPipeline() instanceof Pipeline && ((Pipeline) getPipeline()).isVirtualThreadsEnabled();
+    data.writer.start(getTransformName() + " writer", virtual);
+  }
+
+  /**
+   * Add a row to the batch being filled. A full batch is handed over to the writer thread and the
+   * rows of the batches which were written in the meantime are passed on.
+   *
+   * @param r the input row
+   * @throws HopException in case a batch couldn't be written
+   */
+  private void addToBatch(Object[] r) throws HopException {
+    Object[] insertRowData = r;
+    if (meta.isSpecifyFields()) {
+      insertRowData = new Object[data.valuenrs.length];
+      for (int idx = 0; idx < data.valuenrs.length; idx++) {
+        insertRowData[idx] = r[data.valuenrs[idx]];
+      }
+    }
+    data.currentBatch.addRow(r, insertRowData);
+
+    if (data.currentBatch.size() >= data.commitSize) {
+      data.writer.submit(data.currentBatch);
+      data.currentBatch = new TableOutputWriter.Batch();
+    }
+    processWrittenBatches(false);
+  }
+
+  /**
+   * Hand over the batch being filled and wait until all batches are written.
+   *
+   * @throws HopException in case a batch couldn't be written
+   */
+  private void flushWriter() throws HopException {
+    if (data.currentBatch.size() > 0) {
+      data.writer.submit(data.currentBatch);
+      data.currentBatch = new TableOutputWriter.Batch();
+    }
+    processWrittenBatches(true);
+  }
+
+  /**
+   * Pass on the rows of the batches which were written by the writer thread.
+   *
+   * @param wait true to wait for all batches in flight
+   * @throws HopException in case a batch couldn't be written
+   */
+  private void processWrittenBatches(boolean wait) throws HopException {
+    TableOutputWriter.Batch batch;
+    while ((batch = data.writer.nextWrittenBatch(wait)) != null) {
+      processWrittenBatch(batch);
+    }
+  }
+
+  private void processWrittenBatch(TableOutputWriter.Batch batch) throws HopException {
+    if (batch.getException() != null) {
+      setErrors(getErrors() + 1);
+      throw new HopException(
+          "Error inserting rows into table [" + data.tableName + "]", batch.getException());
+    }
+
+    for (int i = 0; i < batch.getFailedRows().size(); i++) {
+      Object[] row = batch.getFailedRows().get(i);
+      HopDatabaseException dbe = batch.getFailedRowExceptions().get(i);
+      if (getTransformMeta().isDoingErrorHandling()) {
+        putError(getInputRowMeta(), row, 1, dbe.toString(), null, "TOP001");
+      } else {
+        if (data.warnings < 20) {
+          if (log.isBasic()) {
+            logBasic(
+                "WARNING: Couldn't insert row into table: "
+                    + getInputRowMeta().getString(row)
+                    + Const.CR
+                    + dbe.getMessage());
+          }
+        } else if (data.warnings == 20 && log.isBasic()) {
+          logBasic(
+              "FINAL WARNING (no more then 20 displayed): Couldn't insert row into table: "
+                  + getInputRowMeta().getString(row)
+                  + Const.CR
+                  + dbe.getMessage());
+        }
+        data.warnings++;
+      }
+    }
+
+    HopDatabaseBatchException be = batch.getBatchException();
+    if (be == null) {
+      for (Object[] row : batch.getBatchedRows()) {
+        putRow(data.outputRowMeta, row);
+        incrementLinesOutput();
+      }
+    } else if (getTransformMeta().isDoingErrorHandling()) {
+      data.batchBuffer.addAll(batch.getBatchedRows());
+      processBatchException(be.toString(), be.getUpdateCounts(), be.getExceptionsList());
+    } else {
+      StringBuilder msg =
+          new StringBuilder("Error batch inserting rows into table [" + data.tableName + "].");
+      msg.append(Const.CR);
+      msg.append("Errors encountered (first 10):").append(Const.CR);
+      for (int x = 0; x < be.getExceptionsList().size() && x < 10; x++) {
+        Exception exception = be.getExceptionsList().get(x);
+        if (exception.getMessage() != null) {
+          msg.append(exception.getMessage()).append(Const.CR);
+        }
+      }
+      throw new HopException(msg.toString(), be);
+    }
+  }
+
+  /**
+   * Stream a row to the bulk loader. The bulk load is started for the first row and finished and
+   * committed every commit size rows.
+   *
+   * @param r the input row
+   * @return false if the columns can't be bulk loaded: the row has to be inserted
+   * @throws HopException in case the row couldn't be loaded
+   */
+  private boolean addToBulkLoad(Object[] r) throws HopException {
+    Object[] insertRowData = r;
+    if (meta.isSpecifyFields()) {
+      insertRowData = new Object[data.valuenrs.length];
+      for (int idx = 0; idx < data.valuenrs.length; idx++) {
+        insertRowData[idx] = r[data.valuenrs[idx]];
+      }
+    }
+    if (data.bulkLoader == null) {
+      data.bulkLoader =
+          data.db.createBulkLoader(
+              resolve(meta.getSchemaName()), data.tableName, data.insertRowMeta);
+      if (data.bulkLoader == null) {
+        logBasic(BaseMessages.getString(PKG, "TableOutput.Log.BulkLoadColumnsNotSupported"));
+        data.bulkLoad = false;
+        return false;
+      }
+    }
+    data.bulkLoader.addRow(insertRowData);
+    if (isRowLevel()) {
+      logRowlevel("Loaded row: " + data.insertRowMeta.getString(insertRowData));
+    }
+    if (++data.bulkRowCount >= data.commitSize) {
+      finishBulkLoad();
+    }
+    return true;
+  }
+
+  private void finishBulkLoad() throws HopDatabaseException {
+    long rows = data.bulkLoader.finish();
+    data.bulkLoader = null;
+    data.bulkRowCount = 0;
+    data.db.commit();
+    if (log.isDetailed()) {
+      logDetailed("Bulk loaded " + rows + " rows into table [" + data.tableName + "]");
+    }
+  }
+
   @Override
   public boolean isRowLevel() {
     return log.isRowLevel();
@@ -507,6 +702,36 @@ public class TableOutput extends BaseTransform<TableOutputMeta, TableOutputData>
                 && !meta.isReturningGeneratedKeys()
                 && !data.useSafePoints;
 
+        // Writing on a separate thread needs batch mode and a single table: the batches of the
+        // different tables are committed on the same connection.
+        //
+        data.asyncWrite =
+            meta.isAsyncWrite()
+                && data.batchMode
+                && !meta.isPartitioningEnabled()
+                && !meta.isTableNameInField();
+        if (meta.isAsyncWrite() && !data.asyncWrite) {
+          logBasic(BaseMessages.getString(PKG, "TableOutput.Log.AsyncWriteNotPossible"));
+        }
+
+        // Bulk loading streams all rows of a commit in one go: a single table is needed and a
+        // failing row fails the whole commit, so there is no error handling per row.
+        //
+        data.bulkLoad =
+            meta.isBulkLoad()
+                && dbInterface.supportsBulkLoad()
+                && !meta.isPartitioningEnabled()
+                && !meta.isTableNameInField()
+                && !meta.isReturningGeneratedKeys()
+                && !meta.isIgnoreErrors()
+                && !getTransformMeta().isDoingErrorHandling();
+        if (meta.isBulkLoad() && !data.bulkLoad) {
+          logBasic(BaseMessages.getString(PKG, "TableOutput.Log.BulkLoadNotPossible"));
+        }
+        if (data.bulkLoad) {
+          data.asyncWrite = false;
+        }
+
         // give a warning that batch mode operation in combination with transform error handling can
         // lead to
         // incorrectly processed rows.
@@ -572,6 +797,10 @@ public class TableOutput extends BaseTransform<TableOutputMeta, TableOutputData>
       try {
         emptyAndCommitBatchBuffers(true);
       } finally {
+        if (data.writer != null) {
+          data.writer.close();
+          data.writer = null;
+        }
         data.db.disconnect();
         // Free data structures to enable GC
         data.db = null;
@@ -595,6 +824,12 @@ public class TableOutput extends BaseTransform<TableOutputMeta, TableOutputData>
 
   private void emptyAndCommitBatchBuffers(boolean dispose) {
     try {
+      if (data.writer != null && getErrors() == 0) {
+        flushWriter();
+      }
+      if (data.bulkLoader != null && getErrors() == 0) {
+        finishBulkLoad();
+      }
       for (String schemaTable : data.preparedStatements.keySet()) {
         // Get a commit counter per prepared statement to keep track of separate tables, etc.
         //
@@ -638,7 +873,21 @@ public class TableOutput extends BaseTransform<TableOutputMeta, TableOutputData>
     } finally {
       setOutputDone();
 
+      // A bulk load which didn't finish holds the connection, abort it before rolling back
+      //
+      if (data.bulkLoader != null) {
+        data.bulkLoader.cancel();
+        data.bulkLoader = null;
+        data.bulkRowCount = 0;
+      }
+
       if (getErrors() > 0) {
+        // The writer thread can still be using the connection: drop its batches and stop it first
+        //
+        if (data.writer != null) {
+          data.writer.abort();
+          data.writer = null;
+        }
         try {
           data.db.rollback();
         } catch (HopDatabaseException e) {
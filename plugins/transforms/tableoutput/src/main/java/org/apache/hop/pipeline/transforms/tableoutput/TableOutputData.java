@@ -19,6 +19,7 @@ package org.apache.hop.pipeline.transforms.tableoutput;
 
 import org.apache.hop.core.database.Database;
 import org.apache.hop.core.database.DatabaseMeta;
+import org.apache.hop.core.database.IBulkLoader;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.pipeline.transform.BaseTransformData;
 import org.apache.hop.pipeline.transform.ITransformData;
@@ -69,6 +70,22 @@ public class TableOutputData extends BaseTransformData implements ITransformData
 
   public int commitSize;
 
+  /** Execute and commit the batches on a separate thread? */
+  public boolean asyncWrite;
+
+  public TableOutputWriter writer;
+
+  /** The batch being filled while the writer thread writes the previous one */
+  public TableOutputWriter.Batch currentBatch;
+
+  /** Stream the rows with the bulk load protocol of the database? */
+  public boolean bulkLoad;
+
+  /** The bulk load in progress, one per commit */
+  public IBulkLoader bulkLoader;
+
+  public int bulkRowCount;
+
   public TableOutputData() {
     super();
 
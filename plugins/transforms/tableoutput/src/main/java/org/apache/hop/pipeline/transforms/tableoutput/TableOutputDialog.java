@@ -104,6 +104,12 @@ public class TableOutputDialog extends BaseTransformDialog implements ITransform
   private Label wlBatch;
   private Button wBatch;
 
+  private Label wlAsyncWrite;
+  private Button wAsyncWrite;
+
+  private Label wlBulkLoad;
+  private Button wBulkLoad;
+
   private Button wUsePart;
 
   private Label wlPartField;
@@ -548,13 +554,62 @@ public class TableOutputDialog extends BaseTransformDialog implements ITransform
           }
         });
 
+    // Write the batches on a separate thread
+    wlAsyncWrite = new Label(wMainComp, SWT.RIGHT);
+    wlAsyncWrite.setText(BaseMessages.getString(PKG, "TableOutputDialog.AsyncWrite.Label"));
+    wlAsyncWrite.setToolTipText(
+        BaseMessages.getString(PKG, "TableOutputDialog.AsyncWrite.Tooltip"));
+    PropsUi.setLook(wlAsyncWrite);
+    FormData fdlAsyncWrite = new FormData();
+    fdlAsyncWrite.left = new FormAttachment(0, 0);
+    fdlAsyncWrite.top = new FormAttachment(wBatch, margin);
+    fdlAsyncWrite.right = new FormAttachment(middle, -margin);
+    wlAsyncWrite.setLayoutData(fdlAsyncWrite);
+    wAsyncWrite = new Button(wMainComp, SWT.CHECK);
+    wAsyncWrite.setToolTipText(
+        BaseMessages.getString(PKG, "TableOutputDialog.AsyncWrite.Tooltip"));
+    PropsUi.setLook(wAsyncWrite);
+    FormData fdAsyncWrite = new FormData();
+    fdAsyncWrite.left = new FormAttachment(middle, 0);
+    fdAsyncWrite.top = new FormAttachment(wlAsyncWrite, 0, SWT.CENTER);
+    fdAsyncWrite.right = new FormAttachment(100, 0);
+    wAsyncWrite.setLayoutData(fdAsyncWrite);
+    wAsyncWrite.addSelectionListener(lsSelMod);
+
+    // Stream the rows with the bulk load protocol of the database
+    wlBulkLoad = new Label(wMainComp, SWT.RIGHT);
+    wlBulkLoad.setText(BaseMessages.getString(PKG, "TableOutputDialog.BulkLoad.Label"));
+    wlBulkLoad.setToolTipText(BaseMessages.getString(PKG, "TableOutputDialog.BulkLoad.Tooltip"));
+    PropsUi.setLook(wlBulkLoad);
+    FormData fdlBulkLoad = new FormData();
+    fdlBulkLoad.left = new FormAttachment(0, 0);
+    fdlBulkLoad.top = new FormAttachment(wAsyncWrite, margin);
+    fdlBulkLoad.right = new FormAttachment(middle, -margin);
+    wlBulkLoad.setLayoutData(fdlBulkLoad);
+    wBulkLoad = new Button(wMainComp, SWT.CHECK);
+    wBulkLoad.setToolTipText(BaseMessages.getString(PKG, "TableOutputDialog.BulkLoad.Tooltip"));
+    PropsUi.setLook(wBulkLoad);
+    FormData fdBulkLoad = new FormData();
+    fdBulkLoad.left = new FormAttachment(middle, 0);
+    fdBulkLoad.top = new FormAttachment(wlBulkLoad, 0, SWT.CENTER);
+    fdBulkLoad.right = new FormAttachment(100, 0);
+    wBulkLoad.setLayoutData(fdBulkLoad);
+    wBulkLoad.addSelectionListener(
+        new SelectionAdapter() {
+          @Override
+          public void widgetSelected(SelectionEvent arg0) {
+            setFlags();
+            input.setChanged();
+          }
+        });
+
     // NameInField
     Label wlNameInField = new Label(wMainComp, SWT.RIGHT);
     wlNameInField.setText(BaseMessages.getString(PKG, "TableOutputDialog.NameInField.Label"));
     PropsUi.setLook(wlNameInField);
     FormData fdlNameInField = new FormData();
     fdlNameInField.left = new FormAttachment(0, 0);
-    fdlNameInField.top = new FormAttachment(wBatch, margin * 5);
+    fdlNameInField.top = new FormAttachment(wBulkLoad, margin * 5);
     fdlNameInField.right = new FormAttachment(middle, -margin);
     wlNameInField.setLayoutData(fdlNameInField);
     wNameInField = new Button(wMainComp, SWT.CHECK);
@@ -1215,6 +1270,16 @@ public class TableOutputDialog extends BaseTransformDialog implements ITransform
     wlBatch.setEnabled(enableBatch);
     wBatch.setEnabled(enableBatch);
 
+    // The batches of a single table can be written on a separate thread
+    boolean enableAsyncWrite = useBatch && !usePartitioning && !isTableNameInField;
+    wlAsyncWrite.setEnabled(enableAsyncWrite && !wBulkLoad.getSelection());
+    wAsyncWrite.setEnabled(enableAsyncWrite && !wBulkLoad.getSelection());
+
+    // Bulk loading needs a single table
+    boolean enableBulkLoad = !usePartitioning && !isTableNameInField && !returnKeys;
+    wlBulkLoad.setEnabled(enableBulkLoad);
+    wBulkLoad.setEnabled(enableBulkLoad);
+
     boolean specifyFields = wSpecifyFields.getSelection();
     wFields.setEnabled(specifyFields);
     wGetFields.setEnabled(specifyFields);
@@ -1259,6 +1324,8 @@ public class TableOutputDialog extends BaseTransformDialog implements ITransform
     wOnlyWhenHaveRows.setSelection(input.isOnlyWhenHaveRows());
     wIgnore.setSelection(input.isIgnoreErrors());
     wBatch.setSelection(input.isUseBatchUpdate());
+    wAsyncWrite.setSelection(input.isAsyncWrite());
+    wBulkLoad.setSelection(input.isBulkLoad());
 
     wCommit.setText(input.getCommitSize());
 
@@ -1315,6 +1382,8 @@ public class TableOutputDialog extends BaseTransformDialog implements ITransform
     info.setOnlyWhenHaveRows(wOnlyWhenHaveRows.getSelection());
     info.setIgnoreErrors(wIgnore.getSelection());
     info.setUseBatchUpdate(wBatch.getSelection());
+    info.setAsyncWrite(wAsyncWrite.getSelection());
+    info.setBulkLoad(wBulkLoad.getSelection());
     info.setPartitioningEnabled(wUsePart.getSelection());
     info.setPartitioningField(wPartField.getText());
     info.setPartitioningDaily(wPartDaily.getSelection());
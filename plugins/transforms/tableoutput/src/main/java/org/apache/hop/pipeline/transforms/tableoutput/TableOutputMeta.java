@@ -110,6 +110,18 @@ public class TableOutputMeta extends BaseTransformMeta<TableOutput, TableOutputD
       injectionKeyDescription = "TableOutputMeta.Injection.UseBatch.Field")
   private boolean useBatchUpdate;
 
+  @HopMetadataProperty(
+      key = "async_write",
+      injectionKey = "ASYNC_WRITE",
+      injectionKeyDescription = "TableOutputMeta.Injection.AsyncWrite.Field")
+  private boolean asyncWrite;
+
+  @HopMetadataProperty(
+      key = "bulk_load",
+      injectionKey = "BULK_LOAD",
+      injectionKeyDescription = "TableOutputMeta.Injection.BulkLoad.Field")
+  private boolean bulkLoad;
+
   @HopMetadataProperty(
       key = "partitioning_enabled",
       injectionKey = "PARTITION_OVER_TABLES",
@@ -459,6 +471,37 @@ public class TableOutputMeta extends BaseTransformMeta<TableOutput, TableOutputD
     return useBatchUpdate;
   }
 
+  /**
+   * @return true if the batches are executed and committed on a separate thread while the next
+   *     batch is filled
+   */
+  public boolean isAsyncWrite() {
+    return asyncWrite;
+  }
+
+  /**
+   * @param asyncWrite true to execute and commit the batches on a separate thread
+   */
+  public void setAsyncWrite(boolean asyncWrite) {
+    this.asyncWrite = asyncWrite;
+  }
+
+  /**
+   * @return true if the rows are streamed into the table with the bulk load protocol of the
+   *     database, when it has one
+   */
+  public boolean isBulkLoad() {
+    return bulkLoad;
+  }
+
+  /**
+   * @param bulkLoad true to stream the rows into the table with the bulk load protocol of the
+   *     database
+   */
+  public void setBulkLoad(boolean bulkLoad) {
+    this.bulkLoad = bulkLoad;
+  }
+
   @Override
   public void setDefault() {
     tableName = "";
@@ -0,0 +1,343 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.tableoutput;
+
+import org.apache.hop.core.database.Database;
+import org.apache.hop.core.exception.HopDatabaseBatchException;
+import org.apache.hop.core.exception.HopDatabaseException;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.util.VirtualThreadUtil;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Executes and commits the batches of Table Output on a separate thread. While one batch is being
+ * written, the transform fills the next one. At most one more batch waits to be written: when the
+ * database can't keep up the transform blocks.
+ *
+ * <p>Only the writer thread uses the database connection once it's started. The rows are handed
+ * back when their batch is committed, so that the transform thread can pass them on or send them to
+ * error handling.
+ */
+public class TableOutputWriter implements Runnable {
+
+  /** The rows of one commit and, once it was written, the outcome. */
+  public static class Batch {
+    private final List<Object[]> rows = new ArrayList<>();
+    private final List<Object[]> insertRows = new ArrayList<>();
+
+    /** The rows which were added to the JDBC batch, in order */
+    private final List<Object[]> batchedRows = new ArrayList<>();
+
+    /** The rows for which the values couldn't be set */
+    private final List<Object[]> failedRows = new ArrayList<>();
+
+    private final List<HopDatabaseException> failedRowExceptions = new ArrayList<>();
+    private HopDatabaseBatchException batchException;
+    private Exception exception;
+
+    /**
+     * Add a row to the batch
+     *
+     * @param row the input row, passed on once the batch is committed
+     * @param insertRow the values to insert
+     */
+    public void addRow(Object[] row, Object[] insertRow) {
+      rows.add(row);
+      insertRows.add(insertRow);
+    }
+
+    public int size() {
+      return rows.size();
+    }
+
+    public List<Object[]> getBatchedRows() {
+      return batchedRows;
+    }
+
+    public List<Object[]> getFailedRows() {
+      return failedRows;
+    }
+
+    public List<HopDatabaseException> getFailedRowExceptions() {
+      return failedRowExceptions;
+    }
+
+    /**
+     * @return the exception of executing the JDBC batch or null if all rows were inserted
+     */
+    public HopDatabaseBatchException getBatchException() {
+      return batchException;
+    }
+
+    /**
+     * @return the exception which prevents the transform from continuing or null
+     */
+    public Exception getException() {
+      return exception;
+    }
+  }
+
+  private static final Batch END_OF_BATCHES = new Batch();
+
+  private final Database db;
+  private final String sql;
+  private final IRowMeta insertRowMeta;
+  private final boolean errorHandling;
+  private final boolean ignoreErrors;
+
+  private final BlockingQueue<Batch> pendingBatches;
+  private final BlockingQueue<Batch> writtenBatches;
+
+  /** Only used by the transform thread */
+  private int batchesInFlight;
+
+  /** Only used by the writer thread, except to cancel it in {@link #abort()} */
+  private volatile PreparedStatement statement;
+
+  private boolean failed;
+
+  /** Set by the transform thread when the batches which are not yet committed are to be dropped */
+  private volatile boolean aborted;
+
+  private Thread thread;
+
+  /**
+   * @param db the connected database, not to be used by anyone else after {@link #start(String)}
+   * @param sql the insert statement
+   * @param insertRowMeta the layout of the values to insert
+   * @param errorHandling true if rows which fail to insert go to error handling
+   * @param ignoreErrors true if rows which fail to insert are only logged
+   */
+  public TableOutputWriter(
+      Database db,
+      String sql,
+      IRowMeta insertRowMeta,
+      boolean errorHandling,
+      boolean ignoreErrors) {
+    this.db = db;
+    this.sql = sql;
+    this.insertRowMeta = insertRowMeta;
+    this.errorHandling = errorHandling;
+    this.ignoreErrors = ignoreErrors;
+    this.pendingBatches = new ArrayBlockingQueue<>(1);
+    this.writtenBatches = new LinkedBlockingQueue<>();
+  }
+
+  /**
+   * Start the writer thread
+   *
+   * @param threadName the name of the thread
+   * @param virtual true to run the writer on a virtual thread if the Java runtime supports it
+   */
+  public void start(String threadName, boolean virtual) {
+    thread = VirtualThreadUtil.newThread(this, virtual);
+    thread.setName(threadName);
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  /**
+   * Hand a batch over to the writer thread. This blocks while another batch is already waiting.
+   *
+   * @param batch the batch to write
+   * @throws HopException when interrupted
+   */
+  public void submit(Batch batch) throws HopException {
+    try {
+      pendingBatches.put(batch);
+      batchesInFlight++;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new HopException("Interrupted while handing a batch to the writer thread", e);
+    }
+  }
+
+  /**
+   * @param wait true to wait for the next batch to be written if there are batches in flight
+   * @return the next written batch or null if none is available
+   * @throws HopException when interrupted
+   */
+  public Batch nextWrittenBatch(boolean wait) throws HopException {
+    if (batchesInFlight == 0) {
+      return null;
+    }
+    try {
+      Batch batch = wait ? writtenBatches.take() : writtenBatches.poll();
+      if (batch != null) {
+        batchesInFlight--;
+      }
+      return batch;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new HopException("Interrupted while waiting for the writer thread", e);
+    }
+  }
+
+  public int getBatchesInFlight() {
+    return batchesInFlight;
+  }
+
+  /**
+   * Stop the writer thread once the batches handed over are written and wait for it to finish.
+   * Batches which were written and not picked up are discarded.
+   */
+  public void close() {
+    if (thread == null) {
+      return;
+    }
+    try {
+      pendingBatches.put(END_OF_BATCHES);
+      thread.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    thread = null;
+  }
+
+  /**
+   * Stop the writer thread without writing the batches which are still waiting and wait for it to
+   * finish. A batch which is being written is cancelled and rolled back. After this the connection
+   * can be used by the transform thread again, for example to roll back.
+   */
+  public void abort() {
+    if (thread == null) {
+      return;
+    }
+    aborted = true;
+    pendingBatches.clear();
+    pendingBatches.offer(END_OF_BATCHES);
+    PreparedStatement executing = statement;
+    if (executing != null) {
+      try {
+        executing.cancel();
+      } catch (SQLException e) {
+        // The batch is rolled back once it returns
+      }
+    }
+    try {
+      thread.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    thread = null;
+    batchesInFlight = 0;
+  }
+
+  @Override
+  public void run() {
+    try {
+      while (true) {
+        Batch batch = pendingBatches.take();
+        if (batch == END_OF_BATCHES) {
+          break;
+        }
+        if (aborted) {
+          break;
+        }
+        if (failed) {
+          batch.exception =
+              new HopException("The rows weren't written because of a previous error");
+        } else {
+          write(batch);
+        }
+        writtenBatches.add(batch);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      closeStatement();
+    }
+  }
+
+  /**
+   * Insert the rows of a batch and commit. This is done on the writer thread.
+   *
+   * @param batch the batch to write
+   */
+  void write(Batch batch) {
+    try {
+      if (statement == null) {
+        statement = db.prepareSql(sql);
+      }
+      for (int i = 0; i < batch.rows.size(); i++) {
+        try {
+          db.setValues(insertRowMeta, batch.insertRows.get(i), statement);
+          db.insertRow(statement, true, false);
+          batch.batchedRows.add(batch.rows.get(i));
+        } catch (HopDatabaseException e) {
+          if (!errorHandling && !ignoreErrors) {
+            throw e;
+          }
+          batch.failedRows.add(batch.rows.get(i));
+          batch.failedRowExceptions.add(e);
+        }
+      }
+      try {
+        statement.executeBatch();
+        if (aborted) {
+          throw new HopException("The rows weren't committed because the transform was stopped");
+        }
+        db.commit();
+        statement.clearBatch();
+      } catch (SQLException ex) {
+        throw Database.createHopDatabaseBatchException("Error updating batch", ex);
+      }
+    } catch (HopDatabaseBatchException be) {
+      batch.batchException = be;
+      try {
+        db.clearBatch(statement);
+        if (errorHandling) {
+          db.commit(true);
+        } else {
+          failed = true;
+          db.rollback();
+        }
+      } catch (HopDatabaseException e) {
+        failed = true;
+        batch.exception = e;
+      }
+    } catch (Exception e) {
+      failed = true;
+      batch.exception = e;
+      try {
+        db.rollback();
+      } catch (HopDatabaseException re) {
+        // The original error is reported
+      }
+    }
+  }
+
+  private void closeStatement() {
+    if (statement != null) {
+      try {
+        db.closePreparedStatement(statement);
+      } catch (HopDatabaseException e) {
+        // Ignore, the connection is closed next
+      }
+      statement = null;
+    }
+  }
+}
@@ -19,6 +19,7 @@ package org.apache.hop.pipeline.transforms.tableoutput;
 
 import org.apache.hop.core.database.Database;
 import org.apache.hop.core.database.DatabaseMeta;
+import org.apache.hop.core.database.IBulkLoader;
 import org.apache.hop.core.database.IDatabase;
 import org.apache.hop.core.exception.HopException;
 import org.apache.hop.core.row.IRowMeta;
@@ -34,7 +35,9 @@ import java.sql.Connection;
 import java.util.Map;
 
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.doNothing;
@@ -111,6 +114,48 @@ public class TableOutputTest {
     tableOutputSpy.writeToTable(mock(IRowMeta.class), new Object[] {});
   }
 
+  @Test
+  public void testWriteToTableWithBulkLoad() throws Exception {
+    IBulkLoader bulkLoader = mock(IBulkLoader.class);
+    doReturn(bulkLoader).when(db).createBulkLoader(nullable(String.class), anyString(), any());
+    doReturn(2L).when(bulkLoader).finish();
+    tableOutputData.bulkLoad = true;
+    tableOutputData.commitSize = 2;
+    tableOutputData.insertRowMeta = mock(IRowMeta.class);
+
+    Object[] row1 = new Object[] {1L};
+    Object[] row2 = new Object[] {2L};
+    Object[] row3 = new Object[] {3L};
+    assertSame(row1, tableOutputSpy.writeToTable(mock(IRowMeta.class), row1));
+    assertSame(row2, tableOutputSpy.writeToTable(mock(IRowMeta.class), row2));
+    tableOutputSpy.writeToTable(mock(IRowMeta.class), row3);
+
+    // A bulk load per commit
+    verify(db, times(2)).createBulkLoader(nullable(String.class), anyString(), any());
+    verify(bulkLoader).addRow(row1);
+    verify(bulkLoader).addRow(row3);
+    verify(bulkLoader, times(1)).finish();
+    verify(db, times(1)).commit();
+    verify(db, never()).prepareSql(anyString(), anyBoolean());
+  }
+
+  @Test
+  public void testWriteToTableWithUnsupportedBulkLoadColumns() throws Exception {
+    doReturn(null).when(db).createBulkLoader(nullable(String.class), anyString(), any());
+    tableOutputData.bulkLoad = true;
+    tableOutputData.commitSize = 2;
+    tableOutputData.insertRowMeta = mock(IRowMeta.class);
+    doNothing().when(tableOutputSpy).logBasic(anyString());
+
+    tableOutputSpy.writeToTable(mock(IRowMeta.class), new Object[] {});
+    tableOutputSpy.writeToTable(mock(IRowMeta.class), new Object[] {});
+
+    // The rows are inserted instead
+    verify(db, times(1)).createBulkLoader(nullable(String.class), anyString(), any());
+    assertFalse(tableOutputData.bulkLoad);
+    verify(db, times(2)).prepareSql(nullable(String.class), anyBoolean());
+  }
+
   @Test
   public void testTruncateTableOff() throws Exception {
     tableOutputSpy.truncateTable();
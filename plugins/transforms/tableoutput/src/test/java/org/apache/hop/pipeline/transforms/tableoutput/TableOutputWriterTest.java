@@ -0,0 +1,207 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.tableoutput;
+
+import org.apache.hop.core.database.Database;
+import org.apache.hop.core.exception.HopDatabaseException;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.BatchUpdateException;
+import java.sql.PreparedStatement;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class TableOutputWriterTest {
+
+  private Database db;
+  private PreparedStatement statement;
+  private IRowMeta rowMeta;
+
+  @Before
+  public void setUp() throws Exception {
+    db = mock(Database.class);
+    statement = mock(PreparedStatement.class);
+    doReturn(statement).when(db).prepareSql(anyString());
+    rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaInteger("id"));
+  }
+
+  @Test
+  public void testBatchesAreWrittenInOrder() throws Exception {
+    TableOutputWriter writer = new TableOutputWriter(db, "INSERT", rowMeta, false, false);
+    writer.start("test writer", false);
+
+    TableOutputWriter.Batch first = newBatch(0, 3);
+    TableOutputWriter.Batch second = newBatch(3, 2);
+    writer.submit(first);
+    writer.submit(second);
+    assertEquals(2, writer.getBatchesInFlight());
+
+    assertSame(first, writer.nextWrittenBatch(true));
+    assertSame(second, writer.nextWrittenBatch(true));
+    assertNull(writer.nextWrittenBatch(true));
+    writer.close();
+
+    assertEquals(3, first.getBatchedRows().size());
+    assertEquals(2, second.getBatchedRows().size());
+    assertNull(first.getBatchException());
+    assertNull(second.getException());
+    verify(db, times(1)).prepareSql("INSERT");
+    verify(db, times(5)).insertRow(statement, true, false);
+    verify(statement, times(2)).executeBatch();
+    verify(db, times(2)).commit();
+    verify(db).closePreparedStatement(statement);
+  }
+
+  @Test
+  public void testFailingBatchWithErrorHandling() throws Exception {
+    doThrow(new BatchUpdateException(new int[] {1, -3}))
+        .doReturn(new int[] {1})
+        .when(statement)
+        .executeBatch();
+
+    TableOutputWriter writer = new TableOutputWriter(db, "INSERT", rowMeta, true, false);
+    TableOutputWriter.Batch failing = newBatch(0, 2);
+    TableOutputWriter.Batch next = newBatch(2, 1);
+    writer.write(failing);
+    writer.write(next);
+
+    assertNotNull(failing.getBatchException());
+    assertNull(failing.getException());
+    assertEquals(2, failing.getBatchException().getUpdateCounts().length);
+    assertEquals(2, failing.getBatchedRows().size());
+    verify(db).commit(true);
+    verify(db, never()).rollback();
+
+    // The rows of the next batch are written as usual
+    assertNull(next.getBatchException());
+    assertEquals(1, next.getBatchedRows().size());
+  }
+
+  @Test
+  public void testFailingRowWithoutErrorHandling() throws Exception {
+    doThrow(new HopDatabaseException("conversion"))
+        .when(db)
+        .setValues(any(IRowMeta.class), eq(new Object[] {1L}), any(PreparedStatement.class));
+
+    TableOutputWriter writer = new TableOutputWriter(db, "INSERT", rowMeta, false, false);
+    TableOutputWriter.Batch failing = newBatch(0, 2);
+    TableOutputWriter.Batch next = newBatch(2, 1);
+    writer.write(failing);
+    assertNotNull(failing.getException());
+    verify(db).rollback();
+
+    // Nothing is written after an error
+    writer.start("test writer", false);
+    writer.submit(next);
+    assertSame(next, writer.nextWrittenBatch(true));
+    writer.close();
+    assertNotNull(next.getException());
+
+    // Only the first row of the failing batch was added
+    verify(db, times(1)).insertRow(any(PreparedStatement.class), anyBoolean(), anyBoolean());
+  }
+
+  @Test
+  public void testFailingRowIsIgnored() throws Exception {
+    doThrow(new HopDatabaseException("conversion"))
+        .when(db)
+        .setValues(any(IRowMeta.class), eq(new Object[] {1L}), any(PreparedStatement.class));
+
+    TableOutputWriter writer = new TableOutputWriter(db, "INSERT", rowMeta, false, true);
+    TableOutputWriter.Batch batch = newBatch(0, 3);
+    writer.write(batch);
+
+    assertNull(batch.getException());
+    assertEquals(2, batch.getBatchedRows().size());
+    assertEquals(1, batch.getFailedRows().size());
+    assertEquals(1L, batch.getFailedRows().get(0)[0]);
+    assertEquals(1, batch.getFailedRowExceptions().size());
+    verify(db).commit();
+  }
+
+  @Test
+  public void testAbortDropsTheBatchesWhichAreNotCommitted() throws Exception {
+    CountDownLatch executing = new CountDownLatch(1);
+    CountDownLatch cancelled = new CountDownLatch(1);
+    doAnswer(
+            invocation -> {
+              executing.countDown();
+              cancelled.await();
+              return new int[] {1};
+            })
+        .when(statement)
+        .executeBatch();
+    doAnswer(
+            invocation -> {
+              cancelled.countDown();
+              return null;
+            })
+        .when(statement)
+        .cancel();
+
+    TableOutputWriter writer = new TableOutputWriter(db, "INSERT", rowMeta, false, false);
+    writer.start("test writer", false);
+    TableOutputWriter.Batch running = newBatch(0, 1);
+    TableOutputWriter.Batch waiting = newBatch(1, 1);
+    writer.submit(running);
+    executing.await();
+    writer.submit(waiting);
+
+    // The writer thread is done with the connection once abort returns
+    //
+    writer.abort();
+    assertEquals(0, writer.getBatchesInFlight());
+    assertNotNull(running.getException());
+    verify(db, never()).commit();
+    verify(db).rollback();
+    verify(db).closePreparedStatement(statement);
+
+    // The waiting batch is never written
+    verify(db, times(1)).insertRow(any(PreparedStatement.class), anyBoolean(), anyBoolean());
+    assertEquals(0, waiting.getBatchedRows().size());
+  }
+
+  private TableOutputWriter.Batch newBatch(long start, int size) {
+    TableOutputWriter.Batch batch = new TableOutputWriter.Batch();
+    for (long i = start; i < start + size; i++) {
+      Object[] row = new Object[] {i};
+      batch.addRow(row, row);
+    }
+    return batch;
+  }
+}